@@ -1,18 +1,32 @@
 package rocks.inspectit.ocelot.agentconfiguration;
 
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import lombok.Value;
 import org.springframework.util.DigestUtils;
 import rocks.inspectit.ocelot.mappings.model.AgentMapping;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * An {@link AgentMapping} which has its configuration loaded in-memory.
  * In addition a cryptographic hash is computed to detect changes of configurations.
+ * The configuration is encoded and compressed once when this instance is created, so that it can be sent to any number
+ * of agents without further processing.
  */
 @Value
 public class AgentConfiguration {
 
+    /**
+     * The charset used for encoding {@link #configYaml}.
+     */
+    public static final Charset ENCODING = StandardCharsets.UTF_8;
+
     /**
      * The agent mapping for which this instance represents the loaded configuration.
      */
@@ -28,9 +42,35 @@ public class AgentConfiguration {
      */
     private String hash;
 
+    /**
+     * {@link #configYaml} encoded using {@link #ENCODING}. The array must not be modified.
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private byte[] configBytes;
+
+    /**
+     * The gzip-compressed {@link #configBytes}. The array must not be modified.
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private byte[] gzipConfigBytes;
+
     public AgentConfiguration(AgentMapping mapping, String configYaml) {
         this.mapping = mapping;
         this.configYaml = configYaml;
-        hash = DigestUtils.md5DigestAsHex(configYaml.getBytes(Charset.defaultCharset()));
+        configBytes = configYaml.getBytes(ENCODING);
+        gzipConfigBytes = compress(configBytes);
+        hash = DigestUtils.md5DigestAsHex(configBytes);
+    }
+
+    private static byte[] compress(byte[] data) {
+        ByteArrayOutputStream result = new ByteArrayOutputStream(data.length / 4 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(result)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return result.toByteArray();
     }
 }
@@ -0,0 +1,13 @@
+package rocks.inspectit.ocelot.agentconfiguration;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Event fired when the {@link AgentConfigurationManager} has replaced the configurations served to the agents.
+ */
+public class AgentConfigurationChangedEvent extends ApplicationEvent {
+
+    public AgentConfigurationChangedEvent(Object source) {
+        super(source);
+    }
+}
@@ -0,0 +1,119 @@
+package rocks.inspectit.ocelot.agentconfiguration;
+
+import rocks.inspectit.ocelot.mappings.model.AgentMapping;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the configuration for a given set of agent attributes based on an ordered list of configurations.
+ * <p>
+ * Most mappings contain at least one attribute with a literal value (e.g. "service: my-service"), which only matches agents
+ * having exactly this value. For each mapping the first such attribute is used as index key, so that only the mappings indexed
+ * under the actual attribute values of an agent and the mappings without literal attributes have to be checked.
+ * <p>
+ * Instances are immutable and therefore thread safe.
+ */
+class AgentConfigurationIndex {
+
+    /**
+     * Characters which have a special meaning in regular expressions.
+     */
+    private static final Pattern REGEX_META_CHARACTERS = Pattern.compile("[\\\\.\\[\\]{}()*+?^$|]");
+
+    private static final int[] NO_CANDIDATES = new int[0];
+
+    /**
+     * The configurations ordered by their priority.
+     */
+    private final List<AgentConfiguration> configurations;
+
+    /**
+     * Maps attribute keys to the literal values used by the mappings to the indices of the mappings, in ascending order.
+     */
+    private final Map<String, Map<String, int[]>> literalIndex = new HashMap<>();
+
+    /**
+     * The indices of the configurations whose mapping has no literal attribute, in ascending order.
+     */
+    private final int[] unindexed;
+
+    /**
+     * @param configurations the configurations, the order of the list is used as priority
+     */
+    AgentConfigurationIndex(List<AgentConfiguration> configurations) {
+        this.configurations = new ArrayList<>(configurations);
+        List<Integer> unindexedList = new ArrayList<>();
+        for (int i = 0; i < configurations.size(); i++) {
+            Map.Entry<String, String> literal = findLiteralAttribute(configurations.get(i).getMapping());
+            if (literal == null) {
+                unindexedList.add(i);
+            } else {
+                Map<String, int[]> valueIndex = literalIndex.computeIfAbsent(literal.getKey(), key -> new HashMap<>());
+                int[] indices = valueIndex.getOrDefault(literal.getValue(), NO_CANDIDATES);
+                indices = Arrays.copyOf(indices, indices.length + 1);
+                indices[indices.length - 1] = i;
+                valueIndex.put(literal.getValue(), indices);
+            }
+        }
+        unindexed = unindexedList.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Finds the configuration with the highest priority whose mapping matches the given attributes.
+     *
+     * @param agentAttributes the attributes of the agent
+     * @return the matching configuration or null if no mapping matches
+     */
+    AgentConfiguration find(Map<String, String> agentAttributes) {
+        int[] candidates = unindexed;
+        for (Map.Entry<String, Map<String, int[]>> keyIndex : literalIndex.entrySet()) {
+            String value = agentAttributes.getOrDefault(keyIndex.getKey(), "");
+            int[] indices = keyIndex.getValue().get(value);
+            if (indices != null) {
+                candidates = merge(candidates, indices);
+            }
+        }
+        for (int index : candidates) {
+            AgentConfiguration configuration = configurations.get(index);
+            if (configuration.getMapping().matchesAttributes(agentAttributes)) {
+                return configuration;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Merges two sorted arrays of distinct values into a sorted array.
+     */
+    private int[] merge(int[] first, int[] second) {
+        int[] result = new int[first.length + second.length];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < first.length || j < second.length) {
+            if (j >= second.length || (i < first.length && first[i] < second[j])) {
+                result[k++] = first[i++];
+            } else {
+                result[k++] = second[j++];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the first attribute of the given mapping whose value contains no regular expression characters, null if there is none
+     */
+    private Map.Entry<String, String> findLiteralAttribute(AgentMapping mapping) {
+        for (Map.Entry<String, String> attribute : mapping.getAttributes().entrySet()) {
+            if (!REGEX_META_CHARACTERS.matcher(attribute.getValue()).find()) {
+                return attribute;
+            }
+        }
+        return null;
+    }
+}
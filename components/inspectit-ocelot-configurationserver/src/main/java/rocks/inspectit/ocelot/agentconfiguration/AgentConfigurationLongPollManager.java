@@ -0,0 +1,101 @@
+package rocks.inspectit.ocelot.agentconfiguration;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import rocks.inspectit.ocelot.config.model.InspectitServerSettings;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Keeps track of the agents waiting for a change of their configuration (long-polling).
+ * Whenever the {@link AgentConfigurationManager} replaces the configurations, all waiting agents are checked and the ones
+ * whose configuration has changed are notified.
+ */
+@Component
+public class AgentConfigurationLongPollManager {
+
+    @Autowired
+    @VisibleForTesting
+    InspectitServerSettings config;
+
+    @Autowired
+    private AgentConfigurationManager configManager;
+
+    /**
+     * The currently waiting polls.
+     */
+    private final Set<PendingPoll> pendingPolls = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Waits until the configuration of the agent with the given attributes has a hash different from the given one.
+     * The callback is invoked at most once, either on the calling thread if the configuration has already changed or on the
+     * thread reloading the configurations.
+     *
+     * @param attributes  the attributes of the agent
+     * @param currentHash the hash of the configuration the agent currently has
+     * @param callback    invoked with the new configuration, which is null if no mapping matches the agent anymore
+     * @return a runnable to stop waiting, or null if the maximum number of waiting agents ({@link InspectitServerSettings#getMaxAgents()}) is reached
+     */
+    public Runnable awaitChange(Map<String, String> attributes, String currentHash, Consumer<AgentConfiguration> callback) {
+        if (pendingPolls.size() >= config.getMaxAgents()) {
+            return null;
+        }
+        PendingPoll poll = new PendingPoll(attributes, currentHash, callback);
+        pendingPolls.add(poll);
+        // the configuration might have changed before the poll was registered
+        poll.checkForChange();
+        return poll::cancel;
+    }
+
+    /**
+     * @return the number of agents currently waiting for a change
+     */
+    public int getPendingPollsCount() {
+        return pendingPolls.size();
+    }
+
+    @EventListener(AgentConfigurationChangedEvent.class)
+    @VisibleForTesting
+    void notifyPendingPolls() {
+        pendingPolls.forEach(PendingPoll::checkForChange);
+    }
+
+    private class PendingPoll {
+
+        private final Map<String, String> attributes;
+
+        private final String hash;
+
+        private final Consumer<AgentConfiguration> callback;
+
+        private final AtomicBoolean done = new AtomicBoolean(false);
+
+        private PendingPoll(Map<String, String> attributes, String hash, Consumer<AgentConfiguration> callback) {
+            this.attributes = attributes;
+            this.hash = hash;
+            this.callback = callback;
+        }
+
+        private void checkForChange() {
+            AgentConfiguration configuration = configManager.getConfiguration(attributes);
+            String newHash = configuration == null ? null : configuration.getHash();
+            if (!Objects.equals(hash, newHash) && done.compareAndSet(false, true)) {
+                pendingPolls.remove(this);
+                callback.accept(configuration);
+            }
+        }
+
+        private void cancel() {
+            if (done.compareAndSet(false, true)) {
+                pendingPolls.remove(this);
+            }
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import rocks.inspectit.ocelot.config.model.InspectitServerSettings;
@@ -47,12 +48,20 @@ public class AgentConfigurationManager {
     @Autowired
     private FileManager fileManager;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Cache mapping attribute-maps to configurations.
      * This is a loading cache which has all mappings with their configurations in-memory.
      * If the mappings or any configuration file change, this cache is replaced with a new one.
      */
-    private LoadingCache<Map<String, String>, AgentConfiguration> attributesToConfigurationCache;
+    private volatile LoadingCache<Map<String, String>, AgentConfiguration> attributesToConfigurationCache;
+
+    /**
+     * Cache for the parsed configuration files and merged configurations, shared by all reload tasks.
+     */
+    private final ConfigurationFileCache fileCache = new ConfigurationFileCache();
 
     /**
      * Active task used for reloading the configuration asynchronously.
@@ -71,7 +80,7 @@ public class AgentConfigurationManager {
         if (reloadTask != null) {
             reloadTask.cancel();
         }
-        reloadTask = new AgentConfigurationReloadTask(mappingManager.getAgentMappings(), fileManager, this::replaceConfigurations);
+        reloadTask = new AgentConfigurationReloadTask(mappingManager.getAgentMappings(), fileManager, fileCache, executorService, config.getThreadPoolSize(), this::replaceConfigurations);
         executorService.submit(reloadTask);
     }
 
@@ -89,22 +98,31 @@ public class AgentConfigurationManager {
     /**
      * Replaces {@link #attributesToConfigurationCache} with a new cache which is backed by the given list of configurations.
      * The order of the list is used as priority, e.g. configurations coming first have a higher priority.
+     * The new cache is populated with the attribute-maps of the previous cache before it is used, so that agents do not
+     * experience cache misses after a reload.
+     * Afterwards an {@link AgentConfigurationChangedEvent} is fired.
      *
      * @param newConfigurations the new ordered list of configurations
      */
     private synchronized void replaceConfigurations(List<AgentConfiguration> newConfigurations) {
-        attributesToConfigurationCache = CacheBuilder.newBuilder()
+        AgentConfigurationIndex index = new AgentConfigurationIndex(newConfigurations);
+        LoadingCache<Map<String, String>, AgentConfiguration> newCache = CacheBuilder.newBuilder()
                 .maximumSize(config.getMaxAgents())
                 .expireAfterAccess(config.getAgentEvictionDelay().toMillis(), TimeUnit.MILLISECONDS)
                 .build(new CacheLoader<Map<String, String>, AgentConfiguration>() {
                     @Override
                     public AgentConfiguration load(Map<String, String> agentAttributes) {
-                        return newConfigurations.stream()
-                                .filter(config -> config.getMapping().matchesAttributes(agentAttributes))
-                                .findFirst()
-                                .orElse(NO_MATCHING_MAPPING);
+                        AgentConfiguration configuration = index.find(agentAttributes);
+                        return configuration == null ? NO_MATCHING_MAPPING : configuration;
                     }
                 });
+        if (attributesToConfigurationCache != null) {
+            for (Map<String, String> agentAttributes : attributesToConfigurationCache.asMap().keySet()) {
+                newCache.getUnchecked(agentAttributes);
+            }
+        }
+        attributesToConfigurationCache = newCache;
+        eventPublisher.publishEvent(new AgentConfigurationChangedEvent(this));
     }
 
 }
@@ -1,23 +1,40 @@
 package rocks.inspectit.ocelot.agentconfiguration;
 
 import com.google.common.annotations.VisibleForTesting;
+import io.micrometer.core.instrument.Metrics;
 import lombok.extern.slf4j.Slf4j;
 import org.yaml.snakeyaml.Yaml;
+import rocks.inspectit.ocelot.agentconfiguration.ConfigurationFileCache.FileVersion;
 import rocks.inspectit.ocelot.file.FileManager;
 import rocks.inspectit.ocelot.mappings.model.AgentMapping;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
  * A task for asynchronously loading the configurations based on a given list of mappings.
+ * Parsed files and merged configurations are taken from the given {@link ConfigurationFileCache} if the corresponding
+ * files have not changed, so that only the configurations affected by a change are merged again.
+ * <p>
+ * The mappings are independent of each other and are therefore loaded in parallel: the thread executing the task
+ * is supported by helpers submitted to the given executor, all of them taking the next unprocessed mapping until none is left.
+ * Because the executing thread participates, the task completes even if no helper is started, e.g. because all
+ * threads of the executor are busy.
  */
 @Slf4j
 class AgentConfigurationReloadTask implements Runnable {
@@ -27,6 +44,17 @@ class AgentConfigurationReloadTask implements Runnable {
      */
     private static final Predicate<String> HAS_YAML_ENDING = filePath -> filePath.toLowerCase().endsWith(".yml") || filePath.toLowerCase().endsWith(".yaml");
 
+    /**
+     * The name of the timer recording the duration of the reloads.
+     */
+    @VisibleForTesting
+    static final String RELOAD_DURATION_METRIC = "inspectit.configuration.reload.duration";
+
+    /**
+     * The tag of {@link #RELOAD_DURATION_METRIC} describing the outcome of the reload.
+     */
+    private static final String OUTCOME_TAG = "outcome";
+
     /**
      * Internal flag to check if cancel has been called.
      */
@@ -41,17 +69,50 @@ class AgentConfigurationReloadTask implements Runnable {
 
     private List<AgentMapping> mappingsToLoad;
 
+    private ConfigurationFileCache fileCache;
+
+    /**
+     * The executor used for running the helpers which load mappings in parallel.
+     */
+    private Executor executor;
+
+    /**
+     * The maximum number of threads loading mappings concurrently, including the thread executing this task.
+     */
+    private int parallelism;
+
+    /**
+     * The YAML files contained in a source path, memorized for the duration of this task.
+     */
+    private Map<String, List<String>> yamlFilesPerSource = new ConcurrentHashMap<>();
+
+    /**
+     * The modification stamps of the YAML files, memorized for the duration of this task.
+     */
+    private Map<String, FileVersion> fileVersions = new ConcurrentHashMap<>();
+
+    /**
+     * The source files of all configurations loaded by this task.
+     */
+    private Set<List<FileVersion>> usedSourceFiles = ConcurrentHashMap.newKeySet();
+
     /**
      * Creates a new reload task, but does NOT start it.
      * The loading process is done in {@link #run()}.
      *
      * @param mappingsToLoad the mappings to load the configurations for
      * @param fileManager    the FileManager used to read the configuration files
+     * @param fileCache      the cache for parsed files and merged configurations, shared across reloads
+     * @param executor       the executor used for loading the mappings in parallel
+     * @param parallelism    the maximum number of threads loading mappings concurrently
      * @param onLoadCallback invoked when the loading has finished successfully. Will not be invoked if the loading failed or was canceled.
      */
-    public AgentConfigurationReloadTask(List<AgentMapping> mappingsToLoad, FileManager fileManager, Consumer<List<AgentConfiguration>> onLoadCallback) {
+    public AgentConfigurationReloadTask(List<AgentMapping> mappingsToLoad, FileManager fileManager, ConfigurationFileCache fileCache, Executor executor, int parallelism, Consumer<List<AgentConfiguration>> onLoadCallback) {
         this.mappingsToLoad = mappingsToLoad;
         this.fileManager = fileManager;
+        this.fileCache = fileCache;
+        this.executor = executor;
+        this.parallelism = Math.max(1, parallelism);
         this.onLoadCallback = onLoadCallback;
     }
 
@@ -69,32 +130,97 @@ class AgentConfigurationReloadTask implements Runnable {
     @Override
     public void run() {
         log.info("Starting configuration reloading...");
-        List<AgentConfiguration> newConfigurations = new ArrayList<>();
+        long startTime = System.nanoTime();
+        int mappingCount = mappingsToLoad.size();
+        AgentConfiguration[] loadedConfigurations = new AgentConfiguration[mappingCount];
+        Exception[] failures = new Exception[mappingCount];
+        AtomicInteger nextMapping = new AtomicInteger(0);
+        CountDownLatch remainingMappings = new CountDownLatch(mappingCount);
+
+        Runnable loader = () -> loadMappings(nextMapping, remainingMappings, loadedConfigurations, failures);
+        int helperCount = Math.min(parallelism, mappingCount) - 1;
+        for (int i = 0; i < helperCount; i++) {
+            executor.execute(loader);
+        }
+        loader.run();
         try {
-            for (AgentMapping mapping : mappingsToLoad) {
-                String configYaml = loadConfigForMapping(mapping);
-                if (cancelFlag.get()) {
-                    log.debug("Configuration reloading canceled");
-                    return;
-                }
-                newConfigurations.add(new AgentConfiguration(mapping, configYaml));
+            remainingMappings.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.debug("Configuration reloading interrupted");
+            return;
+        }
+
+        List<AgentConfiguration> newConfigurations = new ArrayList<>();
+        // the mappings following a failed one are skipped, as they would otherwise take over its agents
+        List<String> failedMappings = new ArrayList<>();
+        List<String> skippedMappings = new ArrayList<>();
+        for (int i = 0; i < mappingCount; i++) {
+            String mappingName = mappingsToLoad.get(i).getName();
+            if (failures[i] != null) {
+                log.error("Could not load configurations of mapping '{}'", mappingName, failures[i]);
+                failedMappings.add(mappingName);
+            } else if (!failedMappings.isEmpty()) {
+                skippedMappings.add(mappingName);
+            } else {
+                newConfigurations.add(loadedConfigurations[i]);
             }
-        } catch (Exception e) {
-            log.error("Could not load configurations", e);
         }
         synchronized (this) {
             if (cancelFlag.get()) {
                 log.debug("Configuration reloading canceled");
+                recordDuration(startTime, "canceled");
                 return;
             }
+            fileCache.retainAll(usedSourceFiles);
             onLoadCallback.accept(newConfigurations);
-            log.info("Configurations successfully reloaded");
+            long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+            if (!failedMappings.isEmpty()) {
+                recordDuration(startTime, "failure");
+                log.warn("Configurations partially reloaded in {}ms, the mappings {} could not be loaded and the mappings {} were skipped", durationMillis, failedMappings, skippedMappings);
+            } else {
+                recordDuration(startTime, "success");
+                log.info("Configurations successfully reloaded in {}ms", durationMillis);
+            }
+        }
+    }
+
+    /**
+     * Loads the next unprocessed mappings until none is left. Executed concurrently by multiple threads.
+     * If this task has been canceled, the remaining mappings are skipped.
+     *
+     * @param nextMapping          the index of the next unprocessed mapping
+     * @param remainingMappings    counted down for each processed mapping
+     * @param loadedConfigurations the array in which the loaded configurations are stored at the index of their mapping
+     * @param failures             the array in which the exceptions are stored at the index of the mapping which could not be loaded
+     */
+    private void loadMappings(AtomicInteger nextMapping, CountDownLatch remainingMappings, AgentConfiguration[] loadedConfigurations, Exception[] failures) {
+        int index;
+        while ((index = nextMapping.getAndIncrement()) < loadedConfigurations.length) {
+            try {
+                if (!cancelFlag.get()) {
+                    AgentMapping mapping = mappingsToLoad.get(index);
+                    String configYaml = loadConfigForMapping(mapping);
+                    if (configYaml != null) {
+                        loadedConfigurations[index] = new AgentConfiguration(mapping, configYaml);
+                    }
+                }
+            } catch (Exception e) {
+                failures[index] = e;
+            } finally {
+                remainingMappings.countDown();
+            }
         }
     }
 
+    private void recordDuration(long startTime, String outcome) {
+        Metrics.timer(RELOAD_DURATION_METRIC, OUTCOME_TAG, outcome).record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+    }
+
 
     /**
      * Loads the given mapping as yaml string.
+     * The merged configuration is only computed if it is not cached for the current versions of the source files.
      *
      * @param mapping the mapping to load
      * @return the merged yaml for the given mapping or an empty string if the mapping does not contain any existing files
@@ -108,17 +234,30 @@ class AgentConfigurationReloadTask implements Runnable {
             if (cancelFlag.get()) {
                 return null;
             }
-            allYamlFiles.addAll(getAllYamlFiles(path));
+            allYamlFiles.addAll(yamlFilesPerSource.computeIfAbsent(path, this::getAllYamlFiles));
         }
 
-        Object result = null;
+        List<FileVersion> sourceFiles = new ArrayList<>();
         for (String path : allYamlFiles) {
+            sourceFiles.add(fileVersions.computeIfAbsent(path, this::getFileVersion));
+        }
+        usedSourceFiles.add(sourceFiles);
+
+        String cachedYaml = fileCache.getMergedConfiguration(sourceFiles);
+        if (cachedYaml != null) {
+            return cachedYaml;
+        }
+
+        Object result = null;
+        for (FileVersion file : sourceFiles) {
             if (cancelFlag.get()) {
                 return null;
             }
-            result = loadAndMergeYaml(result, path);
+            result = loadAndMergeYaml(result, file);
         }
-        return result == null ? "" : new Yaml().dump(result);
+        String configYaml = result == null ? "" : new Yaml().dump(result);
+        fileCache.putMergedConfiguration(sourceFiles, configYaml);
+        return configYaml;
     }
 
     /**
@@ -128,40 +267,56 @@ class AgentConfigurationReloadTask implements Runnable {
      *
      * @param path the path to check for yaml files, can start with a slash which will be ignored
      * @return a list of absolute paths of contained YAML files
+     * @throws UncheckedIOException in case the directory could not be listed
      */
-    private List<String> getAllYamlFiles(String path) throws IOException {
+    private List<String> getAllYamlFiles(String path) {
         String cleanedPath;
         if (path.startsWith("/")) {
             cleanedPath = path.substring(1);
         } else {
             cleanedPath = path;
         }
-        if (fileManager.exists(cleanedPath)) {
-            if (fileManager.isDirectory(cleanedPath)) {
-                return fileManager.getFilesInDirectory(cleanedPath, true).stream()
-                        .flatMap(f -> f.getAbsoluteFilePaths(cleanedPath))
-                        .filter(HAS_YAML_ENDING)
-                        .sorted()
-                        .collect(Collectors.toList());
-            } else if (HAS_YAML_ENDING.test(cleanedPath)) {
-                return Collections.singletonList(cleanedPath);
+        try {
+            if (fileManager.exists(cleanedPath)) {
+                if (fileManager.isDirectory(cleanedPath)) {
+                    return fileManager.getFilesInDirectory(cleanedPath, true).stream()
+                            .flatMap(f -> f.getAbsoluteFilePaths(cleanedPath))
+                            .filter(HAS_YAML_ENDING)
+                            .sorted()
+                            .collect(Collectors.toList());
+                } else if (HAS_YAML_ENDING.test(cleanedPath)) {
+                    return Collections.singletonList(cleanedPath);
+                }
             }
+            return Collections.emptyList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param path the path of the file
+     * @return the given file including its current modification stamp
+     * @throws UncheckedIOException in case the modification stamp could not be read
+     */
+    private FileVersion getFileVersion(String path) {
+        try {
+            return new FileVersion(path, fileManager.getModificationStamp(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        return Collections.emptyList();
     }
 
     /**
      * Loads a yaml file as a Map/List strucutre and merges it with an existing map/list structure
      *
      * @param toMerge the existing structure of nested maps / lists with which the loaded yaml will be merged.
-     * @param path    the path of the yaml file to load
+     * @param file    the yaml file to load
      * @return the merged structure
      * @throws IOException in case an error occurs while loading the file
      */
-    private Object loadAndMergeYaml(Object toMerge, String path) throws IOException {
-        Yaml yaml = new Yaml();
-        String src = fileManager.readFile(path);
-        Object loadedYaml = yaml.load(src);
+    private Object loadAndMergeYaml(Object toMerge, FileVersion file) throws IOException {
+        Object loadedYaml = fileCache.getParsedFile(file, fileManager);
         if (toMerge == null) {
             return loadedYaml;
         } else {
@@ -0,0 +1,114 @@
+package rocks.inspectit.ocelot.agentconfiguration;
+
+import lombok.Value;
+import org.yaml.snakeyaml.Yaml;
+import rocks.inspectit.ocelot.file.FileManager;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Cache used by the {@link AgentConfigurationReloadTask} to avoid parsing and merging unchanged configuration files
+ * on every reload.
+ * Parsed files are cached by their path and modification stamp, so that a file is only parsed again after it has been
+ * changed, independent of how many mappings include it.
+ * Merged configurations are cached by the ordered list of their source files including their modification stamps,
+ * so that the configuration of a mapping is only merged again if any of its source files has changed.
+ * <p>
+ * The cached structures of nested maps and lists are shared and therefore must not be modified.
+ * This class is thread safe.
+ */
+class ConfigurationFileCache {
+
+    /**
+     * Maps file paths to their parsed content.
+     */
+    private final ConcurrentHashMap<String, ParsedFile> parsedFiles = new ConcurrentHashMap<>();
+
+    /**
+     * Maps ordered lists of source files to the resulting merged YAML.
+     */
+    private final ConcurrentHashMap<List<FileVersion>, String> mergedConfigurations = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the parsed content of the given file.
+     * The file is only read and parsed if it is not cached with the same modification stamp.
+     *
+     * @param file        the file to load
+     * @param fileManager the file manager used for reading the file
+     * @return the structure of nested maps and lists represented by the file, null if the file is empty
+     * @throws IOException in case the file could not be read
+     */
+    Object getParsedFile(FileVersion file, FileManager fileManager) throws IOException {
+        ParsedFile cached = parsedFiles.get(file.getPath());
+        if (cached != null && Objects.equals(cached.getStamp(), file.getStamp())) {
+            return cached.getContent();
+        }
+        Object content = new Yaml().load(fileManager.readFile(file.getPath()));
+        parsedFiles.put(file.getPath(), new ParsedFile(file.getStamp(), content));
+        return content;
+    }
+
+    /**
+     * @param sourceFiles the ordered source files of a configuration
+     * @return the cached merged YAML of the given files or null if it is not cached
+     */
+    String getMergedConfiguration(List<FileVersion> sourceFiles) {
+        return mergedConfigurations.get(sourceFiles);
+    }
+
+    /**
+     * Stores the merged YAML for the given source files.
+     *
+     * @param sourceFiles the ordered source files of the configuration
+     * @param configYaml  the merged YAML
+     */
+    void putMergedConfiguration(List<FileVersion> sourceFiles, String configYaml) {
+        mergedConfigurations.put(sourceFiles, configYaml);
+    }
+
+    /**
+     * Removes all entries which are not required for the given source file lists, e.g. the configurations of
+     * mappings which do not exist anymore and files which have been deleted.
+     *
+     * @param usedSourceFiles the source file lists of all current configurations
+     */
+    void retainAll(Collection<List<FileVersion>> usedSourceFiles) {
+        mergedConfigurations.keySet().retainAll(usedSourceFiles);
+        Set<String> usedPaths = usedSourceFiles.stream()
+                .flatMap(List::stream)
+                .map(FileVersion::getPath)
+                .collect(Collectors.toSet());
+        parsedFiles.keySet().retainAll(usedPaths);
+    }
+
+    /**
+     * A configuration file in a specific version.
+     */
+    @Value
+    static class FileVersion {
+
+        /**
+         * The path of the file, relative to the root of the {@link FileManager}.
+         */
+        private String path;
+
+        /**
+         * The modification stamp of the file, see {@link FileManager#getModificationStamp(String)}.
+         */
+        private String stamp;
+    }
+
+    @Value
+    private static class ParsedFile {
+
+        private String stamp;
+
+        private Object content;
+    }
+}
@@ -0,0 +1,87 @@
+package rocks.inspectit.ocelot.agentstatus;
+
+import com.google.common.collect.Interner;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compact, immutable representation of the attributes of an agent.
+ * The keys and values are stored in a single array sorted by key, so that two instances are equal if and only if the
+ * represented maps are equal.
+ */
+final class AgentAttributes {
+
+    /**
+     * The attribute keys at even and the corresponding values at odd indices, sorted by key.
+     */
+    private final String[] keysAndValues;
+
+    private final int hashCode;
+
+    private AgentAttributes(String[] keysAndValues) {
+        this.keysAndValues = keysAndValues;
+        hashCode = Arrays.hashCode(keysAndValues);
+    }
+
+    /**
+     * Creates the representation of the given attributes.
+     *
+     * @param attributes the attributes of an agent
+     * @return the compact attributes
+     */
+    static AgentAttributes of(Map<String, String> attributes) {
+        String[] keys = attributes.keySet().toArray(new String[0]);
+        Arrays.sort(keys);
+        String[] keysAndValues = new String[keys.length * 2];
+        for (int i = 0; i < keys.length; i++) {
+            keysAndValues[2 * i] = keys[i];
+            keysAndValues[2 * i + 1] = attributes.get(keys[i]);
+        }
+        return new AgentAttributes(keysAndValues);
+    }
+
+    /**
+     * Returns an equal instance whose keys and values have been replaced by their canonical instances, so that they are
+     * shared with all other agents having the same keys or values.
+     *
+     * @param interner the interner providing the canonical instances
+     * @return the interned attributes
+     */
+    AgentAttributes intern(Interner<String> interner) {
+        String[] interned = new String[keysAndValues.length];
+        for (int i = 0; i < keysAndValues.length; i++) {
+            interned[i] = keysAndValues[i] == null ? null : interner.intern(keysAndValues[i]);
+        }
+        return new AgentAttributes(interned);
+    }
+
+    /**
+     * @return a new map containing the attributes
+     */
+    Map<String, String> toMap() {
+        Map<String, String> map = new LinkedHashMap<>(keysAndValues.length);
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            map.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return map;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof AgentAttributes)) {
+            return false;
+        }
+        AgentAttributes that = (AgentAttributes) other;
+        return hashCode == that.hashCode && Arrays.equals(keysAndValues, that.keysAndValues);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+}
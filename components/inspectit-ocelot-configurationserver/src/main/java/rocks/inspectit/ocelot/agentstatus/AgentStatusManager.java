@@ -3,44 +3,113 @@ package rocks.inspectit.ocelot.agentstatus;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import rocks.inspectit.ocelot.agentconfiguration.AgentConfiguration;
 import rocks.inspectit.ocelot.config.model.InspectitServerSettings;
 
 import javax.annotation.PostConstruct;
-import java.util.Collection;
-import java.util.Date;
-import java.util.Map;
-import java.util.concurrent.TimeUnit;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Holds a history when agents last fetched their configuration.
  * This is useful for detecting which agents are active.
+ * <p>
+ * In order to support a large number of agents, the statuses are stored in a compact form: the attribute keys, attribute
+ * values and mapping names are interned, so that they are shared by all agents, and the time of the last fetch is kept
+ * as a primitive timestamp. Subscribers are informed about changes of the statuses in batches using {@link AgentStatusUpdate}s.
+ * The updates are delivered by a dedicated executor, so that slow subscribers do not block the shared executor service.
  */
+@Slf4j
 @Component
 public class AgentStatusManager {
 
+    /**
+     * The interval in which the changes of the statuses are published to the subscribers.
+     */
+    private static final long UPDATE_INTERVAL_MILLIS = 1000;
+
     @Autowired
     @VisibleForTesting
     InspectitServerSettings config;
 
+    @Autowired
+    private ScheduledExecutorService executorService;
+
+    /**
+     * The executor delivering the updates to the subscribers. Each subscriber is served by at most one task at a time.
+     */
+    @VisibleForTesting
+    Executor updateExecutor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+            .setNameFormat("agent-status-updates-%d")
+            .setDaemon(true)
+            .build());
+
+    /**
+     * Provides the canonical instances of the attribute keys and values and of the mapping names.
+     * The instances are weakly referenced, so that they are released as soon as no agent uses them anymore.
+     */
+    private final Interner<String> interner = Interners.newWeakInterner();
+
     /**
      * Cache storing the most recent status for each agent based on its attributes.
      * This cache is limited in size and has an expiration based on {@link #config}
      */
-    private Cache<Map<String, String>, AgentStatus> attributesToAgentStatusCache;
+    private volatile Cache<AgentAttributes, StatusEntry> attributesToAgentStatusCache;
 
     /**
-     * Clears the connection history.
+     * The callbacks which are invoked with the changes of the statuses.
      */
+    private final Set<Subscription> subscribers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The statuses which have changed since the last update has been published.
+     * Changes are only tracked while subscribers exist.
+     */
+    private final Set<StatusEntry> changedEntries = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The agents which have been evicted since the last update has been published.
+     * Evictions are only tracked while subscribers exist.
+     */
+    private final Queue<AgentAttributes> removedAgents = new ConcurrentLinkedQueue<>();
+
+    /**
+     * True, if the statuses have been cleared since the last update has been published.
+     */
+    private final AtomicBoolean cleared = new AtomicBoolean(false);
+
     @PostConstruct
+    private void init() {
+        reset();
+        executorService.scheduleWithFixedDelay(this::publishChanges, UPDATE_INTERVAL_MILLIS, UPDATE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Clears the connection history.
+     */
     public void reset() {
         attributesToAgentStatusCache = CacheBuilder
                 .newBuilder()
                 .maximumSize(config.getMaxAgents())
                 .expireAfterWrite(config.getAgentEvictionDelay().toMillis(), TimeUnit.MILLISECONDS)
+                .<AgentAttributes, StatusEntry>removalListener(notification -> {
+                    if (notification.wasEvicted() && !subscribers.isEmpty()) {
+                        removedAgents.add(notification.getKey());
+                    }
+                })
                 .build();
+        if (!subscribers.isEmpty()) {
+            cleared.set(true);
+        }
     }
 
     /**
@@ -50,18 +119,184 @@ public class AgentStatusManager {
      * @param resultConfiguration the configuration sent to the agent, can be null if no matching mapping exists.
      */
     public void notifyAgentConfigurationFetched(Map<String, String> agentAttributes, AgentConfiguration resultConfiguration) {
-        AgentStatus newStatus = AgentStatus.builder()
-                .attributes(agentAttributes)
-                .lastConfigFetch(new Date())
-                .mappingName(resultConfiguration == null ? null : resultConfiguration.getMapping().getName())
-                .build();
-        attributesToAgentStatusCache.put(agentAttributes, newStatus);
+        Cache<AgentAttributes, StatusEntry> cache = attributesToAgentStatusCache;
+        AgentAttributes attributes = AgentAttributes.of(agentAttributes);
+        StatusEntry entry = cache.getIfPresent(attributes);
+        if (entry == null) {
+            AgentAttributes internedAttributes = attributes.intern(interner);
+            entry = cache.asMap().computeIfAbsent(internedAttributes, StatusEntry::new);
+        }
+        entry.lastConfigFetch = System.currentTimeMillis();
+        entry.mappingName = resultConfiguration == null ? null : intern(resultConfiguration.getMapping().getName());
+        // writing the entry again resets its expiration
+        cache.put(entry.attributes, entry);
+
+        if (!subscribers.isEmpty()) {
+            changedEntries.add(entry);
+        }
+    }
+
+    /**
+     * The returned stream creates the statuses lazily while it is consumed, so that they do not have to be held in memory
+     * at once. It reflects the statuses at some point at or since the creation of the stream.
+     *
+     * @return a stream of all agent statuses since {@link #reset()} was called.
+     */
+    public Stream<AgentStatus> getAgentStatuses() {
+        return attributesToAgentStatusCache.asMap().values().stream().map(StatusEntry::toAgentStatus);
+    }
+
+    /**
+     * Registers a callback which is periodically invoked with the changes of the agent statuses.
+     * Changes occurring in short succession are combined into a single update, only the latest status of each agent is
+     * contained. The callback is not invoked if nothing has changed.
+     * <p>
+     * The callback is invoked asynchronously and never concurrently. If it is still busy with a previous update, the
+     * subsequent updates are combined and delivered once it has returned.
+     * <p>
+     * Clients which want to mirror the statuses should subscribe before fetching the statuses via {@link #getAgentStatuses()},
+     * otherwise they could miss changes.
+     *
+     * @param subscriber the callback invoked with the changes
+     * @return a runnable to unsubscribe
+     */
+    public Runnable subscribe(Consumer<AgentStatusUpdate> subscriber) {
+        Subscription subscription = new Subscription(subscriber);
+        subscribers.add(subscription);
+        return () -> {
+            subscription.cancelled = true;
+            subscribers.remove(subscription);
+        };
+    }
+
+    /**
+     * Publishes the changes of the statuses since the last invocation to all subscribers.
+     */
+    @VisibleForTesting
+    void publishChanges() {
+        if (subscribers.isEmpty()) {
+            changedEntries.clear();
+            removedAgents.clear();
+            cleared.set(false);
+            return;
+        }
+
+        Cache<AgentAttributes, StatusEntry> cache = attributesToAgentStatusCache;
+        // performs pending evictions of expired entries
+        cache.cleanUp();
+
+        boolean wasCleared = cleared.getAndSet(false);
+        List<Map<String, String>> removed = new ArrayList<>();
+        AgentAttributes removedAttributes;
+        while ((removedAttributes = removedAgents.poll()) != null) {
+            removed.add(removedAttributes.toMap());
+        }
+        List<AgentStatus> updated = new ArrayList<>();
+        Iterator<StatusEntry> changed = changedEntries.iterator();
+        while (changed.hasNext()) {
+            StatusEntry entry = changed.next();
+            // removed before reading the entry, so that a concurrent change is published with the next update at the latest
+            changed.remove();
+            if (cache.asMap().get(entry.attributes) == entry) {
+                updated.add(entry.toAgentStatus());
+            }
+        }
+
+        if (wasCleared || !removed.isEmpty() || !updated.isEmpty()) {
+            AgentStatusUpdate update = new AgentStatusUpdate(wasCleared, removed, updated);
+            for (Subscription subscription : subscribers) {
+                subscription.publish(update);
+            }
+        }
+    }
+
+    private String intern(String value) {
+        return value == null ? null : interner.intern(value);
     }
 
     /**
-     * @return a collection of all agent statuses since {@link #reset()} was called.
+     * A subscriber together with the update which is waiting to be delivered to it.
      */
-    public Collection<AgentStatus> getAgentStatuses() {
-        return attributesToAgentStatusCache.asMap().values();
+    private class Subscription {
+
+        private final Consumer<AgentStatusUpdate> subscriber;
+
+        /**
+         * The update which has not been delivered yet, null if there is none. Guarded by this subscription.
+         */
+        private AgentStatusUpdate pendingUpdate;
+
+        /**
+         * True, if a task delivering the pending updates is scheduled or running. Guarded by this subscription.
+         */
+        private boolean delivering;
+
+        private volatile boolean cancelled;
+
+        private Subscription(Consumer<AgentStatusUpdate> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        /**
+         * Schedules the delivery of the given update. If an update is still pending, both are combined.
+         *
+         * @param update the update to deliver
+         */
+        private void publish(AgentStatusUpdate update) {
+            synchronized (this) {
+                pendingUpdate = pendingUpdate == null ? update : pendingUpdate.combine(update);
+                if (delivering) {
+                    return;
+                }
+                delivering = true;
+            }
+            try {
+                updateExecutor.execute(this::deliverPendingUpdates);
+            } catch (RejectedExecutionException e) {
+                log.error("Could not schedule the delivery of an agent status update", e);
+                synchronized (this) {
+                    delivering = false;
+                }
+            }
+        }
+
+        private void deliverPendingUpdates() {
+            while (true) {
+                AgentStatusUpdate update;
+                synchronized (this) {
+                    update = pendingUpdate;
+                    pendingUpdate = null;
+                    if (update == null || cancelled) {
+                        delivering = false;
+                        return;
+                    }
+                }
+                try {
+                    subscriber.accept(update);
+                } catch (Exception e) {
+                    log.error("Error publishing agent status update", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * The mutable status of a single agent.
+     */
+    private static class StatusEntry {
+
+        private final AgentAttributes attributes;
+
+        private volatile long lastConfigFetch;
+
+        private volatile String mappingName;
+
+        private StatusEntry(AgentAttributes attributes) {
+            this.attributes = attributes;
+        }
+
+        private AgentStatus toAgentStatus() {
+            return new AgentStatus(attributes.toMap(), new Date(lastConfigFetch), mappingName);
+        }
     }
 }
@@ -0,0 +1,58 @@
+package rocks.inspectit.ocelot.agentstatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.*;
+
+/**
+ * The changes of the agent statuses which occurred since the previous update.
+ * A client applies them in the order of the fields: first clearing, then removing and finally adding or replacing statuses.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AgentStatusUpdate {
+
+    /**
+     * True, if all statuses have been cleared.
+     */
+    private boolean cleared;
+
+    /**
+     * The attributes of the agents which have been evicted.
+     */
+    private List<Map<String, String>> removedAgents;
+
+    /**
+     * The new or changed statuses, each replacing the status of the agent with the same attributes.
+     */
+    private List<AgentStatus> updatedAgents;
+
+    /**
+     * Combines this update with the given subsequent update, so that applying the result has the same effect as applying
+     * both updates in order. Only the latest status of each agent is kept.
+     *
+     * @param next the update which occurred after this one
+     * @return the combined update
+     */
+    public AgentStatusUpdate combine(AgentStatusUpdate next) {
+        if (next.cleared) {
+            return next;
+        }
+        Set<Map<String, String>> removed = new LinkedHashSet<>(removedAgents);
+        removed.addAll(next.removedAgents);
+        Map<Map<String, String>, AgentStatus> updated = new LinkedHashMap<>();
+        for (AgentStatus status : updatedAgents) {
+            updated.put(status.getAttributes(), status);
+        }
+        next.removedAgents.forEach(updated::remove);
+        for (AgentStatus status : next.updatedAgents) {
+            updated.put(status.getAttributes(), status);
+        }
+        return new AgentStatusUpdate(cleared, new ArrayList<>(removed), new ArrayList<>(updated.values()));
+    }
+}
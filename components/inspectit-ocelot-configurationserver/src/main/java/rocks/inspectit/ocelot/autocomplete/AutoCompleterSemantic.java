@@ -1,9 +1,13 @@
 package rocks.inspectit.ocelot.autocomplete;
 
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.YAMLException;
+import rocks.inspectit.ocelot.file.FileChangedEvent;
 import rocks.inspectit.ocelot.file.FileManager;
 
 import java.io.IOException;
@@ -11,7 +15,12 @@ import java.util.*;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
-
+/**
+ * Suggests the keys which are used in the configuration files for a given path, e.g. the names of the defined scopes.
+ * The keys of all files are kept in a {@link ConfigurationKeyTree}, so that suggestions can be answered without
+ * accessing any file. The tree is rebuilt on the next request after a {@link FileChangedEvent}, in which case only
+ * the files whose modification stamp has changed are parsed again.
+ */
 @Slf4j
 @Component
 public class AutoCompleterSemantic implements AutoCompleter {
@@ -24,6 +33,21 @@ public class AutoCompleterSemantic implements AutoCompleter {
     @Autowired
     private FileManager fileManager;
 
+    /**
+     * The key trees of the individual files by their path.
+     */
+    private Map<String, FileKeys> fileKeys = new HashMap<>();
+
+    /**
+     * The merged keys of all files.
+     */
+    private volatile ConfigurationKeyTree keyIndex;
+
+    /**
+     * True, if files have been changed since {@link #keyIndex} has been built.
+     */
+    private volatile boolean keyIndexOutdated = true;
+
     /**
      * If the given path ends in scopes, this method returns the scopes a user could possibly use
      * This is done by searching all currently saved .yml or .yaml files for declaration of scopes and returning them
@@ -33,7 +57,56 @@ public class AutoCompleterSemantic implements AutoCompleter {
      */
     @Override
     public List<String> getSuggestions(List<String> camelCasePath) {
-        return collectKeys(camelCasePath);
+        return getKeyIndex().getKeys(camelCasePath);
+    }
+
+    @EventListener(FileChangedEvent.class)
+    void onFileChanged() {
+        keyIndexOutdated = true;
+    }
+
+    /**
+     * Returns the current key index, rebuilding it if files have been changed.
+     *
+     * @return the merged keys of all files
+     */
+    private ConfigurationKeyTree getKeyIndex() {
+        if (keyIndexOutdated) {
+            synchronized (this) {
+                if (keyIndexOutdated) {
+                    // reset before rebuilding, so that changes during the rebuild cause another rebuild
+                    keyIndexOutdated = false;
+                    keyIndex = buildKeyIndex();
+                }
+            }
+        }
+        return keyIndex;
+    }
+
+    /**
+     * Merges the keys of all .yml and .yaml files into a new tree.
+     * Files which have not been modified since the last build are not parsed again.
+     *
+     * @return the merged keys
+     */
+    private ConfigurationKeyTree buildKeyIndex() {
+        Map<String, FileKeys> newFileKeys = new HashMap<>();
+        ConfigurationKeyTree index = new ConfigurationKeyTree();
+        for (String path : getAllPaths()) {
+            try {
+                String stamp = fileManager.getModificationStamp(path);
+                FileKeys keys = fileKeys.get(path);
+                if (keys == null || !Objects.equals(keys.getStamp(), stamp)) {
+                    keys = new FileKeys(stamp, ConfigurationKeyTree.of(loadYaml(path)));
+                }
+                newFileKeys.put(path, keys);
+                index.merge(keys.getKeys());
+            } catch (IOException | YAMLException e) {
+                log.warn("Error reading file with path: " + path + " Error message: " + e.getMessage());
+            }
+        }
+        fileKeys = newFileKeys;
+        return index;
     }
 
     /**
@@ -69,64 +142,13 @@ public class AutoCompleterSemantic implements AutoCompleter {
     }
 
     /**
-     * Extracts all keys from a given map that can be found in a given path
-     *
-     * @param map     the map one wants to extract the keys from
-     * @param mapPath all keys leading to the wanted
-     * @return
+     * The keys of a file in the version identified by the modification stamp.
      */
-    private Set extractKeys(HashMap map, List<String> mapPath) {
-        HashMap currentMap = map;
-        for (String path : mapPath) {
-            if (!(currentMap.get(path) instanceof HashMap)) {
-                return Collections.<String>emptySet();
-            }
-            currentMap = (HashMap) currentMap.get(path);
-        }
-        return currentMap.keySet();
-    }
+    @Value
+    private static class FileKeys {
 
-    /**
-     * Extracts all keys from the hashmaps in a given list of objects
-     *
-     * @param values the list of objects where the keys should be extrated from
-     * @param keys   the list to which the keys should be added
-     * @param path   the path in which the keys should be searched
-     */
-    private void mergeObjectKeys(ArrayList<Object> values, ArrayList<String> keys, List<String> path) {
-        for (Object o : values) {
-            if (o instanceof HashMap) {
-                addMapKeys((HashMap) o, keys, path);
-            }
-        }
-    }
-
-    private void addMapKeys(HashMap map, ArrayList<String> keys, List<String> path) {
-        Arrays.stream(extractKeys(map, path).toArray()).filter(ps -> !keys.contains(ps)).forEach(ps -> keys.add((String) ps));
-    }
+        private String stamp;
 
-    /**
-     * Collects all keys present in a given path in all .yml and .yaml files in the directory
-     *
-     * @param givenPath the path one wants to extract the keys from
-     * @return the found keys
-     */
-    private ArrayList<String> collectKeys(List<String> givenPath) {
-        List<String> paths = getAllPaths();
-        ArrayList<String> scopes = new ArrayList<>();
-        for (String path : paths) {
-            try {
-                Object loadedObj = loadYaml(path);
-                if (loadedObj instanceof HashMap) {
-                    addMapKeys((HashMap) loadedObj, scopes, givenPath);
-                }
-                if (loadedObj instanceof ArrayList) {
-                    mergeObjectKeys((ArrayList<Object>) loadedObj, scopes, givenPath);
-                }
-            } catch (IOException e) {
-                log.warn("Error reading file with path: " + path + " Error message: " + e.getMessage());
-            }
-        }
-        return scopes;
+        private ConfigurationKeyTree keys;
     }
 }
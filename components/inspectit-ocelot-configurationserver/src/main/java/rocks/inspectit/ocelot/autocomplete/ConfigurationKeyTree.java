@@ -0,0 +1,79 @@
+package rocks.inspectit.ocelot.autocomplete;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prefix tree of the keys used in configuration files.
+ * Each node represents a key path, its children are the keys of the map found under this path.
+ * The children keep the order in which they have been added, so that suggestions are returned in the order in which the keys
+ * appear in the files.
+ * <p>
+ * This class is not thread safe. Trees are built once and must not be modified after they have been published.
+ */
+class ConfigurationKeyTree {
+
+    private final Map<String, ConfigurationKeyTree> children = new LinkedHashMap<>();
+
+    /**
+     * Creates a tree containing all key paths of the given parsed YAML document.
+     * If the document is a list, the keys of all contained maps are added to the root.
+     *
+     * @param yaml the structure of nested maps and lists as returned by SnakeYAML
+     * @return the tree of the keys
+     */
+    static ConfigurationKeyTree of(Object yaml) {
+        ConfigurationKeyTree tree = new ConfigurationKeyTree();
+        if (yaml instanceof Map) {
+            tree.addMap((Map<?, ?>) yaml);
+        } else if (yaml instanceof List) {
+            for (Object element : (List<?>) yaml) {
+                if (element instanceof Map) {
+                    tree.addMap((Map<?, ?>) element);
+                }
+            }
+        }
+        return tree;
+    }
+
+    /**
+     * Adds all key paths of the given tree to this tree.
+     * Keys which are not yet present are appended after the existing ones.
+     *
+     * @param other the tree to add
+     */
+    void merge(ConfigurationKeyTree other) {
+        for (Map.Entry<String, ConfigurationKeyTree> entry : other.children.entrySet()) {
+            children.computeIfAbsent(entry.getKey(), key -> new ConfigurationKeyTree()).merge(entry.getValue());
+        }
+    }
+
+    /**
+     * Returns the keys found under the given path.
+     *
+     * @param path the keys leading to the map whose keys shall be returned
+     * @return the keys in the order of their occurrence, an empty list if the path does not exist
+     */
+    List<String> getKeys(List<String> path) {
+        ConfigurationKeyTree node = this;
+        for (String key : path) {
+            node = node.children.get(key);
+            if (node == null) {
+                return Collections.emptyList();
+            }
+        }
+        return new ArrayList<>(node.children.keySet());
+    }
+
+    private void addMap(Map<?, ?> map) {
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            ConfigurationKeyTree child = children.computeIfAbsent(String.valueOf(entry.getKey()), key -> new ConfigurationKeyTree());
+            if (entry.getValue() instanceof Map) {
+                child.addMap((Map<?, ?>) entry.getValue());
+            }
+        }
+    }
+}
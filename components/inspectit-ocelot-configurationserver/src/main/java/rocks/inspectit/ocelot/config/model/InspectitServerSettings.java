@@ -55,6 +55,12 @@ public class InspectitServerSettings {
      */
     private Duration agentEvictionDelay;
 
+    /**
+     * The maximum duration for which a request of an agent is held open when the agent uses long-polling to wait for changes of its configuration.
+     * Longer wait durations requested by the agents are reduced to this value. If this is zero, long-polling is disabled.
+     */
+    private Duration maxLongPollTimeout;
+
     @Valid
     @Builder.Default
     private SecuritySettings security =  SecuritySettings.builder().build();
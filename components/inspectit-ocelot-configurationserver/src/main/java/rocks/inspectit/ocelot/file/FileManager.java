@@ -10,17 +10,35 @@ import org.springframework.util.StringUtils;
 import rocks.inspectit.ocelot.config.model.InspectitServerSettings;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
-import java.util.ArrayList;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Stream;
 
 /**
  * Encapsulates access to the file system storing the source config files managed by this server.
+ * Read operations hold the read lock of {@link #fileLock} and can be executed concurrently, while modifying operations
+ * hold the write lock and are executed exclusively.
+ * Files are written to a temporary file first, which is then moved to the target location, so that a file is always
+ * either completely in its old or completely in its new state.
+ * <p>
+ * Directory listings are served from an in-memory {@link FileTree}, which is updated by all modifying operations of this class.
+ * Modifications performed by other processes are detected using a {@link WatchService}, they update the tree and
+ * publish a {@link FileChangedEvent} just like the modifications performed via this class.
  */
 @Component
 @Slf4j
@@ -33,6 +51,12 @@ public class FileManager {
     @VisibleForTesting
     static final String FILES_SUBFOLDER = "files";
 
+    /**
+     * The subfolder within the working directory which is used for the temporary files created while writing files.
+     */
+    @VisibleForTesting
+    static final String TEMP_SUBFOLDER = "temp";
+
     @VisibleForTesting
     static final Charset ENCODING = StandardCharsets.UTF_8;
 
@@ -49,43 +73,85 @@ public class FileManager {
      */
     private Path filesRoot;
 
+    /**
+     * The directory in which temporary files are created before they are moved into {@link #filesRoot}.
+     */
+    private Path tempRoot;
+
+    /**
+     * Lock guarding the files under {@link #filesRoot}.
+     */
+    private final ReadWriteLock fileLock = new ReentrantReadWriteLock();
+
+    /**
+     * In-memory tree of the files under {@link #filesRoot}.
+     */
+    private FileTree fileTree;
+
+    /**
+     * Watch service used to detect modifications performed by other processes, null if not supported.
+     */
+    private WatchService watchService;
+
+    /**
+     * The directories registered at the {@link #watchService}.
+     */
+    private final Map<WatchKey, Path> watchedDirectories = new ConcurrentHashMap<>();
+
+    /**
+     * Source of the versions stored in {@link #fileVersions}, incremented on every modification performed by this class.
+     */
+    private final AtomicLong modificationCounter = new AtomicLong();
+
+    /**
+     * The version of each file which has been written by this class, see {@link #getModificationStamp(String)}.
+     * Files which have not been written by this class since the server was started have no entry.
+     */
+    private final Map<Path, Long> fileVersions = new ConcurrentHashMap<>();
+
     @PostConstruct
     @VisibleForTesting
     void init() throws IOException {
         filesRoot = Paths.get(config.getWorkingDirectory()).resolve(FILES_SUBFOLDER).toAbsolutePath().normalize();
         Files.createDirectories(filesRoot);
+        tempRoot = Paths.get(config.getWorkingDirectory()).resolve(TEMP_SUBFOLDER).toAbsolutePath().normalize();
+        // remove leftovers of writes which have been interrupted
+        FileUtils.deleteDirectory(tempRoot.toFile());
+        Files.createDirectories(tempRoot);
+
+        // the watch service is started before the tree is built, so that no modification is missed
+        startWatchService();
+        fileTree = new FileTree(filesRoot);
+        fileTree.rescan();
+    }
+
+    @PreDestroy
+    @VisibleForTesting
+    void destroy() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+            watchedDirectories.clear();
+        }
     }
 
     /**
      * Returns all files recursively contained under the given path.
+     * The listing is served from the in-memory file tree without accessing the file system.
      *
      * @param path      the path of the directory
      * @param recursive if true, the entire file tree within this directory is returned. Otherwise only the direct children.
      * @return the directory contents
      * @throws IOException If the input was not valid or something in the filesystem went wrong
      */
-    public synchronized List<FileInfo> getFilesInDirectory(String path, boolean recursive) throws IOException {
+    public List<FileInfo> getFilesInDirectory(String path, boolean recursive) throws IOException {
         Path dir;
         if (StringUtils.isEmpty(path)) {
             dir = filesRoot;
         } else {
             assertPathWithinFilesRoot(path);
-            dir = filesRoot.resolve(path);
-        }
-        try (Stream<Path> files = Files.list(dir)) {
-            List<FileInfo> result = new ArrayList<>();
-            for (Path child : files.collect(Collectors.toList())) {
-                boolean isDirectory = Files.isDirectory(child);
-                FileInfo.FileInfoBuilder builder = FileInfo.builder()
-                        .name(child.getFileName().toString())
-                        .type(isDirectory ? FileInfo.Type.DIRECTORY : FileInfo.Type.FILE);
-                if (isDirectory && recursive) {
-                    builder.children(getFilesInDirectory(getRelativePath(child), true));
-                }
-                result.add(builder.build());
-            }
-            return result;
+            dir = filesRoot.resolve(path).toAbsolutePath().normalize();
         }
+        return fileTree.getFilesInDirectory(dir, recursive);
     }
 
     /**
@@ -114,11 +180,17 @@ public class FileManager {
      * @param path the path of the directory to create
      * @throws IOException if the directory already exists or could not be created for any reason
      */
-    public synchronized void createDirectory(String path) throws IOException {
+    public void createDirectory(String path) throws IOException {
         assertValidSubPath(path);
         Path dir = filesRoot.resolve(path);
 
-        FileUtils.forceMkdir(dir.toFile());
+        fileLock.writeLock().lock();
+        try {
+            FileUtils.forceMkdir(dir.toFile());
+            fileTree.refresh(dir);
+        } finally {
+            fileLock.writeLock().unlock();
+        }
         fireFileChangeEvent();
     }
 
@@ -128,15 +200,22 @@ public class FileManager {
      * @param path the path of the directory
      * @throws IOException if the directory could not be deleted
      */
-    public synchronized void deleteDirectory(String path) throws IOException {
+    public void deleteDirectory(String path) throws IOException {
         assertValidSubPath(path);
         Path dir = filesRoot.resolve(path);
-        // throw a more meaningful exception instead of the illegal argument exception thrown by
-        // FileUtils.deleteDirectory
-        if (!Files.exists(dir) || !Files.isDirectory(dir)) {
-            throw new NotDirectoryException(getRelativePath(dir));
+        fileLock.writeLock().lock();
+        try {
+            // throw a more meaningful exception instead of the illegal argument exception thrown by
+            // FileUtils.deleteDirectory
+            if (!Files.exists(dir) || !Files.isDirectory(dir)) {
+                throw new NotDirectoryException(getRelativePath(dir));
+            }
+            FileUtils.deleteDirectory(dir.toFile());
+            removeVersions(dir);
+            fileTree.refresh(dir);
+        } finally {
+            fileLock.writeLock().unlock();
         }
-        FileUtils.deleteDirectory(dir.toFile());
         fireFileChangeEvent();
     }
 
@@ -147,31 +226,74 @@ public class FileManager {
      * @return the files content
      * @throws IOException if the file could not be read
      */
-    public synchronized String readFile(String path) throws IOException {
+    public String readFile(String path) throws IOException {
         assertValidSubPath(path);
         Path file = filesRoot.resolve(path);
-        if (Files.exists(file) && !Files.isRegularFile(file)) {
-            throw new AccessDeniedException(path + " is a directory!");
+        fileLock.readLock().lock();
+        try {
+            if (Files.exists(file) && !Files.isRegularFile(file)) {
+                throw new AccessDeniedException(path + " is a directory!");
+            }
+            return new String(Files.readAllBytes(file), ENCODING);
+        } finally {
+            fileLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns a stamp identifying the current version of the given file.
+     * The stamp consists of a version which is incremented whenever the file is written by this class, so that every
+     * modification via this class changes the stamp, even if the size and the modification time of the file stay the same.
+     * As files can also be modified by other processes, the stamp additionally contains the last modification time
+     * and the size of the file.
+     *
+     * @param path the path of the file
+     * @return the modification stamp of the file
+     * @throws IOException if the attributes of the file could not be read
+     */
+    public String getModificationStamp(String path) throws IOException {
+        assertValidSubPath(path);
+        Path file = filesRoot.resolve(path).toAbsolutePath().normalize();
+        fileLock.readLock().lock();
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return fileVersions.getOrDefault(file, 0L) + "-" + attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS) + "-" + attributes.size();
+        } finally {
+            fileLock.readLock().unlock();
         }
-        return new String(Files.readAllBytes(file), ENCODING);
     }
 
     /**
      * Creates or replaces the file under the given path with the given content.
      * If required, parent directories are automatically created.
+     * The content is written to a temporary file which then replaces the target file atomically, if supported by the file system.
      *
      * @param path    the path of the file
      * @param content the content of the file
      * @throws IOException if the file could not be written
      */
-    public synchronized void createOrReplaceFile(String path, String content) throws IOException {
+    public void createOrReplaceFile(String path, String content) throws IOException {
         assertValidSubPath(path);
         Path file = filesRoot.resolve(path);
-        if (Files.exists(file) && !Files.isRegularFile(file)) {
-            throw new AccessDeniedException(path + " is a directory!");
+        // the temporary file is written outside of the lock, so that readers are only blocked while the file is moved
+        Path tempFile = tempRoot.resolve(UUID.randomUUID() + ".tmp");
+        try {
+            Files.write(tempFile, content.getBytes(ENCODING));
+            fileLock.writeLock().lock();
+            try {
+                if (Files.exists(file) && !Files.isRegularFile(file)) {
+                    throw new AccessDeniedException(path + " is a directory!");
+                }
+                FileUtils.forceMkdir(file.getParent().toFile());
+                moveReplacing(tempFile, file);
+                updateVersions(file);
+                fileTree.refresh(file);
+            } finally {
+                fileLock.writeLock().unlock();
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
         }
-        FileUtils.forceMkdir(file.getParent().toFile());
-        Files.write(file, content.getBytes(ENCODING));
         fireFileChangeEvent();
     }
 
@@ -181,15 +303,22 @@ public class FileManager {
      * @param path the path of the file to delete
      * @throws IOException if the file could not be deleted.
      */
-    public synchronized void deleteFile(String path) throws IOException {
+    public void deleteFile(String path) throws IOException {
         assertValidSubPath(path);
         Path file = filesRoot.resolve(path);
-        if (Files.isRegularFile(file)) {
-            Files.delete(file);
-            fireFileChangeEvent();
-        } else {
-            throw new AccessDeniedException(path);
+        fileLock.writeLock().lock();
+        try {
+            if (Files.isRegularFile(file)) {
+                Files.delete(file);
+                removeVersions(file);
+                fileTree.refresh(file);
+            } else {
+                throw new AccessDeniedException(path);
+            }
+        } finally {
+            fileLock.writeLock().unlock();
         }
+        fireFileChangeEvent();
     }
 
     /**
@@ -200,22 +329,181 @@ public class FileManager {
      * @param destination the target file or directory path
      * @throws IOException if the given file or directory could not be renamed / moved
      */
-    public synchronized void move(String source, String destination) throws IOException {
+    public void move(String source, String destination) throws IOException {
         assertValidSubPath(source);
         assertValidSubPath(destination);
         Path src = filesRoot.resolve(source);
         Path dest = filesRoot.resolve(destination);
 
-        FileUtils.forceMkdir(dest.getParent().toFile());
+        fileLock.writeLock().lock();
+        try {
+            FileUtils.forceMkdir(dest.getParent().toFile());
 
-        if (Files.isDirectory(src)) {
-            FileUtils.moveDirectory(src.toFile(), dest.toFile());
-        } else {
-            FileUtils.moveFile(src.toFile(), dest.toFile());
+            if (Files.isDirectory(src)) {
+                FileUtils.moveDirectory(src.toFile(), dest.toFile());
+            } else {
+                FileUtils.moveFile(src.toFile(), dest.toFile());
+            }
+            removeVersions(src);
+            updateVersions(dest);
+            fileTree.refresh(src);
+            fileTree.refresh(dest);
+        } finally {
+            fileLock.writeLock().unlock();
         }
         fireFileChangeEvent();
     }
 
+    /**
+     * Assigns a new version to the given file or to all files within the given directory.
+     * Has to be invoked while holding the write lock.
+     *
+     * @param path the modified file or directory
+     * @throws IOException if the directory could not be walked
+     */
+    private void updateVersions(Path path) throws IOException {
+        Path normalizedPath = path.toAbsolutePath().normalize();
+        if (Files.isDirectory(normalizedPath)) {
+            try (Stream<Path> files = Files.walk(normalizedPath)) {
+                files.filter(Files::isRegularFile)
+                        .forEach(file -> fileVersions.put(file, modificationCounter.incrementAndGet()));
+            }
+        } else {
+            fileVersions.put(normalizedPath, modificationCounter.incrementAndGet());
+        }
+    }
+
+    /**
+     * Removes the versions of the given file or of all files within the given directory.
+     * As the versions are taken from {@link #modificationCounter}, a file created again at the same path gets a different version.
+     * Has to be invoked while holding the write lock.
+     *
+     * @param path the removed file or directory
+     */
+    private void removeVersions(Path path) {
+        Path normalizedPath = path.toAbsolutePath().normalize();
+        fileVersions.keySet().removeIf(file -> file.startsWith(normalizedPath));
+    }
+
+    /**
+     * Moves the given source file to the given target, replacing the target if it exists.
+     * The move is atomic if the file system supports it.
+     *
+     * @param source the file to move
+     * @param target the target location
+     * @throws IOException if the file could not be moved
+     */
+    private void moveReplacing(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Starts the watch service and a daemon thread processing its events.
+     * If the file system does not support watching, modifications by other processes are not detected.
+     */
+    private void startWatchService() {
+        try {
+            watchService = filesRoot.getFileSystem().newWatchService();
+            registerRecursively(filesRoot);
+        } catch (IOException | UnsupportedOperationException e) {
+            log.warn("Unable to watch the configuration files, changes of other processes will not be detected.", e);
+            watchService = null;
+            return;
+        }
+        Thread watcherThread = new Thread(this::processWatchEvents, "inspectit-file-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+    /**
+     * Registers the given directory and all contained directories at the {@link #watchService}.
+     *
+     * @param directory the directory to register
+     * @throws IOException if a directory could not be registered
+     */
+    private void registerRecursively(Path directory) throws IOException {
+        try (Stream<Path> directories = Files.walk(directory)) {
+            for (Path dir : (Iterable<Path>) directories.filter(Files::isDirectory)::iterator) {
+                WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                watchedDirectories.put(key, dir);
+            }
+        }
+    }
+
+    /**
+     * Processes the events of the {@link #watchService} until it is closed.
+     * Created, modified or deleted files and directories are updated in the {@link #fileTree}. If events have been lost, the
+     * whole tree is rebuilt.
+     * A {@link FileChangedEvent} is published if the files differ from the tree. Events caused by modifications performed
+     * via this class do not result in a second {@link FileChangedEvent}, as these modifications have already been applied to the tree.
+     */
+    private void processWatchEvents() {
+        WatchService service = watchService;
+        while (true) {
+            WatchKey key;
+            try {
+                key = service.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            Path directory = watchedDirectories.get(key);
+            boolean overflow = directory == null;
+            Set<Path> changedPaths = new LinkedHashSet<>();
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    overflow = true;
+                } else if (directory != null) {
+                    Path changedPath = directory.resolve((Path) event.context());
+                    changedPaths.add(changedPath);
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(changedPath)) {
+                        try {
+                            registerRecursively(changedPath);
+                        } catch (IOException | UncheckedIOException | ClosedWatchServiceException e) {
+                            log.debug("Could not watch directory {}", changedPath, e);
+                        }
+                    }
+                }
+            }
+            if (!key.reset()) {
+                watchedDirectories.remove(key);
+            }
+            if (updateFileTree(overflow, changedPaths)) {
+                fireFileChangeEvent();
+            }
+        }
+    }
+
+    /**
+     * Updates the {@link #fileTree} with the given changed paths.
+     *
+     * @param rescan       if true, the whole tree is rebuilt
+     * @param changedPaths the paths to refresh if no rescan is performed
+     * @return true, if the files differed from the tree
+     */
+    private boolean updateFileTree(boolean rescan, Set<Path> changedPaths) {
+        fileLock.readLock().lock();
+        try {
+            if (rescan) {
+                return fileTree.rescan();
+            }
+            boolean changed = false;
+            for (Path path : changedPaths) {
+                changed |= fileTree.refresh(path);
+            }
+            return changed;
+        } catch (IOException e) {
+            log.debug("Could not update the file tree", e);
+            // the tree may be partially updated, therefore the files are treated as changed
+            return true;
+        } finally {
+            fileLock.readLock().unlock();
+        }
+    }
+
     private void fireFileChangeEvent() {
         eventPublisher.publishEvent(new FileChangedEvent(this));
     }
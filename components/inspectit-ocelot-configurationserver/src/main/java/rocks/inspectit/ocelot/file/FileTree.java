@@ -0,0 +1,219 @@
+package rocks.inspectit.ocelot.file;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory representation of the files and directories managed by the {@link FileManager}, used for serving directory
+ * listings without accessing the file system.
+ * <p>
+ * The tree consists of immutable nodes. An update replaces the changed node and all of its ancestors, so that readers
+ * always see a consistent snapshot without locking. Updates are serialized by synchronizing on this instance.
+ * <p>
+ * For files, the last modification time and the size are stored as well, so that updates can report whether the
+ * file system actually differs from the tree.
+ */
+class FileTree {
+
+    /**
+     * The directory represented by the root of this tree.
+     */
+    private final Path rootDirectory;
+
+    private volatile Node root;
+
+    /**
+     * Creates an empty tree. {@link #rescan()} has to be called to load the contents of the root directory.
+     *
+     * @param rootDirectory the absolute, normalized path of the directory represented by this tree
+     */
+    FileTree(Path rootDirectory) {
+        this.rootDirectory = rootDirectory;
+        root = new Node(rootDirectory.getFileName().toString(), Collections.emptySortedMap(), 0, 0);
+    }
+
+    /**
+     * Rebuilds the whole tree from the file system.
+     *
+     * @return true, if the file system differed from the tree
+     * @throws IOException if the root directory could not be read
+     */
+    synchronized boolean rescan() throws IOException {
+        Node newRoot = scan(rootDirectory);
+        boolean changed = !newRoot.isSameAs(root);
+        root = newRoot;
+        return changed;
+    }
+
+    /**
+     * Reads the given file or directory including all of its contents from the file system and updates the tree accordingly.
+     * If the given path does not exist anymore, it is removed from the tree. If its parent directories are not contained
+     * in the tree, the topmost missing directory is read instead.
+     *
+     * @param path the absolute, normalized path of the changed file or directory, must be located within the root directory
+     * @return true, if the file system differed from the tree
+     * @throws IOException if the path could not be read
+     */
+    synchronized boolean refresh(Path path) throws IOException {
+        Path relativePath = rootDirectory.relativize(path);
+        if (relativePath.toString().isEmpty()) {
+            return rescan();
+        }
+        Node newRoot = refresh(root, rootDirectory, relativePath, 0);
+        boolean changed = newRoot != root;
+        root = newRoot;
+        return changed;
+    }
+
+    /**
+     * Returns the contents of the given directory.
+     *
+     * @param directory the absolute, normalized path of the directory
+     * @param recursive if true, the entire file tree within this directory is returned. Otherwise only the direct children.
+     * @return the directory contents
+     * @throws NoSuchFileException   if the directory does not exist
+     * @throws NotDirectoryException if the given path is not a directory
+     */
+    List<FileInfo> getFilesInDirectory(Path directory, boolean recursive) throws IOException {
+        Node node = root;
+        for (Path segment : rootDirectory.relativize(directory)) {
+            String name = segment.toString();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!node.isDirectory()) {
+                throw new NotDirectoryException(directory.toString());
+            }
+            node = node.children.get(name);
+            if (node == null) {
+                throw new NoSuchFileException(directory.toString());
+            }
+        }
+        if (!node.isDirectory()) {
+            throw new NotDirectoryException(directory.toString());
+        }
+        return toFileInfos(node, recursive);
+    }
+
+    private Node refresh(Node node, Path nodePath, Path relativePath, int segmentIndex) throws IOException {
+        String childName = relativePath.getName(segmentIndex).toString();
+        Path childPath = nodePath.resolve(childName);
+        Node child = node.children.get(childName);
+
+        Node newChild;
+        if (segmentIndex == relativePath.getNameCount() - 1 || child == null || !child.isDirectory()) {
+            newChild = Files.exists(childPath) ? scan(childPath) : null;
+        } else {
+            newChild = refresh(child, childPath, relativePath, segmentIndex + 1);
+        }
+        if (newChild == child || (newChild != null && newChild.isSameAs(child))) {
+            return node;
+        }
+        SortedMap<String, Node> children = new TreeMap<>(node.children);
+        if (newChild == null) {
+            children.remove(childName);
+        } else {
+            children.put(childName, newChild);
+        }
+        return new Node(node.name, Collections.unmodifiableSortedMap(children), 0, 0);
+    }
+
+    private Node scan(Path path) throws IOException {
+        String name = path.getFileName().toString();
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        if (!attributes.isDirectory()) {
+            return new Node(name, null, attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS), attributes.size());
+        }
+        SortedMap<String, Node> children = new TreeMap<>();
+        try (Stream<Path> files = Files.list(path)) {
+            for (Path child : files.collect(Collectors.toList())) {
+                try {
+                    children.put(child.getFileName().toString(), scan(child));
+                } catch (NoSuchFileException e) {
+                    // the child has been deleted concurrently
+                }
+            }
+        }
+        return new Node(name, Collections.unmodifiableSortedMap(children), 0, 0);
+    }
+
+    private List<FileInfo> toFileInfos(Node directory, boolean recursive) {
+        List<FileInfo> result = new ArrayList<>(directory.children.size());
+        for (Node child : directory.children.values()) {
+            FileInfo.FileInfoBuilder builder = FileInfo.builder()
+                    .name(child.name)
+                    .type(child.isDirectory() ? FileInfo.Type.DIRECTORY : FileInfo.Type.FILE);
+            if (child.isDirectory() && recursive) {
+                builder.children(toFileInfos(child, true));
+            }
+            result.add(builder.build());
+        }
+        return result;
+    }
+
+    /**
+     * An immutable file or directory of the tree.
+     */
+    private static class Node {
+
+        private final String name;
+
+        /**
+         * The contents of this directory by their name, null if this is a file.
+         */
+        private final SortedMap<String, Node> children;
+
+        /**
+         * The last modification time of this file in nanoseconds, 0 for directories.
+         */
+        private final long lastModified;
+
+        /**
+         * The size of this file in bytes, 0 for directories.
+         */
+        private final long size;
+
+        private Node(String name, SortedMap<String, Node> children, long lastModified, long size) {
+            this.name = name;
+            this.children = children;
+            this.lastModified = lastModified;
+            this.size = size;
+        }
+
+        private boolean isDirectory() {
+            return children != null;
+        }
+
+        /**
+         * @param other the node to compare with, may be null
+         * @return true, if the other node represents the same file or the same directory with the same contents
+         */
+        private boolean isSameAs(Node other) {
+            if (other == this) {
+                return true;
+            }
+            if (other == null || !name.equals(other.name) || isDirectory() != other.isDirectory()) {
+                return false;
+            }
+            if (!isDirectory()) {
+                return lastModified == other.lastModified && size == other.size;
+            }
+            if (!children.keySet().equals(other.children.keySet())) {
+                return false;
+            }
+            return children.entrySet().stream().allMatch(entry -> entry.getValue().isSameAs(other.children.get(entry.getKey())));
+        }
+    }
+}
@@ -2,20 +2,24 @@ package rocks.inspectit.ocelot.mappings.model;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AccessLevel;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.Singular;
+import lombok.ToString;
 import lombok.Value;
 
 import javax.validation.constraints.NotBlank;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 /**
  * The model of the agent mappings.
  */
 @Value
-@Builder(toBuilder = true)
 public class AgentMapping {
 
     /**
@@ -35,11 +39,36 @@ public class AgentMapping {
     @Singular
     private Map<@NotBlank String, @NotBlank String> attributes;
 
+    /**
+     * The keys of the {@link #attributes}, aligned with {@link #attributePatterns}.
+     */
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private String[] attributeKeys;
+
+    /**
+     * The compiled patterns of the {@link #attributes}, so that matching does not require compiling the patterns again.
+     */
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Pattern[] attributePatterns;
+
     @JsonCreator
-    public AgentMapping(@JsonProperty("name") String name, @JsonProperty("sources") List<@NotBlank String> sources, @JsonProperty("attributes") Map<@NotBlank String, @NotBlank String> attributes) {
+    @Builder(toBuilder = true)
+    public AgentMapping(@JsonProperty("name") String name, @JsonProperty("sources") @Singular List<@NotBlank String> sources, @JsonProperty("attributes") @Singular Map<@NotBlank String, @NotBlank String> attributes) {
         this.name = name;
         this.sources = Collections.unmodifiableList(sources);
         this.attributes = Collections.unmodifiableMap(attributes);
+        attributeKeys = new String[attributes.size()];
+        attributePatterns = new Pattern[attributes.size()];
+        int index = 0;
+        for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+            attributeKeys[index] = attribute.getKey();
+            attributePatterns[index] = Pattern.compile(attribute.getValue());
+            index++;
+        }
     }
 
 
@@ -50,9 +79,9 @@ public class AgentMapping {
      * @return true, if this mapping matches
      */
     public boolean matchesAttributes(Map<String, String> agentAttributes) {
-        for (Map.Entry<String, String> pair : attributes.entrySet()) {
-            String value = agentAttributes.getOrDefault(pair.getKey(), "");
-            if (!value.matches(pair.getValue())) {
+        for (int i = 0; i < attributeKeys.length; i++) {
+            String value = agentAttributes.getOrDefault(attributeKeys[i], "");
+            if (!attributePatterns[i].matcher(value).matches()) {
                 return false;
             }
         }
@@ -1,21 +1,31 @@
 package rocks.inspectit.ocelot.rest.agent;
 
+import com.google.common.annotations.VisibleForTesting;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 import rocks.inspectit.ocelot.agentconfiguration.AgentConfiguration;
+import rocks.inspectit.ocelot.agentconfiguration.AgentConfigurationLongPollManager;
 import rocks.inspectit.ocelot.agentconfiguration.AgentConfigurationManager;
 import rocks.inspectit.ocelot.agentstatus.AgentStatusManager;
 import rocks.inspectit.ocelot.config.model.InspectitConfig;
+import rocks.inspectit.ocelot.config.model.InspectitServerSettings;
 import rocks.inspectit.ocelot.rest.AbstractBaseController;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 
 /**
@@ -24,30 +34,200 @@ import java.util.Map;
 @RestController
 public class AgentController extends AbstractBaseController {
 
+    private static final String PREFER_HEADER = "Prefer";
+
+    private static final String GZIP_ENCODING = "gzip";
+
+    private static final MediaType TEXT_PLAIN_UTF8 = new MediaType(MediaType.TEXT_PLAIN, AgentConfiguration.ENCODING);
+
+    /**
+     * Matches a zero quality value of a content coding in the "Accept-Encoding" header, e.g. ";q=0" or ";q=0.000".
+     */
+    private static final Pattern ZERO_QUALITY = Pattern.compile(";\\s*q\\s*=\\s*0(?:\\.0*)?\\s*$");
+
+    /**
+     * Matches the "wait" preference of the "Prefer" header (RFC 7240), the first group is the number of seconds.
+     */
+    private static final Pattern WAIT_PREFERENCE = Pattern.compile("(?:^|[,;\\s])wait\\s*=\\s*\"?(\\d+)\"?");
+
+    @Autowired
+    @VisibleForTesting
+    InspectitServerSettings config;
+
     @Autowired
     private AgentConfigurationManager configManager;
 
+    @Autowired
+    private AgentConfigurationLongPollManager longPollManager;
+
     @Autowired
     private AgentStatusManager statusManager;
 
     /**
      * Returns the {@link InspectitConfig} for the agent with the given name.
-     * Uses text/plain as mime type to ensure that the configuration is presented nicely when opened in a browser
+     * Uses text/plain as mime type to ensure that the configuration is presented nicely when opened in a browser.
+     * If the agent already has the current configuration, as indicated by the "If-None-Match" header, only 304 (not modified)
+     * is returned without a body.
+     * If the agent accepts gzip, as indicated by the "Accept-Encoding" header, the precompressed configuration is returned.
      *
-     * @param attributes the attributes of the agents used to select the mapping
+     * @param attributes     the attributes of the agents used to select the mapping
+     * @param ifNoneMatch    the value of the "If-None-Match" header, containing the ETag of the configuration the agent currently has
+     * @param acceptEncoding the value of the "Accept-Encoding" header
      * @return The configuration mapped on the given agent name
      */
     @ApiOperation(value = "Fetch the Agent Configuration", notes = "Reads the configuration for the given agent and returns it as a yaml string")
     @GetMapping(value = "agent/configuration", produces = "text/plain")
-    public ResponseEntity<String> fetchConfiguration(@ApiParam("The agent attributes used to select the correct mapping") @RequestParam Map<String, String> attributes) throws IOException {
+    public ResponseEntity<byte[]> fetchConfiguration(@ApiParam("The agent attributes used to select the correct mapping") @RequestParam Map<String, String> attributes,
+                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                     @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) throws IOException {
         AgentConfiguration configuration = configManager.getConfiguration(attributes);
+        return createResponse(attributes, configuration, ifNoneMatch, isGzipAccepted(acceptEncoding));
+    }
+
+    /**
+     * Long-polling variant of {@link #fetchConfiguration(Map, String, String)}, selected if the agent sends a "Prefer" header.
+     * If the "Prefer" header contains a "wait" preference and the configuration of the agent is unchanged, as indicated by the
+     * "If-None-Match" header, the request is held open until the configuration changes or the wait duration elapses.
+     * The wait duration is limited by {@link InspectitServerSettings#getMaxLongPollTimeout()}.
+     *
+     * @param attributes     the attributes of the agents used to select the mapping
+     * @param ifNoneMatch    the value of the "If-None-Match" header, containing the ETag of the configuration the agent currently has
+     * @param acceptEncoding the value of the "Accept-Encoding" header
+     * @param prefer         the value of the "Prefer" header, e.g. "wait=30" for waiting at most 30 seconds
+     * @return The configuration mapped on the given agent name
+     */
+    @ApiOperation(value = "Fetch the Agent Configuration using long-polling", notes = "Reads the configuration for the given agent and returns it as a yaml string. " +
+            "If the configuration is unchanged, the request is held open until the configuration changes or the duration given via the wait preference of the Prefer header elapses.")
+    @GetMapping(value = "agent/configuration", produces = "text/plain", headers = PREFER_HEADER)
+    public DeferredResult<ResponseEntity<byte[]>> fetchConfigurationLongPoll(@ApiParam("The agent attributes used to select the correct mapping") @RequestParam Map<String, String> attributes,
+                                                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                                             @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                                             @RequestHeader(PREFER_HEADER) String prefer) throws IOException {
+        AgentConfiguration configuration = configManager.getConfiguration(attributes);
+        boolean gzip = isGzipAccepted(acceptEncoding);
+        ResponseEntity<byte[]> response = createResponse(attributes, configuration, ifNoneMatch, gzip);
+        Duration wait = getWaitDuration(prefer);
+
+        if (response.getStatusCode() != HttpStatus.NOT_MODIFIED || wait.isZero()) {
+            DeferredResult<ResponseEntity<byte[]>> result = new DeferredResult<>();
+            result.setResult(response);
+            return result;
+        }
+
+        DeferredResult<ResponseEntity<byte[]>> result = new DeferredResult<>(wait.toMillis());
+        Runnable cancel = longPollManager.awaitChange(attributes, configuration.getHash(), newConfiguration ->
+                result.setResult(createResponse(attributes, newConfiguration, null, gzip)));
+        if (cancel == null) {
+            result.setResult(response);
+        } else {
+            result.onTimeout(() -> result.setResult(response));
+            result.onCompletion(cancel);
+        }
+        return result;
+    }
+
+    /**
+     * Creates the response for the given configuration using the precomputed payloads of the configuration.
+     *
+     * @param attributes    the attributes of the agent
+     * @param configuration the configuration of the agent, null if no mapping matches
+     * @param ifNoneMatch   the value of the "If-None-Match" header, may be null
+     * @param gzip          true, if the gzip-compressed payload shall be returned
+     * @return the response
+     */
+    private ResponseEntity<byte[]> createResponse(Map<String, String> attributes, AgentConfiguration configuration, String ifNoneMatch, boolean gzip) {
         statusManager.notifyAgentConfigurationFetched(attributes, configuration);
         if (configuration == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } else if (isETagMatching(ifNoneMatch, configuration.getHash())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(configuration.getHash())
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        } else if (gzip) {
+            return ResponseEntity.ok()
+                    .eTag(configuration.getHash())
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .header(HttpHeaders.CONTENT_ENCODING, GZIP_ENCODING)
+                    .contentType(TEXT_PLAIN_UTF8)
+                    .body(configuration.getGzipConfigBytes());
         } else {
             return ResponseEntity.ok()
                     .eTag(configuration.getHash())
-                    .body(configuration.getConfigYaml());
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .contentType(TEXT_PLAIN_UTF8)
+                    .body(configuration.getConfigBytes());
+        }
+    }
+
+    /**
+     * Checks if the given "Accept-Encoding" header value allows gzip, either explicitly or via the wildcard.
+     *
+     * @param acceptEncoding the header value, may be null
+     * @return true, if gzip is accepted with a non-zero quality
+     */
+    private boolean isGzipAccepted(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean wildcardAccepted = null;
+        for (String coding : acceptEncoding.split(",")) {
+            int parametersStart = coding.indexOf(';');
+            String name = (parametersStart < 0 ? coding : coding.substring(0, parametersStart)).trim();
+            boolean accepted = parametersStart < 0 || !ZERO_QUALITY.matcher(coding.substring(parametersStart)).find();
+            if (name.equalsIgnoreCase(GZIP_ENCODING) || name.equalsIgnoreCase("x-gzip")) {
+                return accepted;
+            } else if (name.equals("*")) {
+                wildcardAccepted = accepted;
+            }
+        }
+        return wildcardAccepted != null && wildcardAccepted;
+    }
+
+    /**
+     * Extracts the wait duration from the given "Prefer" header value, limited by {@link InspectitServerSettings#getMaxLongPollTimeout()}.
+     *
+     * @param prefer the header value
+     * @return the duration to wait for configuration changes, zero if no waiting shall be performed
+     */
+    private Duration getWaitDuration(String prefer) {
+        Duration maxWait = config.getMaxLongPollTimeout();
+        Matcher matcher = WAIT_PREFERENCE.matcher(prefer);
+        if (maxWait == null || !matcher.find()) {
+            return Duration.ZERO;
+        }
+        try {
+            Duration wait = Duration.ofSeconds(Long.parseLong(matcher.group(1)));
+            return wait.compareTo(maxWait) > 0 ? maxWait : wait;
+        } catch (NumberFormatException e) {
+            return maxWait;
+        }
+    }
+
+    /**
+     * Checks if the given "If-None-Match" header value contains the given ETag.
+     * The header may contain a list of ETags, each of which may be quoted and marked as weak.
+     *
+     * @param ifNoneMatch the header value, may be null
+     * @param eTag        the unquoted ETag to look for
+     * @return true, if the header contains the ETag or the wildcard
+     */
+    private boolean isETagMatching(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.length() >= 2 && candidate.startsWith("\"") && candidate.endsWith("\"")) {
+                candidate = candidate.substring(1, candidate.length() - 1);
+            }
+            if (candidate.equals("*") || candidate.equals(eTag)) {
+                return true;
+            }
         }
+        return false;
     }
 }
@@ -1,16 +1,26 @@
 package rocks.inspectit.ocelot.rest.agentstatus;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.annotations.ApiOperation;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import rocks.inspectit.ocelot.agentstatus.AgentStatus;
 import rocks.inspectit.ocelot.agentstatus.AgentStatusManager;
 import rocks.inspectit.ocelot.rest.AbstractBaseController;
 
-import java.util.Collection;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Iterator;
 import java.util.Map;
 
 
@@ -20,13 +30,56 @@ import java.util.Map;
 @RestController
 public class AgentStatusController extends AbstractBaseController {
 
+    /**
+     * The time after which a subscription to the status updates is closed by the server.
+     * Clients have to reconnect and fetch the statuses again afterwards.
+     */
+    private static final long UPDATES_TIMEOUT_MILLIS = Duration.ofMinutes(30).toMillis();
+
     @Autowired
     private AgentStatusManager statusManager;
 
-    @ApiOperation(value = "Fetch the List of Agent Statuses", notes = "Gives a list of connected agents")
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @ApiOperation(value = "Fetch the List of Agent Statuses", notes = "Gives a list of connected agents. The list is streamed, so that it is not held in memory at once.")
     @GetMapping(value = "agentstatus")
-    public Collection<AgentStatus> getAgentStatuses(@RequestParam Map<String, String> attributes) {
-        return statusManager.getAgentStatuses();
+    public ResponseEntity<StreamingResponseBody> getAgentStatuses() {
+        ObjectWriter writer = objectMapper.writerFor(AgentStatus.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                Iterator<AgentStatus> statuses = statusManager.getAgentStatuses().iterator();
+                while (statuses.hasNext()) {
+                    writer.writeValue(generator, statuses.next());
+                }
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .body(body);
+    }
+
+    @ApiOperation(value = "Subscribe to Agent Status Changes", notes = "Streams the changes of the agent statuses as server-sent events named 'update'. " +
+            "Clients should subscribe before fetching the list of agent statuses in order to not miss any change. " +
+            "Clients which cannot set the 'Authorization' header, like a browser's EventSource, can pass a token created " +
+            "via /api/v1/account/stream-token as query parameter 'access_token'.")
+    @GetMapping(value = "agentstatus/updates", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToAgentStatusUpdates() {
+        SseEmitter emitter = new SseEmitter(UPDATES_TIMEOUT_MILLIS);
+        Runnable unsubscribe = statusManager.subscribe(update -> {
+            try {
+                emitter.send(SseEmitter.event().name("update").data(update, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                // the client has disconnected or the emitter has already been completed,
+                // the subscription is cancelled by the completion callback
+            }
+        });
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        return emitter;
     }
 
     @ApiOperation(value = "Clear the List of Agent Statuses", notes = "Clears the list of connected agents")
@@ -78,7 +78,9 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
                 //TODO: The "correct" way of selectively enabling token based would be to have multiple spring security configs.
                 //However, previous attempts of doing so were unsuccessful, therefore we simply exclude them manually in the filter
                 .addFilterBefore(
-                        new JwtTokenFilter(tokenManager, Collections.singletonList("/api/v1/account/password")),
+                        new JwtTokenFilter(tokenManager,
+                                Collections.singletonList("/api/v1/account/password"),
+                                Collections.singletonList("/api/v1/agentstatus/updates")),
                         BasicAuthenticationFilter.class
                 );
     }
@@ -20,35 +20,53 @@ import java.util.List;
  * This filter performs token-based authentication.
  * Tokens are created via the {@link rocks.inspectit.ocelot.rest.users.AccountController}.
  * This Filter is registered by the {@link SecurityConfiguration}.
+ * <p>
+ * For the paths matching the {@link #queryTokenPatterns}, a stream token can alternatively be passed via the query
+ * parameter {@value #ACCESS_TOKEN_PARAMETER}. This is required by clients which cannot set headers, e.g. EventSources.
  */
 @AllArgsConstructor
 public class JwtTokenFilter extends GenericFilterBean {
 
+    /**
+     * The name of the query parameter containing a stream token.
+     */
+    public static final String ACCESS_TOKEN_PARAMETER = "access_token";
+
     private JwtTokenManager tokenManager;
 
     private List<String> excludePatterns;
 
+    /**
+     * The paths for which stream tokens are accepted via the {@link #ACCESS_TOKEN_PARAMETER} query parameter.
+     */
+    private List<String> queryTokenPatterns;
+
     private final AntPathMatcher pathMatcher = new AntPathMatcher();
 
     @Override
     public void doFilter(ServletRequest req, ServletResponse res, FilterChain chain) throws IOException, ServletException {
-        if (excludePatterns != null) {
-            String servletPath = ((HttpServletRequest) req).getServletPath();
-            for (String pattern : excludePatterns) {
-                if (pathMatcher.match(pattern, servletPath)) {
-                    chain.doFilter(req, res);
-                    return;
-                }
-            }
+        String servletPath = ((HttpServletRequest) req).getServletPath();
+        if (matchesAny(excludePatterns, servletPath)) {
+            chain.doFilter(req, res);
+            return;
         }
 
         String token = extractBearerToken((HttpServletRequest) req);
+        String streamToken = null;
+        if (token == null && matchesAny(queryTokenPatterns, servletPath)) {
+            streamToken = req.getParameter(ACCESS_TOKEN_PARAMETER);
+        }
 
         boolean authenticationThroughFilter = false;
 
-        if (token != null) {
+        if (token != null || !StringUtils.isEmpty(streamToken)) {
             try {
-                Authentication authentication = tokenManager.authenticateWithToken(token);
+                Authentication authentication;
+                if (token != null) {
+                    authentication = tokenManager.authenticateWithToken(token);
+                } else {
+                    authentication = tokenManager.authenticateWithStreamToken(streamToken);
+                }
                 SecurityContextHolder.getContext().setAuthentication(authentication);
                 authenticationThroughFilter = true;
             } catch (Exception e) {
@@ -61,6 +79,10 @@ public class JwtTokenFilter extends GenericFilterBean {
         }
     }
 
+    private boolean matchesAny(List<String> patterns, String servletPath) {
+        return patterns != null && patterns.stream().anyMatch(pattern -> pathMatcher.match(pattern, servletPath));
+    }
+
     /**
      * Extracts the bearer token from the 'Authorization' HTTP header
      *
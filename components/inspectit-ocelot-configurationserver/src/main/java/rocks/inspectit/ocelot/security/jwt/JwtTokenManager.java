@@ -18,13 +18,18 @@ import org.springframework.stereotype.Component;
 import rocks.inspectit.ocelot.config.model.InspectitServerSettings;
 
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Creates and verifies JWT based access tokens.
  * Tokens contain the name of the user and an expiration date.
  * Tokens are only considered valid if the expiration date has not been exceeded yet.
+ * <p>
+ * In addition, short-lived stream tokens can be created for clients which cannot set the 'Authorization' header, e.g.
+ * browsers opening an EventSource. These are passed as query parameter and are only accepted for streaming endpoints.
  */
 @Component
 @Slf4j
@@ -44,6 +49,23 @@ public class JwtTokenManager {
      */
     private Key secret = Keys.secretKeyFor(SignatureAlgorithm.HS256);
 
+    /**
+     * The time after which stream tokens expire. Stream tokens appear in URLs and therefore possibly in logs, so they
+     * only need to be valid long enough for opening the stream.
+     */
+    @VisibleForTesting
+    static final Duration STREAM_TOKEN_LIFESPAN = Duration.ofMinutes(1);
+
+    /**
+     * The name of the claim which distinguishes stream tokens from regular access tokens.
+     */
+    private static final String SCOPE_CLAIM = "scope";
+
+    /**
+     * The value of the {@link #SCOPE_CLAIM} of stream tokens.
+     */
+    private static final String STREAM_SCOPE = "stream";
+
     /**
      * Creates a token containing the specified username.
      * The token expires after the specified Duration via {@link InspectitServerSettings#getTokenLifespan()} from now.
@@ -52,16 +74,32 @@ public class JwtTokenManager {
      * @return the generated token
      */
     public String createToken(String username) {
+        return createToken(username, config.getTokenLifespan(), null);
+    }
+
+    /**
+     * Creates a stream token containing the specified username.
+     * The token expires after {@link #STREAM_TOKEN_LIFESPAN} and can only be used via {@link #authenticateWithStreamToken(String)}.
+     *
+     * @param username the username for which the token is generated
+     * @return the generated token
+     */
+    public String createStreamToken(String username) {
+        return createToken(username, STREAM_TOKEN_LIFESPAN, STREAM_SCOPE);
+    }
+
+    private String createToken(String username, Duration lifespan, String scope) {
         if (StringUtils.isEmpty(username)) {
             throw new IllegalArgumentException("Username must not be null or empty.");
         }
 
         Date now = new Date();
-        Date expiration = new Date(now.getTime() + config.getTokenLifespan().toMillis());
+        Date expiration = new Date(now.getTime() + lifespan.toMillis());
 
         return Jwts.builder()
                 .setSubject(username)
                 .setExpiration(expiration)
+                .claim(SCOPE_CLAIM, scope)
                 .signWith(secret)
                 .compact();
     }
@@ -76,14 +114,34 @@ public class JwtTokenManager {
      *
      * @param token the token to parse, created via {@link #createToken(String)}
      * @return the {@link Authentication} if the token was valid
-     * @throws JwtException              thrown if the token is invalid or has expired
+     * @throws JwtException              thrown if the token is invalid, has expired or is a stream token
      * @throws UsernameNotFoundException thrown if the user does not exist
      */
     public Authentication authenticateWithToken(String token) throws JwtException, UsernameNotFoundException {
+        return authenticate(token, null);
+    }
+
+    /**
+     * Performs authentication using a given stream token, see {@link #authenticateWithToken(String)}.
+     *
+     * @param token the token to parse, created via {@link #createStreamToken(String)}
+     * @return the {@link Authentication} if the token was valid
+     * @throws JwtException              thrown if the token is invalid, has expired or is no stream token
+     * @throws UsernameNotFoundException thrown if the user does not exist
+     */
+    public Authentication authenticateWithStreamToken(String token) throws JwtException, UsernameNotFoundException {
+        return authenticate(token, STREAM_SCOPE);
+    }
+
+    private Authentication authenticate(String token, String scope) throws JwtException, UsernameNotFoundException {
         Claims jwtToken = Jwts.parser().setSigningKey(secret)
                 .parseClaimsJws(token)
                 .getBody();
 
+        if (!Objects.equals(jwtToken.get(SCOPE_CLAIM, String.class), scope)) {
+            throw new JwtException("The token is not valid for this kind of authentication.");
+        }
+
         String username = jwtToken.getSubject();
         UserDetails userDetails = loadUser(username);
 
@@ -0,0 +1,80 @@
+package rocks.inspectit.ocelot.agentconfiguration;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import rocks.inspectit.ocelot.mappings.model.AgentMapping;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AgentConfigurationIndexTest {
+
+    private AgentConfiguration configuration(String name, String... attributes) {
+        AgentMapping.AgentMappingBuilder builder = AgentMapping.builder().name(name);
+        for (int i = 0; i < attributes.length; i += 2) {
+            builder.attribute(attributes[i], attributes[i + 1]);
+        }
+        return new AgentConfiguration(builder.build(), name);
+    }
+
+    @Nested
+    class Find {
+
+        @Test
+        void noConfigurations() {
+            AgentConfigurationIndex index = new AgentConfigurationIndex(Collections.emptyList());
+
+            assertThat(index.find(ImmutableMap.of("service", "test"))).isNull();
+        }
+
+        @Test
+        void literalAttributeMatched() {
+            AgentConfiguration first = configuration("first", "service", "my-service");
+            AgentConfiguration second = configuration("second", "service", "other-service");
+            AgentConfigurationIndex index = new AgentConfigurationIndex(Arrays.asList(first, second));
+
+            assertThat(index.find(ImmutableMap.of("service", "other-service"))).isSameAs(second);
+            assertThat(index.find(ImmutableMap.of("service", "my-service"))).isSameAs(first);
+            assertThat(index.find(ImmutableMap.of("service", "my-service-2"))).isNull();
+            assertThat(index.find(Collections.emptyMap())).isNull();
+        }
+
+        @Test
+        void priorityRespectedAcrossIndexedAndUnindexed() {
+            AgentConfiguration catchAll = configuration("catch-all", "service", ".*");
+            AgentConfiguration specific = configuration("specific", "service", "my-service");
+            AgentConfigurationIndex index = new AgentConfigurationIndex(Arrays.asList(catchAll, specific));
+
+            assertThat(index.find(ImmutableMap.of("service", "my-service"))).isSameAs(catchAll);
+
+            index = new AgentConfigurationIndex(Arrays.asList(specific, catchAll));
+
+            assertThat(index.find(ImmutableMap.of("service", "my-service"))).isSameAs(specific);
+            assertThat(index.find(ImmutableMap.of("service", "other"))).isSameAs(catchAll);
+        }
+
+        @Test
+        void allAttributesChecked() {
+            AgentConfiguration first = configuration("first", "service", "my-service", "application", "app-\\d+");
+            AgentConfiguration second = configuration("second", "application", "app-1");
+            AgentConfigurationIndex index = new AgentConfigurationIndex(Arrays.asList(first, second));
+
+            assertThat(index.find(ImmutableMap.of("service", "my-service", "application", "app-17"))).isSameAs(first);
+            assertThat(index.find(ImmutableMap.of("service", "my-service", "application", "foo"))).isNull();
+            assertThat(index.find(ImmutableMap.of("service", "other", "application", "app-1"))).isSameAs(second);
+        }
+
+        @Test
+        void mappingWithoutAttributes() {
+            AgentConfiguration specific = configuration("specific", "service", "my-service");
+            AgentConfiguration fallback = configuration("fallback");
+            AgentConfigurationIndex index = new AgentConfigurationIndex(Arrays.asList(specific, fallback));
+
+            assertThat(index.find(ImmutableMap.of("service", "my-service"))).isSameAs(specific);
+            assertThat(index.find(ImmutableMap.of("service", "other"))).isSameAs(fallback);
+        }
+    }
+}
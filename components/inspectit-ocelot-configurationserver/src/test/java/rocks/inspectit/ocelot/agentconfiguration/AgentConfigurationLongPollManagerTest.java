@@ -0,0 +1,120 @@
+package rocks.inspectit.ocelot.agentconfiguration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import rocks.inspectit.ocelot.config.model.InspectitServerSettings;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doReturn;
+
+@ExtendWith(MockitoExtension.class)
+public class AgentConfigurationLongPollManagerTest {
+
+    @Mock
+    AgentConfigurationManager configManager;
+
+    @InjectMocks
+    AgentConfigurationLongPollManager longPollManager;
+
+    Map<String, String> attributes = new HashMap<>();
+
+    List<AgentConfiguration> received = new ArrayList<>();
+
+    @BeforeEach
+    void init() {
+        longPollManager.config = InspectitServerSettings.builder().maxAgents(2).build();
+    }
+
+    @Nested
+    class AwaitChange {
+
+        @Test
+        void unchangedConfiguration() {
+            AgentConfiguration config = new AgentConfiguration(null, "foo : bar");
+            doReturn(config).when(configManager).getConfiguration(anyMap());
+
+            Runnable cancel = longPollManager.awaitChange(attributes, config.getHash(), received::add);
+            longPollManager.notifyPendingPolls();
+
+            assertThat(cancel).isNotNull();
+            assertThat(received).isEmpty();
+            assertThat(longPollManager.getPendingPollsCount()).isEqualTo(1);
+        }
+
+        @Test
+        void changedBeforeRegistration() {
+            AgentConfiguration config = new AgentConfiguration(null, "foo : bar");
+            doReturn(config).when(configManager).getConfiguration(anyMap());
+
+            longPollManager.awaitChange(attributes, "outdated", received::add);
+
+            assertThat(received).containsExactly(config);
+            assertThat(longPollManager.getPendingPollsCount()).isEqualTo(0);
+        }
+
+        @Test
+        void changedAfterRegistration() {
+            AgentConfiguration oldConfig = new AgentConfiguration(null, "foo : bar");
+            AgentConfiguration newConfig = new AgentConfiguration(null, "foo : baz");
+            doReturn(oldConfig).when(configManager).getConfiguration(anyMap());
+
+            longPollManager.awaitChange(attributes, oldConfig.getHash(), received::add);
+            doReturn(newConfig).when(configManager).getConfiguration(anyMap());
+            longPollManager.notifyPendingPolls();
+            longPollManager.notifyPendingPolls();
+
+            assertThat(received).containsExactly(newConfig);
+            assertThat(longPollManager.getPendingPollsCount()).isEqualTo(0);
+        }
+
+        @Test
+        void mappingRemoved() {
+            AgentConfiguration config = new AgentConfiguration(null, "foo : bar");
+            doReturn(config).when(configManager).getConfiguration(anyMap());
+
+            longPollManager.awaitChange(attributes, config.getHash(), received::add);
+            doReturn(null).when(configManager).getConfiguration(anyMap());
+            longPollManager.notifyPendingPolls();
+
+            assertThat(received).containsExactly((AgentConfiguration) null);
+        }
+
+        @Test
+        void cancelled() {
+            AgentConfiguration config = new AgentConfiguration(null, "foo : bar");
+            doReturn(config).when(configManager).getConfiguration(anyMap());
+
+            Runnable cancel = longPollManager.awaitChange(attributes, config.getHash(), received::add);
+            cancel.run();
+            doReturn(new AgentConfiguration(null, "foo : baz")).when(configManager).getConfiguration(anyMap());
+            longPollManager.notifyPendingPolls();
+
+            assertThat(received).isEmpty();
+            assertThat(longPollManager.getPendingPollsCount()).isEqualTo(0);
+        }
+
+        @Test
+        void limitReached() {
+            AgentConfiguration config = new AgentConfiguration(null, "foo : bar");
+            doReturn(config).when(configManager).getConfiguration(anyMap());
+
+            longPollManager.awaitChange(attributes, config.getHash(), received::add);
+            longPollManager.awaitChange(attributes, config.getHash(), received::add);
+            Runnable cancel = longPollManager.awaitChange(attributes, config.getHash(), received::add);
+
+            assertThat(cancel).isNull();
+            assertThat(longPollManager.getPendingPollsCount()).isEqualTo(2);
+        }
+    }
+}
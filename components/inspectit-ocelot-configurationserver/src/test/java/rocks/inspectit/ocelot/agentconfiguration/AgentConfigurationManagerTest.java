@@ -7,6 +7,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import rocks.inspectit.ocelot.config.model.InspectitServerSettings;
 import rocks.inspectit.ocelot.file.FileManager;
 import rocks.inspectit.ocelot.mappings.AgentMappingManager;
@@ -32,6 +33,9 @@ public class AgentConfigurationManagerTest {
     @Mock
     ExecutorService executor;
 
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     AgentConfigurationManager configManager;
 
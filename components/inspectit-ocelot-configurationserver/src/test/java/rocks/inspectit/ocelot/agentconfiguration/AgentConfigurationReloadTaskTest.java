@@ -1,9 +1,9 @@
 package rocks.inspectit.ocelot.agentconfiguration;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import rocks.inspectit.ocelot.file.FileInfo;
@@ -11,7 +11,13 @@ import rocks.inspectit.ocelot.file.FileManager;
 import rocks.inspectit.ocelot.mappings.model.AgentMapping;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
@@ -20,12 +26,20 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 public class AgentConfigurationReloadTaskTest {
 
-    @InjectMocks
     AgentConfigurationReloadTask reloadTask;
 
     @Mock
     FileManager fileManager;
 
+    ConfigurationFileCache fileCache;
+
+    @BeforeEach
+    void setupTask() {
+        fileCache = new ConfigurationFileCache();
+        reloadTask = new AgentConfigurationReloadTask(Collections.emptyList(), fileManager, fileCache, Runnable::run, 1, configurations -> {
+        });
+    }
+
     @Nested
     class LoadConfigForMapping {
 
@@ -132,4 +146,130 @@ public class AgentConfigurationReloadTaskTest {
             verify(fileManager, never()).readFile("folder/somethingelse");
         }
     }
+
+    @Nested
+    class Run {
+
+        @Test
+        void parallelLoadingPreservesOrder() {
+            doReturn(true).when(fileManager).exists(any());
+            doReturn(false).when(fileManager).isDirectory(any());
+            List<AgentMapping> mappings = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                mappings.add(AgentMapping.builder().name("mapping-" + i).source("file" + i + ".yml").build());
+                doReturn("{ val: " + i + "}").when(fileManager).readFile("file" + i + ".yml");
+            }
+            AtomicReference<List<AgentConfiguration>> result = new AtomicReference<>();
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                new AgentConfigurationReloadTask(mappings, fileManager, fileCache, executor, 4, result::set).run();
+            } finally {
+                executor.shutdown();
+            }
+
+            assertThat(result.get()).hasSize(50);
+            for (int i = 0; i < 50; i++) {
+                assertThat(result.get().get(i).getMapping()).isSameAs(mappings.get(i));
+                assertThat(result.get().get(i).getConfigYaml()).isEqualTo("{val: " + i + "}\n");
+            }
+        }
+
+        @Test
+        void mappingsFollowingFailedMappingSkipped() throws IOException {
+            doReturn(true).when(fileManager).exists(any());
+            doReturn(false).when(fileManager).isDirectory(any());
+            List<AgentMapping> mappings = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                mappings.add(AgentMapping.builder().name("mapping-" + i).source("file" + i + ".yml").build());
+            }
+            doReturn("{ val: 0}").when(fileManager).readFile("file0.yml");
+            doThrow(new IOException("broken")).when(fileManager).readFile("file1.yml");
+            doReturn("{ val: 2}").when(fileManager).readFile("file2.yml");
+            AtomicReference<List<AgentConfiguration>> result = new AtomicReference<>();
+
+            new AgentConfigurationReloadTask(mappings, fileManager, fileCache, Runnable::run, 1, result::set).run();
+
+            assertThat(result.get()).hasSize(1);
+            assertThat(result.get().get(0).getMapping()).isSameAs(mappings.get(0));
+        }
+
+        @Test
+        void canceledTaskDoesNotInvokeCallback() {
+            AtomicReference<List<AgentConfiguration>> result = new AtomicReference<>();
+            AgentConfigurationReloadTask task = new AgentConfigurationReloadTask(Collections.singletonList(AgentMapping.builder().build()), fileManager, fileCache, Runnable::run, 4, result::set);
+
+            task.cancel();
+            task.run();
+
+            assertThat(result.get()).isNull();
+        }
+    }
+
+    @Nested
+    class Caching {
+
+        AgentMapping mapping(String... sources) {
+            AgentMapping.AgentMappingBuilder builder = AgentMapping.builder();
+            for (String source : sources) {
+                builder.source(source);
+            }
+            return builder.build();
+        }
+
+        @Test
+        void sharedFileParsedOnce() throws IOException {
+            doReturn(true).when(fileManager).exists(any());
+            doReturn(false).when(fileManager).isDirectory(any());
+            doReturn("1").when(fileManager).getModificationStamp(any());
+            doReturn("{ val1: a}").when(fileManager).readFile("a.yml");
+            doReturn("{ val1: b, val2: b}").when(fileManager).readFile("b.yml");
+            doReturn("{ val1: c, val2: c}").when(fileManager).readFile("c.yml");
+
+            String first = reloadTask.loadConfigForMapping(mapping("a.yml", "b.yml"));
+            String second = reloadTask.loadConfigForMapping(mapping("a.yml", "c.yml"));
+
+            assertThat(first).isEqualTo("{val1: a, val2: b}\n");
+            assertThat(second).isEqualTo("{val1: a, val2: c}\n");
+            verify(fileManager, times(1)).readFile("a.yml");
+            verify(fileManager, times(1)).getModificationStamp("a.yml");
+        }
+
+        @Test
+        void unchangedConfigurationReused() throws IOException {
+            doReturn(true).when(fileManager).exists(any());
+            doReturn(false).when(fileManager).isDirectory(any());
+            doReturn("1").when(fileManager).getModificationStamp(any());
+            doReturn("{ val1: a}").when(fileManager).readFile("a.yml");
+
+            String first = reloadTask.loadConfigForMapping(mapping("a.yml"));
+            AgentConfigurationReloadTask nextTask = new AgentConfigurationReloadTask(Collections.emptyList(), fileManager, fileCache, Runnable::run, 1, configurations -> {
+            });
+            String second = nextTask.loadConfigForMapping(mapping("a.yml"));
+
+            assertThat(second).isSameAs(first);
+            verify(fileManager, times(1)).readFile("a.yml");
+        }
+
+        @Test
+        void changedFileReloaded() throws IOException {
+            doReturn(true).when(fileManager).exists(any());
+            doReturn(false).when(fileManager).isDirectory(any());
+            doReturn("1").when(fileManager).getModificationStamp("a.yml");
+            doReturn("1").when(fileManager).getModificationStamp("b.yml");
+            doReturn("{ val1: a}").when(fileManager).readFile("a.yml");
+            doReturn("{ val1: b, val2: b}").when(fileManager).readFile("b.yml");
+
+            reloadTask.loadConfigForMapping(mapping("a.yml", "b.yml"));
+
+            doReturn("2").when(fileManager).getModificationStamp("b.yml");
+            doReturn("{ val2: changed}").when(fileManager).readFile("b.yml");
+            AgentConfigurationReloadTask nextTask = new AgentConfigurationReloadTask(Collections.emptyList(), fileManager, fileCache, Runnable::run, 1, configurations -> {
+            });
+            String result = nextTask.loadConfigForMapping(mapping("a.yml", "b.yml"));
+
+            assertThat(result).isEqualTo("{val1: a, val2: changed}\n");
+            verify(fileManager, times(1)).readFile("a.yml");
+            verify(fileManager, times(2)).readFile("b.yml");
+        }
+    }
 }
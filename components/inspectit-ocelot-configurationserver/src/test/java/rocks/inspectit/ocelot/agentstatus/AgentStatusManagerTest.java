@@ -12,8 +12,11 @@ import rocks.inspectit.ocelot.config.model.InspectitServerSettings;
 import rocks.inspectit.ocelot.mappings.model.AgentMapping;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -30,6 +33,7 @@ public class AgentStatusManagerTest {
                 .agentEvictionDelay(Duration.ofDays(1))
                 .build();
         manager.reset();
+        manager.updateExecutor = Runnable::run;
     }
 
     @Nested
@@ -102,4 +106,171 @@ public class AgentStatusManagerTest {
                     });
         }
     }
+
+    @Nested
+    class GetAgentStatuses {
+
+        @Test
+        void attributeValuesShared() {
+            manager.notifyAgentConfigurationFetched(ImmutableMap.of("service", new String("test"), "host", "a"), null);
+            manager.notifyAgentConfigurationFetched(ImmutableMap.of("service", new String("test"), "host", "b"), null);
+
+            List<AgentStatus> statuses = manager.getAgentStatuses().collect(Collectors.toList());
+
+            assertThat(statuses).hasSize(2);
+            assertThat(statuses.get(0).getAttributes().get("service"))
+                    .isEqualTo("test")
+                    .isSameAs(statuses.get(1).getAttributes().get("service"));
+        }
+
+        @Test
+        void attributeOrderIgnored() {
+            Map<String, String> attributes = ImmutableMap.of("service", "test", "host", "a");
+            manager.notifyAgentConfigurationFetched(attributes, null);
+            manager.notifyAgentConfigurationFetched(ImmutableMap.of("host", "a", "service", "test"), null);
+
+            assertThat(manager.getAgentStatuses())
+                    .hasSize(1)
+                    .anySatisfy(status -> assertThat(status.getAttributes()).isEqualTo(attributes));
+        }
+
+        @Test
+        void sizeLimited() {
+            manager.config.setMaxAgents(1);
+            manager.reset();
+
+            manager.notifyAgentConfigurationFetched(ImmutableMap.of("service", "first"), null);
+            manager.notifyAgentConfigurationFetched(ImmutableMap.of("service", "second"), null);
+
+            assertThat(manager.getAgentStatuses())
+                    .hasSize(1)
+                    .anySatisfy(status -> assertThat(status.getAttributes()).containsEntry("service", "second"));
+        }
+    }
+
+    @Nested
+    class PublishChanges {
+
+        List<AgentStatusUpdate> updates = new ArrayList<>();
+
+        @Test
+        void noChange() {
+            manager.subscribe(updates::add);
+
+            manager.publishChanges();
+
+            assertThat(updates).isEmpty();
+        }
+
+        @Test
+        void changesCombined() {
+            Map<String, String> attributes = ImmutableMap.of("service", "test");
+            AgentConfiguration conf = new AgentConfiguration(
+                    AgentMapping.builder()
+                            .name("test-conf")
+                            .build(), "");
+            manager.subscribe(updates::add);
+
+            manager.notifyAgentConfigurationFetched(attributes, null);
+            manager.notifyAgentConfigurationFetched(attributes, conf);
+            manager.publishChanges();
+
+            assertThat(updates).hasSize(1);
+            AgentStatusUpdate update = updates.get(0);
+            assertThat(update.isCleared()).isFalse();
+            assertThat(update.getRemovedAgents()).isEmpty();
+            assertThat(update.getUpdatedAgents())
+                    .hasSize(1)
+                    .anySatisfy(status -> {
+                        assertThat(status.getAttributes()).isEqualTo(attributes);
+                        assertThat(status.getMappingName()).isEqualTo("test-conf");
+                    });
+
+            manager.publishChanges();
+
+            assertThat(updates).hasSize(1);
+        }
+
+        @Test
+        void evictionPublished() {
+            manager.config.setMaxAgents(1);
+            manager.reset();
+            manager.subscribe(updates::add);
+
+            manager.notifyAgentConfigurationFetched(ImmutableMap.of("service", "first"), null);
+            manager.notifyAgentConfigurationFetched(ImmutableMap.of("service", "second"), null);
+            manager.publishChanges();
+
+            assertThat(updates).hasSize(1);
+            AgentStatusUpdate update = updates.get(0);
+            assertThat(update.getRemovedAgents()).containsExactly(ImmutableMap.of("service", "first"));
+            assertThat(update.getUpdatedAgents())
+                    .hasSize(1)
+                    .anySatisfy(status -> assertThat(status.getAttributes()).containsEntry("service", "second"));
+        }
+
+        @Test
+        void resetPublished() {
+            manager.notifyAgentConfigurationFetched(ImmutableMap.of("service", "test"), null);
+            manager.subscribe(updates::add);
+
+            manager.reset();
+            manager.publishChanges();
+
+            assertThat(updates).hasSize(1);
+            assertThat(updates.get(0).isCleared()).isTrue();
+            assertThat(updates.get(0).getUpdatedAgents()).isEmpty();
+        }
+
+        @Test
+        void slowSubscriberUpdatesCombined() {
+            List<Runnable> deliveries = new ArrayList<>();
+            manager.updateExecutor = deliveries::add;
+            manager.subscribe(updates::add);
+
+            manager.notifyAgentConfigurationFetched(ImmutableMap.of("service", "first"), null);
+            manager.notifyAgentConfigurationFetched(ImmutableMap.of("service", "second"), null);
+            manager.publishChanges();
+            manager.notifyAgentConfigurationFetched(ImmutableMap.of("service", "second"), null);
+            manager.notifyAgentConfigurationFetched(ImmutableMap.of("service", "third"), null);
+            manager.publishChanges();
+
+            assertThat(deliveries).hasSize(1);
+            assertThat(updates).isEmpty();
+
+            deliveries.get(0).run();
+
+            assertThat(updates).hasSize(1);
+            assertThat(updates.get(0).getUpdatedAgents())
+                    .extracting(AgentStatus::getAttributes)
+                    .containsExactlyInAnyOrder(ImmutableMap.of("service", "first"), ImmutableMap.of("service", "second"), ImmutableMap.of("service", "third"));
+        }
+
+        @Test
+        void slowSubscriberDoesNotDelayOthers() {
+            List<Runnable> deliveries = new ArrayList<>();
+            manager.updateExecutor = deliveries::add;
+            List<AgentStatusUpdate> otherUpdates = new ArrayList<>();
+            manager.subscribe(updates::add);
+            manager.subscribe(otherUpdates::add);
+
+            manager.notifyAgentConfigurationFetched(ImmutableMap.of("service", "test"), null);
+            manager.publishChanges();
+            deliveries.get(1).run();
+
+            assertThat(deliveries).hasSize(2);
+            assertThat(updates.size() + otherUpdates.size()).isEqualTo(1);
+        }
+
+        @Test
+        void unsubscribed() {
+            Runnable unsubscribe = manager.subscribe(updates::add);
+
+            unsubscribe.run();
+            manager.notifyAgentConfigurationFetched(ImmutableMap.of("service", "test"), null);
+            manager.publishChanges();
+
+            assertThat(updates).isEmpty();
+        }
+    }
 }
@@ -0,0 +1,62 @@
+package rocks.inspectit.ocelot.agentstatus;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AgentStatusUpdateTest {
+
+    @Nested
+    class Combine {
+
+        Map<String, String> first = ImmutableMap.of("service", "first");
+
+        Map<String, String> second = ImmutableMap.of("service", "second");
+
+        @Test
+        void latestStatusKept() {
+            AgentStatus oldStatus = new AgentStatus(first, new Date(1000), null);
+            AgentStatus newStatus = new AgentStatus(first, new Date(2000), "mapping");
+            AgentStatus otherStatus = new AgentStatus(second, new Date(1000), null);
+            AgentStatusUpdate previous = new AgentStatusUpdate(false, Collections.emptyList(), Arrays.asList(oldStatus, otherStatus));
+            AgentStatusUpdate next = new AgentStatusUpdate(false, Collections.emptyList(), Collections.singletonList(newStatus));
+
+            AgentStatusUpdate result = previous.combine(next);
+
+            assertThat(result.isCleared()).isFalse();
+            assertThat(result.getRemovedAgents()).isEmpty();
+            assertThat(result.getUpdatedAgents()).containsExactly(newStatus, otherStatus);
+        }
+
+        @Test
+        void removalDiscardsPreviousStatus() {
+            AgentStatus status = new AgentStatus(first, new Date(1000), null);
+            AgentStatusUpdate previous = new AgentStatusUpdate(true, Collections.singletonList(second), Collections.singletonList(status));
+            AgentStatusUpdate next = new AgentStatusUpdate(false, Collections.singletonList(first), Collections.emptyList());
+
+            AgentStatusUpdate result = previous.combine(next);
+
+            assertThat(result.isCleared()).isTrue();
+            assertThat(result.getRemovedAgents()).containsExactly(second, first);
+            assertThat(result.getUpdatedAgents()).isEmpty();
+        }
+
+        @Test
+        void clearingReplacesPreviousChanges() {
+            AgentStatus status = new AgentStatus(first, new Date(1000), null);
+            AgentStatusUpdate previous = new AgentStatusUpdate(false, Collections.singletonList(second), Collections.singletonList(status));
+            AgentStatusUpdate next = new AgentStatusUpdate(true, Collections.emptyList(), Collections.emptyList());
+
+            AgentStatusUpdate result = previous.combine(next);
+
+            assertThat(result).isSameAs(next);
+        }
+    }
+}
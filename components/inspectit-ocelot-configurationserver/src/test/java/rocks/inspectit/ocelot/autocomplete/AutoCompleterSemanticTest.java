@@ -12,9 +12,12 @@ import rocks.inspectit.ocelot.file.FileManager;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -82,4 +85,57 @@ public class AutoCompleterSemanticTest {
 
         }
     }
+
+    @Nested
+    public class KeyIndex {
+
+        private final List<String> scopesPath = Arrays.asList("inspectit", "instrumentation", "scopes");
+
+        @Test
+        public void keysMergedAcrossFiles() throws IOException {
+            AutoCompleterSemantic autoCompleter1 = Mockito.spy(autoCompleter);
+            when(manager.readFile("a.yml")).thenReturn("inspectit: {instrumentation: {scopes: {s2: null, s1: null}}}");
+            when(manager.readFile("b.yml")).thenReturn("- inspectit: {instrumentation: {scopes: {s3: null}}}\n" +
+                    "- inspectit: {instrumentation: {scopes: {s2: null}}}");
+            Mockito.doReturn(Arrays.asList("a.yml", "b.yml")).when(autoCompleter1).getAllPaths();
+
+            assertThat(autoCompleter1.getSuggestions(scopesPath)).containsExactly("s2", "s1", "s3");
+            assertThat(autoCompleter1.getSuggestions(Arrays.asList("inspectit", "instrumentation"))).containsExactly("scopes");
+            assertThat(autoCompleter1.getSuggestions(Arrays.asList("inspectit", "metrics"))).isEmpty();
+        }
+
+        @Test
+        public void indexReusedWithoutChanges() throws IOException {
+            AutoCompleterSemantic autoCompleter1 = Mockito.spy(autoCompleter);
+            when(manager.readFile("a.yml")).thenReturn("inspectit: {instrumentation: {scopes: {s1: null}}}");
+            Mockito.doReturn(Arrays.asList("a.yml")).when(autoCompleter1).getAllPaths();
+
+            autoCompleter1.getSuggestions(scopesPath);
+            List<String> result = autoCompleter1.getSuggestions(scopesPath);
+
+            assertThat(result).containsExactly("s1");
+            verify(autoCompleter1, times(1)).getAllPaths();
+            verify(manager, times(1)).readFile("a.yml");
+        }
+
+        @Test
+        public void onlyModifiedFilesParsedAfterChange() throws IOException {
+            AutoCompleterSemantic autoCompleter1 = Mockito.spy(autoCompleter);
+            when(manager.getModificationStamp("a.yml")).thenReturn("1");
+            when(manager.getModificationStamp("b.yml")).thenReturn("1", "2");
+            when(manager.readFile("a.yml")).thenReturn("inspectit: {instrumentation: {scopes: {s1: null}}}");
+            when(manager.readFile("b.yml")).thenReturn("inspectit: {instrumentation: {scopes: {s2: null}}}",
+                    "inspectit: {instrumentation: {scopes: {s3: null}}}");
+            Mockito.doReturn(Arrays.asList("a.yml", "b.yml")).when(autoCompleter1).getAllPaths();
+
+            List<String> first = autoCompleter1.getSuggestions(scopesPath);
+            autoCompleter1.onFileChanged();
+            List<String> second = autoCompleter1.getSuggestions(scopesPath);
+
+            assertThat(first).containsExactly("s1", "s2");
+            assertThat(second).containsExactly("s1", "s3");
+            verify(manager, times(1)).readFile("a.yml");
+            verify(manager, times(2)).readFile("b.yml");
+        }
+    }
 }
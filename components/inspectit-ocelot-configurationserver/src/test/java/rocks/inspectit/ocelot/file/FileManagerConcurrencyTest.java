@@ -0,0 +1,114 @@
+package rocks.inspectit.ocelot.file;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import rocks.inspectit.ocelot.config.model.InspectitServerSettings;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark of the {@link FileManager} under a mixed workload of concurrent readers and a writer.
+ * In addition, it verifies that readers never observe a partially written file.
+ */
+@ExtendWith(MockitoExtension.class)
+public class FileManagerConcurrencyTest {
+
+    private static final Logger log = LoggerFactory.getLogger(FileManagerConcurrencyTest.class);
+
+    private static final Path workDir = Paths.get("temp_test_workdir_concurrency");
+
+    private static final int READER_THREADS = 8;
+
+    private static final long DURATION_MILLIS = 2000;
+
+    private static final String CONTENT_A = StringUtils.repeat("a: 1\n", 20000);
+
+    private static final String CONTENT_B = StringUtils.repeat("b: 2\n", 20000);
+
+    @InjectMocks
+    private FileManager fm;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    void setupFileManager() throws Exception {
+        InspectitServerSettings conf = new InspectitServerSettings();
+        conf.setWorkingDirectory(workDir.toString());
+        fm.config = conf;
+        fm.init();
+        for (int i = 0; i < 20; i++) {
+            fm.createOrReplaceFile("dir" + (i % 4) + "/file" + i + ".yml", "key: " + i);
+        }
+        fm.createOrReplaceFile("shared.yml", CONTENT_A);
+    }
+
+    @AfterEach
+    void cleanFileManager() throws Exception {
+        fm.destroy();
+        FileUtils.deleteDirectory(workDir.toFile());
+    }
+
+    @Test
+    void mixedReadWriteWorkload() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(READER_THREADS + 1);
+        AtomicLong reads = new AtomicLong();
+        AtomicLong writes = new AtomicLong();
+        long deadline = System.currentTimeMillis() + DURATION_MILLIS;
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < READER_THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    while (System.currentTimeMillis() < deadline) {
+                        String content = fm.readFile("shared.yml");
+                        assertThat(content).isIn(CONTENT_A, CONTENT_B);
+                        assertThat(fm.getFilesInDirectory("", true)).hasSize(5);
+                        reads.addAndGet(2);
+                    }
+                    return null;
+                }));
+            }
+            futures.add(executor.submit(() -> {
+                boolean writeA = false;
+                while (System.currentTimeMillis() < deadline) {
+                    fm.createOrReplaceFile("shared.yml", writeA ? CONTENT_A : CONTENT_B);
+                    writeA = !writeA;
+                    writes.incrementAndGet();
+                }
+                return null;
+            }));
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        double seconds = DURATION_MILLIS / 1000.0;
+        log.info("{} reader threads: {} reads/s, 1 writer thread: {} writes/s",
+                READER_THREADS, Math.round(reads.get() / seconds), Math.round(writes.get() / seconds));
+        assertThat(reads.get()).isPositive();
+        assertThat(writes.get()).isPositive();
+    }
+}
@@ -21,6 +21,7 @@ import java.util.stream.Collectors;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -55,12 +56,15 @@ public class FileManagerTest {
 
     @AfterEach
     private void cleanFileManager() throws Exception {
+        fm.destroy();
         deleteDirectory(fmRoot);
     }
 
 
-    private static void setupTestFiles(String... paths) {
+    private void setupTestFiles(String... paths) {
         try {
+            // the watch service is stopped while the files are created, so that no events are published for them
+            fm.destroy();
             for (String path : paths) {
                 if (!path.contains("=")) {
                     Files.createDirectories(fmRoot.resolve(FileManager.FILES_SUBFOLDER).resolve(path));
@@ -72,6 +76,7 @@ public class FileManagerTest {
                     Files.write(file, content.getBytes(FileManager.ENCODING));
                 }
             }
+            fm.init();
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -171,6 +176,47 @@ public class FileManagerTest {
         }
 
 
+        @Test
+        void listingUpdatedByModifications() throws Exception {
+            setupTestFiles("topA");
+
+            fm.createOrReplaceFile("topA/nested/fileA", "");
+            fm.move("topA/nested", "topB");
+
+            assertThat(fm.getFilesInDirectory("", true))
+                    .hasSize(2)
+                    .anySatisfy((f) -> {
+                        assertThat(f.getName()).isEqualTo("topA");
+                        assertThat(f.getChildren()).isEmpty();
+                    })
+                    .anySatisfy((f) -> {
+                        assertThat(f.getName()).isEqualTo("topB");
+                        assertThat(f.getChildren()).hasSize(1).allSatisfy((f2) -> assertThat(f2.getName()).isEqualTo("fileA"));
+                    });
+        }
+
+        @Test
+        void externalModificationsDetected() throws Exception {
+            Path file = fmRoot.resolve(FileManager.FILES_SUBFOLDER).resolve("topA").resolve("fileA");
+            Files.createDirectories(file.getParent());
+            Files.write(file, new byte[0]);
+
+            long deadline = System.currentTimeMillis() + 30000;
+            while (fm.getFilesInDirectory("", true).stream().noneMatch(f -> !f.getChildren().isEmpty()) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+
+            assertThat(fm.getFilesInDirectory("topA", true))
+                    .hasSize(1)
+                    .anySatisfy((f) -> assertThat(f.getName()).isEqualTo("fileA"));
+        }
+
+        @Test
+        void listNonExistingDirectory() {
+            assertThatThrownBy(() -> fm.getFilesInDirectory("topA", true))
+                    .isInstanceOf(NoSuchFileException.class);
+        }
+
         @Test
         void verifyFilesOutsideWorkdirNotAccessible() {
             setupTestFiles("top");
@@ -428,6 +474,17 @@ public class FileManagerTest {
             assertThat(fm.readFile("./sub/../sub/fileB")).isEqualTo("something\nsomething else");
         }
 
+        @Test
+        void externalModificationPublishesEvent() throws Exception {
+            setupTestFiles("sub/fileA=something");
+
+            Path file = fmRoot.resolve(FileManager.FILES_SUBFOLDER).resolve("sub").resolve("fileA");
+            Files.write(file, "something else".getBytes(FileManager.ENCODING));
+
+            verify(eventPublisher, timeout(30000)).publishEvent(any(FileChangedEvent.class));
+            assertThat(fm.readFile("sub/fileA")).isEqualTo("something else");
+        }
+
 
         @Test
         void readDirectory() {
@@ -451,6 +508,59 @@ public class FileManagerTest {
     }
 
 
+    @Nested
+    class GetModificationStamp {
+
+        @Test
+        void stampChangedOnModification() throws Exception {
+            setupTestFiles("fileA=foo");
+
+            String before = fm.getModificationStamp("fileA");
+            fm.createOrReplaceFile("fileA", "foo bar");
+            String after = fm.getModificationStamp("fileA");
+
+            assertThat(before).isNotEqualTo(after);
+            assertThat(fm.getModificationStamp("fileA")).isEqualTo(after);
+        }
+
+        @Test
+        void stampChangedOnModificationWithSameSize() throws Exception {
+            setupTestFiles("fileA=foo");
+
+            fm.createOrReplaceFile("fileA", "bar");
+            String before = fm.getModificationStamp("fileA");
+            fm.createOrReplaceFile("fileA", "baz");
+            String after = fm.getModificationStamp("fileA");
+
+            assertThat(before).isNotEqualTo(after);
+        }
+
+        @Test
+        void stampChangedWhenReplacedByMove() throws Exception {
+            setupTestFiles("fileA=foo", "dir/fileA=bar");
+
+            String before = fm.getModificationStamp("fileA");
+            fm.deleteFile("fileA");
+            fm.move("dir/fileA", "fileA");
+            String after = fm.getModificationStamp("fileA");
+
+            assertThat(before).isNotEqualTo(after);
+        }
+
+        @Test
+        void nonExistingFile() {
+            assertThatThrownBy(() -> fm.getModificationStamp("fileA"))
+                    .isInstanceOf(NoSuchFileException.class);
+        }
+
+        @Test
+        void verifyFilesOutsideWorkdirNotAccessible() {
+            assertThatThrownBy(() -> fm.getModificationStamp("../someFile"))
+                    .isInstanceOf(AccessDeniedException.class);
+        }
+    }
+
+
     @Nested
     class CreateOrReplaceFile {
 
@@ -0,0 +1,134 @@
+package rocks.inspectit.ocelot.rest.agent;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import rocks.inspectit.ocelot.IntegrationTestBase;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load-test harness simulating a large number of agents polling their configuration.
+ * Each simulated agent behaves like the HTTP property source of the agent: it sends the ETag of the last received
+ * configuration via the "If-None-Match" header. The achieved requests per second and the average number of bytes per poll
+ * are logged.
+ */
+public class AgentControllerLoadIntTest extends IntegrationTestBase {
+
+    private static final Logger log = LoggerFactory.getLogger(AgentControllerLoadIntTest.class);
+
+    private static final String CONFIGURATION_URL = "/api/v1/agent/configuration?service={service}";
+
+    private static final int AGENT_COUNT = 2000;
+
+    private static final int POLLS_PER_AGENT = 3;
+
+    private static final int THREADS = 32;
+
+    /**
+     * A simulated agent, remembering the ETag of its configuration.
+     */
+    private class SimulatedAgent {
+
+        private final String service;
+
+        private String eTag;
+
+        SimulatedAgent(String service) {
+            this.service = service;
+        }
+
+        /**
+         * Polls the configuration once.
+         *
+         * @return the number of bytes of the response body
+         */
+        long poll() {
+            HttpHeaders headers = new HttpHeaders();
+            if (eTag != null) {
+                headers.setIfNoneMatch(eTag);
+            }
+            ResponseEntity<String> response = rest.exchange(CONFIGURATION_URL, HttpMethod.GET, new HttpEntity<>(headers), String.class, service);
+            assertThat(response.getStatusCode()).isIn(HttpStatus.OK, HttpStatus.NOT_MODIFIED);
+            if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                assertThat(response.getBody()).isNull();
+            }
+            eTag = response.getHeaders().getETag();
+            return response.getBody() == null ? 0 : response.getBody().getBytes(StandardCharsets.UTF_8).length;
+        }
+    }
+
+    @Test
+    void pollingAgents() throws Exception {
+        writeConfigurationAndAwaitReload();
+
+        List<SimulatedAgent> agents = new ArrayList<>();
+        for (int i = 0; i < AGENT_COUNT; i++) {
+            agents.add(new SimulatedAgent("service-" + i));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            long initialBytes = pollAll(executor, agents);
+            log.info("Initial poll of {} agents: {} bytes per poll", AGENT_COUNT, initialBytes / AGENT_COUNT);
+
+            long start = System.nanoTime();
+            long bytes = 0;
+            for (int i = 1; i < POLLS_PER_AGENT; i++) {
+                bytes += pollAll(executor, agents);
+            }
+            double seconds = (System.nanoTime() - start) / 1E9;
+            int requests = AGENT_COUNT * (POLLS_PER_AGENT - 1);
+            log.info("Repeated polls: {} requests in {}s, {} requests per second, {} bytes per poll",
+                    requests, String.format("%.2f", seconds), String.format("%.0f", requests / seconds), bytes / requests);
+
+            assertThat(initialBytes).isGreaterThan(0);
+            assertThat(bytes).isEqualTo(0);
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private long pollAll(ExecutorService executor, List<SimulatedAgent> agents) throws Exception {
+        AtomicLong bytes = new AtomicLong();
+        List<Future<?>> futures = new ArrayList<>();
+        for (SimulatedAgent agent : agents) {
+            futures.add(executor.submit(() -> bytes.addAndGet(agent.poll())));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        return bytes.get();
+    }
+
+    private void writeConfigurationAndAwaitReload() throws Exception {
+        StringBuilder content = new StringBuilder("inspectit:\n  metrics:\n    definitions:\n");
+        for (int i = 0; i < 100; i++) {
+            content.append("      '[load/test/metric-").append(i).append("]':\n        unit: ms\n");
+        }
+        authRest.put("/api/v1/files/load-test.yml?raw=true", content.toString());
+
+        long deadline = System.currentTimeMillis() + 10000;
+        ResponseEntity<String> response;
+        do {
+            Thread.sleep(100);
+            response = rest.getForEntity(CONFIGURATION_URL, String.class, "reload-check");
+        } while ((response.getBody() == null || !response.getBody().contains("load/test")) && System.currentTimeMillis() < deadline);
+        assertThat(response.getBody()).contains("load/test");
+    }
+}
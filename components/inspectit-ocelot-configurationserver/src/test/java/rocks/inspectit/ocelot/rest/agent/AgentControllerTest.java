@@ -1,18 +1,28 @@
 package rocks.inspectit.ocelot.rest.agent;
 
+import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
 import rocks.inspectit.ocelot.agentconfiguration.AgentConfiguration;
+import rocks.inspectit.ocelot.agentconfiguration.AgentConfigurationLongPollManager;
 import rocks.inspectit.ocelot.agentconfiguration.AgentConfigurationManager;
 import rocks.inspectit.ocelot.agentstatus.AgentStatusManager;
+import rocks.inspectit.ocelot.config.model.InspectitServerSettings;
 
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -29,6 +39,9 @@ public class AgentControllerTest {
     @Mock
     AgentStatusManager statusManager;
 
+    @Mock
+    AgentConfigurationLongPollManager longPollManager;
+
     @Nested
     public class FetchConfiguration {
 
@@ -38,7 +51,7 @@ public class AgentControllerTest {
                     .when(configManager).getConfiguration(anyMap());
 
             HashMap<String, String> attributes = new HashMap<>();
-            ResponseEntity<String> result = controller.fetchConfiguration(attributes);
+            ResponseEntity<byte[]> result = controller.fetchConfiguration(attributes, null, null);
 
             assertThat(result.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
             verify(statusManager).notifyAgentConfigurationFetched(same(attributes), isNull());
@@ -51,10 +64,10 @@ public class AgentControllerTest {
                     .when(configManager).getConfiguration(anyMap());
 
             HashMap<String, String> attributes = new HashMap<>();
-            ResponseEntity<String> result = controller.fetchConfiguration(attributes);
+            ResponseEntity<byte[]> result = controller.fetchConfiguration(attributes, null, null);
 
             assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
-            assertThat(result.getBody()).isEqualTo("foo : bar");
+            assertThat(result.getBody()).isEqualTo("foo : bar".getBytes(AgentConfiguration.ENCODING));
             verify(statusManager).notifyAgentConfigurationFetched(same(attributes), same(config));
         }
 
@@ -64,16 +77,154 @@ public class AgentControllerTest {
             doReturn(new AgentConfiguration(null, "foo : bar"))
                     .when(configManager).getConfiguration(anyMap());
 
-            ResponseEntity<String> firstResult = controller.fetchConfiguration(new HashMap<>());
-            ResponseEntity<String> secondResult = controller.fetchConfiguration(new HashMap<>());
+            ResponseEntity<byte[]> firstResult = controller.fetchConfiguration(new HashMap<>(), null, null);
+            ResponseEntity<byte[]> secondResult = controller.fetchConfiguration(new HashMap<>(), null, null);
 
             assertThat(firstResult.getStatusCode()).isEqualTo(HttpStatus.OK);
-            assertThat(firstResult.getBody()).isEqualTo("foo : bar");
+            assertThat(firstResult.getBody()).isEqualTo("foo : bar".getBytes(AgentConfiguration.ENCODING));
             assertThat(secondResult.getStatusCode()).isEqualTo(HttpStatus.OK);
-            assertThat(secondResult.getBody()).isEqualTo("foo : bar");
+            assertThat(secondResult.getBody()).isEqualTo("foo : bar".getBytes(AgentConfiguration.ENCODING));
             assertThat(firstResult.getHeaders().getFirst("ETag"))
                     .isNotBlank()
                     .isEqualTo(secondResult.getHeaders().getFirst("ETag"));
         }
+
+        @Test
+        public void notModifiedForMatchingETag() throws Exception {
+            AgentConfiguration config = new AgentConfiguration(null, "foo : bar");
+            doReturn(config)
+                    .when(configManager).getConfiguration(anyMap());
+
+            HashMap<String, String> attributes = new HashMap<>();
+            ResponseEntity<byte[]> firstResult = controller.fetchConfiguration(attributes, null, null);
+            String eTag = firstResult.getHeaders().getFirst("ETag");
+            ResponseEntity<byte[]> secondResult = controller.fetchConfiguration(attributes, eTag, null);
+
+            assertThat(secondResult.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+            assertThat(secondResult.getBody()).isNull();
+            assertThat(secondResult.getHeaders().getFirst("ETag")).isEqualTo(eTag);
+            verify(statusManager, times(2)).notifyAgentConfigurationFetched(same(attributes), same(config));
+        }
+
+        @Test
+        public void notModifiedForWeakETagInList() throws Exception {
+            AgentConfiguration config = new AgentConfiguration(null, "foo : bar");
+            doReturn(config)
+                    .when(configManager).getConfiguration(anyMap());
+
+            ResponseEntity<byte[]> result = controller.fetchConfiguration(new HashMap<>(), "\"other\", W/\"" + config.getHash() + "\"", null);
+
+            assertThat(result.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        }
+
+        @Test
+        public void modifiedForOutdatedETag() throws Exception {
+            doReturn(new AgentConfiguration(null, "foo : bar"))
+                    .when(configManager).getConfiguration(anyMap());
+
+            ResponseEntity<byte[]> result = controller.fetchConfiguration(new HashMap<>(), "\"outdated\"", null);
+
+            assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(result.getBody()).isEqualTo("foo : bar".getBytes(AgentConfiguration.ENCODING));
+        }
+
+        @Test
+        public void gzipAccepted() throws Exception {
+            AgentConfiguration config = new AgentConfiguration(null, "foo : bar");
+            doReturn(config)
+                    .when(configManager).getConfiguration(anyMap());
+
+            ResponseEntity<byte[]> result = controller.fetchConfiguration(new HashMap<>(), null, "deflate, gzip;q=0.8");
+
+            assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(result.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+            try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(result.getBody()))) {
+                assertThat(IOUtils.toString(gzip, AgentConfiguration.ENCODING)).isEqualTo("foo : bar");
+            }
+        }
+
+        @Test
+        public void gzipRejected() throws Exception {
+            doReturn(new AgentConfiguration(null, "foo : bar"))
+                    .when(configManager).getConfiguration(anyMap());
+
+            ResponseEntity<byte[]> result = controller.fetchConfiguration(new HashMap<>(), null, "gzip;q=0, *");
+
+            assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(result.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+            assertThat(result.getBody()).isEqualTo("foo : bar".getBytes(AgentConfiguration.ENCODING));
+        }
+    }
+
+    @Nested
+    public class FetchConfigurationLongPoll {
+
+        AgentConfiguration config = new AgentConfiguration(null, "foo : bar");
+
+        String eTag = "\"" + config.getHash() + "\"";
+
+        void init() {
+            controller.config = InspectitServerSettings.builder()
+                    .maxLongPollTimeout(Duration.ofSeconds(30))
+                    .build();
+            doReturn(config)
+                    .when(configManager).getConfiguration(anyMap());
+        }
+
+        @Test
+        public void immediateResultForOutdatedETag() throws Exception {
+            init();
+
+            DeferredResult<ResponseEntity<byte[]>> result = controller.fetchConfigurationLongPoll(new HashMap<>(), "\"outdated\"", null, "wait=10");
+
+            ResponseEntity<byte[]> response = (ResponseEntity<byte[]>) result.getResult();
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody()).isEqualTo("foo : bar".getBytes(AgentConfiguration.ENCODING));
+            verifyZeroInteractions(longPollManager);
+        }
+
+        @Test
+        public void immediateResultWithoutWaitPreference() throws Exception {
+            init();
+
+            DeferredResult<ResponseEntity<byte[]>> result = controller.fetchConfigurationLongPoll(new HashMap<>(), eTag, null, "respond-async");
+
+            ResponseEntity<byte[]> response = (ResponseEntity<byte[]>) result.getResult();
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+            verifyZeroInteractions(longPollManager);
+        }
+
+        @Test
+        public void waitForChange() throws Exception {
+            init();
+            doReturn((Runnable) () -> {
+            }).when(longPollManager).awaitChange(anyMap(), any(), any());
+
+            HashMap<String, String> attributes = new HashMap<>();
+            DeferredResult<ResponseEntity<byte[]>> result = controller.fetchConfigurationLongPoll(attributes, eTag, null, "respond-async, wait=10");
+
+            assertThat(result.hasResult()).isFalse();
+            ArgumentCaptor<Consumer<AgentConfiguration>> callback = ArgumentCaptor.forClass(Consumer.class);
+            verify(longPollManager).awaitChange(same(attributes), eq(config.getHash()), callback.capture());
+
+            AgentConfiguration newConfig = new AgentConfiguration(null, "foo : baz");
+            callback.getValue().accept(newConfig);
+
+            ResponseEntity<byte[]> response = (ResponseEntity<byte[]>) result.getResult();
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody()).isEqualTo("foo : baz".getBytes(AgentConfiguration.ENCODING));
+            verify(statusManager).notifyAgentConfigurationFetched(same(attributes), same(newConfig));
+        }
+
+        @Test
+        public void immediateResultIfLimitReached() throws Exception {
+            init();
+            doReturn(null).when(longPollManager).awaitChange(anyMap(), any(), any());
+
+            DeferredResult<ResponseEntity<byte[]>> result = controller.fetchConfigurationLongPoll(new HashMap<>(), eTag, null, "wait=10");
+
+            ResponseEntity<byte[]> response = (ResponseEntity<byte[]>) result.getResult();
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        }
     }
 }
@@ -0,0 +1,90 @@
+package rocks.inspectit.ocelot.rest.agentstatus;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import rocks.inspectit.ocelot.agentstatus.AgentStatus;
+import rocks.inspectit.ocelot.agentstatus.AgentStatusManager;
+import rocks.inspectit.ocelot.agentstatus.AgentStatusUpdate;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AgentStatusControllerTest {
+
+    @InjectMocks
+    AgentStatusController controller;
+
+    @Mock
+    AgentStatusManager statusManager;
+
+    @Spy
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    @Nested
+    public class GetAgentStatuses {
+
+        @Test
+        public void statusesStreamed() throws Exception {
+            AgentStatus first = new AgentStatus(ImmutableMap.of("service", "first"), new Date(1000), "mapping");
+            AgentStatus second = new AgentStatus(ImmutableMap.of("service", "second"), new Date(2000), null);
+            doReturn(Stream.of(first, second)).when(statusManager).getAgentStatuses();
+
+            ResponseEntity<StreamingResponseBody> result = controller.getAgentStatuses();
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            result.getBody().writeTo(output);
+
+            assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+            List<AgentStatus> statuses = objectMapper.readValue(output.toByteArray(), new TypeReference<List<AgentStatus>>() {
+            });
+            assertThat(statuses).containsExactly(first, second);
+        }
+
+        @Test
+        public void noStatuses() throws Exception {
+            doReturn(Stream.empty()).when(statusManager).getAgentStatuses();
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            controller.getAgentStatuses().getBody().writeTo(output);
+
+            assertThat(output.toString("UTF-8")).isEqualTo("[]");
+        }
+    }
+
+    @Nested
+    public class SubscribeToAgentStatusUpdates {
+
+        @Test
+        public void updatesSent() throws Exception {
+            doReturn((Runnable) () -> {
+            }).when(statusManager).subscribe(any());
+
+            SseEmitter emitter = controller.subscribeToAgentStatusUpdates();
+
+            assertThat(emitter).isNotNull();
+            ArgumentCaptor<Consumer<AgentStatusUpdate>> subscriber = ArgumentCaptor.forClass(Consumer.class);
+            verify(statusManager).subscribe(subscriber.capture());
+            // the emitter buffers the event as it has not been initialized by a request
+            subscriber.getValue().accept(new AgentStatusUpdate(true, null, null));
+        }
+    }
+}
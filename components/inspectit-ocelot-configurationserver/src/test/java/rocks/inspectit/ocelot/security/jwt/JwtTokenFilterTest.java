@@ -0,0 +1,114 @@
+package rocks.inspectit.ocelot.security.jwt;
+
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.servlet.FilterChain;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtTokenFilterTest {
+
+    @Mock
+    JwtTokenManager tokenManager;
+
+    @Mock
+    Authentication authentication;
+
+    JwtTokenFilter filter;
+
+    AtomicReference<Authentication> authenticationInChain = new AtomicReference<>();
+
+    FilterChain chain = (req, res) -> authenticationInChain.set(SecurityContextHolder.getContext().getAuthentication());
+
+    @BeforeEach
+    void setup() {
+        filter = new JwtTokenFilter(tokenManager, Collections.singletonList("/excluded"), Collections.singletonList("/stream"));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private MockHttpServletRequest request(String servletPath) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", servletPath);
+        request.setServletPath(servletPath);
+        return request;
+    }
+
+    @Nested
+    class DoFilter {
+
+        @Test
+        void bearerToken() throws Exception {
+            MockHttpServletRequest request = request("/other");
+            request.addHeader("Authorization", "Bearer my-token");
+            when(tokenManager.authenticateWithToken("my-token")).thenReturn(authentication);
+
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+            assertThat(authenticationInChain.get()).isSameAs(authentication);
+            assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        }
+
+        @Test
+        void streamTokenInQuery() throws Exception {
+            MockHttpServletRequest request = request("/stream");
+            request.setParameter(JwtTokenFilter.ACCESS_TOKEN_PARAMETER, "my-token");
+            when(tokenManager.authenticateWithStreamToken("my-token")).thenReturn(authentication);
+
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+            assertThat(authenticationInChain.get()).isSameAs(authentication);
+            verify(tokenManager, never()).authenticateWithToken(any());
+        }
+
+        @Test
+        void queryTokenIgnoredForOtherPaths() throws Exception {
+            MockHttpServletRequest request = request("/other");
+            request.setParameter(JwtTokenFilter.ACCESS_TOKEN_PARAMETER, "my-token");
+
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+            assertThat(authenticationInChain.get()).isNull();
+            verifyZeroInteractions(tokenManager);
+        }
+
+        @Test
+        void invalidStreamToken() throws Exception {
+            MockHttpServletRequest request = request("/stream");
+            request.setParameter(JwtTokenFilter.ACCESS_TOKEN_PARAMETER, "my-token");
+            when(tokenManager.authenticateWithStreamToken("my-token")).thenThrow(new JwtException("invalid"));
+
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+            assertThat(authenticationInChain.get()).isNull();
+        }
+
+        @Test
+        void excludedPath() throws Exception {
+            MockHttpServletRequest request = request("/excluded");
+            request.addHeader("Authorization", "Bearer my-token");
+
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+            assertThat(authenticationInChain.get()).isNull();
+            verifyZeroInteractions(tokenManager);
+        }
+    }
+}
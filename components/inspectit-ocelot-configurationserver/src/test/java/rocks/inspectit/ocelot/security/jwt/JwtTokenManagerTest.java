@@ -75,6 +75,29 @@ class JwtTokenManagerTest {
         }
     }
 
+    @Nested
+    public class CreateStreamToken {
+
+        @Test
+        public void validToken() {
+            String result = manager.createStreamToken("username");
+
+            String[] splitToken = result.split("\\.");
+            String unsignedToken = splitToken[0] + "." + splitToken[1] + ".";
+            Claims jwt = (Claims) Jwts.parser().parse(unsignedToken).getBody();
+            assertThat(jwt.getSubject()).isEqualTo("username");
+            assertThat(jwt.getExpiration()).isBefore(DateUtils.addSeconds(new Date(), 65));
+            assertThat(jwt.getExpiration()).isAfter(DateUtils.addSeconds(new Date(), 55));
+        }
+
+        @Test
+        public void emptyUsername() {
+            assertThatExceptionOfType(IllegalArgumentException.class)
+                    .isThrownBy(() -> manager.createStreamToken(""))
+                    .withMessage("Username must not be null or empty.");
+        }
+    }
+
     @Nested
     public class AuthenticateWithToken {
 
@@ -123,6 +146,16 @@ class JwtTokenManagerTest {
             verifyZeroInteractions(userDetailsService);
         }
 
+        @Test
+        public void streamTokenRejected() {
+            String token = manager.createStreamToken("username");
+
+            assertThatExceptionOfType(JwtException.class)
+                    .isThrownBy(() -> manager.authenticateWithToken(token));
+
+            verifyZeroInteractions(userDetailsService);
+        }
+
         @Test
         public void multipleUserDetailsServices() {
             UserDetailsService mockService = mock(UserDetailsService.class);
@@ -144,4 +177,33 @@ class JwtTokenManagerTest {
             verifyNoMoreInteractions(userDetailsService);
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    public class AuthenticateWithStreamToken {
+
+        @Mock
+        UserDetails userDetails;
+
+        @Test
+        public void successfulAuthentication() {
+            String token = manager.createStreamToken("username");
+            when(userDetailsService.loadUserByUsername(anyString())).thenReturn(userDetails);
+
+            Authentication result = manager.authenticateWithStreamToken(token);
+
+            assertThat(result.getPrincipal()).isSameAs(userDetails);
+            verify(userDetailsService).loadUserByUsername("username");
+        }
+
+        @Test
+        public void accessTokenRejected() {
+            manager.config = InspectitServerSettings.builder().tokenLifespan(Duration.ofMinutes(1)).build();
+            String token = manager.createToken("username");
+
+            assertThatExceptionOfType(JwtException.class)
+                    .isThrownBy(() -> manager.authenticateWithStreamToken(token));
+
+            verifyZeroInteractions(userDetailsService);
+        }
+    }
+}
@@ -210,7 +210,7 @@ public class MeasuresAndViewsManager {
             case SUM:
                 return Aggregation.Sum.create();
             case HISTOGRAM:
-                return Aggregation.Distribution.create(BucketBoundaries.create(viewDefinitionSettings.getBucketBoundaries()));
+                return Aggregation.Distribution.create(BucketBoundaries.create(viewDefinitionSettings.resolveBucketBoundaries()));
             case LAST_VALUE:
                 return Aggregation.LastValue.create();
             default:
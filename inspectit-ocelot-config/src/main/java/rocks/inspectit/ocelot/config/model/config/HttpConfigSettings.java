@@ -51,10 +51,25 @@ public class HttpConfigSettings {
      */
     private Duration socketTimeout;
 
+    /**
+     * If specified, long-polling is used: the server holds the request open for at most this duration until the configuration changes.
+     * Changes are therefore received immediately instead of with the next poll defined by {@link #frequency}.
+     * If this is null or zero, the configuration is polled with the given frequency.
+     */
+    private Duration longPollTimeout;
+
     @AssertFalse(message = "The specified timeout values should not be negative!")
     public boolean isNegativeTimeout() {
         boolean negativeConnectionTimeout = connectionTimeout != null && connectionTimeout.isNegative();
         boolean negativeReadTimeout = socketTimeout != null && socketTimeout.isNegative();
-        return negativeConnectionTimeout || negativeReadTimeout;
+        boolean negativeLongPollTimeout = longPollTimeout != null && longPollTimeout.isNegative();
+        return negativeConnectionTimeout || negativeReadTimeout || negativeLongPollTimeout;
+    }
+
+    /**
+     * @return true, if long-polling shall be used
+     */
+    public boolean isLongPollingEnabled() {
+        return longPollTimeout != null && !longPollTimeout.isZero() && !longPollTimeout.isNegative();
     }
 }
\ No newline at end of file
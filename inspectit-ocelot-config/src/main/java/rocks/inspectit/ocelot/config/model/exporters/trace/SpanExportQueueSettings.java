@@ -0,0 +1,63 @@
+package rocks.inspectit.ocelot.config.model.exporters.trace;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.time.Duration;
+
+/**
+ * Settings for the bounded queue which decouples the Zipkin trace exporter from the OpenCensus span export.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class SpanExportQueueSettings {
+
+    /**
+     * Defines which spans are dropped if the queue is full.
+     */
+    public enum DropPolicy {
+        /**
+         * The spans which are added to the full queue are dropped.
+         */
+        DROP_NEWEST,
+        /**
+         * The oldest spans in the queue are dropped to make room for the new ones.
+         */
+        DROP_OLDEST
+    }
+
+    /**
+     * If false, the spans are passed directly to the exporters without an intermediate queue.
+     */
+    private boolean enabled;
+
+    /**
+     * The maximum number of spans which can be buffered per exporter.
+     */
+    @Min(1)
+    private int capacity;
+
+    /**
+     * The maximum number of spans which are exported at once.
+     */
+    @Min(1)
+    private int batchSize;
+
+    /**
+     * The maximum time spans are kept in the queue before they are exported, even if the batch size is not reached.
+     */
+    @NotNull
+    private Duration flushInterval;
+
+    /**
+     * Defines which spans are dropped if the queue is full.
+     */
+    @NotNull
+    private DropPolicy dropPolicy;
+}
@@ -17,4 +17,10 @@ public class TraceExportersSettings {
 
     @Valid
     private OpenCensusAgentTraceExporterSettings openCensusAgent;
+
+    /**
+     * Settings for the queue used by the Zipkin exporter to buffer spans.
+     */
+    @Valid
+    private SpanExportQueueSettings queue;
 }
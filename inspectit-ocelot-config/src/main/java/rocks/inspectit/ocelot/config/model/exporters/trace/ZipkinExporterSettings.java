@@ -3,10 +3,27 @@ package rocks.inspectit.ocelot.config.model.exporters.trace;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
 @Data
 @NoArgsConstructor
 public class ZipkinExporterSettings {
 
+    /**
+     * The encodings supported for sending spans to Zipkin.
+     */
+    public enum Encoding {
+        /**
+         * The Zipkin v2 JSON format.
+         */
+        JSON,
+        /**
+         * The Zipkin v2 protocol buffers format, which is more compact and cheaper to serialize than JSON.
+         */
+        PROTO3
+    }
+
     private boolean enabled;
 
     /**
@@ -19,4 +36,22 @@ public class ZipkinExporterSettings {
      */
     private String serviceName;
 
+    /**
+     * The encoding used for sending the spans.
+     */
+    @NotNull
+    private Encoding encoding;
+
+    /**
+     * If true, the requests sent to the Zipkin server are compressed using gzip.
+     */
+    private boolean compression;
+
+    /**
+     * The maximum number of spans sent in a single request.
+     * If null, the batch size of the export queue ({@link SpanExportQueueSettings#getBatchSize()}) is used.
+     */
+    @Min(1)
+    private Integer batchSize;
+
 }
@@ -3,6 +3,7 @@ package rocks.inspectit.ocelot.config.model.instrumentation.rules;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.springframework.util.StringUtils;
 import rocks.inspectit.ocelot.config.model.InspectitConfig;
 import rocks.inspectit.ocelot.config.model.instrumentation.InstrumentationSettings;
 import rocks.inspectit.ocelot.config.model.instrumentation.actions.ActionCallSettings;
@@ -15,6 +16,7 @@ import javax.validation.constraints.NotNull;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Data container for the configuration of a instrumentation rule. {@link rocks.inspectit.ocelot.core.instrumentation.config.model.InstrumentationRule}
@@ -130,6 +132,15 @@ public class InstrumentationRuleSettings {
                         .message("Metric '{metric}' is not defined in inspectit.metrics.definitions!")
                         .parameter("metric", m)
                         .buildAndPublish());
+        if (tracing != null) {
+            Stream.of(tracing.getDurationMetric(), tracing.getErrorMetric())
+                    .filter(m -> !StringUtils.isEmpty(m))
+                    .filter(m -> !definedMetrics.contains(m))
+                    .forEach(m -> vios.atProperty("tracing")
+                            .message("Metric '{metric}' is not defined in inspectit.metrics.definitions!")
+                            .parameter("metric", m)
+                            .buildAndPublish());
+        }
     }
 
     private void checkScopesExist(InstrumentationSettings container, ViolationBuilder vios) {
@@ -74,6 +74,22 @@ public class RuleTracingSettings {
      */
     private Span.Kind kind;
 
+    /**
+     * If not null, the duration of the span started or continued by this rule is recorded in milliseconds for the given metric.
+     * The duration is derived from the timestamps taken when the span is entered and ended,
+     * so no additional timing actions (e.g. as done by the record_method_duration rule) are required.
+     * A COUNT view on this metric provides the request rate of the traced method.
+     * The measurement is taken with all tags of the context, independent of whether the span is sampled or not.
+     */
+    private String durationMetric;
+
+    /**
+     * If not null, a value of 1 is recorded for the given metric whenever the span started or continued by this rule
+     * is ended and the instrumented method has thrown an exception.
+     * The measurement is taken with all tags of the context, independent of whether the span is sampled or not.
+     */
+    private String errorMetric;
+
     /**
      * Maps names of span attributes to data keys.
      * After all method-exit actions have been executed on a method hook,
@@ -0,0 +1,24 @@
+package rocks.inspectit.ocelot.config.model.metrics;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotNull;
+import java.time.Duration;
+
+/**
+ * Settings for {@link rocks.inspectit.ocelot.core.metrics.system.JfrMetricsRecorder}.
+ */
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class JfrMetricsSettings extends StandardMetricsSettings {
+
+    /**
+     * The minimum duration of I/O and monitor events to be recorded by the JDK Flight Recorder.
+     * Shorter events are not captured, which reduces the overhead.
+     */
+    @NotNull
+    private Duration threshold;
+}
@@ -37,6 +37,11 @@ public class MetricsSettings {
      */
     private Duration frequency;
 
+    /**
+     * Default collection mode used by the polling metrics recorders
+     */
+    private StandardPollingMetricsRecorderSettings.CollectionMode collectionMode;
+
     @NotNull
     private Map<@NotBlank String, @NotNull @Valid MetricDefinitionSettings> definitions = Collections.emptyMap();
 
@@ -76,6 +81,30 @@ public class MetricsSettings {
     @Valid
     private StandardPollingMetricsRecorderSettings memory;
 
+    /**
+     * Settings for {@link rocks.inspectit.ocelot.core.metrics.system.LinuxProcessMetricsRecorder}
+     */
+    @Valid
+    private StandardPollingMetricsRecorderSettings process;
+
+    /**
+     * Settings for {@link rocks.inspectit.ocelot.core.metrics.system.ThreadActivityMetricsRecorder}
+     */
+    @Valid
+    private ThreadActivityMetricsSettings threadActivity;
+
+    /**
+     * Settings for {@link rocks.inspectit.ocelot.core.metrics.system.ContentionMetricsRecorder}
+     */
+    @Valid
+    private StandardPollingMetricsRecorderSettings contention;
+
+    /**
+     * Settings for {@link rocks.inspectit.ocelot.core.metrics.system.JfrMetricsRecorder}
+     */
+    @Valid
+    private JfrMetricsSettings jfr;
+
     @AdditionalValidation
     public void noDuplicateViewNames(ViolationBuilder vios) {
         Map<String, String> viewsToMeasuresMap = new HashMap<>();
@@ -22,4 +22,23 @@ public class StandardPollingMetricsRecorderSettings extends StandardMetricsSetti
     @NonNull
     private Duration frequency;
 
+    /**
+     * Specifies when the metrics are measured.
+     * Should default to ${inspectit.metrics.collection-mode}
+     */
+    @NonNull
+    private CollectionMode collectionMode;
+
+    public enum CollectionMode {
+        /**
+         * The metrics are measured with the configured {@link #frequency}, independent of whether they are exported.
+         */
+        POLLING,
+        /**
+         * The metrics are measured only when they are read by a metrics exporter, e.g. when Prometheus scrapes the agent.
+         * The {@link #frequency} is ignored in this case.
+         */
+        PULL
+    }
+
 }
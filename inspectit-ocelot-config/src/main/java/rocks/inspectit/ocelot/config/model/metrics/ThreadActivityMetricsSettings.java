@@ -0,0 +1,39 @@
+package rocks.inspectit.ocelot.config.model.metrics;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.NotBlank;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Settings for {@link rocks.inspectit.ocelot.core.metrics.system.ThreadActivityMetricsRecorder}.
+ */
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class ThreadActivityMetricsSettings extends StandardPollingMetricsRecorderSettings {
+
+    /**
+     * The regular expression used to derive the name of the pool from the name of a thread.
+     * If the thread name matches the pattern, the first group is used as pool name, otherwise the full thread name.
+     */
+    @NotBlank
+    private String poolNamePattern;
+
+    @AssertTrue(message = "The pool-name-pattern must be a valid regular expression!")
+    boolean isPoolNamePatternValid() {
+        if (poolNamePattern == null) {
+            return true;
+        }
+        try {
+            Pattern.compile(poolNamePattern);
+            return true;
+        } catch (PatternSyntaxException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package rocks.inspectit.ocelot.config.model.metrics.definition;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Defines the boundaries of a histogram as exponentially growing buckets.
+ * Each bucket is wider than the previous one by a constant factor, so that a constant relative precision is achieved over
+ * a large range of values with few buckets.
+ * For example, a start of 1 with a factor of 2 and a count of 5 results in the boundaries [1, 2, 4, 8, 16].
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExponentialBucketsSettings {
+
+    /**
+     * The upper limit for {@link #count}.
+     */
+    public static final int MAX_COUNT = 500;
+
+    /**
+     * The first bucket boundary.
+     */
+    @NotNull
+    @DecimalMin(value = "0", inclusive = false)
+    private Double start;
+
+    /**
+     * The factor by which each bucket boundary is larger than the previous one.
+     */
+    @NotNull
+    @DecimalMin(value = "1", inclusive = false)
+    private Double factor;
+
+    /**
+     * The number of bucket boundaries.
+     */
+    @NotNull
+    @Min(1)
+    @Max(MAX_COUNT)
+    private Integer count;
+
+    /**
+     * @return the bucket boundaries defined by this settings in ascending order
+     */
+    public List<Double> computeBoundaries() {
+        List<Double> boundaries = new ArrayList<>(count);
+        double boundary = start;
+        for (int i = 0; i < count; i++) {
+            boundaries.add(boundary);
+            boundary *= factor;
+        }
+        return boundaries;
+    }
+
+    @AssertTrue(message = "The exponential-buckets must result in finite bucket boundaries, which are strictly increasing!")
+    boolean isBoundariesFiniteAndIncreasing() {
+        if (start == null || factor == null || count == null || count < 1 || count > MAX_COUNT) {
+            return true;
+        }
+        double previous = Double.NEGATIVE_INFINITY;
+        for (double boundary : computeBoundaries()) {
+            if (Double.isInfinite(boundary) || Double.isNaN(boundary) || previous >= boundary) {
+                return false;
+            }
+            previous = boundary;
+        }
+        return true;
+    }
+}
@@ -3,8 +3,11 @@ package rocks.inspectit.ocelot.config.model.metrics.definition;
 import lombok.*;
 import org.springframework.util.CollectionUtils;
 
+import javax.validation.Valid;
 import javax.validation.constraints.AssertFalse;
 import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import java.util.List;
@@ -20,6 +23,12 @@ import java.util.Map;
 @Builder(toBuilder = true)
 public class ViewDefinitionSettings {
 
+    /**
+     * The upper limit for {@link #maxCardinality}.
+     * The agent reserves memory proportional to the limit for each view, therefore it must not be arbitrarily large.
+     */
+    public static final int MAX_CARDINALITY_LIMIT = 1_000_000;
+
     @AllArgsConstructor
     public enum Aggregation {
         LAST_VALUE("last value"), SUM("sum"), COUNT("count"),
@@ -55,6 +64,13 @@ public class ViewDefinitionSettings {
     @Singular
     private List<@NotNull Double> bucketBoundaries;
 
+    /**
+     * Only relevant if aggregation is "HISTOGRAM".
+     * Alternative to {@link #bucketBoundaries}, defines the buckets of the histogram as exponentially growing buckets.
+     */
+    @Valid
+    private ExponentialBucketsSettings exponentialBuckets;
+
     /**
      * Defines if this view should by default include all common tags.
      * Individual tags can still be disabled via {@link #tags}.
@@ -66,6 +82,16 @@ public class ViewDefinitionSettings {
     @Singular
     private Map<@NotBlank String, @NotNull Boolean> tags;
 
+    /**
+     * The maximum number of distinct tag value combinations (time series) this view records.
+     * Once the limit is reached, measurements with new tag value combinations are recorded with the tag values
+     * of this view replaced by "__overflow__".
+     * If this is null, the number of time series is not limited.
+     */
+    @Min(1)
+    @Max(value = MAX_CARDINALITY_LIMIT, message = "The max-cardinality of a view must not exceed " + MAX_CARDINALITY_LIMIT + "!")
+    private Integer maxCardinality;
+
     public ViewDefinitionSettings getCopyWithDefaultsPopulated(String viewName, String measureDescription, String unit) {
         val result = toBuilder();
         if (description == null) {
@@ -74,9 +100,26 @@ public class ViewDefinitionSettings {
         return result.build();
     }
 
-    @AssertFalse(message = "When using HISTOGRAM aggregation you must specify the bucket-boundaries!")
+    /**
+     * Only relevant if aggregation is "HISTOGRAM".
+     *
+     * @return the bucket boundaries defined either via {@link #bucketBoundaries} or {@link #exponentialBuckets}
+     */
+    public List<Double> resolveBucketBoundaries() {
+        if (CollectionUtils.isEmpty(bucketBoundaries) && exponentialBuckets != null) {
+            return exponentialBuckets.computeBoundaries();
+        }
+        return bucketBoundaries;
+    }
+
+    @AssertFalse(message = "When using HISTOGRAM aggregation you must specify the bucket-boundaries or the exponential-buckets!")
     boolean isBucketBoundariesNotSpecifiedForHistogram() {
-        return enabled && aggregation == Aggregation.HISTOGRAM && CollectionUtils.isEmpty(bucketBoundaries);
+        return enabled && aggregation == Aggregation.HISTOGRAM && CollectionUtils.isEmpty(bucketBoundaries) && exponentialBuckets == null;
+    }
+
+    @AssertFalse(message = "When using HISTOGRAM aggregation you must specify either the bucket-boundaries or the exponential-buckets, not both!")
+    boolean isBucketBoundariesAndExponentialBucketsSpecified() {
+        return enabled && aggregation == Aggregation.HISTOGRAM && !CollectionUtils.isEmpty(bucketBoundaries) && exponentialBuckets != null;
     }
 
     @AssertTrue(message = "When using HISTOGRAM the specified bucket-boundaries must be sorted in ascending order and must contain each value at most once!")
@@ -0,0 +1,27 @@
+package rocks.inspectit.ocelot.config.model.selfmonitoring;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Min;
+
+/**
+ * Settings for measuring the overhead the instrumentation hooks add to the application threads.
+ */
+@Data
+@NoArgsConstructor
+public class HookOverheadSettings {
+
+    /**
+     * If true, the time spent in the hooks is measured and reported per instrumented method.
+     * Only takes effect if self-monitoring is enabled.
+     */
+    private boolean enabled;
+
+    /**
+     * On average, the time is measured for one out of this number of hook executions.
+     * The reported overhead is extrapolated from the measured executions.
+     */
+    @Min(1)
+    private int samplingInterval;
+}
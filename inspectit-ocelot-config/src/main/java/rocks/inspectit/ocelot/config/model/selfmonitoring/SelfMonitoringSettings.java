@@ -3,6 +3,8 @@ package rocks.inspectit.ocelot.config.model.selfmonitoring;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import javax.validation.Valid;
+
 @Data
 @NoArgsConstructor
 public class SelfMonitoringSettings {
@@ -12,4 +14,10 @@ public class SelfMonitoringSettings {
      */
     private boolean enabled;
 
+    /**
+     * Settings for measuring the overhead of the instrumentation hooks.
+     */
+    @Valid
+    private HookOverheadSettings hookOverhead;
+
 }
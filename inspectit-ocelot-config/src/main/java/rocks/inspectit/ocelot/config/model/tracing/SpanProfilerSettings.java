@@ -0,0 +1,57 @@
+package rocks.inspectit.ocelot.config.model.tracing;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.time.Duration;
+
+/**
+ * Settings for the sampling profiler, which periodically captures the stack traces of threads with an active span.
+ */
+@Data
+@NoArgsConstructor
+public class SpanProfilerSettings {
+
+    /**
+     * If true, the stack traces of threads with an active sampled span are captured
+     * and attached to the span as call-tree summary when it ends.
+     */
+    private boolean enabled;
+
+    /**
+     * The interval in which the stack traces are captured.
+     */
+    @NotNull
+    private Duration frequency;
+
+    /**
+     * The maximum number of threads whose stack traces are captured per sample.
+     * If more threads have an active span, they are sampled in a round-robin fashion.
+     */
+    @Min(1)
+    private int maxThreads;
+
+    /**
+     * The maximum number of frames captured per stack trace, starting at the innermost frame.
+     */
+    @Min(1)
+    private int maxDepth;
+
+    /**
+     * The maximum number of distinct stacks contained in the summary attached to a span.
+     * The stacks with the most samples are preferred.
+     */
+    @Min(1)
+    private int maxStacks;
+
+    /**
+     * The fraction of a single CPU core the profiler may use, e.g. 0.01 for 1%.
+     * If capturing the stack traces takes longer, samples are skipped accordingly.
+     */
+    @Max(1)
+    @Min(0)
+    private double cpuBudget;
+}
@@ -0,0 +1,95 @@
+package rocks.inspectit.ocelot.core.exporter;
+
+import org.openjdk.jmh.annotations.*;
+import zipkin2.Endpoint;
+import zipkin2.Span;
+import zipkin2.codec.SpanBytesEncoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Measures the CPU time and the payload size for encoding a batch of 1000 spans for the Zipkin exporter.
+ * The total payload size in bytes is reported via the "payloadBytes" counter, the number of encoded batches via the
+ * "encodedBatches" counter. Dividing them gives the payload size of a single batch.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ZipkinEncodingPerfTest {
+
+    private static final int SPAN_COUNT = 1000;
+
+    @Param(value = {"JSON_V2", "PROTO3"})
+    private String encoding;
+
+    @Param(value = {"false", "true"})
+    private boolean compression;
+
+    private SpanBytesEncoder encoder;
+
+    private List<Span> spans;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+
+        /**
+         * The summed size of all encoded batches in bytes.
+         */
+        public long payloadBytes;
+
+        /**
+         * The number of encoded batches.
+         */
+        public long encodedBatches;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            payloadBytes = 0;
+            encodedBatches = 0;
+        }
+    }
+
+    @Setup
+    public void init() {
+        encoder = SpanBytesEncoder.valueOf(encoding);
+        Endpoint localEndpoint = Endpoint.newBuilder().serviceName("benchmark-service").ip("192.168.0.1").build();
+        spans = new ArrayList<>();
+        long timestamp = System.currentTimeMillis() * 1000;
+        for (int i = 0; i < SPAN_COUNT; i++) {
+            spans.add(Span.newBuilder()
+                    .traceId(0x0123456789abcdefL, i)
+                    .parentId(i + 1)
+                    .id(i + 2)
+                    .kind(Span.Kind.SERVER)
+                    .name("/api/customers/" + (i % 20))
+                    .localEndpoint(localEndpoint)
+                    .timestamp(timestamp + i)
+                    .duration(1500 + i)
+                    .putTag("http.method", "GET")
+                    .putTag("http.status_code", "200")
+                    .putTag("http.url", "http://localhost:8080/api/customers/" + (i % 20))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] encodeBatch(PayloadSize payloadSize) throws IOException {
+        byte[] payload = encoder.encodeList(spans);
+        if (compression) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(payload);
+            }
+            payload = out.toByteArray();
+        }
+        payloadSize.payloadBytes += payload.length;
+        payloadSize.encodedBatches++;
+        return payload;
+    }
+}
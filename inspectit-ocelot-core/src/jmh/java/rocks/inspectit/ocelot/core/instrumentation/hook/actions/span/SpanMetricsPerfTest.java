@@ -0,0 +1,116 @@
+package rocks.inspectit.ocelot.core.instrumentation.hook.actions.span;
+
+import io.opencensus.stats.Measure;
+import io.opencensus.stats.Stats;
+import io.opencensus.stats.StatsRecorder;
+import io.opencensus.trace.samplers.Samplers;
+import org.openjdk.jmh.annotations.*;
+import rocks.inspectit.ocelot.core.instrumentation.config.model.DataProperties;
+import rocks.inspectit.ocelot.core.instrumentation.context.InspectitContextImpl;
+import rocks.inspectit.ocelot.core.instrumentation.hook.actions.IHookAction;
+import rocks.inspectit.ocelot.core.instrumentation.hook.actions.MetricsRecorder;
+import rocks.inspectit.ocelot.core.metrics.MeasuresAndViewsManager;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares recording the duration of a traced method via separate timing actions and a data metric
+ * (as done by the record_method_duration rule) against deriving the duration from the span via {@link EndSpanAction}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class SpanMetricsPerfTest {
+
+    private static final String DURATION_METRIC = "method/duration";
+
+    private static final Object[] ARGS = new Object[0];
+
+    private DataProperties dataProperties;
+
+    private ContinueOrStartSpanAction startSpan;
+
+    private EndSpanAction endSpan;
+
+    private MetricsRecorder metricsRecorder;
+
+    private ContinueOrStartSpanAction startSpanWithTimestamp;
+
+    private EndSpanAction endSpanWithMetrics;
+
+    @Setup
+    public void init() throws Exception {
+        dataProperties = DataProperties.builder().build();
+        StatsRecorder statsRecorder = Stats.getStatsRecorder();
+        MeasuresAndViewsManager metricsManager = createMetricsManager();
+
+        startSpan = ContinueOrStartSpanAction.builder()
+                .nameDataKey("span_name")
+                .staticSampler(Samplers.neverSample())
+                .startSpanCondition(ctx -> true)
+                .continueSpanCondition(ctx -> false)
+                .build();
+        endSpan = EndSpanAction.builder()
+                .condition(ctx -> true)
+                .build();
+        metricsRecorder = new MetricsRecorder(Collections.emptyMap(),
+                Collections.singletonMap(DURATION_METRIC, "method_duration"), metricsManager, statsRecorder);
+
+        startSpanWithTimestamp = ContinueOrStartSpanAction.builder()
+                .nameDataKey("span_name")
+                .staticSampler(Samplers.neverSample())
+                .startSpanCondition(ctx -> true)
+                .continueSpanCondition(ctx -> false)
+                .recordEntryTimestamp(true)
+                .build();
+        endSpanWithMetrics = EndSpanAction.builder()
+                .condition(ctx -> true)
+                .durationMetric(DURATION_METRIC)
+                .metricsManager(metricsManager)
+                .statsRecorder(statsRecorder)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private MeasuresAndViewsManager createMetricsManager() throws Exception {
+        MeasuresAndViewsManager metricsManager = new MeasuresAndViewsManager();
+        Field cachedMeasures = MeasuresAndViewsManager.class.getDeclaredField("cachedMeasures");
+        cachedMeasures.setAccessible(true);
+        ((Map<String, Measure>) cachedMeasures.get(metricsManager))
+                .put(DURATION_METRIC, Measure.MeasureDouble.create(DURATION_METRIC, "duration", "ms"));
+        return metricsManager;
+    }
+
+    @Benchmark
+    public void separateTimingActions() {
+        InspectitContextImpl ctx = InspectitContextImpl.createFromCurrent(Collections.emptyMap(), dataProperties, false);
+        IHookAction.ExecutionContext entryContext = new IHookAction.ExecutionContext(ARGS, null, null, null, null, ctx);
+        ctx.setData("span_name", "benchmark");
+        ctx.setData("method_entry_time", System.nanoTime());
+        startSpan.execute(entryContext);
+        ctx.makeActive();
+
+        IHookAction.ExecutionContext exitContext = new IHookAction.ExecutionContext(ARGS, null, null, null, null, ctx);
+        long entryTime = (Long) ctx.getData("method_entry_time");
+        ctx.setData("method_duration", (System.nanoTime() - entryTime) / 1000.0 / 1000.0);
+        endSpan.execute(exitContext);
+        metricsRecorder.execute(exitContext);
+        ctx.close();
+    }
+
+    @Benchmark
+    public void spanDerivedMetrics() {
+        InspectitContextImpl ctx = InspectitContextImpl.createFromCurrent(Collections.emptyMap(), dataProperties, false);
+        IHookAction.ExecutionContext entryContext = new IHookAction.ExecutionContext(ARGS, null, null, null, null, ctx);
+        ctx.setData("span_name", "benchmark");
+        startSpanWithTimestamp.execute(entryContext);
+        ctx.makeActive();
+
+        IHookAction.ExecutionContext exitContext = new IHookAction.ExecutionContext(ARGS, null, null, null, null, ctx);
+        endSpanWithMetrics.execute(exitContext);
+        ctx.close();
+    }
+}
@@ -0,0 +1,163 @@
+package rocks.inspectit.ocelot.core.metrics;
+
+import io.opencensus.stats.Aggregation;
+import io.opencensus.stats.BucketBoundaries;
+import io.opencensus.stats.Measure;
+import io.opencensus.stats.Stats;
+import io.opencensus.stats.StatsRecorder;
+import io.opencensus.stats.View;
+import io.opencensus.stats.ViewManager;
+import io.opencensus.tags.TagContext;
+import io.opencensus.tags.TagKey;
+import io.opencensus.tags.TagValue;
+import io.opencensus.tags.Tags;
+import org.openjdk.jmh.annotations.*;
+import rocks.inspectit.ocelot.config.model.metrics.definition.ExponentialBucketsSettings;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares histogram views with linear bucket boundaries against views with exponential buckets covering the same range
+ * of values (1 to 10000) with a similar relative precision.
+ * <p>
+ * {@link #record()} measures the recording throughput. Running it with the GC profiler ({@code -prof gc}) additionally
+ * reports the allocations per recording as {@code gc.alloc.rate.norm}.
+ * {@link #footprint(Footprint)} fills a new view with {@link #SERIES_COUNT} time series and reports the retained heap per
+ * time series as auxiliary counter {@code bytesPerSeries}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class HistogramViewPerfTest {
+
+    private static final int SERIES_COUNT = 1000;
+
+    private static final double MAX_VALUE = 10000;
+
+    private static final TagKey SERIES_TAG = TagKey.create("series");
+
+    private static final AtomicInteger VIEW_COUNTER = new AtomicInteger();
+
+    @Param({"linear-500", "exponential-50"})
+    public String buckets;
+
+    private StatsRecorder statsRecorder;
+
+    private ViewManager viewManager;
+
+    private Measure.MeasureDouble measure;
+
+    private TagContext[] tagContexts;
+
+    /**
+     * The result of {@link #footprint(Footprint)}, reported by JMH in addition to the time of the benchmark.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+
+        /**
+         * The heap retained per time series of the view.
+         */
+        public long bytesPerSeries;
+
+        @Setup(Level.Invocation)
+        public void reset() {
+            bytesPerSeries = 0;
+        }
+    }
+
+    @Setup
+    public void init() {
+        statsRecorder = Stats.getStatsRecorder();
+        viewManager = Stats.getViewManager();
+
+        tagContexts = new TagContext[SERIES_COUNT];
+        for (int i = 0; i < SERIES_COUNT; i++) {
+            tagContexts[i] = Tags.getTagger().emptyBuilder().put(SERIES_TAG, TagValue.create("series-" + i)).build();
+        }
+
+        measure = registerView();
+        fillAllSeries(measure);
+    }
+
+    /**
+     * Registers a new view with the configured {@link #buckets} and its own measure.
+     *
+     * @return the measure of the view, whose name is also the name of the view
+     */
+    private Measure.MeasureDouble registerView() {
+        String name = "histogram/perftest/" + VIEW_COUNTER.incrementAndGet();
+        Measure.MeasureDouble viewMeasure = Measure.MeasureDouble.create(name, "histogram benchmark", "ms");
+        View view = View.create(View.Name.create(name), "histogram benchmark", viewMeasure,
+                Aggregation.Distribution.create(BucketBoundaries.create(createBoundaries())),
+                Collections.singletonList(SERIES_TAG));
+        viewManager.registerView(view);
+        return viewMeasure;
+    }
+
+    /**
+     * Records a value for every time series and waits until the view contains all of them.
+     * The recorded values are processed asynchronously, therefore the view is queried until the recordings have been applied.
+     */
+    private void fillAllSeries(Measure.MeasureDouble viewMeasure) {
+        for (int i = 0; i < SERIES_COUNT; i++) {
+            statsRecorder.newMeasureMap().put(viewMeasure, randomValue()).record(tagContexts[i]);
+        }
+        View.Name viewName = View.Name.create(viewMeasure.getName());
+        while (viewManager.getView(viewName).getAggregationMap().size() < SERIES_COUNT) {
+            Thread.yield();
+        }
+    }
+    private List<Double> createBoundaries() {
+        String[] scheme = buckets.split("-");
+        int count = Integer.parseInt(scheme[1]);
+        if ("exponential".equals(scheme[0])) {
+            double factor = Math.pow(MAX_VALUE, 1.0 / (count - 1));
+            return ExponentialBucketsSettings.builder().start(1.0).factor(factor).count(count).build().computeBoundaries();
+        }
+        List<Double> boundaries = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            boundaries.add(i * MAX_VALUE / count);
+        }
+        return boundaries;
+    }
+
+    /**
+     * @return a value between 1 and {@link #MAX_VALUE}, uniformly distributed on a logarithmic scale
+     */
+    private double randomValue() {
+        return Math.pow(MAX_VALUE, ThreadLocalRandom.current().nextDouble());
+    }
+
+    @Benchmark
+    public void record() {
+        TagContext tags = tagContexts[ThreadLocalRandom.current().nextInt(SERIES_COUNT)];
+        statsRecorder.newMeasureMap().put(measure, randomValue()).record(tags);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void footprint(Footprint footprint) {
+        MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+        Measure.MeasureDouble viewMeasure = registerView();
+        long heapBefore = usedHeapAfterGc(memoryBean);
+        fillAllSeries(viewMeasure);
+        long heapAfter = usedHeapAfterGc(memoryBean);
+        footprint.bytesPerSeries = Math.max(0, heapAfter - heapBefore) / SERIES_COUNT;
+    }
+
+    private long usedHeapAfterGc(MemoryMXBean memoryBean) {
+        System.gc();
+        System.gc();
+        return memoryBean.getHeapMemoryUsage().getUsed();
+    }
+}
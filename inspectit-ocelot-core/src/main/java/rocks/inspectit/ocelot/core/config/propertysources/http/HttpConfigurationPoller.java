@@ -1,5 +1,6 @@
 package rocks.inspectit.ocelot.core.config.propertysources.http;
 
+import com.google.common.annotations.VisibleForTesting;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.http.Header;
 import org.apache.http.HttpResponse;
@@ -29,11 +30,18 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * Service for continuously triggering the updated of a agent configuration via HTTP.
+ * If long-polling is enabled, the configuration is fetched by a dedicated thread which immediately issues the next request
+ * after the server has answered the previous one. Otherwise, the configuration is polled on the shared executor with the configured frequency.
  */
 @Service
 @Slf4j
 public class HttpConfigurationPoller extends DynamicallyActivatableService implements Runnable {
 
+    /**
+     * Long-poll requests which are answered within this time without a new configuration are considered as not held by the server.
+     */
+    private static final long IMMEDIATE_RESPONSE_THRESHOLD_MS = 1000;
+
     @Autowired
     private InspectitEnvironment env;
 
@@ -45,10 +53,15 @@ public class HttpConfigurationPoller extends DynamicallyActivatableService imple
      */
     private ScheduledFuture<?> pollerFuture;
 
+    /**
+     * The thread performing the long-polling, null if long-polling is not used.
+     */
+    private Thread longPollThread;
+
     /**
      * The state of the used HTTP property source configuration.
      */
-    private HttpPropertySourceState currentState;
+    private volatile HttpPropertySourceState currentState;
 
     public HttpConfigurationPoller() {
         super("config.http");
@@ -68,7 +81,14 @@ public class HttpConfigurationPoller extends DynamicallyActivatableService imple
         currentState = new HttpPropertySourceState(InspectitEnvironment.HTTP_BASED_CONFIGURATION, httpSettings);
 
         long frequencyMs = httpSettings.getFrequency().toMillis();
-        pollerFuture = executor.scheduleWithFixedDelay(this, frequencyMs, frequencyMs, TimeUnit.MILLISECONDS);
+        if (httpSettings.isLongPollingEnabled()) {
+            HttpPropertySourceState state = currentState;
+            longPollThread = new Thread(() -> longPoll(state, frequencyMs), "inspectit-http-config-long-poll");
+            longPollThread.setDaemon(true);
+            longPollThread.start();
+        } else {
+            pollerFuture = executor.scheduleWithFixedDelay(this, frequencyMs, frequencyMs, TimeUnit.MILLISECONDS);
+        }
 
         return true;
     }
@@ -78,24 +98,82 @@ public class HttpConfigurationPoller extends DynamicallyActivatableService imple
         log.info("Stopping HTTP configuration polling service.");
         if (pollerFuture != null) {
             pollerFuture.cancel(true);
+            pollerFuture = null;
+        }
+        if (longPollThread != null) {
+            // an ongoing request is not aborted, its result is discarded as the state is no longer the current one
+            longPollThread.interrupt();
+            longPollThread = null;
+            currentState = null;
         }
         return true;
     }
 
+    /**
+     * Repeatedly fetches the configuration using long-polling until the thread is interrupted.
+     * If a request fails or is answered immediately without a new configuration, e.g. because the server does not support
+     * long-polling, the next request is delayed by the configured frequency.
+     *
+     * @param state       the state to update
+     * @param frequencyMs the delay after failed or immediately answered requests
+     */
+    private void longPoll(HttpPropertySourceState state, long frequencyMs) {
+        while (!Thread.currentThread().isInterrupted()) {
+            long start = System.currentTimeMillis();
+            boolean wasUpdated = false;
+            boolean failed;
+            try {
+                wasUpdated = update(state);
+                failed = state.isLastUpdateFailed();
+            } catch (Exception e) {
+                log.error("Error fetching the configuration via HTTP.", e);
+                failed = true;
+            }
+            long elapsedMs = System.currentTimeMillis() - start;
+            if (shouldBackOff(wasUpdated, failed, elapsedMs)) {
+                try {
+                    Thread.sleep(frequencyMs);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Decides whether the next long-poll request has to be delayed.
+     * A request which has been held by the server until the long-poll timeout is followed immediately by the next request,
+     * as well as a request which returned a new configuration.
+     *
+     * @param wasUpdated true, if the request returned a new configuration
+     * @param failed     true, if the request failed
+     * @param elapsedMs  the duration of the request
+     * @return true, if the next request should be delayed
+     */
+    @VisibleForTesting
+    static boolean shouldBackOff(boolean wasUpdated, boolean failed, long elapsedMs) {
+        return failed || (!wasUpdated && elapsedMs < IMMEDIATE_RESPONSE_THRESHOLD_MS);
+    }
+
     /**
      * Triggering the update of the {@link #currentState}. If the HTTP property source state has been updated, the updated
      * property source will be activated by adding it to the environment.
      */
     @Override
     public void run() {
+        update(currentState);
+    }
+
+    private boolean update(HttpPropertySourceState state) {
         log.debug("Updating HTTP property source.");
-        boolean wasUpdated = currentState.update();
-        if (wasUpdated) {
+        boolean wasUpdated = state.update();
+        if (wasUpdated && state == currentState) {
             env.updatePropertySources(propertySources -> {
                 if (propertySources.contains(InspectitEnvironment.HTTP_BASED_CONFIGURATION)) {
-                    propertySources.replace(InspectitEnvironment.HTTP_BASED_CONFIGURATION, currentState.getCurrentPropertySource());
+                    propertySources.replace(InspectitEnvironment.HTTP_BASED_CONFIGURATION, state.getCurrentPropertySource());
                 }
             });
         }
+        return wasUpdated;
     }
 }
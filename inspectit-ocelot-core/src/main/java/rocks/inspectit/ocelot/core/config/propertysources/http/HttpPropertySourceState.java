@@ -57,6 +57,13 @@ public class HttpPropertySourceState {
     @Getter
     private PropertySource currentPropertySource;
 
+    /**
+     * True, if the latest update failed, e.g. because the server was not reachable or returned an unexpected status code.
+     * An unchanged configuration is not considered as failure.
+     */
+    @Getter
+    private volatile boolean lastUpdateFailed = false;
+
     /**
      * Constructor.
      *
@@ -78,6 +85,7 @@ public class HttpPropertySourceState {
      * @return returns true if a new property source has been created, otherwise false.
      */
     public boolean update() {
+        lastUpdateFailed = false;
         String configuration = fetchConfiguration();
         if (configuration != null) {
             try {
@@ -86,6 +94,7 @@ public class HttpPropertySourceState {
                 return true;
             } catch (Exception e) {
                 log.error("Could not parse fetched configuration.", e);
+                lastUpdateFailed = true;
             }
         }
 
@@ -120,18 +129,26 @@ public class HttpPropertySourceState {
             configBuilder = configBuilder.setConnectTimeout(connectionTimeout);
         }
         if (currentSettings.getSocketTimeout() != null) {
-            int socketTimeout = (int) currentSettings.getSocketTimeout().toMillis();
-            configBuilder = configBuilder.setSocketTimeout(socketTimeout);
+            long socketTimeout = currentSettings.getSocketTimeout().toMillis();
+            if (currentSettings.isLongPollingEnabled()) {
+                // the server does not send any data while holding the request
+                socketTimeout += currentSettings.getLongPollTimeout().toMillis();
+            }
+            configBuilder = configBuilder.setSocketTimeout((int) Math.min(socketTimeout, Integer.MAX_VALUE));
         }
 
         RequestConfig config = configBuilder.build();
 
+        // content compression is enabled by default, so gzip-compressed responses are decompressed transparently
         return HttpClientBuilder.create().setDefaultRequestConfig(config).build();
     }
 
     /**
      * Fetches the configuration by executing a HTTP request against the configured HTTP endpoint. The request contains
      * the 'If-Modified-Since' header if a previous response returned a 'Last-Modified' header.
+     * If long-polling is enabled, the request contains a 'Prefer' header with the long-poll timeout as 'wait' preference,
+     * so that the server can hold the request until the configuration changes.
+     * The request advertises gzip via the 'Accept-Encoding' header, so that the server can send the configuration compressed.
      *
      * @return The requests response body representing the configuration in a JSON format. null is returned if request fails or the
      * server returns 304 (not modified).
@@ -144,14 +161,19 @@ public class HttpPropertySourceState {
             httpGet = new HttpGet(uri);
         } catch (URISyntaxException e) {
             log.error("Error building HTTP URI for fetching configuration!", e);
+            lastUpdateFailed = true;
             return null;
         }
 
+        httpGet.setHeader("Accept-Encoding", "gzip");
         if (latestLastModified != null) {
             httpGet.setHeader("If-Modified-Since", latestLastModified);
         }
         if (latestETag != null) {
             httpGet.setHeader("If-None-Match", latestETag);
+            if (currentSettings.isLongPollingEnabled()) {
+                httpGet.setHeader("Prefer", "wait=" + currentSettings.getLongPollTimeout().getSeconds());
+            }
         }
 
         try {
@@ -166,6 +188,7 @@ public class HttpPropertySourceState {
         } finally {
             httpGet.releaseConnection();
         }
+        lastUpdateFailed = true;
         return null;
     }
 
@@ -219,6 +242,7 @@ public class HttpPropertySourceState {
             return null;
         } else {
             log.warn("Server returned an unexpected status code: " + statusCode);
+            lastUpdateFailed = true;
             return null;
         }
     }
@@ -0,0 +1,230 @@
+package rocks.inspectit.ocelot.core.exporter;
+
+import io.opencensus.common.Scope;
+import io.opencensus.trace.Tracing;
+import io.opencensus.trace.export.SpanData;
+import io.opencensus.trace.export.SpanExporter;
+import lombok.extern.slf4j.Slf4j;
+import rocks.inspectit.ocelot.config.model.exporters.trace.SpanExportQueueSettings;
+import rocks.inspectit.ocelot.config.model.exporters.trace.SpanExportQueueSettings.DropPolicy;
+import rocks.inspectit.ocelot.core.selfmonitoring.SelfMonitoringService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded queue decoupling a trace exporter from the OpenCensus span export.
+ * <p>
+ * OpenCensus passes all finished spans to the registered handlers on a single worker thread and buffers them without limit
+ * while a handler is busy, e.g. because the backend responds slowly.
+ * This handler instead only adds the spans to a bounded queue, which is drained by a dedicated thread
+ * passing the spans in batches to the actual exporter handler.
+ * If the queue is full, spans are dropped according to the configured {@link DropPolicy}.
+ * <p>
+ * The queue size and the number of dropped spans are reported via self-monitoring,
+ * the time spent exporting is reported as self-monitoring duration.
+ */
+@Slf4j
+public class SpanExportQueue extends SpanExporter.Handler {
+
+    private static final String QUEUE_SIZE_MEASURE = "span-export-queue-size";
+
+    private static final String DROPPED_SPANS_MEASURE = "span-export-dropped";
+
+    /**
+     * The maximum time to wait for the export thread to flush the remaining spans on shutdown.
+     */
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+
+    /**
+     * The name under which this handler is registered at the OpenCensus span exporter.
+     */
+    private final String registerName;
+
+    /**
+     * The name used as component name in the self-monitoring, e.g. "span-export-zipkin".
+     */
+    private final String componentName;
+
+    /**
+     * The handler of the actual exporter, invoked with the batches of spans.
+     */
+    private final SpanExporter.Handler delegate;
+
+    private final ArrayBlockingQueue<SpanData> queue;
+
+    private final int batchSize;
+
+    private final long flushIntervalNanos;
+
+    private final DropPolicy dropPolicy;
+
+    private final SelfMonitoringService selfMonitoring;
+
+    /**
+     * The number of spans dropped since the last time the self-monitoring metrics were reported.
+     */
+    private final AtomicLong droppedSpans = new AtomicLong();
+
+    /**
+     * The total number of spans dropped since this queue was created.
+     */
+    private final AtomicLong totalDroppedSpans = new AtomicLong();
+
+    private final Thread exportThread;
+
+    private volatile boolean running = true;
+
+    SpanExportQueue(String exporterName, SpanExporter.Handler delegate, SpanExportQueueSettings settings, SelfMonitoringService selfMonitoring) {
+        registerName = SpanExportQueue.class.getName() + "." + exporterName;
+        componentName = "span-export-" + exporterName;
+        this.delegate = delegate;
+        this.selfMonitoring = selfMonitoring;
+        queue = new ArrayBlockingQueue<>(settings.getCapacity());
+        batchSize = settings.getBatchSize();
+        flushIntervalNanos = settings.getFlushInterval().toNanos();
+        dropPolicy = settings.getDropPolicy();
+
+        exportThread = new Thread(this::runExportLoop);
+        exportThread.setDaemon(true);
+        exportThread.setName("inspectit-" + componentName);
+    }
+
+    /**
+     * Creates a queue for the given handler, starts its export thread and registers it at the OpenCensus span exporter.
+     *
+     * @param exporterName   the name of the exporter to use in thread names and the self-monitoring
+     * @param delegate       the handler of the exporter, which is invoked with the batches of spans taken from the queue
+     * @param settings       the settings for the queue
+     * @param selfMonitoring the self monitoring service to report the queue state to
+     * @return the started and registered queue
+     */
+    static SpanExportQueue createAndRegister(String exporterName, SpanExporter.Handler delegate, SpanExportQueueSettings settings, SelfMonitoringService selfMonitoring) {
+        SpanExportQueue exportQueue = new SpanExportQueue(exporterName, delegate, settings, selfMonitoring);
+        exportQueue.start();
+        Tracing.getExportComponent().getSpanExporter().registerHandler(exportQueue.registerName, exportQueue);
+        return exportQueue;
+    }
+
+    /**
+     * Starts the thread exporting the queued spans.
+     */
+    void start() {
+        exportThread.start();
+    }
+
+    /**
+     * Unregisters this queue from OpenCensus, exports all remaining spans and stops the export thread.
+     * The handler of the exporter will not be invoked anymore after this method returns.
+     */
+    public void shutdown() {
+        Tracing.getExportComponent().getSpanExporter().unregisterHandler(registerName);
+        running = false;
+        exportThread.interrupt();
+        try {
+            exportThread.join(SHUTDOWN_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void export(Collection<SpanData> spans) {
+        for (SpanData span : spans) {
+            if (!queue.offer(span)) {
+                droppedSpans.incrementAndGet();
+                totalDroppedSpans.incrementAndGet();
+                if (dropPolicy == DropPolicy.DROP_OLDEST) {
+                    queue.poll();
+                    queue.offer(span);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of spans currently waiting in the queue
+     */
+    int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * @return the total number of spans dropped since this queue was created
+     */
+    long getTotalDroppedSpans() {
+        return totalDroppedSpans.get();
+    }
+
+    private void runExportLoop() {
+        while (running) {
+            List<SpanData> batch = new ArrayList<>(batchSize);
+            try {
+                collectBatch(batch);
+            } catch (InterruptedException e) {
+                // shutdown was requested, the collected spans are exported and the remaining ones flushed below
+            }
+            exportBatch(batch);
+            reportQueueState();
+        }
+        flushRemainingSpans();
+    }
+
+    /**
+     * Waits until either {@link #batchSize} spans have been collected or the flush interval has elapsed.
+     *
+     * @param batch the list to add the collected spans to
+     * @throws InterruptedException if the export thread was interrupted
+     */
+    private void collectBatch(List<SpanData> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            long remainingNanos = deadline - System.nanoTime();
+            if (remainingNanos <= 0) {
+                return;
+            }
+            SpanData span = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+            if (span == null) {
+                return;
+            }
+            batch.add(span);
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+    }
+
+    private void exportBatch(List<SpanData> batch) {
+        if (!batch.isEmpty()) {
+            try (Scope s = selfMonitoring.withDurationSelfMonitoring(componentName)) {
+                delegate.export(batch);
+            } catch (Throwable t) {
+                log.error("Error exporting {} spans in {}", batch.size(), componentName, t);
+            }
+        }
+    }
+
+    private void flushRemainingSpans() {
+        List<SpanData> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            exportBatch(batch);
+            batch = new ArrayList<>(batchSize);
+        }
+        reportQueueState();
+    }
+
+    private void reportQueueState() {
+        try {
+            selfMonitoring.recordMeasurement(QUEUE_SIZE_MEASURE, queue.size(), componentName);
+            long dropped = droppedSpans.getAndSet(0);
+            if (dropped > 0) {
+                log.debug("{} dropped {} spans because its queue was full", componentName, dropped);
+                selfMonitoring.recordMeasurement(DROPPED_SPANS_MEASURE, dropped, componentName);
+            }
+        } catch (Throwable t) {
+            log.error("Error reporting the queue state of {}", componentName, t);
+        }
+    }
+}
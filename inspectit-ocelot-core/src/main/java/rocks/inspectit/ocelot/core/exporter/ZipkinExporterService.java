@@ -1,12 +1,19 @@
 package rocks.inspectit.ocelot.core.exporter;
 
+import com.google.common.annotations.VisibleForTesting;
 import io.opencensus.exporter.trace.zipkin.ZipkinTraceExporter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import rocks.inspectit.ocelot.config.model.InspectitConfig;
+import rocks.inspectit.ocelot.config.model.exporters.trace.SpanExportQueueSettings;
 import rocks.inspectit.ocelot.config.model.exporters.trace.ZipkinExporterSettings;
+import rocks.inspectit.ocelot.core.selfmonitoring.SelfMonitoringService;
 import rocks.inspectit.ocelot.core.service.DynamicallyActivatableService;
+import zipkin2.codec.SpanBytesEncoder;
+import zipkin2.reporter.Sender;
+import zipkin2.reporter.urlconnection.URLConnectionSender;
 
 import javax.validation.Valid;
 
@@ -18,8 +25,22 @@ import javax.validation.Valid;
 @Slf4j
 public class ZipkinExporterService extends DynamicallyActivatableService {
 
+    @Autowired
+    private SelfMonitoringService selfMonitoring;
+
+    /**
+     * The queue buffering the spans for this exporter, null if the exporter is disabled or no queue is used.
+     */
+    @VisibleForTesting
+    SpanExportQueue exportQueue;
+
+    /**
+     * The sender used for sending the spans to Zipkin, null if the exporter is disabled.
+     */
+    private Sender sender;
+
     public ZipkinExporterService() {
-        super("exporters.tracing.zipkin", "tracing.enabled");
+        super("exporters.tracing.zipkin", "exporters.tracing.queue", "tracing.enabled");
     }
 
     @Override
@@ -33,10 +54,26 @@ public class ZipkinExporterService extends DynamicallyActivatableService {
         try {
             ZipkinExporterSettings settings = configuration.getExporters().getTracing().getZipkin();
             log.info("Starting Zipkin Exporter with url '{}'", settings.getUrl());
-            ZipkinTraceExporter.createAndRegister(settings.getUrl(), settings.getServiceName());
+            SpanBytesEncoder encoder = settings.getEncoding() == ZipkinExporterSettings.Encoding.PROTO3 ? SpanBytesEncoder.PROTO3 : SpanBytesEncoder.JSON_V2;
+            sender = URLConnectionSender.newBuilder()
+                    .endpoint(settings.getUrl())
+                    .encoding(encoder.encoding())
+                    .compressionEnabled(settings.isCompression())
+                    .build();
+            SpanExportQueueSettings queueSettings = configuration.getExporters().getTracing().getQueue();
+            if (queueSettings.isEnabled()) {
+                if (settings.getBatchSize() != null) {
+                    queueSettings = queueSettings.toBuilder().batchSize(settings.getBatchSize()).build();
+                }
+                ZipkinSpanHandler handler = new ZipkinSpanHandler(encoder, sender, settings.getServiceName());
+                exportQueue = SpanExportQueue.createAndRegister("zipkin", handler, queueSettings, selfMonitoring);
+            } else {
+                ZipkinTraceExporter.createAndRegister(encoder, sender, settings.getServiceName());
+            }
             return true;
         } catch (Throwable t) {
             log.error("Error creating Zipkin exporter", t);
+            closeSender();
             return false;
         }
     }
@@ -45,10 +82,27 @@ public class ZipkinExporterService extends DynamicallyActivatableService {
     protected boolean doDisable() {
         log.info("Stopping Zipkin Exporter");
         try {
-            ZipkinTraceExporter.unregister();
+            if (exportQueue != null) {
+                exportQueue.shutdown();
+                exportQueue = null;
+            } else {
+                ZipkinTraceExporter.unregister();
+            }
         } catch (Throwable t) {
             log.error("Error disabling Zipkin exporter", t);
         }
+        closeSender();
         return true;
     }
+
+    private void closeSender() {
+        if (sender != null) {
+            try {
+                sender.close();
+            } catch (Throwable t) {
+                log.error("Error closing Zipkin sender", t);
+            }
+            sender = null;
+        }
+    }
 }
@@ -0,0 +1,126 @@
+package rocks.inspectit.ocelot.core.exporter;
+
+import io.opencensus.common.Functions;
+import io.opencensus.common.Scope;
+import io.opencensus.common.Timestamp;
+import io.opencensus.trace.*;
+import io.opencensus.trace.export.SpanData;
+import io.opencensus.trace.export.SpanExporter;
+import io.opencensus.trace.samplers.Samplers;
+import lombok.extern.slf4j.Slf4j;
+import zipkin2.Endpoint;
+import zipkin2.codec.SpanBytesEncoder;
+import zipkin2.reporter.Sender;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handler converting the spans to the Zipkin v2 model and sending them with the given {@link Sender}.
+ * The conversion is equal to the one of the OpenCensus Zipkin exporter, whose handler is not accessible.
+ * This handler is used as delegate of a {@link SpanExportQueue}, so that the queue does not depend on the internals of
+ * the OpenCensus exporter.
+ */
+@Slf4j
+class ZipkinSpanHandler extends SpanExporter.Handler {
+
+    private static final String STATUS_CODE = "census.status_code";
+
+    private static final String STATUS_DESCRIPTION = "census.status_description";
+
+    private static final String STATUS_ERROR = "error";
+
+    private final SpanBytesEncoder encoder;
+
+    private final Sender sender;
+
+    private final Endpoint localEndpoint;
+
+    ZipkinSpanHandler(SpanBytesEncoder encoder, Sender sender, String serviceName) {
+        this.encoder = encoder;
+        this.sender = sender;
+        Endpoint.Builder endpoint = Endpoint.newBuilder().serviceName(serviceName);
+        try {
+            endpoint.ip(InetAddress.getLocalHost());
+        } catch (UnknownHostException e) {
+            // the endpoint is sent without ip address
+        }
+        localEndpoint = endpoint.build();
+    }
+
+    @Override
+    public void export(Collection<SpanData> spanDataList) {
+        // the spans created while sending are not sampled, otherwise the export would be traced itself
+        try (Scope s = Tracing.getTracer().spanBuilder("SendZipkinSpans").setSampler(Samplers.neverSample()).startScopedSpan()) {
+            List<byte[]> encodedSpans = new ArrayList<>(spanDataList.size());
+            for (SpanData spanData : spanDataList) {
+                encodedSpans.add(encoder.encode(toZipkinSpan(spanData)));
+            }
+            sender.sendSpans(encodedSpans).execute();
+        } catch (IOException e) {
+            log.warn("Failed to send {} spans to Zipkin: {}", spanDataList.size(), e.getMessage());
+        }
+    }
+
+    zipkin2.Span toZipkinSpan(SpanData spanData) {
+        SpanContext context = spanData.getContext();
+        long startTimestamp = toEpochMicros(spanData.getStartTimestamp());
+        long endTimestamp = toEpochMicros(spanData.getEndTimestamp());
+        zipkin2.Span.Builder builder = zipkin2.Span.newBuilder()
+                .traceId(context.getTraceId().toLowerBase16())
+                .id(context.getSpanId().toLowerBase16())
+                .kind(toSpanKind(spanData))
+                .name(spanData.getName())
+                .timestamp(startTimestamp)
+                .duration(endTimestamp - startTimestamp)
+                .localEndpoint(localEndpoint);
+
+        if (spanData.getParentSpanId() != null && spanData.getParentSpanId().isValid()) {
+            builder.parentId(spanData.getParentSpanId().toLowerBase16());
+        }
+        for (Map.Entry<String, AttributeValue> attribute : spanData.getAttributes().getAttributeMap().entrySet()) {
+            builder.putTag(attribute.getKey(), toString(attribute.getValue()));
+        }
+        Status status = spanData.getStatus();
+        if (status != null) {
+            builder.putTag(STATUS_CODE, status.getCanonicalCode().toString());
+            if (status.getDescription() != null) {
+                builder.putTag(STATUS_DESCRIPTION, status.getDescription());
+            }
+            if (!status.isOk()) {
+                builder.putTag(STATUS_ERROR, status.getCanonicalCode().toString());
+            }
+        }
+        for (SpanData.TimedEvent<Annotation> annotation : spanData.getAnnotations().getEvents()) {
+            builder.addAnnotation(toEpochMicros(annotation.getTimestamp()), annotation.getEvent().getDescription());
+        }
+        for (SpanData.TimedEvent<MessageEvent> messageEvent : spanData.getMessageEvents().getEvents()) {
+            builder.addAnnotation(toEpochMicros(messageEvent.getTimestamp()), messageEvent.getEvent().getType().name());
+        }
+        return builder.build();
+    }
+
+    private static zipkin2.Span.Kind toSpanKind(SpanData spanData) {
+        if (spanData.getKind() == Span.Kind.SERVER || (spanData.getKind() == null && Boolean.TRUE.equals(spanData.getHasRemoteParent()))) {
+            return zipkin2.Span.Kind.SERVER;
+        }
+        if (spanData.getKind() == Span.Kind.CLIENT) {
+            return zipkin2.Span.Kind.CLIENT;
+        }
+        return null;
+    }
+
+    private static long toEpochMicros(Timestamp timestamp) {
+        return TimeUnit.SECONDS.toMicros(timestamp.getSeconds()) + TimeUnit.NANOSECONDS.toMicros(timestamp.getNanos());
+    }
+
+    private static String toString(AttributeValue value) {
+        return value.match(Functions.returnToString(), Functions.returnToString(), Functions.returnToString(), Functions.returnToString(), Functions.returnConstant(""));
+    }
+}
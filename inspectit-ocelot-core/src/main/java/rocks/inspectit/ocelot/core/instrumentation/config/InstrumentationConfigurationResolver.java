@@ -15,6 +15,7 @@ import rocks.inspectit.ocelot.bootstrap.instrumentation.DoNotInstrumentMarker;
 import rocks.inspectit.ocelot.config.model.InspectitConfig;
 import rocks.inspectit.ocelot.config.model.instrumentation.InstrumentationSettings;
 import rocks.inspectit.ocelot.config.model.metrics.MetricsSettings;
+import rocks.inspectit.ocelot.config.model.selfmonitoring.SelfMonitoringSettings;
 import rocks.inspectit.ocelot.config.model.tracing.TracingSettings;
 import rocks.inspectit.ocelot.core.config.InspectitConfigChangedEvent;
 import rocks.inspectit.ocelot.core.config.InspectitEnvironment;
@@ -70,7 +71,7 @@ public class InstrumentationConfigurationResolver {
     @PostConstruct
     private void init() {
         InspectitConfig conf = env.getCurrentConfig();
-        currentConfig = resolveConfiguration(conf.getInstrumentation(), conf.getMetrics(), conf.getTracing());
+        currentConfig = resolveConfiguration(conf.getInstrumentation(), conf.getMetrics(), conf.getTracing(), conf.getSelfMonitoring());
     }
 
     /**
@@ -185,11 +186,15 @@ public class InstrumentationConfigurationResolver {
         val oldTracingSettings = ev.getOldConfig().getTracing();
         val newTracingSettings = ev.getNewConfig().getTracing();
 
+        val oldSelfMonitoringSettings = ev.getOldConfig().getSelfMonitoring();
+        val newSelfMonitoringSettings = ev.getNewConfig().getSelfMonitoring();
+
         if (!Objects.equals(oldSettings, newSettings) ||
                 !Objects.equals(oldMetricsSettings, newMetricsSettings) ||
-                !Objects.equals(oldTracingSettings, newTracingSettings)) {
+                !Objects.equals(oldTracingSettings, newTracingSettings) ||
+                !Objects.equals(oldSelfMonitoringSettings, newSelfMonitoringSettings)) {
             val oldConfig = currentConfig;
-            val newConfig = resolveConfiguration(newSettings, newMetricsSettings, newTracingSettings);
+            val newConfig = resolveConfiguration(newSettings, newMetricsSettings, newTracingSettings, newSelfMonitoringSettings);
             if (!Objects.equals(oldConfig, newConfig)) {
                 currentConfig = newConfig;
                 val event = new InstrumentationConfigurationChangedEvent(this, oldConfig, currentConfig);
@@ -198,12 +203,13 @@ public class InstrumentationConfigurationResolver {
         }
     }
 
-    private InstrumentationConfiguration resolveConfiguration(InstrumentationSettings source, MetricsSettings metrics, TracingSettings tracing) {
+    private InstrumentationConfiguration resolveConfiguration(InstrumentationSettings source, MetricsSettings metrics, TracingSettings tracing, SelfMonitoringSettings selfMonitoring) {
         val genericActions = genericActionConfigurationResolver.resolveActions(source);
         return InstrumentationConfiguration.builder()
                 .metricsEnabled(metrics.isEnabled())
                 .tracingEnabled(tracing.isEnabled())
                 .defaultTraceSampleProbability(tracing.getSampleProbability())
+                .hookOverheadMonitoringEnabled(metrics.isEnabled() && selfMonitoring.isEnabled() && selfMonitoring.getHookOverhead().isEnabled())
                 .source(source)
                 .rules(ruleResolver.resolve(source, genericActions))
                 .dataProperties(resolveDataProperties(source))
@@ -53,6 +53,8 @@ public class MethodHookConfigurationResolver {
             resolveTracing(allSettings, result, matchedRules);
         }
 
+        result.overheadMonitored(allSettings.isHookOverheadMonitoringEnabled());
+
         return result.build();
     }
 
@@ -71,6 +73,9 @@ public class MethodHookConfigurationResolver {
             resolveContinueSpan(tracingRules, builder);
             builder.storeSpan(getAndDetectConflicts(tracingRules, r -> r.getTracing().getStoreSpan(), s -> !StringUtils.isEmpty(s), "store span data key"));
             resolveSpanAttributeWriting(tracingRules, builder);
+            if (conf.isMetricsEnabled()) {
+                resolveSpanMetrics(tracingRules, builder);
+            }
 
             result.tracing(builder.build());
         }
@@ -99,6 +104,11 @@ public class MethodHookConfigurationResolver {
         }
     }
 
+    private void resolveSpanMetrics(Set<InstrumentationRule> matchedRules, RuleTracingSettings.RuleTracingSettingsBuilder builder) throws ConflictingDefinitionsException {
+        builder.durationMetric(getAndDetectConflicts(matchedRules, r -> r.getTracing().getDurationMetric(), m -> !StringUtils.isEmpty(m), "the span duration metric"));
+        builder.errorMetric(getAndDetectConflicts(matchedRules, r -> r.getTracing().getErrorMetric(), m -> !StringUtils.isEmpty(m), "the span error metric"));
+    }
+
     private void resolveContinueSpan(Set<InstrumentationRule> matchedRules, RuleTracingSettings.RuleTracingSettingsBuilder builder) throws ConflictingDefinitionsException {
         Set<InstrumentationRule> rulesContinuingSpan = matchedRules.stream()
                 .filter(r -> r.getTracing().getContinueSpan() != null)
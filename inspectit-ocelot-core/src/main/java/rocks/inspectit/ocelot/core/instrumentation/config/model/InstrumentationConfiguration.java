@@ -6,6 +6,7 @@ import lombok.Value;
 import lombok.experimental.NonFinal;
 import rocks.inspectit.ocelot.config.model.instrumentation.InstrumentationSettings;
 import rocks.inspectit.ocelot.config.model.metrics.MetricsSettings;
+import rocks.inspectit.ocelot.config.model.selfmonitoring.HookOverheadSettings;
 import rocks.inspectit.ocelot.config.model.tracing.TracingSettings;
 import rocks.inspectit.ocelot.core.instrumentation.config.InstrumentationConfigurationResolver;
 
@@ -40,6 +41,11 @@ public class InstrumentationConfiguration {
     @Builder.Default
     private double defaultTraceSampleProbability = 1.0;
 
+    /**
+     * True, if {@link HookOverheadSettings#isEnabled()} as well as the self-monitoring and metrics master switches are enabled.
+     */
+    private boolean hookOverheadMonitoringEnabled;
+
     /**
      * The instrumentation settings which have been used to derive this configuration.
      */
@@ -5,6 +5,7 @@ import lombok.Singular;
 import lombok.Value;
 import rocks.inspectit.ocelot.config.model.instrumentation.rules.RuleTracingSettings;
 import rocks.inspectit.ocelot.core.instrumentation.hook.MethodHook;
+import rocks.inspectit.ocelot.core.selfmonitoring.HookOverheadMonitor;
 
 import java.util.List;
 import java.util.Map;
@@ -73,4 +74,9 @@ public class MethodHookConfiguration {
      */
     @Singular
     private Map<String, Number> constantMetrics;
+
+    /**
+     * True, if the time spent in the hook is measured by the {@link HookOverheadMonitor}.
+     */
+    private boolean overheadMonitored;
 }
@@ -10,6 +10,7 @@ import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import rocks.inspectit.ocelot.bootstrap.context.InternalInspectitContext;
 import rocks.inspectit.ocelot.core.instrumentation.config.model.DataProperties;
+import rocks.inspectit.ocelot.core.profiler.SpanProfilingSession;
 
 import java.util.*;
 import java.util.stream.Stream;
@@ -114,6 +115,17 @@ public class InspectitContextImpl implements InternalInspectitContext {
      */
     private Scope currentSpanScope;
 
+    /**
+     * The {@link System#nanoTime()} timestamp at which the span stored in {@link #currentSpanScope} was entered.
+     * Only set if the metrics derived from the span require it, otherwise this is zero.
+     */
+    private long spanEntryTimestamp;
+
+    /**
+     * The profiling session for the span stored in {@link #currentSpanScope}, null if the span is not profiled.
+     */
+    private SpanProfilingSession profilingSession;
+
     /**
      * Holds the tag context which was opened by this context with the call to {@link #makeActive()}.
      * If none was opened, this variable is null.
@@ -241,6 +253,40 @@ public class InspectitContextImpl implements InternalInspectitContext {
         }
     }
 
+    /**
+     * Stores the {@link System#nanoTime()} timestamp at which the span was entered via {@link #enterSpan(Span)}.
+     * This timestamp is used to derive the duration metrics for the span when it is ended.
+     *
+     * @param spanEntryTimestamp the timestamp in nanoseconds
+     */
+    public void setSpanEntryTimestamp(long spanEntryTimestamp) {
+        this.spanEntryTimestamp = spanEntryTimestamp;
+    }
+
+    /**
+     * @return the timestamp stored via {@link #setSpanEntryTimestamp(long)}, zero if none was stored.
+     */
+    public long getSpanEntryTimestamp() {
+        return spanEntryTimestamp;
+    }
+
+    /**
+     * Stores the profiling session which has been started for the span entered via {@link #enterSpan(Span)}.
+     * The session is ended when this context is closed.
+     *
+     * @param profilingSession the session, can be null
+     */
+    public void setProfilingSession(SpanProfilingSession profilingSession) {
+        this.profilingSession = profilingSession;
+    }
+
+    /**
+     * @return the session stored via {@link #setProfilingSession(SpanProfilingSession)}, null if none was stored.
+     */
+    public SpanProfilingSession getProfilingSession() {
+        return profilingSession;
+    }
+
     /**
      * @return true, if {@link #enterSpan(Span)} was called
      */
@@ -387,6 +433,10 @@ public class InspectitContextImpl implements InternalInspectitContext {
         }
         Context.current().detach(overriddenGrpcContext);
 
+        if (profilingSession != null) {
+            profilingSession.end();
+        }
+
         if (currentSpanScope != null) {
             currentSpanScope.close();
         }
@@ -397,6 +447,7 @@ public class InspectitContextImpl implements InternalInspectitContext {
         //clear the references to prevent memory leaks
         openedDownPropagationScope = null;
         currentSpanScope = null;
+        profilingSession = null;
         parent = null;
         overriddenGrpcContext = null;
     }
@@ -15,6 +15,7 @@ import rocks.inspectit.ocelot.bootstrap.instrumentation.noop.NoopHookManager;
 import rocks.inspectit.ocelot.bootstrap.instrumentation.noop.NoopMethodHook;
 import rocks.inspectit.ocelot.core.instrumentation.config.InstrumentationConfigurationResolver;
 import rocks.inspectit.ocelot.core.instrumentation.config.model.MethodHookConfiguration;
+import rocks.inspectit.ocelot.core.selfmonitoring.HookOverheadMonitor;
 import rocks.inspectit.ocelot.core.selfmonitoring.SelfMonitoringService;
 import rocks.inspectit.ocelot.core.utils.CoreUtils;
 
@@ -45,7 +46,15 @@ public class HookManager {
     @Autowired
     private MethodHookGenerator hookGenerator;
 
-    private final LoadingCache<Class<?>, ConcurrentHashMap<String, MethodHook>> hooks = CacheBuilder.newBuilder().weakKeys().build(
+    @Autowired
+    private HookOverheadMonitor hookOverheadMonitor;
+
+    /**
+     * The active hooks per class. When a class is garbage collected, the overhead counters of its hooks are released.
+     */
+    private final LoadingCache<Class<?>, ConcurrentHashMap<String, MethodHook>> hooks = CacheBuilder.newBuilder().weakKeys()
+            .<Class<?>, ConcurrentHashMap<String, MethodHook>>removalListener(removed -> removed.getValue().values().forEach(this::releaseOverheadCounter))
+            .build(
             new CacheLoader<Class<?>, ConcurrentHashMap<String, MethodHook>>() {
                 @Override
                 public ConcurrentHashMap<String, MethodHook> load(Class<?> key) throws Exception {
@@ -97,12 +106,14 @@ public class HookManager {
                 if (log.isDebugEnabled()) {
                     log.debug("Adding/updating hook for {} of {}", signature, clazz.getName());
                 }
+                MethodHook previousHook;
                 try {
-                    activeClassHooks.put(signature, hookGenerator.buildHook(clazz, method, config));
+                    previousHook = activeClassHooks.put(signature, hookGenerator.buildHook(clazz, method, config));
                 } catch (Throwable t) {
                     log.error("Error generating hook for {} of {}. Method will not be hooked.", signature, clazz.getName(), t);
-                    activeClassHooks.remove(signature);
+                    previousHook = activeClassHooks.remove(signature);
                 }
+                releaseOverheadCounter(previousHook);
             }
         });
     }
@@ -117,6 +128,23 @@ public class HookManager {
                     .forEach(sig -> log.debug("Removing hook for {} of {}", sig, clazz.getName()));
         }
         //remove hooks of methods which have been deinstrumented
-        activeClassHooks.keySet().removeIf(signature -> !hookedMethodSignatures.contains(signature));
+        activeClassHooks.entrySet().removeIf(entry -> {
+            if (!hookedMethodSignatures.contains(entry.getKey())) {
+                releaseOverheadCounter(entry.getValue());
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Releases the overhead counter of a hook which is no longer active, so that counters are only kept for active hooks.
+     *
+     * @param hook the hook which has been removed or replaced, may be null
+     */
+    private void releaseOverheadCounter(MethodHook hook) {
+        if (hook != null && hook.getOverheadCounter() != null) {
+            hookOverheadMonitor.releaseCounter(hook.getOverheadCounter());
+        }
     }
 }
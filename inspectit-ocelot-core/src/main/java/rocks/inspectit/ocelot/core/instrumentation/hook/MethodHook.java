@@ -10,6 +10,7 @@ import rocks.inspectit.ocelot.core.instrumentation.config.model.MethodHookConfig
 import rocks.inspectit.ocelot.core.instrumentation.context.ContextManager;
 import rocks.inspectit.ocelot.core.instrumentation.context.InspectitContextImpl;
 import rocks.inspectit.ocelot.core.instrumentation.hook.actions.IHookAction;
+import rocks.inspectit.ocelot.core.selfmonitoring.HookOverheadCounter;
 
 import java.util.concurrent.CopyOnWriteArrayList;
 
@@ -51,8 +52,34 @@ public class MethodHook implements IMethodHook {
      */
     private MethodReflectionInformation methodInformation;
 
+    /**
+     * Measures the time spent in this hook for a sample of its executions, null if the overhead is not monitored.
+     */
+    private final HookOverheadCounter overheadCounter;
+
     @Override
     public InternalInspectitContext onEnter(Object[] args, Object thiz) {
+        if (overheadCounter != null && overheadCounter.shouldSample()) {
+            long start = System.nanoTime();
+            InternalInspectitContext context = executeEntryActions(args, thiz);
+            overheadCounter.addSample(System.nanoTime() - start);
+            return context;
+        }
+        return executeEntryActions(args, thiz);
+    }
+
+    @Override
+    public void onExit(Object[] args, Object thiz, Object returnValue, Throwable thrown, InternalInspectitContext context) {
+        if (overheadCounter != null && overheadCounter.shouldSample()) {
+            long start = System.nanoTime();
+            executeExitActions(args, thiz, returnValue, thrown, context);
+            overheadCounter.addSample(System.nanoTime() - start);
+        } else {
+            executeExitActions(args, thiz, returnValue, thrown, context);
+        }
+    }
+
+    private InternalInspectitContext executeEntryActions(Object[] args, Object thiz) {
         val inspectitContext = inspectitContextManager.enterNewContext();
         val executionContext = new IHookAction.ExecutionContext(args, thiz, null, null, this, inspectitContext);
 
@@ -70,8 +97,7 @@ public class MethodHook implements IMethodHook {
         return inspectitContext;
     }
 
-    @Override
-    public void onExit(Object[] args, Object thiz, Object returnValue, Throwable thrown, InternalInspectitContext context) {
+    private void executeExitActions(Object[] args, Object thiz, Object returnValue, Throwable thrown, InternalInspectitContext context) {
         val executionContext = new IHookAction.ExecutionContext(args, thiz, returnValue, thrown, this, (InspectitContextImpl) context);
         for (val action : exitActions) {
             try {
@@ -19,6 +19,8 @@ import rocks.inspectit.ocelot.core.instrumentation.hook.actions.span.EndSpanActi
 import rocks.inspectit.ocelot.core.instrumentation.hook.actions.span.StoreSpanAction;
 import rocks.inspectit.ocelot.core.instrumentation.hook.actions.span.WriteSpanAttributesAction;
 import rocks.inspectit.ocelot.core.metrics.MeasuresAndViewsManager;
+import rocks.inspectit.ocelot.core.profiler.SpanProfiler;
+import rocks.inspectit.ocelot.core.selfmonitoring.HookOverheadMonitor;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -46,6 +48,12 @@ public class MethodHookGenerator {
     @Autowired
     private ActionCallGenerator actionCallGenerator;
 
+    @Autowired
+    private SpanProfiler spanProfiler;
+
+    @Autowired
+    private HookOverheadMonitor hookOverheadMonitor;
+
     /**
      * Builds a executable method hook based on the given configuration.
      *
@@ -84,6 +92,11 @@ public class MethodHookGenerator {
         exitActions.addAll(buildActionCalls(config.getPostExitActions(), methodInfo));
         builder.exitActions(exitActions);
 
+        if (config.isOverheadMonitored() && hookOverheadMonitor != null) {
+            // acquired last, as the counter has to be released by the HookManager once the hook has been built
+            builder.overheadCounter(hookOverheadMonitor.acquireCounter(methodInfo.getMethodFQN()));
+        }
+
         return builder.build();
     }
 
@@ -112,6 +125,9 @@ public class MethodHookGenerator {
                 actionBuilder.continueSpanCondition(ctx -> false);
             }
 
+            actionBuilder.recordEntryTimestamp(tracing.getDurationMetric() != null);
+            actionBuilder.profiler(spanProfiler);
+
             val result = new ArrayList<IHookAction>();
             result.add(actionBuilder.build());
 
@@ -152,7 +168,13 @@ public class MethodHookGenerator {
         }
 
         if (tracing.getEndSpan() && (tracing.getStartSpan() || tracing.getContinueSpan() != null)) {
-            val endSpanAction = new EndSpanAction(ConditionalHookAction.getAsPredicate(tracing.getEndSpanConditions()));
+            val endSpanAction = EndSpanAction.builder()
+                    .condition(ConditionalHookAction.getAsPredicate(tracing.getEndSpanConditions()))
+                    .durationMetric(tracing.getDurationMetric())
+                    .errorMetric(tracing.getErrorMetric())
+                    .metricsManager(metricsManager)
+                    .statsRecorder(statsRecorder)
+                    .build();
             result.add(endSpanAction);
         }
         return result;
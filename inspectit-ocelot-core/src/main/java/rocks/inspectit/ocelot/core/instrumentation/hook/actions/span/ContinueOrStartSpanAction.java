@@ -8,6 +8,7 @@ import rocks.inspectit.ocelot.config.model.instrumentation.rules.RuleTracingSett
 import rocks.inspectit.ocelot.core.instrumentation.context.InspectitContextImpl;
 import rocks.inspectit.ocelot.core.instrumentation.hook.MethodReflectionInformation;
 import rocks.inspectit.ocelot.core.instrumentation.hook.actions.IHookAction;
+import rocks.inspectit.ocelot.core.profiler.SpanProfiler;
 
 import java.util.function.Predicate;
 
@@ -59,6 +60,18 @@ public class ContinueOrStartSpanAction implements IHookAction {
      */
     private Predicate<ExecutionContext> startSpanCondition;
 
+    /**
+     * If true, the timestamp at which the span was entered is stored in the context via {@link InspectitContextImpl#setSpanEntryTimestamp(long)}.
+     * This is required if the duration of the span is recorded as metric by the {@link EndSpanAction}.
+     */
+    private boolean recordEntryTimestamp;
+
+    /**
+     * The profiler used to start a profiling session for the entered span, can be null.
+     * The session is ended by the {@link EndSpanAction} or when the context is closed.
+     */
+    private SpanProfiler profiler;
+
     @Override
     public String getName() {
         return "Span continuing / creation";
@@ -69,6 +82,18 @@ public class ContinueOrStartSpanAction implements IHookAction {
         if (!continueSpan(context)) {
             startSpan(context);
         }
+        if (recordEntryTimestamp) {
+            InspectitContextImpl ctx = context.getInspectitContext();
+            if (ctx.enteredSpan()) {
+                ctx.setSpanEntryTimestamp(System.nanoTime());
+            }
+        }
+        if (profiler != null) {
+            InspectitContextImpl ctx = context.getInspectitContext();
+            if (ctx.enteredSpan()) {
+                ctx.setProfilingSession(profiler.startSession(Tracing.getTracer().getCurrentSpan()));
+            }
+        }
     }
 
 
@@ -1,27 +1,92 @@
 package rocks.inspectit.ocelot.core.instrumentation.hook.actions.span;
 
+import io.opencensus.stats.StatsRecorder;
 import io.opencensus.trace.Span;
 import io.opencensus.trace.Tracing;
 import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.val;
+import rocks.inspectit.ocelot.config.model.instrumentation.rules.RuleTracingSettings;
 import rocks.inspectit.ocelot.core.instrumentation.context.InspectitContextImpl;
 import rocks.inspectit.ocelot.core.instrumentation.hook.actions.IHookAction;
+import rocks.inspectit.ocelot.core.metrics.MeasuresAndViewsManager;
+import rocks.inspectit.ocelot.core.profiler.SpanProfilingSession;
 
 import java.util.function.Predicate;
 
 /**
  * Ends the current span if the specified conditions are met and {@link InspectitContextImpl#enterSpan(Span)} was invoked on active context.
+ * In addition, the duration and error metrics derived from the span are recorded, if configured.
+ * If the span has been profiled, the captured stacks are attached to it before it is ended.
  */
 @AllArgsConstructor
+@Builder
 public class EndSpanAction implements IHookAction {
 
-    private Predicate<ExecutionContext> condition;
+    private static final double NANOS_PER_MILLI = 1000.0 * 1000.0;
+
+    private static final Number ERROR_VALUE = 1L;
+
+    private final Predicate<ExecutionContext> condition;
+
+    /**
+     * The metric under which the duration of the span is recorded in milliseconds, can be null.
+     * Is configured using {@link RuleTracingSettings#getDurationMetric()}.
+     * If not null, the {@link ContinueOrStartSpanAction} must store the entry timestamp of the span in the context.
+     */
+    private final String durationMetric;
+
+    /**
+     * The metric for which a value of 1 is recorded if the instrumented method has thrown an exception, can be null.
+     * Is configured using {@link RuleTracingSettings#getErrorMetric()}.
+     */
+    private final String errorMetric;
+
+    /**
+     * The manager to acquire the actual OpenCensus metrics from, only required if {@link #durationMetric} or {@link #errorMetric} are set.
+     */
+    private final MeasuresAndViewsManager metricsManager;
+
+    /**
+     * The recorder used for recording the span metrics, only required if {@link #durationMetric} or {@link #errorMetric} are set.
+     */
+    private final StatsRecorder statsRecorder;
 
     @Override
     public void execute(ExecutionContext context) {
         InspectitContextImpl ctx = context.getInspectitContext();
         if (ctx.enteredSpan() && condition.test(context)) {
+            long endTimestamp = durationMetric != null ? System.nanoTime() : 0;
             Span current = Tracing.getTracer().getCurrentSpan();
+            SpanProfilingSession profilingSession = ctx.getProfilingSession();
+            if (profilingSession != null) {
+                profilingSession.attachSummary();
+            }
             current.end();
+            if (durationMetric != null || errorMetric != null) {
+                recordSpanMetrics(context, endTimestamp);
+            }
+        }
+    }
+
+    private void recordSpanMetrics(ExecutionContext context, long endTimestamp) {
+        InspectitContextImpl ctx = context.getInspectitContext();
+        boolean isError = errorMetric != null && context.getThrown() != null;
+        if (durationMetric == null && !isError) {
+            return;
+        }
+        try (val ts = ctx.enterFullTagScope()) {
+            val measureMap = statsRecorder.newMeasureMap();
+            if (durationMetric != null) {
+                double durationMillis = (endTimestamp - ctx.getSpanEntryTimestamp()) / NANOS_PER_MILLI;
+                if (!metricsManager.tryRecordingMeasurement(durationMetric, measureMap, durationMillis)) {
+                    metricsManager.tryRecordingMeasurement(durationMetric, measureMap, (long) durationMillis);
+                }
+            }
+            if (isError) {
+                metricsManager.tryRecordingMeasurement(errorMetric, measureMap, ERROR_VALUE);
+            }
+            measureMap.record();
         }
     }
 
@@ -2,36 +2,128 @@ package rocks.inspectit.ocelot.core.instrumentation.hook.actions.span;
 
 import io.opencensus.trace.AttributeValue;
 import io.opencensus.trace.Tracing;
-import lombok.AllArgsConstructor;
+import lombok.Value;
 import lombok.val;
 import rocks.inspectit.ocelot.core.instrumentation.hook.actions.IHookAction;
 
+import java.util.HashMap;
 import java.util.Map;
 
 /**
  * Reads specified data keys from the current context and attaches them to the current span as attributes.
+ * Attributes are only written if the current span is sampled, as otherwise they would be discarded anyway.
  */
-@AllArgsConstructor
 public class WriteSpanAttributesAction implements IHookAction {
 
-    private final Map<String, String> attributes;
+    /**
+     * The names of the attributes to write.
+     * Stored as array together with {@link #dataKeys} because it is faster to iterate over arrays than over a map.
+     */
+    private final String[] attributeKeys;
+
+    /**
+     * The data keys to read, the data key at index i is written to the attribute at index i of {@link #attributeKeys}.
+     */
+    private final String[] dataKeys;
+
+    /**
+     * Caches the last {@link AttributeValue} created for each attribute.
+     * If a data key holds the same immutable value on every invocation, no new {@link AttributeValue} needs to be created.
+     * A race condition when updating this array is not an issue, as {@link CachedAttributeValue} is immutable.
+     */
+    private final CachedAttributeValue[] cachedValues;
+
+    public WriteSpanAttributesAction(Map<String, String> attributes) {
+        int size = attributes.size();
+        attributeKeys = new String[size];
+        dataKeys = new String[size];
+        cachedValues = new CachedAttributeValue[size];
+        int i = 0;
+        for (val entry : attributes.entrySet()) {
+            attributeKeys[i] = entry.getKey();
+            dataKeys[i] = entry.getValue();
+            i++;
+        }
+    }
 
     @Override
     public void execute(ExecutionContext context) {
         val span = Tracing.getTracer().getCurrentSpan();
-        if (span.getContext().isValid()) {
+        val spanContext = span.getContext();
+        if (spanContext.isValid() && spanContext.getTraceOptions().isSampled()) {
             val ctx = context.getInspectitContext();
-            for (val entry : attributes.entrySet()) {
-                Object value = ctx.getData(entry.getValue());
+            Map<String, AttributeValue> values = null;
+            for (int i = 0; i < dataKeys.length; i++) {
+                Object value = ctx.getData(dataKeys[i]);
                 if (value != null) {
-                    span.putAttribute(entry.getKey(), AttributeValue.stringAttributeValue(value.toString()));
+                    if (values == null) {
+                        values = new HashMap<>();
+                    }
+                    values.put(attributeKeys[i], getAttributeValue(i, value));
                 }
             }
+            if (values != null) {
+                span.putAttributes(values);
+            }
+        }
+    }
+
+    /**
+     * Returns the {@link AttributeValue} to use for the given value of the attribute with the given index.
+     * Reuses the previously created {@link AttributeValue} if the value is immutable and did not change.
+     *
+     * @param index the index of the attribute within {@link #attributeKeys}
+     * @param value the value read from the context, not null
+     * @return the attribute value to write
+     */
+    private AttributeValue getAttributeValue(int index, Object value) {
+        CachedAttributeValue cached = cachedValues[index];
+        if (cached != null && cached.getValue().equals(value)) {
+            return cached.getAttributeValue();
+        }
+        AttributeValue attributeValue = AttributeValue.stringAttributeValue(value.toString());
+        if (isImmutable(value)) {
+            cachedValues[index] = new CachedAttributeValue(value, attributeValue);
         }
+        return attributeValue;
+    }
+
+    /**
+     * Checks if the given value is of a type whose string representation can never change.
+     * Only such values are safe to be cached.
+     *
+     * @param value the value to check
+     * @return true, if the value is known to be immutable
+     */
+    private static boolean isImmutable(Object value) {
+        return value instanceof String
+                || value instanceof Boolean
+                || value instanceof Character
+                || value instanceof Integer
+                || value instanceof Long
+                || value instanceof Short
+                || value instanceof Byte
+                || value instanceof Double
+                || value instanceof Float
+                || value instanceof Enum;
     }
 
     @Override
     public String getName() {
         return "Span Attribute Writing";
     }
+
+    @Value
+    private static class CachedAttributeValue {
+
+        /**
+         * The value read from the context.
+         */
+        private Object value;
+
+        /**
+         * The {@link AttributeValue} created for {@link #value}.
+         */
+        private AttributeValue attributeValue;
+    }
 }
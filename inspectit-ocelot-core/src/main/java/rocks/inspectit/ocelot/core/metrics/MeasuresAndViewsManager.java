@@ -2,7 +2,10 @@ package rocks.inspectit.ocelot.core.metrics;
 
 import com.google.common.annotations.VisibleForTesting;
 import io.opencensus.stats.*;
+import io.opencensus.tags.TagContext;
+import io.opencensus.tags.TagContextBuilder;
 import io.opencensus.tags.TagKey;
+import io.opencensus.tags.Tags;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,8 +15,10 @@ import org.springframework.stereotype.Component;
 import rocks.inspectit.ocelot.core.config.InspectitConfigChangedEvent;
 import rocks.inspectit.ocelot.core.config.InspectitEnvironment;
 import rocks.inspectit.ocelot.config.model.metrics.MetricsSettings;
+import rocks.inspectit.ocelot.config.model.metrics.StandardPollingMetricsRecorderSettings.CollectionMode;
 import rocks.inspectit.ocelot.config.model.metrics.definition.MetricDefinitionSettings;
 import rocks.inspectit.ocelot.config.model.metrics.definition.ViewDefinitionSettings;
+import rocks.inspectit.ocelot.core.metrics.system.ScrapeTimeMeasurementTrigger;
 import rocks.inspectit.ocelot.core.tags.CommonTagsManager;
 
 import javax.annotation.PostConstruct;
@@ -29,6 +34,11 @@ import java.util.stream.Collectors;
 @Slf4j
 public class MeasuresAndViewsManager {
 
+    /**
+     * Separates the name of the metric and the name of the view in the names of the measures of views with a cardinality limit.
+     */
+    private static final String LIMITED_VIEW_MEASURE_SEPARATOR = "#";
+
     @Autowired
     private ViewManager viewManager;
 
@@ -38,6 +48,9 @@ public class MeasuresAndViewsManager {
     @Autowired
     private InspectitEnvironment env;
 
+    @Autowired
+    private StatsRecorder statsRecorder;
+
     /**
      * Caches all created measures.
      */
@@ -49,6 +62,21 @@ public class MeasuresAndViewsManager {
      */
     private final Map<String, MetricDefinitionSettings> currentMetricDefinitionSettings = new HashMap<>();
 
+    /**
+     * Maps the names of measures to the cardinality limiters of their views.
+     * Only contains measures which have at least one view with {@link ViewDefinitionSettings#getMaxCardinality()} set.
+     * The arrays are never modified, instead they are replaced on updates.
+     */
+    private final ConcurrentHashMap<String, ViewCardinalityLimiter[]> cardinalityLimiters = new ConcurrentHashMap<>();
+
+    /**
+     * Maps the names of the measures recorded in {@link CollectionMode#PULL} to their views with a
+     * {@link ViewDefinitionSettings.Aggregation#LAST_VALUE} aggregation. These views are not registered at OpenCensus,
+     * instead their metrics are built by the {@link ScrapeTimeMeasurementTrigger} from the values measured during a read.
+     * Contains all pulled measures, including the ones without such views.
+     */
+    private final ConcurrentHashMap<String, List<View>> pulledViews = new ConcurrentHashMap<>();
+
     /**
      * If a measure with the given name is defined via {@link MetricsSettings#getDefinitions()},
      * it is returned by this method.
@@ -105,6 +133,7 @@ public class MeasuresAndViewsManager {
         val measure = getMeasureDouble(measureName);
         if (measure.isPresent()) {
             resultMap.put(measure.get(), value);
+            recordForLimitedViews(measureName, resultMap, value);
             return true;
         } else {
             return false;
@@ -127,8 +156,10 @@ public class MeasuresAndViewsManager {
             val m = measure.get();
             if (m instanceof Measure.MeasureLong) {
                 resultMap.put((Measure.MeasureLong) m, value.longValue());
+                recordForLimitedViews(measureName, resultMap, value.longValue());
             } else if (m instanceof Measure.MeasureDouble) {
                 resultMap.put((Measure.MeasureDouble) m, value.doubleValue());
+                recordForLimitedViews(measureName, resultMap, value.doubleValue());
             }
             return true;
         } else {
@@ -148,12 +179,89 @@ public class MeasuresAndViewsManager {
         val measure = getMeasureLong(measureName);
         if (measure.isPresent()) {
             resultMap.put(measure.get(), value);
+            recordForLimitedViews(measureName, resultMap, value);
             return true;
         } else {
             return false;
         }
     }
 
+    /**
+     * Records the measurement for the views of the given measure which have a cardinality limit.
+     * These views are registered with their own measure, see {@link ViewCardinalityLimiter#getMeasure()}.
+     * If a view admits the tag values of the current tag context, the value is added to the given map for the measure of the view.
+     * Otherwise the measurement is recorded separately for the view only, with the values of all tags of the view
+     * replaced with {@link ViewCardinalityLimiter#OVERFLOW_TAG_VALUE}.
+     * <p>
+     * The limits are checked against the current tag context, measurements recorded with an explicit tag context are
+     * therefore not limited.
+     */
+    private void recordForLimitedViews(String measureName, MeasureMap resultMap, double value) {
+        ViewCardinalityLimiter[] limiters = cardinalityLimiters.get(measureName);
+        if (limiters != null) {
+            TagContext tags = Tags.getTagger().getCurrentTagContext();
+            for (ViewCardinalityLimiter limiter : limiters) {
+                if (limiter.admit(tags)) {
+                    limiter.put(resultMap, value);
+                } else {
+                    MeasureMap overflowMap = statsRecorder.newMeasureMap();
+                    limiter.put(overflowMap, value);
+                    overflowMap.record(getOverflowTags(limiter, tags));
+                }
+            }
+        }
+    }
+
+    /**
+     * See {@link #recordForLimitedViews(String, MeasureMap, double)}.
+     */
+    private void recordForLimitedViews(String measureName, MeasureMap resultMap, long value) {
+        ViewCardinalityLimiter[] limiters = cardinalityLimiters.get(measureName);
+        if (limiters != null) {
+            TagContext tags = Tags.getTagger().getCurrentTagContext();
+            for (ViewCardinalityLimiter limiter : limiters) {
+                if (limiter.admit(tags)) {
+                    limiter.put(resultMap, value);
+                } else {
+                    MeasureMap overflowMap = statsRecorder.newMeasureMap();
+                    limiter.put(overflowMap, value);
+                    overflowMap.record(getOverflowTags(limiter, tags));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return a copy of the given tags where the values of all tags of the view of the given limiter are replaced with {@link ViewCardinalityLimiter#OVERFLOW_TAG_VALUE}.
+     */
+    private TagContext getOverflowTags(ViewCardinalityLimiter limiter, TagContext tags) {
+        TagContextBuilder overflowTags = Tags.getTagger().toBuilder(tags);
+        for (TagKey key : limiter.getTagKeys()) {
+            overflowTags.put(key, ViewCardinalityLimiter.OVERFLOW_TAG_VALUE);
+        }
+        return overflowTags.build();
+    }
+
+    /**
+     * @return all currently active cardinality limiters
+     */
+    Collection<ViewCardinalityLimiter> getCardinalityLimiters() {
+        return cardinalityLimiters.values().stream()
+                .flatMap(Arrays::stream)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the views with a {@link ViewDefinitionSettings.Aggregation#LAST_VALUE} aggregation of the given measure,
+     * which have not been registered at OpenCensus because the measure is recorded in {@link CollectionMode#PULL}.
+     *
+     * @param measureName the name of the measure
+     * @return the unregistered views, an empty list if there are none
+     */
+    public List<View> getPulledViews(String measureName) {
+        return pulledViews.getOrDefault(measureName, Collections.emptyList());
+    }
+
     /**
      * Creates the measures and views defined via {@link MetricsSettings#getDefinitions()}.
      * OpenCensus does currently not allow the removal of views, therefore updating metrics is not possible.
@@ -177,7 +285,8 @@ public class MeasuresAndViewsManager {
             newMetricDefinitions.forEach((name, def) -> {
                 val defWithDefaults = def.getCopyWithDefaultsPopulated(name);
                 val oldDef = currentMetricDefinitionSettings.get(name);
-                if (defWithDefaults.isEnabled() && !defWithDefaults.equals(oldDef)) {
+                boolean pullModeChanged = ScrapeTimeMeasurementTrigger.isPulledMeasure(name, metricsSettings) != pulledViews.containsKey(name);
+                if (defWithDefaults.isEnabled() && (!defWithDefaults.equals(oldDef) || pullModeChanged)) {
                     addOrUpdateAndCacheMeasureWithViews(name, defWithDefaults, registeredMeasures, registeredViews);
                 }
             });
@@ -206,16 +315,28 @@ public class MeasuresAndViewsManager {
             }
             val resultMeasure = measure;
 
+            boolean pulled = ScrapeTimeMeasurementTrigger.isPulledMeasure(measureName, env.getCurrentConfig().getMetrics());
+            List<View> unregisteredViews = new ArrayList<>();
             val metricViews = definition.getViews();
             metricViews.forEach((name, view) -> {
                 if (view.isEnabled()) {
                     try {
-                        addAndRegisterOrUpdateView(name, resultMeasure, view, registeredViews);
+                        if (pulled && view.getAggregation() == ViewDefinitionSettings.Aggregation.LAST_VALUE && !registeredViews.containsKey(name)) {
+                            unregisteredViews.add(createView(name, resultMeasure, view, getTagKeysForView(view)));
+                        } else {
+                            Measure viewMeasure = addAndRegisterOrUpdateView(name, resultMeasure, view, registeredViews);
+                            updateCardinalityLimiter(measureName, name, view, viewMeasure, resultMeasure, registeredViews);
+                        }
                     } catch (Exception e) {
                         log.error("Error creating view '{}'!", name, e);
                     }
                 }
             });
+            if (pulled) {
+                pulledViews.put(measureName, unregisteredViews);
+            } else {
+                pulledViews.remove(measureName);
+            }
 
             //TODO: delete views which where created by this class but have been removed from the given metric as soon as OpenCensus supports it
             currentMetricDefinitionSettings.put(measureName, definition);
@@ -254,45 +375,113 @@ public class MeasuresAndViewsManager {
         }
     }
 
+    /**
+     * Creates a measure with the same type, description and unit as the given measure, which is used exclusively by the
+     * given view with a cardinality limit.
+     */
+    private Measure createLimitedViewMeasure(Measure measure, String viewName) {
+        String name = measure.getName() + LIMITED_VIEW_MEASURE_SEPARATOR + viewName;
+        if (measure instanceof Measure.MeasureLong) {
+            return Measure.MeasureLong.create(name, measure.getDescription(), measure.getUnit());
+        } else {
+            return Measure.MeasureDouble.create(name, measure.getDescription(), measure.getUnit());
+        }
+    }
+
     /**
      * Creates a view if does not exist yet.
      * Otherwise prints info messages indicating that updating the view is not possible.
+     * Views with a cardinality limit are registered with their own measure, see {@link #createLimitedViewMeasure(Measure, String)}.
      *
      * @param viewName        the name of the view
-     * @param measure         the measure which is used for the view
+     * @param measure         the measure of the metric
      * @param def             the definition of the view, on which
      *                        {@link ViewDefinitionSettings#getCopyWithDefaultsPopulated(String, String, String)} was already called.
      * @param registeredViews a map of which views are already registered at the OpenCensus API. Maps the view names to the views.
+     * @return the measure the view is registered with
      */
-    private void addAndRegisterOrUpdateView(String viewName, Measure measure, ViewDefinitionSettings def, Map<String, View> registeredViews) {
+    private Measure addAndRegisterOrUpdateView(String viewName, Measure measure, ViewDefinitionSettings def, Map<String, View> registeredViews) {
         Set<TagKey> viewTags = getTagKeysForView(def);
 
         View view = registeredViews.get(viewName);
         if (view != null) {
-            updateView(viewName, def, viewTags, view);
+            updateView(viewName, measure, def, viewTags, view);
+            return view.getMeasure();
         } else {
-            registerNewView(viewName, measure, def, viewTags);
+            Measure viewMeasure = def.getMaxCardinality() != null ? createLimitedViewMeasure(measure, viewName) : measure;
+            registerNewView(viewName, viewMeasure, def, viewTags);
+            return viewMeasure;
         }
     }
 
     private void registerNewView(String viewName, Measure measure, ViewDefinitionSettings def, Set<TagKey> viewTags) {
-        View view;
-        view = View.create(
+        viewManager.registerView(createView(viewName, measure, def, viewTags));
+    }
+
+    private View createView(String viewName, Measure measure, ViewDefinitionSettings def, Set<TagKey> viewTags) {
+        return View.create(
                 View.Name.create(viewName),
                 def.getDescription(),
                 measure,
                 createAggregation(def),
                 new ArrayList<>(viewTags));
-        viewManager.registerView(view);
     }
 
-    private void updateView(String viewName, ViewDefinitionSettings def, Set<TagKey> viewTags, View view) {
+    /**
+     * Adds, replaces or removes the cardinality limiter of the given view based on {@link ViewDefinitionSettings#getMaxCardinality()}.
+     * If the limit did not change, the existing limiter is kept so that the already admitted tag value combinations are preserved.
+     * As the measure of a registered view cannot be changed, the limiter of a view registered with its own measure is kept
+     * if the limit is removed, and no limiter is created for a view registered with the measure of the metric.
+     *
+     * @param measureName     the name of the measure of the view
+     * @param viewName        the name of the view
+     * @param def             the definition of the view
+     * @param viewMeasure     the measure the view is registered with
+     * @param measure         the measure of the metric
+     * @param registeredViews the views which were registered before the current update, used to detect the tags of views which could not be updated.
+     */
+    private void updateCardinalityLimiter(String measureName, String viewName, ViewDefinitionSettings def, Measure viewMeasure, Measure measure, Map<String, View> registeredViews) {
+        boolean limitedView = !viewMeasure.getName().equals(measure.getName());
+        Integer maxCardinality = def.getMaxCardinality();
+        cardinalityLimiters.compute(measureName, (name, limiters) -> {
+            List<ViewCardinalityLimiter> result = new ArrayList<>();
+            ViewCardinalityLimiter existing = null;
+            if (limiters != null) {
+                for (ViewCardinalityLimiter limiter : limiters) {
+                    if (limiter.getViewName().equals(viewName)) {
+                        existing = limiter;
+                    } else {
+                        result.add(limiter);
+                    }
+                }
+            }
+            if (limitedView) {
+                if (existing != null && (maxCardinality == null || existing.getMaxCardinality() == maxCardinality)) {
+                    result.add(existing);
+                } else if (maxCardinality != null) {
+                    View registeredView = registeredViews.get(viewName);
+                    Collection<TagKey> viewTags = registeredView != null ? registeredView.getColumns() : getTagKeysForView(def);
+                    result.add(new ViewCardinalityLimiter(viewName, viewTags.toArray(new TagKey[0]), maxCardinality, viewMeasure));
+                }
+            }
+            return result.isEmpty() ? null : result.toArray(new ViewCardinalityLimiter[0]);
+        });
+    }
+
+    private void updateView(String viewName, Measure measure, ViewDefinitionSettings def, Set<TagKey> viewTags, View view) {
         if (!def.getDescription().equals(view.getDescription())) {
             log.info("Cannot update description of view '{}' because it has been already registered in OpenCensus!", viewName);
         }
         if (!isAggregationEqual(view.getAggregation(), def)) {
             log.info("Cannot update aggregation of view '{}' because it has been already registered in OpenCensus!", viewName);
         }
+        boolean registeredWithLimit = !view.getMeasure().getName().equals(measure.getName());
+        if (registeredWithLimit && def.getMaxCardinality() == null) {
+            log.info("Cannot remove the cardinality limit of view '{}' because it has been already registered in OpenCensus!", viewName);
+        }
+        if (!registeredWithLimit && def.getMaxCardinality() != null) {
+            log.info("Cannot add a cardinality limit to view '{}' because it has been already registered in OpenCensus!", viewName);
+        }
         Set<TagKey> presentTagKeys = new HashSet<>(view.getColumns());
 
         presentTagKeys.stream()
@@ -335,7 +524,7 @@ public class MeasuresAndViewsManager {
                 return instance instanceof Aggregation.Sum;
             case HISTOGRAM:
                 return instance instanceof Aggregation.Distribution &&
-                        ((Aggregation.Distribution) instance).getBucketBoundaries().equals(view.getBucketBoundaries());
+                        ((Aggregation.Distribution) instance).getBucketBoundaries().getBoundaries().equals(view.resolveBucketBoundaries());
             case LAST_VALUE:
                 return instance instanceof Aggregation.LastValue;
             default:
@@ -351,7 +540,7 @@ public class MeasuresAndViewsManager {
             case SUM:
                 return Aggregation.Sum.create();
             case HISTOGRAM:
-                return Aggregation.Distribution.create(BucketBoundaries.create(view.getBucketBoundaries()));
+                return Aggregation.Distribution.create(BucketBoundaries.create(view.resolveBucketBoundaries()));
             case LAST_VALUE:
                 return Aggregation.LastValue.create();
             default:
@@ -0,0 +1,191 @@
+package rocks.inspectit.ocelot.core.metrics;
+
+import io.opencensus.stats.Measure;
+import io.opencensus.stats.MeasureMap;
+import io.opencensus.tags.InternalUtils;
+import io.opencensus.tags.Tag;
+import io.opencensus.tags.TagContext;
+import io.opencensus.tags.TagKey;
+import io.opencensus.tags.TagValue;
+import lombok.Getter;
+import rocks.inspectit.ocelot.config.model.metrics.definition.ViewDefinitionSettings;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits the number of distinct tag value combinations (time series) recorded for a single view,
+ * as configured via {@link ViewDefinitionSettings#getMaxCardinality()}.
+ * <p>
+ * A limited view is registered with its own measure ({@link #getMeasure()}), so that measurements can be recorded for it
+ * with altered tags without affecting the other views of the same metric.
+ * The limiter remembers a 64 bit hash of each admitted combination of the view's tag values in a fixed size open-addressing
+ * hash set, so that checking an already admitted combination does not allocate any memory.
+ * As soon as the limit has been reached, new combinations are rejected and have to be recorded with
+ * {@link #OVERFLOW_TAG_VALUE} instead, so that the view keeps at most one additional time series.
+ * Rejected combinations are counted so that they can be reported via the self-monitoring.
+ */
+class ViewCardinalityLimiter {
+
+    /**
+     * The value used for the tags of this view if a measurement is recorded for a rejected tag value combination.
+     */
+    static final TagValue OVERFLOW_TAG_VALUE = TagValue.create("__overflow__");
+
+    /**
+     * Marks an empty slot in {@link #admittedHashes}.
+     */
+    private static final long EMPTY = 0L;
+
+    /**
+     * The name of the view whose cardinality is limited.
+     */
+    @Getter
+    private final String viewName;
+
+    /**
+     * The tag keys of the view.
+     */
+    @Getter
+    private final TagKey[] tagKeys;
+
+    @Getter
+    private final int maxCardinality;
+
+    /**
+     * The measure the view is registered with, which is only used for this view.
+     */
+    @Getter
+    private final Measure measure;
+
+    /**
+     * The hashes of the admitted tag value combinations, see {@link #hash(TagContext)}.
+     * The capacity is at least twice the maximum cardinality, so that the set never becomes full.
+     */
+    private final AtomicLongArray admittedHashes;
+
+    /**
+     * The number of admitted combinations.
+     */
+    private final AtomicInteger admittedCount = new AtomicInteger();
+
+    /**
+     * The number of rejected measurements since the last call of {@link #getAndResetOverflowCount()}.
+     */
+    private final LongAdder overflowCount = new LongAdder();
+
+    ViewCardinalityLimiter(String viewName, TagKey[] tagKeys, int maxCardinality, Measure measure) {
+        this.viewName = viewName;
+        this.tagKeys = tagKeys;
+        this.maxCardinality = maxCardinality;
+        this.measure = measure;
+        admittedHashes = new AtomicLongArray(Integer.highestOneBit(Math.max(maxCardinality, 1) * 4 - 1));
+    }
+
+    /**
+     * Checks whether a measurement with the given tags may be recorded with its actual values for this view.
+     * Combinations which have already been admitted are always admitted again.
+     *
+     * @param tags the tags the measurement is recorded with
+     * @return true, if the combination is admitted, false if the tag values have to be replaced with {@link #OVERFLOW_TAG_VALUE}.
+     */
+    boolean admit(TagContext tags) {
+        long hash = hash(tags);
+        int mask = admittedHashes.length() - 1;
+        int index = (int) (hash ^ (hash >>> 32)) & mask;
+        while (true) {
+            long current = admittedHashes.get(index);
+            if (current == hash) {
+                return true;
+            }
+            if (current == EMPTY) {
+                if (admittedCount.incrementAndGet() > maxCardinality) {
+                    admittedCount.decrementAndGet();
+                    overflowCount.increment();
+                    return false;
+                }
+                if (admittedHashes.compareAndSet(index, EMPTY, hash)) {
+                    return true;
+                }
+                // another thread occupied the slot concurrently, it might have admitted the same combination
+                admittedCount.decrementAndGet();
+                continue;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Adds the given value for the measure of this view to the given map.
+     */
+    void put(MeasureMap measureMap, double value) {
+        if (measure instanceof Measure.MeasureLong) {
+            measureMap.put((Measure.MeasureLong) measure, (long) value);
+        } else {
+            measureMap.put((Measure.MeasureDouble) measure, value);
+        }
+    }
+
+    /**
+     * Adds the given value for the measure of this view to the given map.
+     */
+    void put(MeasureMap measureMap, long value) {
+        if (measure instanceof Measure.MeasureLong) {
+            measureMap.put((Measure.MeasureLong) measure, value);
+        } else {
+            measureMap.put((Measure.MeasureDouble) measure, value);
+        }
+    }
+
+    /**
+     * @return the number of rejected measurements since the last invocation of this method.
+     */
+    long getAndResetOverflowCount() {
+        return overflowCount.sumThenReset();
+    }
+
+    /**
+     * Computes the hash of the values of the view's tags in the given context.
+     * The hash does not depend on the order of the tags in the context and tags which are not part of the view are ignored.
+     *
+     * @param tags the tag context
+     * @return the hash, which is never {@link #EMPTY}
+     */
+    private long hash(TagContext tags) {
+        long hash = 0;
+        for (Iterator<Tag> it = InternalUtils.getTags(tags); it.hasNext(); ) {
+            Tag tag = it.next();
+            int keyIndex = indexOf(tag.getKey());
+            if (keyIndex >= 0) {
+                hash += hash(keyIndex, tag.getValue().asString());
+            }
+        }
+        return hash == EMPTY ? 1 : hash;
+    }
+
+    private int indexOf(TagKey key) {
+        for (int i = 0; i < tagKeys.length; i++) {
+            if (tagKeys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 64 bit FNV-1a hash of the given value, seeded with the index of the tag, followed by a final mixing step.
+     */
+    private static long hash(int keyIndex, String value) {
+        long hash = 0xcbf29ce484222325L ^ keyIndex;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,77 @@
+package rocks.inspectit.ocelot.core.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import rocks.inspectit.ocelot.config.model.InspectitConfig;
+import rocks.inspectit.ocelot.core.selfmonitoring.SelfMonitoringService;
+import rocks.inspectit.ocelot.core.service.DynamicallyActivatableService;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically reports the number of measurements which had to be recorded with overflow tag values,
+ * because the cardinality limit of a view was reached.
+ * The counts are reported per view using the view name as component name.
+ */
+@Service
+@Slf4j
+public class ViewCardinalityOverflowReporter extends DynamicallyActivatableService implements Runnable {
+
+    private static final String OVERFLOW_MEASURE = "view-cardinality-overflow";
+
+    @Autowired
+    private MeasuresAndViewsManager metricsManager;
+
+    @Autowired
+    private SelfMonitoringService selfMonitoring;
+
+    @Autowired
+    private ScheduledExecutorService executor;
+
+    /**
+     * The scheduled task.
+     */
+    private ScheduledFuture<?> reporterFuture;
+
+    public ViewCardinalityOverflowReporter() {
+        super("selfMonitoring.enabled", "metrics.enabled", "metrics.frequency");
+    }
+
+    @Override
+    protected boolean checkEnabledForConfig(InspectitConfig configuration) {
+        return configuration.getSelfMonitoring().isEnabled() && configuration.getMetrics().isEnabled();
+    }
+
+    @Override
+    protected boolean doEnable(InspectitConfig configuration) {
+        long frequencyMs = configuration.getMetrics().getFrequency().toMillis();
+        reporterFuture = executor.scheduleWithFixedDelay(this, frequencyMs, frequencyMs, TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    @Override
+    protected boolean doDisable() {
+        if (reporterFuture != null) {
+            reporterFuture.cancel(true);
+        }
+        return true;
+    }
+
+    @Override
+    public void run() {
+        try {
+            for (ViewCardinalityLimiter limiter : metricsManager.getCardinalityLimiters()) {
+                long overflowCount = limiter.getAndResetOverflowCount();
+                if (overflowCount > 0) {
+                    log.debug("{} measurements for view '{}' were recorded with overflow tags due to its cardinality limit", overflowCount, limiter.getViewName());
+                    selfMonitoring.recordMeasurement(OVERFLOW_MEASURE, overflowCount, limiter.getViewName());
+                }
+            }
+        } catch (Throwable t) {
+            log.error("Error reporting the cardinality overflow of views", t);
+        }
+    }
+}
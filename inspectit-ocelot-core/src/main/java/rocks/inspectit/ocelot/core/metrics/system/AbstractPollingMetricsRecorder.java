@@ -1,10 +1,13 @@
 package rocks.inspectit.ocelot.core.metrics.system;
 
+import io.opencensus.stats.MeasureMap;
+import io.opencensus.stats.StatsRecorder;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.springframework.beans.factory.annotation.Autowired;
 import rocks.inspectit.ocelot.config.model.InspectitConfig;
 import rocks.inspectit.ocelot.config.model.metrics.MetricsSettings;
+import rocks.inspectit.ocelot.config.model.metrics.StandardPollingMetricsRecorderSettings.CollectionMode;
 import rocks.inspectit.ocelot.core.selfmonitoring.SelfMonitoringService;
 
 import java.time.Duration;
@@ -14,6 +17,8 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * Base class for all metrics recorders which perform polling to acquire the measurement data.
+ * Depending on the {@link CollectionMode}, the measurements are either taken with a fixed frequency
+ * or whenever the metrics are read by an exporter.
  */
 @Slf4j
 public abstract class AbstractPollingMetricsRecorder extends AbstractMetricsRecorder {
@@ -24,8 +29,22 @@ public abstract class AbstractPollingMetricsRecorder extends AbstractMetricsReco
     @Autowired
     protected SelfMonitoringService selfMonitoringService;
 
+    @Autowired
+    protected ScrapeTimeMeasurementTrigger scrapeTimeTrigger;
+
     private ScheduledFuture<?> pollingTask;
 
+    /**
+     * The task registered at the {@link #scrapeTimeTrigger} if the recorder runs in {@link CollectionMode#PULL}.
+     */
+    private Runnable scrapeTimeTask;
+
+    /**
+     * The recorder used for the measurements. In {@link CollectionMode#PULL} this is the recorder of the {@link #scrapeTimeTrigger},
+     * so that the measurements taken during a read are exported directly.
+     */
+    private volatile StatsRecorder measurementRecorder;
+
     public AbstractPollingMetricsRecorder(String configDependency) {
         super(configDependency);
     }
@@ -39,6 +58,17 @@ public abstract class AbstractPollingMetricsRecorder extends AbstractMetricsReco
      */
     protected abstract void takeMeasurement(MetricsSettings config);
 
+    /**
+     * Creates a map for recording measurements in {@link #takeMeasurement(MetricsSettings)}.
+     * Measurements must be recorded via this method instead of using {@link #recorder} directly, so that they are
+     * exported correctly in both collection modes.
+     *
+     * @return a new measure map
+     */
+    protected MeasureMap newMeasureMap() {
+        return measurementRecorder.newMeasureMap();
+    }
+
     /**
      * Extracts the polling frequency from the given metrics configuration.
      *
@@ -47,11 +77,19 @@ public abstract class AbstractPollingMetricsRecorder extends AbstractMetricsReco
      */
     protected abstract Duration getFrequency(MetricsSettings config);
 
+    /**
+     * Extracts the collection mode from the given metrics configuration.
+     *
+     * @param config the configuration to extract from
+     * @return the collection mode
+     */
+    protected abstract CollectionMode getCollectionMode(MetricsSettings config);
+
     @Override
     protected boolean doEnable(InspectitConfig configuration) {
         log.info("Enabling {}.", getClass().getSimpleName());
         val conf = configuration.getMetrics();
-        pollingTask = executor.scheduleWithFixedDelay(() -> {
+        Runnable measurementTask = () -> {
             try (val scope = selfMonitoringService.withDurationSelfMonitoring(getClass().getSimpleName())) {
                 try (val tags = commonTags.withCommonTagScope()) {
                     takeMeasurement(conf);
@@ -59,14 +97,29 @@ public abstract class AbstractPollingMetricsRecorder extends AbstractMetricsReco
             } catch (Exception e) {
                 log.error("Error taking measurement", e);
             }
-        }, 0, getFrequency(conf).toMillis(), TimeUnit.MILLISECONDS);
+        };
+        if (getCollectionMode(conf) == CollectionMode.PULL) {
+            measurementRecorder = scrapeTimeTrigger.getStatsRecorder();
+            scrapeTimeTask = measurementTask;
+            scrapeTimeTrigger.addMeasurementTask(scrapeTimeTask);
+        } else {
+            measurementRecorder = recorder;
+            pollingTask = executor.scheduleWithFixedDelay(measurementTask, 0, getFrequency(conf).toMillis(), TimeUnit.MILLISECONDS);
+        }
         return true;
     }
 
     @Override
     protected boolean doDisable() {
         log.info("Disabling {}.", getClass().getSimpleName());
-        pollingTask.cancel(true);
+        if (pollingTask != null) {
+            pollingTask.cancel(true);
+            pollingTask = null;
+        }
+        if (scrapeTimeTask != null) {
+            scrapeTimeTrigger.removeMeasurementTask(scrapeTimeTask);
+            scrapeTimeTask = null;
+        }
         return true;
     }
 
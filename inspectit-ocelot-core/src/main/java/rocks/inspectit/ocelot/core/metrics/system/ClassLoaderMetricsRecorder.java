@@ -3,10 +3,13 @@ package rocks.inspectit.ocelot.core.metrics.system;
 import lombok.val;
 import org.springframework.stereotype.Service;
 import rocks.inspectit.ocelot.config.model.metrics.MetricsSettings;
+import rocks.inspectit.ocelot.config.model.metrics.StandardPollingMetricsRecorderSettings.CollectionMode;
 
 import java.lang.management.ClassLoadingMXBean;
 import java.lang.management.ManagementFactory;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
 
 @Service
 public class ClassLoaderMetricsRecorder extends AbstractPollingMetricsRecorder {
@@ -17,6 +20,11 @@ public class ClassLoaderMetricsRecorder extends AbstractPollingMetricsRecorder {
 
     private static final String UNLOADED_METRIC_NAME = "unloaded";
 
+    /**
+     * The names of all measures recorded by this recorder.
+     */
+    static final List<String> MEASURE_NAMES = Arrays.asList(METRIC_NAME_PREFIX + LOADED_METRIC_NAME, METRIC_NAME_PREFIX + UNLOADED_METRIC_NAME);
+
     private ClassLoadingMXBean classLoadingBean = ManagementFactory.getClassLoadingMXBean();
 
     public ClassLoaderMetricsRecorder() {
@@ -25,7 +33,7 @@ public class ClassLoaderMetricsRecorder extends AbstractPollingMetricsRecorder {
 
     @Override
     protected void takeMeasurement(MetricsSettings config) {
-        val mm = recorder.newMeasureMap();
+        val mm = newMeasureMap();
         val cl = config.getClassloader();
         if (cl.getEnabled().getOrDefault(LOADED_METRIC_NAME, false)) {
             measureManager.tryRecordingMeasurement(METRIC_NAME_PREFIX + LOADED_METRIC_NAME, mm,
@@ -43,6 +51,11 @@ public class ClassLoaderMetricsRecorder extends AbstractPollingMetricsRecorder {
         return config.getClassloader().getFrequency();
     }
 
+    @Override
+    protected CollectionMode getCollectionMode(MetricsSettings config) {
+        return config.getClassloader().getCollectionMode();
+    }
+
     @Override
     protected boolean checkEnabledForConfig(MetricsSettings ms) {
         return ms.getClassloader().getEnabled().containsValue(true);
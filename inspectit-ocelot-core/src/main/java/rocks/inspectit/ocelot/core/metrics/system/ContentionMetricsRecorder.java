@@ -0,0 +1,300 @@
+package rocks.inspectit.ocelot.core.metrics.system;
+
+import io.opencensus.stats.MeasureMap;
+import io.opencensus.tags.TagContext;
+import io.opencensus.tags.TagKey;
+import io.opencensus.tags.TagValue;
+import io.opencensus.tags.Tagger;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import rocks.inspectit.ocelot.config.model.InspectitConfig;
+import rocks.inspectit.ocelot.config.model.metrics.MetricsSettings;
+import rocks.inspectit.ocelot.config.model.metrics.StandardPollingMetricsRecorderSettings.CollectionMode;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static rocks.inspectit.ocelot.core.metrics.system.HotspotSafepointCounters.UNAVAILABLE;
+
+/**
+ * Recorder for monitor contention and safepoint metrics.
+ * <p>
+ * The blocked counts and times are taken from the {@link ThreadMXBean}. As the lock a thread was blocked on is only known
+ * while it is blocked, the metrics per lock class are derived from the threads which are blocked at the time of the sample.
+ * The safepoint metrics are only available on HotSpot JVMs, see {@link HotspotSafepointCounters}.
+ */
+@Service
+@Slf4j
+public class ContentionMetricsRecorder extends AbstractPollingMetricsRecorder {
+
+    private static final String BLOCKED_COUNT_METRIC_NAME = "blocked.count";
+    private static final String BLOCKED_COUNT_METRIC_FULL_NAME = "jvm/threads/blocked/count";
+
+    private static final String BLOCKED_TIME_METRIC_NAME = "blocked.time";
+    private static final String BLOCKED_TIME_METRIC_FULL_NAME = "jvm/threads/blocked/time";
+
+    private static final String LOCK_BLOCKED_THREADS_METRIC_NAME = "lock.blocked.threads";
+    private static final String LOCK_BLOCKED_THREADS_METRIC_FULL_NAME = "jvm/locks/blocked/threads";
+
+    private static final String LOCK_BLOCKED_TIME_METRIC_NAME = "lock.blocked.time";
+    private static final String LOCK_BLOCKED_TIME_METRIC_FULL_NAME = "jvm/locks/blocked/time";
+
+    private static final String SAFEPOINT_COUNT_METRIC_NAME = "safepoint.count";
+    private static final String SAFEPOINT_COUNT_METRIC_FULL_NAME = "jvm/safepoints/count";
+
+    private static final String SAFEPOINT_TIME_METRIC_NAME = "safepoint.time";
+    private static final String SAFEPOINT_TIME_METRIC_FULL_NAME = "jvm/safepoints/time";
+
+    private static final String SAFEPOINT_SYNC_TIME_METRIC_NAME = "safepoint.sync.time";
+    private static final String SAFEPOINT_SYNC_TIME_METRIC_FULL_NAME = "jvm/safepoints/sync/time";
+
+    /**
+     * The names of all measures recorded by this recorder.
+     */
+    static final List<String> MEASURE_NAMES = Arrays.asList(
+            BLOCKED_COUNT_METRIC_FULL_NAME,
+            BLOCKED_TIME_METRIC_FULL_NAME,
+            LOCK_BLOCKED_THREADS_METRIC_FULL_NAME,
+            LOCK_BLOCKED_TIME_METRIC_FULL_NAME,
+            SAFEPOINT_COUNT_METRIC_FULL_NAME,
+            SAFEPOINT_TIME_METRIC_FULL_NAME,
+            SAFEPOINT_SYNC_TIME_METRIC_FULL_NAME);
+
+    private static final TagKey LOCK_TAG_KEY = TagKey.create("lock");
+
+    /**
+     * The number of consecutive samples in which no thread was blocked on a lock class, after which the lock class is
+     * no longer reported.
+     */
+    private static final int MAX_IDLE_SAMPLES_PER_LOCK = 10;
+
+    @Autowired
+    private Tagger tagger;
+
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+    private HotspotSafepointCounters safepointCounters;
+
+    /**
+     * True, if thread contention monitoring was already enabled before this recorder enabled it.
+     */
+    private boolean contentionMonitoringPreviouslyEnabled;
+
+    private ThreadContentionSampler contentionSampler;
+
+    private long[] blockedCounts = new long[0];
+
+    private long[] blockedTimes = new long[0];
+
+    /**
+     * The number of currently blocked threads per lock class. Contains all recently contended lock classes,
+     * so that a value of zero is recorded for locks which are no longer contended.
+     */
+    private final Map<String, Integer> blockedThreadsPerLock = new HashMap<>();
+
+    /**
+     * The number of consecutive samples without blocked threads per lock class. A lock class is removed from
+     * {@link #blockedThreadsPerLock} once it has not been contended for {@link #MAX_IDLE_SAMPLES_PER_LOCK} samples.
+     */
+    private final Map<String, Integer> idleSamplesPerLock = new HashMap<>();
+
+    private final Map<String, TagValue> lockTagValues = new HashMap<>();
+
+    private long previousSampleTimestamp = -1;
+
+    private long previousSafepointCount = UNAVAILABLE;
+
+    private long previousSafepointTime = UNAVAILABLE;
+
+    private long previousSafepointSyncTime = UNAVAILABLE;
+
+    public ContentionMetricsRecorder() {
+        super("metrics.contention");
+    }
+
+    @Override
+    protected void init() {
+        super.init();
+        safepointCounters = HotspotSafepointCounters.create();
+        if (safepointCounters == null) {
+            log.info("The HotSpot safepoint counters are not accessible, safepoint metrics are unavailable.");
+        }
+    }
+
+    @Override
+    protected boolean checkEnabledForConfig(MetricsSettings ms) {
+        return ms.getContention().getEnabled().containsValue(true);
+    }
+
+    @Override
+    protected synchronized boolean doEnable(InspectitConfig configuration) {
+        Map<String, Boolean> enabled = configuration.getMetrics().getContention().getEnabled();
+        contentionMonitoringPreviouslyEnabled = threadBean.isThreadContentionMonitoringSupported() && threadBean.isThreadContentionMonitoringEnabled();
+        if (enabled.getOrDefault(BLOCKED_TIME_METRIC_NAME, false) && !contentionMonitoringPreviouslyEnabled) {
+            if (threadBean.isThreadContentionMonitoringSupported()) {
+                threadBean.setThreadContentionMonitoringEnabled(true);
+            } else {
+                log.info("Thread contention monitoring is not supported on this JVM. Metric " + BLOCKED_TIME_METRIC_FULL_NAME + " is unavailable.");
+            }
+        }
+        contentionSampler = new ThreadContentionSampler();
+        blockedThreadsPerLock.clear();
+        idleSamplesPerLock.clear();
+        lockTagValues.clear();
+        previousSampleTimestamp = -1;
+        previousSafepointCount = UNAVAILABLE;
+        previousSafepointTime = UNAVAILABLE;
+        previousSafepointSyncTime = UNAVAILABLE;
+        return super.doEnable(configuration);
+    }
+
+    @Override
+    protected synchronized boolean doDisable() {
+        boolean result = super.doDisable();
+        if (!contentionMonitoringPreviouslyEnabled && threadBean.isThreadContentionMonitoringSupported()) {
+            threadBean.setThreadContentionMonitoringEnabled(false);
+        }
+        return result;
+    }
+
+    @Override
+    protected Duration getFrequency(MetricsSettings config) {
+        return config.getContention().getFrequency();
+    }
+
+    @Override
+    protected CollectionMode getCollectionMode(MetricsSettings config) {
+        return config.getContention().getCollectionMode();
+    }
+
+    @Override
+    protected synchronized void takeMeasurement(MetricsSettings config) {
+        Map<String, Boolean> enabled = config.getContention().getEnabled();
+        boolean contentionEnabled = enabled.getOrDefault(BLOCKED_COUNT_METRIC_NAME, false)
+                || enabled.getOrDefault(BLOCKED_TIME_METRIC_NAME, false)
+                || enabled.getOrDefault(LOCK_BLOCKED_THREADS_METRIC_NAME, false)
+                || enabled.getOrDefault(LOCK_BLOCKED_TIME_METRIC_NAME, false);
+        if (contentionEnabled) {
+            recordContention(enabled);
+        }
+        if (safepointCounters != null) {
+            recordSafepoints(enabled);
+        }
+    }
+
+    private void recordContention(Map<String, Boolean> enabled) {
+        long timestamp = System.nanoTime();
+        long[] threadIds = threadBean.getAllThreadIds();
+        Arrays.sort(threadIds);
+        ThreadInfo[] infos = threadBean.getThreadInfo(threadIds, 0);
+
+        if (blockedCounts.length < threadIds.length) {
+            blockedCounts = new long[threadIds.length * 2];
+            blockedTimes = new long[threadIds.length * 2];
+        }
+        blockedThreadsPerLock.replaceAll((lock, count) -> 0);
+        int count = 0;
+        for (ThreadInfo info : infos) {
+            if (info != null) {
+                threadIds[count] = info.getThreadId();
+                blockedCounts[count] = info.getBlockedCount();
+                blockedTimes[count] = info.getBlockedTime();
+                count++;
+                if (info.getThreadState() == Thread.State.BLOCKED && info.getLockName() != null) {
+                    blockedThreadsPerLock.merge(getLockClass(info.getLockName()), 1, Integer::sum);
+                }
+            }
+        }
+
+        if (contentionSampler.sample(threadIds, blockedCounts, blockedTimes, count)) {
+            val mm = newMeasureMap();
+            recordIfEnabled(enabled, BLOCKED_COUNT_METRIC_NAME, BLOCKED_COUNT_METRIC_FULL_NAME, contentionSampler.getBlockedCountDelta(), mm);
+            recordIfEnabled(enabled, BLOCKED_TIME_METRIC_NAME, BLOCKED_TIME_METRIC_FULL_NAME, contentionSampler.getBlockedTimeDelta(), mm);
+            mm.record();
+        }
+
+        long elapsedMillis = previousSampleTimestamp >= 0 ? (timestamp - previousSampleTimestamp) / 1000 / 1000 : 0;
+        previousSampleTimestamp = timestamp;
+        for (Map.Entry<String, Integer> lock : blockedThreadsPerLock.entrySet()) {
+            TagContext tags = tagger.currentBuilder().put(LOCK_TAG_KEY, getLockTagValue(lock.getKey())).build();
+            val mm = newMeasureMap();
+            recordIfEnabled(enabled, LOCK_BLOCKED_THREADS_METRIC_NAME, LOCK_BLOCKED_THREADS_METRIC_FULL_NAME, lock.getValue(), mm);
+            if (elapsedMillis > 0) {
+                // estimation: each thread blocked at the time of the sample is assumed to have been blocked since the previous sample
+                recordIfEnabled(enabled, LOCK_BLOCKED_TIME_METRIC_NAME, LOCK_BLOCKED_TIME_METRIC_FULL_NAME, lock.getValue() * elapsedMillis, mm);
+            }
+            mm.record(tags);
+        }
+        removeIdleLocks();
+    }
+
+    /**
+     * Removes the lock classes which have not been contended for {@link #MAX_IDLE_SAMPLES_PER_LOCK} samples, so that
+     * the number of reported lock classes does not grow for the whole lifetime of the JVM.
+     * A value of zero has been recorded for them in the preceding samples.
+     */
+    private void removeIdleLocks() {
+        Iterator<Map.Entry<String, Integer>> locks = blockedThreadsPerLock.entrySet().iterator();
+        while (locks.hasNext()) {
+            Map.Entry<String, Integer> entry = locks.next();
+            String lock = entry.getKey();
+            if (entry.getValue() > 0) {
+                idleSamplesPerLock.remove(lock);
+            } else if (idleSamplesPerLock.merge(lock, 1, Integer::sum) >= MAX_IDLE_SAMPLES_PER_LOCK) {
+                locks.remove();
+                idleSamplesPerLock.remove(lock);
+                lockTagValues.remove(lock);
+            }
+        }
+    }
+
+    private void recordSafepoints(Map<String, Boolean> enabled) {
+        long safepointCount = safepointCounters.getSafepointCount();
+        long safepointTime = safepointCounters.getTotalSafepointTime();
+        long safepointSyncTime = safepointCounters.getSafepointSyncTime();
+
+        val mm = newMeasureMap();
+        recordIfEnabled(enabled, SAFEPOINT_COUNT_METRIC_NAME, SAFEPOINT_COUNT_METRIC_FULL_NAME, delta(previousSafepointCount, safepointCount), mm);
+        recordIfEnabled(enabled, SAFEPOINT_TIME_METRIC_NAME, SAFEPOINT_TIME_METRIC_FULL_NAME, delta(previousSafepointTime, safepointTime), mm);
+        recordIfEnabled(enabled, SAFEPOINT_SYNC_TIME_METRIC_NAME, SAFEPOINT_SYNC_TIME_METRIC_FULL_NAME, delta(previousSafepointSyncTime, safepointSyncTime), mm);
+        mm.record();
+
+        previousSafepointCount = safepointCount;
+        previousSafepointTime = safepointTime;
+        previousSafepointSyncTime = safepointSyncTime;
+    }
+
+    private long delta(long previous, long current) {
+        if (previous == UNAVAILABLE || current == UNAVAILABLE || current < previous) {
+            return UNAVAILABLE;
+        }
+        return current - previous;
+    }
+
+    private void recordIfEnabled(Map<String, Boolean> enabled, String metricName, String fullMetricName, long value, MeasureMap mm) {
+        if (value >= 0 && enabled.getOrDefault(metricName, false)) {
+            measureManager.tryRecordingMeasurement(fullMetricName, mm, value);
+        }
+    }
+
+    /**
+     * Extracts the class name from a lock name as returned by {@link ThreadInfo#getLockName()}, which has the format "class@identityHashCode".
+     */
+    private String getLockClass(String lockName) {
+        int separator = lockName.lastIndexOf('@');
+        return separator > 0 ? lockName.substring(0, separator) : lockName;
+    }
+
+    private TagValue getLockTagValue(String lockClass) {
+        return lockTagValues.computeIfAbsent(lockClass, lock -> TagValue.create(lock.length() > TagValue.MAX_LENGTH ? lock.substring(0, TagValue.MAX_LENGTH) : lock));
+    }
+}
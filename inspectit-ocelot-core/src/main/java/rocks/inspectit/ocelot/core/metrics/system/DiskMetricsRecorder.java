@@ -4,9 +4,12 @@ import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.springframework.stereotype.Service;
 import rocks.inspectit.ocelot.config.model.metrics.MetricsSettings;
+import rocks.inspectit.ocelot.config.model.metrics.StandardPollingMetricsRecorderSettings.CollectionMode;
 
 import java.io.File;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
 
 @Service
 @Slf4j
@@ -17,6 +20,11 @@ public class DiskMetricsRecorder extends AbstractPollingMetricsRecorder {
     private static final String FREE_METRIC_NAME = "free";
     private static final String TOTAL_METRIC_NAME = "total";
 
+    /**
+     * The names of all measures recorded by this recorder.
+     */
+    static final List<String> MEASURE_NAMES = Arrays.asList(METRIC_NAME_PREFIX + FREE_METRIC_NAME, METRIC_NAME_PREFIX + TOTAL_METRIC_NAME);
+
     public DiskMetricsRecorder() {
         super("metrics.disk");
     }
@@ -31,9 +39,14 @@ public class DiskMetricsRecorder extends AbstractPollingMetricsRecorder {
         return config.getDisk().getFrequency();
     }
 
+    @Override
+    protected CollectionMode getCollectionMode(MetricsSettings config) {
+        return config.getDisk().getCollectionMode();
+    }
+
     @Override
     protected void takeMeasurement(MetricsSettings config) {
-        val mm = recorder.newMeasureMap();
+        val mm = newMeasureMap();
         val disk = config.getDisk();
         if (disk.getEnabled().getOrDefault(FREE_METRIC_NAME, false)) {
             measureManager.tryRecordingMeasurement(METRIC_NAME_PREFIX + FREE_METRIC_NAME, mm,
@@ -24,9 +24,20 @@ import java.lang.management.GarbageCollectorMXBean;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryPoolMXBean;
 import java.lang.management.MemoryUsage;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Records metrics based on the notifications sent by the JVM for each garbage collection.
+ * <p>
+ * The JMX notification thread is shared with other listeners, therefore the notifications are only handed off to a
+ * preallocated {@link GcNotificationBuffer} on this thread. Decoding and recording is performed on the agent's executor.
+ */
 @Service
 @Slf4j
 public class GCMetricsRecorder extends AbstractMetricsRecorder {
@@ -51,8 +62,24 @@ public class GCMetricsRecorder extends AbstractMetricsRecorder {
     private static final String MEMORY_ALLOCATED_METRIC_NAME = "memory.allocated";
     private static final String MEMORY_ALLOCATED_METRIC_FULL_NAME = METRIC_NAME_PREFIX + "memory/allocated";
 
+    private static final String OVERHEAD_METRIC_NAME = "overhead";
+    private static final String OVERHEAD_METRIC_FULL_NAME = METRIC_NAME_PREFIX + "overhead";
+
+    private static final String ALLOCATION_RATE_METRIC_NAME = "allocation.rate";
+    private static final String ALLOCATION_RATE_METRIC_FULL_NAME = METRIC_NAME_PREFIX + "allocation/rate";
+
     private static final boolean MANAGEMENT_EXTENSIONS_PRESENT = isManagementExtensionsPresent();
 
+    /**
+     * The maximum number of notifications which can be buffered until they are processed.
+     */
+    private static final int NOTIFICATION_BUFFER_CAPACITY = 256;
+
+    /**
+     * The length of the windows for which the GC overhead is computed.
+     */
+    private static final Duration OVERHEAD_WINDOW = Duration.ofMinutes(1);
+
     private final NotificationListener notificationListener = this::handleNotification;
     private StandardMetricsSettings config;
 
@@ -63,12 +90,53 @@ public class GCMetricsRecorder extends AbstractMetricsRecorder {
     private String oldGenPoolName;
     private long youngGenSizeAfter = 0L;
 
+    /**
+     * The end time of the previous GC in milliseconds since the start of the JVM, -1 if no GC has been seen yet.
+     */
+    private long previousGcEndTime = -1L;
+
+    /**
+     * The total duration of the GC pauses in milliseconds processed in the current overhead window.
+     */
+    private long overheadPauseMillis = 0L;
+
+    /**
+     * The start of the current overhead window, as returned by {@link System#nanoTime()}.
+     */
+    private long overheadWindowStart;
+
+    private ScheduledFuture<?> overheadTask;
+
+    private final GcNotificationBuffer notificationBuffer = new GcNotificationBuffer(NOTIFICATION_BUFFER_CAPACITY);
+
+    /**
+     * True, if a task for processing the buffered notifications has been submitted but not yet started.
+     */
+    private final AtomicBoolean processingPending = new AtomicBoolean(false);
+
+    private final Runnable processingTask = this::processNotifications;
+
+    /**
+     * The tag contexts used for recording the GC times, by action and cause.
+     * The set of actions and causes is small and fixed, so the contexts are created only once.
+     * The cache is cleared when the common tags change.
+     */
+    private final Map<String, Map<String, TagContext>> gcTagContexts = new HashMap<>();
+
+    /**
+     * The common tag context the {@link #gcTagContexts} are based on.
+     */
+    private TagContext gcTagContextsCommonTags;
+
     @Autowired
     private Tagger tagger;
 
     @Autowired
     private SelfMonitoringService selfMonitoringService;
 
+    @Autowired
+    private ScheduledExecutorService executor;
+
     public GCMetricsRecorder() {
         super("metrics.gc");
         if (!MANAGEMENT_EXTENSIONS_PRESENT) {
@@ -86,6 +154,10 @@ public class GCMetricsRecorder extends AbstractMetricsRecorder {
         log.info("Enabling GC metrics recorder");
         config = configuration.getMetrics().getGc();
         initPoolProperties();
+        if (config.getEnabled().getOrDefault(OVERHEAD_METRIC_NAME, false)) {
+            startOverheadWindow();
+            overheadTask = executor.scheduleAtFixedRate(this::recordOverhead, OVERHEAD_WINDOW.toMillis(), OVERHEAD_WINDOW.toMillis(), TimeUnit.MILLISECONDS);
+        }
         for (GarbageCollectorMXBean mbean : ManagementFactory.getGarbageCollectorMXBeans()) {
             if (mbean instanceof NotificationEmitter) {
                 ((NotificationEmitter) mbean).addNotificationListener(notificationListener, null, null);
@@ -106,6 +178,11 @@ public class GCMetricsRecorder extends AbstractMetricsRecorder {
                 }
             }
         }
+        notificationBuffer.clear();
+        if (overheadTask != null) {
+            overheadTask.cancel(false);
+            overheadTask = null;
+        }
         return true;
     }
 
@@ -120,32 +197,53 @@ public class GCMetricsRecorder extends AbstractMetricsRecorder {
         }
     }
 
+    /**
+     * Invoked on the JMX notification thread, only hands the notification off to the {@link #notificationBuffer}.
+     */
     private void handleNotification(Notification notification, Object handback) {
-        if (!isEnabled()) {
+        if (!isEnabled() || !GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
             return;
         }
-        try (val sm = selfMonitoringService.withDurationSelfMonitoring(getClass().getSimpleName())) {
+        notificationBuffer.offer((CompositeData) notification.getUserData());
+        if (processingPending.compareAndSet(false, true)) {
+            executor.execute(processingTask);
+        }
+    }
+
+    /**
+     * Processes all buffered notifications, invoked on the agent's executor.
+     */
+    private synchronized void processNotifications() {
+        processingPending.set(false);
+        long droppedCount = notificationBuffer.getAndResetDroppedCount();
+        if (droppedCount > 0) {
+            log.warn("{} GC notifications were dropped because they could not be processed in time.", droppedCount);
+        }
+        CompositeData data;
+        while ((data = notificationBuffer.poll()) != null) {
+            if (isEnabled()) {
+                processNotification(data);
+            }
+        }
+    }
 
-            String type = notification.getType();
-            if (type.equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) {
-                CompositeData cd = (CompositeData) notification.getUserData();
-                GarbageCollectionNotificationInfo notificationInfo = GarbageCollectionNotificationInfo.from(cd);
+    private void processNotification(CompositeData data) {
+        try (val sm = selfMonitoringService.withDurationSelfMonitoring(getClass().getSimpleName())) {
+            GarbageCollectionNotificationInfo notificationInfo = GarbageCollectionNotificationInfo.from(data);
 
-                recordGcTimes(notificationInfo);
+            recordGcTimes(notificationInfo);
 
-                GcInfo gcInfo = notificationInfo.getGcInfo();
+            GcInfo gcInfo = notificationInfo.getGcInfo();
 
-                Map<String, MemoryUsage> before = gcInfo.getMemoryUsageBeforeGc();
-                Map<String, MemoryUsage> after = gcInfo.getMemoryUsageAfterGc();
+            Map<String, MemoryUsage> before = gcInfo.getMemoryUsageBeforeGc();
+            Map<String, MemoryUsage> after = gcInfo.getMemoryUsageAfterGc();
 
-                recordOldGenSizes(notificationInfo, before, after);
+            recordOldGenSizes(notificationInfo, before, after);
 
-                recordYoungGenSizes(before, after);
-            }
+            recordYoungGenSizes(gcInfo, before, after);
         } catch (Exception e) {
             log.error("Error handling GC event", e);
         }
-
     }
 
     private void recordGcTimes(GarbageCollectionNotificationInfo notificationInfo) {
@@ -157,6 +255,38 @@ public class GCMetricsRecorder extends AbstractMetricsRecorder {
             if (config.getEnabled().getOrDefault(PAUSE_METRIC_NAME, false)) {
                 recordGCPause(notificationInfo);
             }
+            overheadPauseMillis += notificationInfo.getGcInfo().getDuration();
+        }
+    }
+
+    private synchronized void startOverheadWindow() {
+        overheadPauseMillis = 0L;
+        overheadWindowStart = System.nanoTime();
+    }
+
+    /**
+     * Records the percentage of time spent in GC pauses during the current overhead window and starts a new window.
+     * The pauses of all collectors are accumulated, a pause is accounted to the window in which its notification is processed.
+     * Invoked periodically on the agent's executor.
+     */
+    private synchronized void recordOverhead() {
+        long now = System.nanoTime();
+        long windowMillis = TimeUnit.NANOSECONDS.toMillis(now - overheadWindowStart);
+        long pauseMillis = overheadPauseMillis;
+        overheadWindowStart = now;
+        overheadPauseMillis = 0L;
+        if (windowMillis > 0 && isEnabled()) {
+            double overhead = Math.min(100.0, pauseMillis * 100.0 / windowMillis);
+            try {
+                measureManager.getMeasureDouble(OVERHEAD_METRIC_FULL_NAME)
+                        .ifPresent(measure ->
+                                recorder.newMeasureMap()
+                                        .put(measure, overhead)
+                                        .record(commonTags.getCommonTagContext())
+                        );
+            } catch (Exception e) {
+                log.error("Error recording GC overhead", e);
+            }
         }
     }
 
@@ -185,16 +315,22 @@ public class GCMetricsRecorder extends AbstractMetricsRecorder {
         }
     }
 
-    private void recordYoungGenSizes(Map<String, MemoryUsage> before, Map<String, MemoryUsage> after) {
+    private void recordYoungGenSizes(GcInfo gcInfo, Map<String, MemoryUsage> before, Map<String, MemoryUsage> after) {
         if (youngGenPoolName != null) {
             long youngBefore = before.get(youngGenPoolName).getUsed();
             long youngAfter = after.get(youngGenPoolName).getUsed();
             long delta = youngBefore - youngGenSizeAfter;
+            long interval = gcInfo.getStartTime() - previousGcEndTime;
+            boolean hasPrevious = previousGcEndTime >= 0;
             youngGenSizeAfter = youngAfter;
+            previousGcEndTime = gcInfo.getEndTime();
             if (delta > 0L) {
                 if (config.getEnabled().getOrDefault(MEMORY_ALLOCATED_METRIC_NAME, false)) {
                     recordAllocatedBytes(delta);
                 }
+                if (hasPrevious && interval > 0 && config.getEnabled().getOrDefault(ALLOCATION_RATE_METRIC_NAME, false)) {
+                    recordAllocationRate(delta * 1000.0 / interval);
+                }
             }
         }
     }
@@ -202,10 +338,7 @@ public class GCMetricsRecorder extends AbstractMetricsRecorder {
     private void recordConcurrentPhaseTime(GarbageCollectionNotificationInfo notificationInfo) {
         measureManager.getMeasureLong(CONCURRENT_PHASE_TIME_METRIC_FULL_NAME)
                 .ifPresent(measure -> {
-                    TagContext tags = tagger.toBuilder(commonTags.getCommonTagContext())
-                            .put(actionTagKey, TagValue.create(notificationInfo.getGcAction()))
-                            .put(causeTagKey, TagValue.create(notificationInfo.getGcCause()))
-                            .build();
+                    TagContext tags = getGcTagContext(notificationInfo.getGcAction(), notificationInfo.getGcCause());
 
                     recorder.newMeasureMap()
                             .put(measure, notificationInfo.getGcInfo().getDuration())
@@ -216,10 +349,7 @@ public class GCMetricsRecorder extends AbstractMetricsRecorder {
     private void recordGCPause(GarbageCollectionNotificationInfo notificationInfo) {
         measureManager.getMeasureLong(PAUSE_METRIC_FULL_NAME)
                 .ifPresent(measure -> {
-                    TagContext tags = tagger.toBuilder(commonTags.getCommonTagContext())
-                            .put(actionTagKey, TagValue.create(notificationInfo.getGcAction()))
-                            .put(causeTagKey, TagValue.create(notificationInfo.getGcCause()))
-                            .build();
+                    TagContext tags = getGcTagContext(notificationInfo.getGcAction(), notificationInfo.getGcCause());
 
                     recorder.newMeasureMap()
                             .put(measure, notificationInfo.getGcInfo().getDuration())
@@ -228,6 +358,32 @@ public class GCMetricsRecorder extends AbstractMetricsRecorder {
                 });
     }
 
+    /**
+     * Returns the interned tag context for the given action and cause, which also contains the common tags.
+     */
+    private TagContext getGcTagContext(String action, String cause) {
+        TagContext common = commonTags.getCommonTagContext();
+        if (common != gcTagContextsCommonTags) {
+            gcTagContexts.clear();
+            gcTagContextsCommonTags = common;
+        }
+        return gcTagContexts
+                .computeIfAbsent(action, a -> new HashMap<>())
+                .computeIfAbsent(cause, c -> tagger.toBuilder(common)
+                        .put(actionTagKey, TagValue.create(action))
+                        .put(causeTagKey, TagValue.create(cause))
+                        .build());
+    }
+
+    private void recordAllocationRate(double bytesPerSecond) {
+        measureManager.getMeasureDouble(ALLOCATION_RATE_METRIC_FULL_NAME)
+                .ifPresent(measure ->
+                        recorder.newMeasureMap()
+                                .put(measure, bytesPerSecond)
+                                .record(commonTags.getCommonTagContext())
+                );
+    }
+
     private void recordPromotedBytes(long bytes) {
         measureManager.getMeasureLong(MEMORY_PROMOTED_METRIC_FULL_NAME)
                 .ifPresent(measure ->
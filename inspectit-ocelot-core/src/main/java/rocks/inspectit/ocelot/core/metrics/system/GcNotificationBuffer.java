@@ -0,0 +1,80 @@
+package rocks.inspectit.ocelot.core.metrics.system;
+
+import javax.management.openmbean.CompositeData;
+import java.util.Arrays;
+
+/**
+ * Preallocated ring buffer for handing off the data of GC notifications from the JMX notification thread to the processing thread.
+ * Offering and polling do not allocate any objects.
+ * If the buffer is full, new notifications are dropped.
+ */
+class GcNotificationBuffer {
+
+    private final CompositeData[] entries;
+
+    /**
+     * The index of the oldest entry.
+     */
+    private int head = 0;
+
+    private int size = 0;
+
+    private long droppedCount = 0;
+
+    /**
+     * @param capacity the maximum number of buffered notifications
+     */
+    GcNotificationBuffer(int capacity) {
+        entries = new CompositeData[capacity];
+    }
+
+    /**
+     * Adds the data of a notification to the buffer.
+     *
+     * @param data the user data of the notification
+     * @return true, if the data was added, false if the buffer is full
+     */
+    synchronized boolean offer(CompositeData data) {
+        if (size == entries.length) {
+            droppedCount++;
+            return false;
+        }
+        entries[(head + size) % entries.length] = data;
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes the oldest data from the buffer.
+     *
+     * @return the data or null if the buffer is empty
+     */
+    synchronized CompositeData poll() {
+        if (size == 0) {
+            return null;
+        }
+        CompositeData data = entries[head];
+        entries[head] = null;
+        head = (head + 1) % entries.length;
+        size--;
+        return data;
+    }
+
+    /**
+     * Removes all entries from the buffer.
+     */
+    synchronized void clear() {
+        Arrays.fill(entries, null);
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * @return the number of notifications which have been dropped since the last call of this method, because the buffer was full
+     */
+    synchronized long getAndResetDroppedCount() {
+        long result = droppedCount;
+        droppedCount = 0;
+        return result;
+    }
+}
@@ -0,0 +1,83 @@
+package rocks.inspectit.ocelot.core.metrics.system;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+
+/**
+ * Provides the safepoint counters of the HotSpot JVM via the internal {@code sun.management.HotspotRuntimeMBean}.
+ * The internal API is accessed reflectively, as it is not available on other JVMs and not accessible on Java 9+
+ * unless the package {@code sun.management} is exported to the agent.
+ */
+@Slf4j
+class HotspotSafepointCounters {
+
+    /**
+     * The value returned by all getters if the counters are unavailable.
+     */
+    static final long UNAVAILABLE = -1;
+
+    private final Object runtimeBean;
+
+    private final Method safepointCount;
+
+    private final Method totalSafepointTime;
+
+    private final Method safepointSyncTime;
+
+    private HotspotSafepointCounters(Object runtimeBean, Method safepointCount, Method totalSafepointTime, Method safepointSyncTime) {
+        this.runtimeBean = runtimeBean;
+        this.safepointCount = safepointCount;
+        this.totalSafepointTime = totalSafepointTime;
+        this.safepointSyncTime = safepointSyncTime;
+    }
+
+    /**
+     * @return the counters of the current JVM, or null if they are not accessible
+     */
+    static HotspotSafepointCounters create() {
+        try {
+            Class<?> helper = Class.forName("sun.management.ManagementFactoryHelper");
+            Object bean = helper.getMethod("getHotspotRuntimeMBean").invoke(null);
+            Class<?> beanInterface = Class.forName("sun.management.HotspotRuntimeMBean");
+            HotspotSafepointCounters counters = new HotspotSafepointCounters(bean,
+                    beanInterface.getMethod("getSafepointCount"),
+                    beanInterface.getMethod("getTotalSafepointTime"),
+                    beanInterface.getMethod("getSafepointSyncTime"));
+            return counters.getSafepointCount() == UNAVAILABLE ? null : counters;
+        } catch (Throwable t) {
+            log.debug("The HotSpot safepoint counters are not accessible", t);
+            return null;
+        }
+    }
+
+    /**
+     * @return the number of safepoints since the start of the JVM
+     */
+    long getSafepointCount() {
+        return invoke(safepointCount);
+    }
+
+    /**
+     * @return the total time in milliseconds spent in safepoints, including the time to bring all threads to the safepoint
+     */
+    long getTotalSafepointTime() {
+        return invoke(totalSafepointTime);
+    }
+
+    /**
+     * @return the total time in milliseconds spent to bring all threads to a safepoint
+     */
+    long getSafepointSyncTime() {
+        return invoke(safepointSyncTime);
+    }
+
+    private long invoke(Method method) {
+        try {
+            return (Long) method.invoke(runtimeBean);
+        } catch (Throwable t) {
+            log.debug("Error reading the safepoint counter {}", method.getName(), t);
+            return UNAVAILABLE;
+        }
+    }
+}
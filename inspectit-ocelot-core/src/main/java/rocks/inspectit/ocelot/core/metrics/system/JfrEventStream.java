@@ -0,0 +1,159 @@
+package rocks.inspectit.ocelot.core.metrics.system;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Reflective wrapper around {@code jdk.jfr.consumer.RecordingStream}, which is only available on Java 14 and later.
+ * The agent core is compiled for Java 8, therefore all JFR classes are accessed via reflection.
+ * The events passed to the subscribed handlers are {@code jdk.jfr.consumer.RecordedEvent} instances,
+ * their values can be read using the static accessor methods of this class.
+ * <p>
+ * All methods of this class must only be invoked if {@link #isSupported()} returns true.
+ */
+@Slf4j
+class JfrEventStream implements Closeable {
+
+    private static final String RECORDING_STREAM_CLASS = "jdk.jfr.consumer.RecordingStream";
+
+    private static final boolean SUPPORTED = isRecordingStreamPresent();
+
+    private static Method enableMethod;
+
+    private static Method withThresholdMethod;
+
+    private static Method onEventMethod;
+
+    private static Method startMethod;
+
+    private static Method closeMethod;
+
+    private static Method getDurationMethod;
+
+    private static Method getLongMethod;
+
+    private static Method getClassMethod;
+
+    private static Method getClassNameMethod;
+
+    private final Object stream;
+
+    /**
+     * Creates a new recording stream, which does not yet capture any events.
+     *
+     * @throws ReflectiveOperationException if the stream could not be created
+     */
+    JfrEventStream() throws ReflectiveOperationException {
+        initMethods();
+        stream = Class.forName(RECORDING_STREAM_CLASS).getConstructor().newInstance();
+    }
+
+    /**
+     * @return true, if the JFR event streaming API is available on the current JVM
+     */
+    static boolean isSupported() {
+        return SUPPORTED;
+    }
+
+    /**
+     * Enables the given event and registers a handler for it.
+     *
+     * @param eventName the name of the JFR event, e.g. "jdk.SocketRead"
+     * @param threshold the minimum duration of the events to capture, null if the event has no duration
+     * @param handler   the handler invoked with the {@code RecordedEvent} on the thread of the stream
+     * @throws ReflectiveOperationException if the event could not be enabled
+     */
+    void subscribe(String eventName, Duration threshold, Consumer<Object> handler) throws ReflectiveOperationException {
+        Object eventSettings = enableMethod.invoke(stream, eventName);
+        if (threshold != null) {
+            withThresholdMethod.invoke(eventSettings, threshold);
+        }
+        onEventMethod.invoke(stream, eventName, handler);
+    }
+
+    /**
+     * Starts the stream on a separate daemon thread.
+     * The thread used by {@code RecordingStream.startAsync()} is not a daemon thread and would prevent the JVM from shutting down.
+     */
+    void startAsync() {
+        Thread thread = new Thread(() -> {
+            try {
+                startMethod.invoke(stream);
+            } catch (Exception e) {
+                log.error("Error processing the JFR recording stream", e);
+            }
+        });
+        thread.setDaemon(true);
+        thread.setName("inspectit-jfr-stream");
+        thread.start();
+    }
+
+    @Override
+    public void close() {
+        try {
+            closeMethod.invoke(stream);
+        } catch (Exception e) {
+            log.error("Error closing the JFR recording stream", e);
+        }
+    }
+
+    /**
+     * @param event the {@code RecordedEvent}
+     * @return the duration of the event in nanoseconds
+     */
+    static long getDurationNanos(Object event) throws ReflectiveOperationException {
+        return ((Duration) getDurationMethod.invoke(event)).toNanos();
+    }
+
+    /**
+     * @param event the {@code RecordedEvent}
+     * @param field the name of the field
+     * @return the value of the given integral field of the event
+     */
+    static long getLong(Object event, String field) throws ReflectiveOperationException {
+        return (Long) getLongMethod.invoke(event, field);
+    }
+
+    /**
+     * @param event the {@code RecordedEvent}
+     * @param field the name of the field, which must be of type {@code Class}
+     * @return the name of the class or null if the field is null
+     */
+    static String getClassName(Object event, String field) throws ReflectiveOperationException {
+        Object recordedClass = getClassMethod.invoke(event, field);
+        return recordedClass == null ? null : (String) getClassNameMethod.invoke(recordedClass);
+    }
+
+    private static synchronized void initMethods() throws ReflectiveOperationException {
+        if (enableMethod == null) {
+            Class<?> streamClass = Class.forName(RECORDING_STREAM_CLASS);
+            Class<?> eventSettingsClass = Class.forName("jdk.jfr.EventSettings");
+            Class<?> recordedEventClass = Class.forName("jdk.jfr.consumer.RecordedEvent");
+            Class<?> recordedClassClass = Class.forName("jdk.jfr.consumer.RecordedClass");
+
+            withThresholdMethod = eventSettingsClass.getMethod("withThreshold", Duration.class);
+            onEventMethod = streamClass.getMethod("onEvent", String.class, Consumer.class);
+            startMethod = streamClass.getMethod("start");
+            closeMethod = streamClass.getMethod("close");
+            getDurationMethod = recordedEventClass.getMethod("getDuration");
+            getLongMethod = recordedEventClass.getMethod("getLong", String.class);
+            getClassMethod = recordedEventClass.getMethod("getClass", String.class);
+            getClassNameMethod = recordedClassClass.getMethod("getName");
+            // assigned last, as it marks the initialization as complete
+            enableMethod = streamClass.getMethod("enable", String.class);
+        }
+    }
+
+    private static boolean isRecordingStreamPresent() {
+        try {
+            Class.forName(RECORDING_STREAM_CLASS, false, JfrEventStream.class.getClassLoader());
+            return true;
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+}
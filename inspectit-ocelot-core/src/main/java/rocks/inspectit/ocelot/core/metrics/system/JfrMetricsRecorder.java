@@ -0,0 +1,165 @@
+package rocks.inspectit.ocelot.core.metrics.system;
+
+import io.opencensus.tags.TagContext;
+import io.opencensus.tags.TagKey;
+import io.opencensus.tags.TagValue;
+import io.opencensus.tags.Tagger;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import rocks.inspectit.ocelot.config.model.InspectitConfig;
+import rocks.inspectit.ocelot.config.model.metrics.JfrMetricsSettings;
+import rocks.inspectit.ocelot.config.model.metrics.MetricsSettings;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Bridges events captured by the JDK Flight Recorder into metrics.
+ * The recorder subscribes to the enabled events using a {@link JfrEventStream}, which requires Java 14 or later.
+ * On older JVMs this recorder stays disabled.
+ */
+@Service
+@Slf4j
+public class JfrMetricsRecorder extends AbstractMetricsRecorder {
+
+    private static final String SOCKET_READ_METRIC_NAME = "socket.read";
+    private static final String SOCKET_READ_METRIC_FULL_NAME = "jfr/socket/read";
+
+    private static final String SOCKET_WRITE_METRIC_NAME = "socket.write";
+    private static final String SOCKET_WRITE_METRIC_FULL_NAME = "jfr/socket/write";
+
+    private static final String FILE_READ_METRIC_NAME = "file.read";
+    private static final String FILE_READ_METRIC_FULL_NAME = "jfr/file/read";
+
+    private static final String FILE_WRITE_METRIC_NAME = "file.write";
+    private static final String FILE_WRITE_METRIC_FULL_NAME = "jfr/file/write";
+
+    private static final String MONITOR_ENTER_METRIC_NAME = "monitor.enter";
+    private static final String MONITOR_ENTER_METRIC_FULL_NAME = "jfr/monitor/enter/time";
+
+    private static final String ALLOCATION_SAMPLE_METRIC_NAME = "allocation.sample";
+    private static final String ALLOCATION_SAMPLE_METRIC_FULL_NAME = "jfr/allocation/sampled";
+
+    private static final double NANOS_PER_MILLI = 1000.0 * 1000.0;
+
+    private static final TagKey LOCK_TAG_KEY = TagKey.create("lock");
+
+    @Autowired
+    private Tagger tagger;
+
+    private JfrEventStream stream;
+
+    private final Map<String, TagValue> lockTagValues = new ConcurrentHashMap<>();
+
+    public JfrMetricsRecorder() {
+        super("metrics.jfr");
+    }
+
+    @Override
+    protected void init() {
+        super.init();
+        if (!JfrEventStream.isSupported()) {
+            log.debug("JFR event streaming is not available on this JVM, JFR metrics are unavailable.");
+        }
+    }
+
+    @Override
+    protected boolean checkEnabledForConfig(MetricsSettings ms) {
+        return JfrEventStream.isSupported() && ms.getJfr().getEnabled().containsValue(true);
+    }
+
+    @Override
+    protected synchronized boolean doEnable(InspectitConfig configuration) {
+        JfrMetricsSettings settings = configuration.getMetrics().getJfr();
+        Map<String, Boolean> enabled = settings.getEnabled();
+        Duration threshold = settings.getThreshold();
+        try {
+            stream = new JfrEventStream();
+            if (enabled.getOrDefault(SOCKET_READ_METRIC_NAME, false)) {
+                subscribe("jdk.SocketRead", threshold, event -> recordBytes(SOCKET_READ_METRIC_FULL_NAME, event, "bytesRead"));
+            }
+            if (enabled.getOrDefault(SOCKET_WRITE_METRIC_NAME, false)) {
+                subscribe("jdk.SocketWrite", threshold, event -> recordBytes(SOCKET_WRITE_METRIC_FULL_NAME, event, "bytesWritten"));
+            }
+            if (enabled.getOrDefault(FILE_READ_METRIC_NAME, false)) {
+                subscribe("jdk.FileRead", threshold, event -> recordBytes(FILE_READ_METRIC_FULL_NAME, event, "bytesRead"));
+            }
+            if (enabled.getOrDefault(FILE_WRITE_METRIC_NAME, false)) {
+                subscribe("jdk.FileWrite", threshold, event -> recordBytes(FILE_WRITE_METRIC_FULL_NAME, event, "bytesWritten"));
+            }
+            if (enabled.getOrDefault(MONITOR_ENTER_METRIC_NAME, false)) {
+                subscribe("jdk.JavaMonitorEnter", threshold, this::recordMonitorEnter);
+            }
+            if (enabled.getOrDefault(ALLOCATION_SAMPLE_METRIC_NAME, false)) {
+                // available since Java 16, the JVM throttles the number of samples itself
+                subscribe("jdk.ObjectAllocationSample", null, event -> recordBytes(ALLOCATION_SAMPLE_METRIC_FULL_NAME, event, "weight"));
+            }
+            stream.startAsync();
+            log.info("Started JFR event stream for metrics recording");
+            return true;
+        } catch (Exception e) {
+            log.error("Error starting the JFR event stream", e);
+            closeStream();
+            return false;
+        }
+    }
+
+    @Override
+    protected synchronized boolean doDisable() {
+        closeStream();
+        return true;
+    }
+
+    private void subscribe(String eventName, Duration threshold, Consumer<Object> handler) throws ReflectiveOperationException {
+        stream.subscribe(eventName, threshold, event -> {
+            try {
+                handler.accept(event);
+            } catch (Exception e) {
+                log.error("Error recording JFR event {}", eventName, e);
+            }
+        });
+    }
+
+    private void closeStream() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    private void recordBytes(String metricFullName, Object event, String bytesField) {
+        try {
+            long bytes = JfrEventStream.getLong(event, bytesField);
+            val mm = recorder.newMeasureMap();
+            if (measureManager.tryRecordingMeasurement(metricFullName, mm, bytes)) {
+                mm.record(commonTags.getCommonTagContext());
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void recordMonitorEnter(Object event) {
+        try {
+            double durationMillis = JfrEventStream.getDurationNanos(event) / NANOS_PER_MILLI;
+            String lockClass = JfrEventStream.getClassName(event, "monitorClass");
+            TagContext tags = tagger.toBuilder(commonTags.getCommonTagContext())
+                    .put(LOCK_TAG_KEY, getLockTagValue(lockClass == null ? "unknown" : lockClass))
+                    .build();
+            val mm = recorder.newMeasureMap();
+            if (measureManager.tryRecordingMeasurement(MONITOR_ENTER_METRIC_FULL_NAME, mm, durationMillis)) {
+                mm.record(tags);
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private TagValue getLockTagValue(String lockClass) {
+        return lockTagValues.computeIfAbsent(lockClass, lock -> TagValue.create(lock.length() > TagValue.MAX_LENGTH ? lock.substring(0, TagValue.MAX_LENGTH) : lock));
+    }
+}
@@ -0,0 +1,152 @@
+package rocks.inspectit.ocelot.core.metrics.system;
+
+import io.opencensus.stats.MeasureMap;
+import io.opencensus.tags.TagContext;
+import io.opencensus.tags.TagKey;
+import io.opencensus.tags.TagValue;
+import io.opencensus.tags.Tagger;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import rocks.inspectit.ocelot.config.model.metrics.MetricsSettings;
+import rocks.inspectit.ocelot.config.model.metrics.StandardPollingMetricsRecorderSettings.CollectionMode;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static rocks.inspectit.ocelot.core.metrics.system.ProcFileReader.UNAVAILABLE;
+
+/**
+ * Recorder for process and container metrics which are only available on Linux.
+ * The values are read from the /proc file system and the cgroup of the process, so that CPU throttling and the memory usage
+ * caused by the container limits are visible.
+ */
+@Service
+@Slf4j
+public class LinuxProcessMetricsRecorder extends AbstractPollingMetricsRecorder {
+
+    private static final String CPU_TIME_METRIC_NAME = "cpu.time";
+    private static final String CPU_TIME_METRIC_FULL_NAME = "process/cpu/time";
+
+    private static final String RSS_METRIC_NAME = "memory.rss";
+    private static final String RSS_METRIC_FULL_NAME = "process/memory/rss";
+
+    private static final String CONTEXT_SWITCHES_METRIC_NAME = "context.switches";
+    private static final String CONTEXT_SWITCHES_METRIC_FULL_NAME = "process/context/switches";
+
+    private static final String IO_READ_METRIC_NAME = "io.read";
+    private static final String IO_READ_METRIC_FULL_NAME = "process/io/read";
+
+    private static final String IO_WRITE_METRIC_NAME = "io.write";
+    private static final String IO_WRITE_METRIC_FULL_NAME = "process/io/write";
+
+    private static final String THROTTLED_TIME_METRIC_NAME = "cgroup.throttled.time";
+    private static final String THROTTLED_TIME_METRIC_FULL_NAME = "container/cpu/throttled/time";
+
+    private static final String THROTTLED_PERIODS_METRIC_NAME = "cgroup.throttled.periods";
+    private static final String THROTTLED_PERIODS_METRIC_FULL_NAME = "container/cpu/throttled/periods";
+
+    private static final String CGROUP_MEMORY_METRIC_NAME = "cgroup.memory.used";
+    private static final String CGROUP_MEMORY_METRIC_FULL_NAME = "container/memory/used";
+
+    /**
+     * The names of all measures recorded by this recorder.
+     */
+    static final List<String> MEASURE_NAMES = Arrays.asList(
+            CPU_TIME_METRIC_FULL_NAME,
+            RSS_METRIC_FULL_NAME,
+            CONTEXT_SWITCHES_METRIC_FULL_NAME,
+            IO_READ_METRIC_FULL_NAME,
+            IO_WRITE_METRIC_FULL_NAME,
+            THROTTLED_TIME_METRIC_FULL_NAME,
+            THROTTLED_PERIODS_METRIC_FULL_NAME,
+            CGROUP_MEMORY_METRIC_FULL_NAME);
+
+    private static final TagKey TYPE_TAG_KEY = TagKey.create("type");
+
+    private static final TagValue VOLUNTARY_TAG_VALUE = TagValue.create("voluntary");
+
+    private static final TagValue INVOLUNTARY_TAG_VALUE = TagValue.create("involuntary");
+
+    @Autowired
+    private Tagger tagger;
+
+    private LinuxProcessStats stats;
+
+    public LinuxProcessMetricsRecorder() {
+        super("metrics.process");
+    }
+
+    @Override
+    protected void init() {
+        super.init();
+        stats = LinuxProcessStats.forCurrentProcess();
+        if (!stats.isAvailable()) {
+            log.debug("The /proc file system is not available, process metrics will not be recorded.");
+        } else if (!stats.isCgroupAvailable()) {
+            log.info("Unable to locate the cgroup of the process. The container metrics are unavailable.");
+        }
+    }
+
+    @Override
+    protected synchronized void takeMeasurement(MetricsSettings config) {
+        Map<String, Boolean> enabled = config.getProcess().getEnabled();
+        stats.update();
+
+        val mm = newMeasureMap();
+        recordIfEnabled(enabled, CPU_TIME_METRIC_NAME, CPU_TIME_METRIC_FULL_NAME, stats.getCpuTimeMillis(), mm);
+        recordIfEnabled(enabled, RSS_METRIC_NAME, RSS_METRIC_FULL_NAME, stats.getRssBytes(), mm);
+        recordIfEnabled(enabled, IO_READ_METRIC_NAME, IO_READ_METRIC_FULL_NAME, stats.getReadBytes(), mm);
+        recordIfEnabled(enabled, IO_WRITE_METRIC_NAME, IO_WRITE_METRIC_FULL_NAME, stats.getWriteBytes(), mm);
+        recordIfEnabled(enabled, THROTTLED_TIME_METRIC_NAME, THROTTLED_TIME_METRIC_FULL_NAME, stats.getThrottledTimeMillis(), mm);
+        recordIfEnabled(enabled, THROTTLED_PERIODS_METRIC_NAME, THROTTLED_PERIODS_METRIC_FULL_NAME, stats.getThrottledPeriods(), mm);
+        recordIfEnabled(enabled, CGROUP_MEMORY_METRIC_NAME, CGROUP_MEMORY_METRIC_FULL_NAME, stats.getCgroupMemoryBytes(), mm);
+        mm.record();
+
+        if (enabled.getOrDefault(CONTEXT_SWITCHES_METRIC_NAME, false)) {
+            recordContextSwitches(VOLUNTARY_TAG_VALUE, stats.getVoluntaryContextSwitches());
+            recordContextSwitches(INVOLUNTARY_TAG_VALUE, stats.getInvoluntaryContextSwitches());
+        }
+    }
+
+    @Override
+    protected Duration getFrequency(MetricsSettings config) {
+        return config.getProcess().getFrequency();
+    }
+
+    @Override
+    protected CollectionMode getCollectionMode(MetricsSettings config) {
+        return config.getProcess().getCollectionMode();
+    }
+
+    @Override
+    protected boolean checkEnabledForConfig(MetricsSettings ms) {
+        return stats.isAvailable() && ms.getProcess().getEnabled().containsValue(true);
+    }
+
+    @Override
+    protected synchronized boolean doDisable() {
+        boolean result = super.doDisable();
+        stats.close();
+        return result;
+    }
+
+    private void recordIfEnabled(Map<String, Boolean> enabled, String metricName, String fullMetricName, long value, MeasureMap mm) {
+        if (value != UNAVAILABLE && enabled.getOrDefault(metricName, false)) {
+            measureManager.tryRecordingMeasurement(fullMetricName, mm, value);
+        }
+    }
+
+    private void recordContextSwitches(TagValue type, long value) {
+        if (value != UNAVAILABLE) {
+            TagContext tags = tagger.currentBuilder().put(TYPE_TAG_KEY, type).build();
+            val mm = newMeasureMap();
+            if (measureManager.tryRecordingMeasurement(CONTEXT_SWITCHES_METRIC_FULL_NAME, mm, value)) {
+                mm.record(tags);
+            }
+        }
+    }
+}
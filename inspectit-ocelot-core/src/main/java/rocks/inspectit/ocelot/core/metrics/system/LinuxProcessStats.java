@@ -0,0 +1,388 @@
+package rocks.inspectit.ocelot.core.metrics.system;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.*;
+
+import static rocks.inspectit.ocelot.core.metrics.system.ProcFileReader.UNAVAILABLE;
+
+/**
+ * Provides the statistics of the current process from the Linux /proc file system and its cgroup (v1 or v2).
+ * The values are refreshed via {@link #update()}, all getters return {@link ProcFileReader#UNAVAILABLE} if a value is not available.
+ * <p>
+ * This class is not thread safe.
+ */
+@Slf4j
+class LinuxProcessStats implements Closeable {
+
+    /**
+     * The unit of the times in /proc/[pid]/stat. USER_HZ is 100 on all common architectures.
+     */
+    private static final long MILLIS_PER_CLOCK_TICK = 10;
+
+    private static final int STAT_UTIME_FIELD = 14;
+
+    private static final int STAT_STIME_FIELD = 15;
+
+    private static final byte[] RSS_KEY = ProcFileReader.key("VmRSS");
+
+    private static final byte[] VOLUNTARY_SWITCHES_KEY = ProcFileReader.key("voluntary_ctxt_switches");
+
+    private static final byte[] INVOLUNTARY_SWITCHES_KEY = ProcFileReader.key("nonvoluntary_ctxt_switches");
+
+    private static final byte[] READ_BYTES_KEY = ProcFileReader.key("read_bytes");
+
+    private static final byte[] WRITE_BYTES_KEY = ProcFileReader.key("write_bytes");
+
+    private static final byte[] THROTTLED_PERIODS_KEY = ProcFileReader.key("nr_throttled");
+
+    /**
+     * Throttled time in cgroup v1 cpu.stat, in nanoseconds.
+     */
+    private static final byte[] THROTTLED_TIME_V1_KEY = ProcFileReader.key("throttled_time");
+
+    /**
+     * Throttled time in cgroup v2 cpu.stat, in microseconds.
+     */
+    private static final byte[] THROTTLED_TIME_V2_KEY = ProcFileReader.key("throttled_usec");
+
+    private final ProcFileReader stat;
+
+    private final ProcFileReader status;
+
+    private final ProcFileReader io;
+
+    /**
+     * The directory containing a subdirectory for each thread of the process.
+     */
+    private final File taskDir;
+
+    /**
+     * Shared by all threads, each status file is opened, read and closed on every update,
+     * so that the number of open file handles does not grow with the number of threads.
+     */
+    private final ProcFileReader taskStatus;
+
+    /**
+     * The statuses of the live threads of the process, mapped by their thread ids.
+     * The context switches in /proc/[pid]/status only cover the main thread, therefore they are summed up over all threads.
+     */
+    private final Map<String, TaskStatus> taskStatuses = new HashMap<>();
+
+    /**
+     * The cpu.stat of the cgroup of the process, null if it could not be located.
+     */
+    private final ProcFileReader cpuStat;
+
+    /**
+     * The memory.current (v2) or memory.usage_in_bytes (v1) of the cgroup of the process, null if it could not be located.
+     */
+    private final ProcFileReader memoryUsage;
+
+    private final boolean cgroupV2;
+
+    private boolean statRead;
+
+    private boolean statusRead;
+
+    private boolean ioRead;
+
+    private boolean cpuStatRead;
+
+    private boolean memoryUsageRead;
+
+    /**
+     * Incremented on every {@link #update()}, used to detect exited threads.
+     */
+    private int updateCount;
+
+    /**
+     * The voluntary context switches of the threads which have exited since the statistics are tracked.
+     */
+    private long exitedVoluntarySwitches;
+
+    /**
+     * The involuntary context switches of the threads which have exited since the statistics are tracked.
+     */
+    private long exitedInvoluntarySwitches;
+
+    private long voluntarySwitches = UNAVAILABLE;
+
+    private long involuntarySwitches = UNAVAILABLE;
+
+    /**
+     * @param procSelfDir the /proc directory of the process, usually /proc/self
+     * @param cgroupRoot  the mount point of the cgroup file system, usually /sys/fs/cgroup
+     */
+    LinuxProcessStats(File procSelfDir, File cgroupRoot) {
+        stat = new ProcFileReader(new File(procSelfDir, "stat"));
+        status = new ProcFileReader(new File(procSelfDir, "status"));
+        io = new ProcFileReader(new File(procSelfDir, "io"));
+        taskDir = new File(procSelfDir, "task");
+        taskStatus = new ProcFileReader(taskDir);
+
+        List<String> cgroups = readCgroups(new File(procSelfDir, "cgroup"));
+        cgroupV2 = new File(cgroupRoot, "cgroup.controllers").exists();
+        if (cgroupV2) {
+            String path = findCgroupPath(cgroups, "");
+            cpuStat = locateCgroupFile(cgroupRoot, path, "cpu.stat");
+            memoryUsage = locateCgroupFile(cgroupRoot, path, "memory.current");
+        } else {
+            cpuStat = locateCgroupFile(new File(cgroupRoot, "cpu"), findCgroupPath(cgroups, "cpu"), "cpu.stat");
+            memoryUsage = locateCgroupFile(new File(cgroupRoot, "memory"), findCgroupPath(cgroups, "memory"), "memory.usage_in_bytes");
+        }
+    }
+
+    /**
+     * @return the statistics of the current process
+     */
+    static LinuxProcessStats forCurrentProcess() {
+        return new LinuxProcessStats(new File("/proc/self"), new File("/sys/fs/cgroup"));
+    }
+
+    /**
+     * @return true, if the /proc file system is available, which is only the case on Linux
+     */
+    boolean isAvailable() {
+        return stat.isReadable();
+    }
+
+    /**
+     * @return true, if the cgroup of the process could be located
+     */
+    boolean isCgroupAvailable() {
+        return cpuStat != null || memoryUsage != null;
+    }
+
+    /**
+     * Reads the current content of all files.
+     */
+    void update() {
+        statRead = stat.read();
+        statusRead = status.read();
+        ioRead = io.read();
+        cpuStatRead = cpuStat != null && cpuStat.read();
+        memoryUsageRead = memoryUsage != null && memoryUsage.read();
+        updateContextSwitches();
+    }
+
+    /**
+     * Sums up the context switches of all threads of the process.
+     * The status files are read one after another via the shared {@link #taskStatus} reader.
+     * The last known values of exited threads are kept, so that the sums never decrease.
+     */
+    private void updateContextSwitches() {
+        String[] taskIds = taskDir.list();
+        if (taskIds == null) {
+            voluntarySwitches = UNAVAILABLE;
+            involuntarySwitches = UNAVAILABLE;
+            return;
+        }
+        updateCount++;
+        for (String taskId : taskIds) {
+            TaskStatus task = taskStatuses.computeIfAbsent(taskId, id -> new TaskStatus(new File(new File(taskDir, id), "status")));
+            if (task.update(taskStatus)) {
+                task.lastUpdate = updateCount;
+            }
+        }
+        long voluntary = exitedVoluntarySwitches;
+        long involuntary = exitedInvoluntarySwitches;
+        Iterator<TaskStatus> tasks = taskStatuses.values().iterator();
+        while (tasks.hasNext()) {
+            TaskStatus task = tasks.next();
+            if (task.lastUpdate == updateCount) {
+                voluntary += task.voluntarySwitches;
+                involuntary += task.involuntarySwitches;
+            } else {
+                exitedVoluntarySwitches += task.voluntarySwitches;
+                exitedInvoluntarySwitches += task.involuntarySwitches;
+                voluntary += task.voluntarySwitches;
+                involuntary += task.involuntarySwitches;
+                tasks.remove();
+            }
+        }
+        voluntarySwitches = voluntary;
+        involuntarySwitches = involuntary;
+    }
+
+    /**
+     * @return the CPU time (user and system) consumed by the process in milliseconds
+     */
+    long getCpuTimeMillis() {
+        if (!statRead) {
+            return UNAVAILABLE;
+        }
+        long utime = stat.getStatField(STAT_UTIME_FIELD);
+        long stime = stat.getStatField(STAT_STIME_FIELD);
+        if (utime == UNAVAILABLE || stime == UNAVAILABLE) {
+            return UNAVAILABLE;
+        }
+        return (utime + stime) * MILLIS_PER_CLOCK_TICK;
+    }
+
+    /**
+     * @return the resident set size of the process in bytes
+     */
+    long getRssBytes() {
+        long rssKb = statusRead ? status.getValue(RSS_KEY) : UNAVAILABLE;
+        return rssKb == UNAVAILABLE ? UNAVAILABLE : rssKb * 1024;
+    }
+
+    /**
+     * @return the number of voluntary context switches of all threads of the process, including the threads which have exited since the first update
+     */
+    long getVoluntaryContextSwitches() {
+        return voluntarySwitches;
+    }
+
+    /**
+     * @return the number of involuntary context switches of all threads of the process, including the threads which have exited since the first update
+     */
+    long getInvoluntaryContextSwitches() {
+        return involuntarySwitches;
+    }
+
+    /**
+     * @return the number of bytes the process caused to be fetched from the storage layer
+     */
+    long getReadBytes() {
+        return ioRead ? io.getValue(READ_BYTES_KEY) : UNAVAILABLE;
+    }
+
+    /**
+     * @return the number of bytes the process caused to be sent to the storage layer
+     */
+    long getWriteBytes() {
+        return ioRead ? io.getValue(WRITE_BYTES_KEY) : UNAVAILABLE;
+    }
+
+    /**
+     * @return the total time the cgroup of the process has been throttled due to its CPU quota in milliseconds
+     */
+    long getThrottledTimeMillis() {
+        if (!cpuStatRead) {
+            return UNAVAILABLE;
+        }
+        if (cgroupV2) {
+            long micros = cpuStat.getValue(THROTTLED_TIME_V2_KEY);
+            return micros == UNAVAILABLE ? UNAVAILABLE : micros / 1000;
+        } else {
+            long nanos = cpuStat.getValue(THROTTLED_TIME_V1_KEY);
+            return nanos == UNAVAILABLE ? UNAVAILABLE : nanos / 1000 / 1000;
+        }
+    }
+
+    /**
+     * @return the number of CPU periods in which the cgroup of the process has been throttled
+     */
+    long getThrottledPeriods() {
+        return cpuStatRead ? cpuStat.getValue(THROTTLED_PERIODS_KEY) : UNAVAILABLE;
+    }
+
+    /**
+     * @return the memory used by the cgroup of the process in bytes, including the page cache
+     */
+    long getCgroupMemoryBytes() {
+        return memoryUsageRead ? memoryUsage.getSingleValue() : UNAVAILABLE;
+    }
+
+    @Override
+    public void close() {
+        stat.close();
+        status.close();
+        io.close();
+        taskStatus.close();
+        taskStatuses.clear();
+        if (cpuStat != null) {
+            cpuStat.close();
+        }
+        if (memoryUsage != null) {
+            memoryUsage.close();
+        }
+    }
+
+    private List<String> readCgroups(File cgroupFile) {
+        try {
+            return Files.readAllLines(cgroupFile.toPath());
+        } catch (IOException e) {
+            log.debug("Could not read {}", cgroupFile, e);
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Extracts the cgroup path from the lines of /proc/[pid]/cgroup, which have the format "hierarchy-id:controllers:path".
+     *
+     * @param cgroups    the lines of the file
+     * @param controller the controller to find the path for, an empty string for cgroup v2
+     * @return the path of the cgroup, "/" if not found
+     */
+    private String findCgroupPath(List<String> cgroups, String controller) {
+        Optional<String> path = cgroups.stream()
+                .map(line -> line.split(":", 3))
+                .filter(parts -> parts.length == 3)
+                .filter(parts -> controller.isEmpty() ? parts[1].isEmpty() : Arrays.asList(parts[1].split(",")).contains(controller))
+                .map(parts -> parts[2])
+                .findFirst();
+        return path.orElse("/");
+    }
+
+    /**
+     * Locates a file of the given cgroup.
+     * Inside a container with its own cgroup namespace or mount, the cgroup of the process is the root of the mounted hierarchy,
+     * therefore the file is also looked up in the root if it does not exist at the path of the cgroup.
+     *
+     * @return the reader for the file or null if it does not exist
+     */
+    private ProcFileReader locateCgroupFile(File hierarchyRoot, String cgroupPath, String fileName) {
+        File file = new File(new File(hierarchyRoot, cgroupPath), fileName);
+        if (!file.exists()) {
+            file = new File(hierarchyRoot, fileName);
+        }
+        return file.exists() ? new ProcFileReader(file) : null;
+    }
+
+    /**
+     * The status of a single thread of the process.
+     */
+    private static class TaskStatus {
+
+        private final File statusFile;
+
+        private long voluntarySwitches;
+
+        private long involuntarySwitches;
+
+        /**
+         * The value of {@link LinuxProcessStats#updateCount} when the status was last read successfully.
+         */
+        private int lastUpdate;
+
+        private TaskStatus(File statusFile) {
+            this.statusFile = statusFile;
+        }
+
+        /**
+         * @param reader the reader used to read the status file
+         * @return true, if the status was read, false if the thread has exited
+         */
+        private boolean update(ProcFileReader reader) {
+            if (!reader.readOnce(statusFile)) {
+                return false;
+            }
+            long voluntary = reader.getValue(VOLUNTARY_SWITCHES_KEY);
+            long involuntary = reader.getValue(INVOLUNTARY_SWITCHES_KEY);
+            if (voluntary != UNAVAILABLE) {
+                voluntarySwitches = voluntary;
+            }
+            if (involuntary != UNAVAILABLE) {
+                involuntarySwitches = involuntary;
+            }
+            return true;
+        }
+    }
+}
@@ -8,12 +8,15 @@ import lombok.val;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import rocks.inspectit.ocelot.config.model.metrics.MetricsSettings;
+import rocks.inspectit.ocelot.config.model.metrics.StandardPollingMetricsRecorderSettings.CollectionMode;
 
 import java.lang.management.BufferPoolMXBean;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryPoolMXBean;
 import java.lang.management.MemoryType;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -38,6 +41,17 @@ public class MemoryMetricsRecorder extends AbstractPollingMetricsRecorder {
     private static final String BUFFER_CAPACITY_METRIC_NAME = "buffer.capacity";
     private static final String BUFFER_CAPACITY_METRIC_FULL_NAME = "jvm/buffer/total/capacity";
 
+    /**
+     * The names of all measures recorded by this recorder.
+     */
+    static final List<String> MEASURE_NAMES = Arrays.asList(
+            USED_METRIC_FULL_NAME,
+            COMMITTED_METRIC_FULL_NAME,
+            MAX_METRIC_FULL_NAME,
+            BUFFER_COUNT_METRIC_FULL_NAME,
+            BUFFER_USED_METRIC_FULL_NAME,
+            BUFFER_CAPACITY_METRIC_FULL_NAME);
+
     private TagKey idTagKey = TagKey.create("id");
     private TagKey areaTagKey = TagKey.create("area");
 
@@ -60,6 +74,11 @@ public class MemoryMetricsRecorder extends AbstractPollingMetricsRecorder {
         return config.getMemory().getFrequency();
     }
 
+    @Override
+    protected CollectionMode getCollectionMode(MetricsSettings config) {
+        return config.getMemory().getCollectionMode();
+    }
+
     @Override
     protected boolean checkEnabledForConfig(MetricsSettings ms) {
         return ms.getMemory().getEnabled().containsValue(true);
@@ -77,7 +96,7 @@ public class MemoryMetricsRecorder extends AbstractPollingMetricsRecorder {
                         .put(areaTagKey, TagValue.create(area))
                         .build();
 
-                val mm = recorder.newMeasureMap();
+                val mm = newMeasureMap();
                 if (usedEnabled) {
                     measureManager.tryRecordingMeasurement(USED_METRIC_FULL_NAME, mm, memoryPoolBean.getUsage().getUsed());
                 }
@@ -107,7 +126,7 @@ public class MemoryMetricsRecorder extends AbstractPollingMetricsRecorder {
                         .put(idTagKey, TagValue.create(bufferPoolBean.getName()))
                         .build();
 
-                val mm = recorder.newMeasureMap();
+                val mm = newMeasureMap();
                 if (bufferCountEnabled) {
                     measureManager.tryRecordingMeasurement(BUFFER_COUNT_METRIC_FULL_NAME, mm, bufferPoolBean.getCount());
                 }
@@ -0,0 +1,218 @@
+package rocks.inspectit.ocelot.core.metrics.system;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reader for the pseudo files provided by the Linux kernel in /proc and /sys/fs/cgroup.
+ * <p>
+ * The file is kept open and its content is read into a reused buffer on every {@link #read()}, the kernel regenerates the content
+ * when reading from the beginning of the file. The values are parsed directly from the buffer without creating any strings,
+ * so that no objects are allocated after the first read.
+ * <p>
+ * This class is not thread safe.
+ */
+@Slf4j
+class ProcFileReader implements Closeable {
+
+    /**
+     * Returned by the getters if the file or the requested value is not available.
+     */
+    static final long UNAVAILABLE = -1;
+
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+
+    private final File file;
+
+    private RandomAccessFile openFile;
+
+    private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+
+    /**
+     * The number of valid bytes in {@link #buffer}, -1 if the last read failed.
+     */
+    private int length = -1;
+
+    ProcFileReader(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Converts a key to the representation which can be passed to {@link #getValue(byte[])}.
+     * The result should be stored in a constant.
+     *
+     * @param key the key, e.g. "VmRSS"
+     * @return the ASCII bytes of the key
+     */
+    static byte[] key(String key) {
+        return key.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * @return true, if the file exists and can be read
+     */
+    boolean isReadable() {
+        return file.canRead();
+    }
+
+    /**
+     * Reads the current content of the file into the buffer.
+     * The buffer is only enlarged if the content does not fit into it.
+     *
+     * @return true, if the file was read successfully
+     */
+    boolean read() {
+        try {
+            if (openFile == null) {
+                openFile = new RandomAccessFile(file, "r");
+            }
+            openFile.seek(0);
+            readFully(openFile);
+            return true;
+        } catch (IOException e) {
+            log.debug("Could not read {}", file, e);
+            close();
+            return false;
+        }
+    }
+
+    /**
+     * Reads the content of another file into the buffer of this reader, the other file is closed immediately afterwards.
+     * This allows reading many short-lived files, such as /proc/[pid]/task/[tid]/status, without keeping a file handle
+     * open for each of them.
+     *
+     * @param otherFile the file to read
+     * @return true, if the file was read successfully
+     */
+    boolean readOnce(File otherFile) {
+        length = -1;
+        try (RandomAccessFile input = new RandomAccessFile(otherFile, "r")) {
+            readFully(input);
+            return true;
+        } catch (IOException e) {
+            log.debug("Could not read {}", otherFile, e);
+            return false;
+        }
+    }
+
+    private void readFully(RandomAccessFile input) throws IOException {
+        int total = 0;
+        int count;
+        while ((count = input.read(buffer, total, buffer.length - total)) > 0) {
+            total += count;
+            if (total == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+        }
+        length = total;
+    }
+
+    /**
+     * Parses a value from a file consisting of lines in the form "key value" or "key: value",
+     * such as /proc/self/status, /proc/self/io or cpu.stat.
+     *
+     * @param key the key created via {@link #key(String)}
+     * @return the first number following the key or {@link #UNAVAILABLE} if the key was not found
+     */
+    long getValue(byte[] key) {
+        int pos = 0;
+        while (pos < length) {
+            if (startsWithKey(pos, key)) {
+                return parseNumber(pos + key.length + 1);
+            }
+            while (pos < length && buffer[pos] != '\n') {
+                pos++;
+            }
+            pos++;
+        }
+        return UNAVAILABLE;
+    }
+
+    /**
+     * Parses a file containing only a single number, such as memory.current.
+     *
+     * @return the number or {@link #UNAVAILABLE} if the file does not start with a number
+     */
+    long getSingleValue() {
+        return parseNumber(0);
+    }
+
+    /**
+     * Parses a field of /proc/[pid]/stat. The fields are numbered as in the proc(5) man page, starting at 1.
+     * As the second field (the command name) can contain spaces, the fields are counted from its closing parenthesis.
+     *
+     * @param fieldNumber the number of the field, at least 3
+     * @return the value of the field or {@link #UNAVAILABLE} if the field was not found or is not a number
+     */
+    long getStatField(int fieldNumber) {
+        int pos = length - 1;
+        while (pos >= 0 && buffer[pos] != ')') {
+            pos--;
+        }
+        if (pos < 0) {
+            return UNAVAILABLE;
+        }
+        pos++;
+        int field = 2;
+        while (pos < length) {
+            while (pos < length && buffer[pos] == ' ') {
+                pos++;
+            }
+            field++;
+            if (field == fieldNumber) {
+                return parseNumber(pos);
+            }
+            while (pos < length && buffer[pos] != ' ') {
+                pos++;
+            }
+        }
+        return UNAVAILABLE;
+    }
+
+    private boolean startsWithKey(int pos, byte[] key) {
+        if (pos + key.length >= length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (buffer[pos + i] != key[i]) {
+                return false;
+            }
+        }
+        byte separator = buffer[pos + key.length];
+        return separator == ':' || separator == ' ' || separator == '\t';
+    }
+
+    private long parseNumber(int pos) {
+        while (pos < length && (buffer[pos] == ' ' || buffer[pos] == '\t')) {
+            pos++;
+        }
+        if (pos >= length || buffer[pos] < '0' || buffer[pos] > '9') {
+            return UNAVAILABLE;
+        }
+        long result = 0;
+        while (pos < length && buffer[pos] >= '0' && buffer[pos] <= '9') {
+            result = result * 10 + (buffer[pos] - '0');
+            pos++;
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        length = -1;
+        if (openFile != null) {
+            try {
+                openFile.close();
+            } catch (IOException e) {
+                log.debug("Could not close {}", file, e);
+            }
+            openFile = null;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.springframework.stereotype.Service;
 import rocks.inspectit.ocelot.config.model.metrics.MetricsSettings;
+import rocks.inspectit.ocelot.config.model.metrics.StandardPollingMetricsRecorderSettings.CollectionMode;
 
 import java.lang.management.ManagementFactory;
 import java.lang.management.OperatingSystemMXBean;
@@ -28,6 +29,15 @@ public class ProcessorMetricsRecorder extends AbstractPollingMetricsRecorder {
     private static final String PROCESS_USAGE_METRIC_NAME = "process.usage";
     private static final String PROCESS_USAGE_METRIC_FULL_NAME = "process/cpu/usage";
 
+    /**
+     * The names of all measures recorded by this recorder.
+     */
+    static final List<String> MEASURE_NAMES = Arrays.asList(
+            CPU_COUNT_METRIC_FULL_NAME,
+            AVERAGE_LOAD_METRIC_FULL_NAME,
+            SYSTEM_USAGE_METRIC_FULL_NAME,
+            PROCESS_USAGE_METRIC_FULL_NAME);
+
     private static final List<String> OPERATING_SYSTEM_BEAN_CLASS_NAMES = Arrays.asList(
             "com.sun.management.OperatingSystemMXBean", // HotSpot
             "com.ibm.lang.management.OperatingSystemMXBean" // J9
@@ -66,7 +76,7 @@ public class ProcessorMetricsRecorder extends AbstractPollingMetricsRecorder {
 
     @Override
     protected void takeMeasurement(MetricsSettings config) {
-        val mm = recorder.newMeasureMap();
+        val mm = newMeasureMap();
         Map<String, Boolean> enabled = config.getProcessor().getEnabled();
         if (enabled.getOrDefault(CPU_COUNT_METRIC_NAME, false)) {
             measureManager.tryRecordingMeasurement(CPU_COUNT_METRIC_FULL_NAME, mm, runtime.availableProcessors());
@@ -102,6 +112,11 @@ public class ProcessorMetricsRecorder extends AbstractPollingMetricsRecorder {
         return config.getProcessor().getFrequency();
     }
 
+    @Override
+    protected CollectionMode getCollectionMode(MetricsSettings config) {
+        return config.getProcessor().getCollectionMode();
+    }
+
     @Override
     protected boolean checkEnabledForConfig(MetricsSettings ms) {
         val enabled = new HashMap<>(ms.getProcessor().getEnabled());
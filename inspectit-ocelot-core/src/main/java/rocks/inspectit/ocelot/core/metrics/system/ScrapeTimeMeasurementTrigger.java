@@ -0,0 +1,284 @@
+package rocks.inspectit.ocelot.core.metrics.system;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.opencensus.common.Timestamp;
+import io.opencensus.metrics.LabelKey;
+import io.opencensus.metrics.LabelValue;
+import io.opencensus.metrics.Metrics;
+import io.opencensus.metrics.export.*;
+import io.opencensus.stats.*;
+import io.opencensus.tags.*;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import rocks.inspectit.ocelot.config.model.metrics.MetricsSettings;
+import rocks.inspectit.ocelot.config.model.metrics.StandardPollingMetricsRecorderSettings;
+import rocks.inspectit.ocelot.config.model.metrics.StandardPollingMetricsRecorderSettings.CollectionMode;
+import rocks.inspectit.ocelot.core.metrics.MeasuresAndViewsManager;
+
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Triggers the measurements of the metrics recorders running in {@code PULL} collection mode whenever the metrics are read by an exporter.
+ * <p>
+ * This class is registered as additional {@link MetricProducer}, so it is invoked by the Prometheus and OpenCensus Agent
+ * exporters when they collect metrics. The recorders record their measurements via {@link #getStatsRecorder()}.
+ * As OpenCensus processes recorded measurements asynchronously, the views would only contain the values of a previous read.
+ * Therefore the views with a {@link Aggregation.LastValue} aggregation of the pulled measures are not registered at
+ * OpenCensus by the {@link MeasuresAndViewsManager}. Instead, this producer builds their metrics directly from the
+ * measurements taken during the read. The measurements are additionally recorded as usual, so that views with other
+ * aggregations are still updated.
+ */
+@Component
+@Slf4j
+public class ScrapeTimeMeasurementTrigger extends MetricProducer {
+
+    /**
+     * Maps the names of the measures recorded by the polling metrics recorders to the function extracting the settings of their recorder.
+     */
+    private static final Map<String, Function<MetricsSettings, StandardPollingMetricsRecorderSettings>> RECORDER_SETTINGS_BY_MEASURE = new HashMap<>();
+
+    static {
+        addRecorderMeasures(ClassLoaderMetricsRecorder.MEASURE_NAMES, MetricsSettings::getClassloader);
+        addRecorderMeasures(ContentionMetricsRecorder.MEASURE_NAMES, MetricsSettings::getContention);
+        addRecorderMeasures(DiskMetricsRecorder.MEASURE_NAMES, MetricsSettings::getDisk);
+        addRecorderMeasures(LinuxProcessMetricsRecorder.MEASURE_NAMES, MetricsSettings::getProcess);
+        addRecorderMeasures(MemoryMetricsRecorder.MEASURE_NAMES, MetricsSettings::getMemory);
+        addRecorderMeasures(ProcessorMetricsRecorder.MEASURE_NAMES, MetricsSettings::getProcessor);
+        addRecorderMeasures(ThreadActivityMetricsRecorder.MEASURE_NAMES, MetricsSettings::getThreadActivity);
+        addRecorderMeasures(ThreadMetricsRecorder.MEASURE_NAMES, MetricsSettings::getThreads);
+    }
+
+    @Autowired
+    @VisibleForTesting
+    StatsRecorder statsRecorder;
+
+    @Autowired
+    @VisibleForTesting
+    MeasuresAndViewsManager measureManager;
+
+    /**
+     * The measurement tasks of the recorders running in pull mode.
+     */
+    private final Set<Runnable> measurementTasks = new CopyOnWriteArraySet<>();
+
+    /**
+     * Ensures that the measurement tasks are not executed concurrently by multiple exporters, as the recorders are not
+     * designed for concurrent measurements.
+     */
+    private final Object measurementLock = new Object();
+
+    /**
+     * The measurements taken by the current thread while it executes the {@link #measurementTasks}.
+     */
+    private final ThreadLocal<List<Measurement>> currentMeasurements = new ThreadLocal<>();
+
+    private final StatsRecorder scrapeTimeRecorder = new StatsRecorder() {
+        @Override
+        public MeasureMap newMeasureMap() {
+            return new ScrapeTimeMeasureMap();
+        }
+    };
+
+    private boolean registered = false;
+
+    private static void addRecorderMeasures(Collection<String> measureNames, Function<MetricsSettings, StandardPollingMetricsRecorderSettings> recorderSettings) {
+        measureNames.forEach(name -> RECORDER_SETTINGS_BY_MEASURE.put(name, recorderSettings));
+    }
+
+    /**
+     * Checks whether the given measure is recorded by a polling metrics recorder running in {@link CollectionMode#PULL}.
+     *
+     * @param measureName the name of the measure
+     * @param settings    the current metrics settings
+     * @return true, if the measure is measured whenever the metrics are read
+     */
+    public static boolean isPulledMeasure(String measureName, MetricsSettings settings) {
+        Function<MetricsSettings, StandardPollingMetricsRecorderSettings> recorderSettings = RECORDER_SETTINGS_BY_MEASURE.get(measureName);
+        if (recorderSettings == null) {
+            return false;
+        }
+        StandardPollingMetricsRecorderSettings settingsOfRecorder = recorderSettings.apply(settings);
+        return settingsOfRecorder != null && settingsOfRecorder.getCollectionMode() == CollectionMode.PULL;
+    }
+
+    /**
+     * The returned recorder records the measurements as usual. In addition, the measurements taken during a read are used
+     * to build the metrics returned by {@link #getMetrics()}.
+     *
+     * @return the recorder to use by the measurement tasks
+     */
+    public StatsRecorder getStatsRecorder() {
+        return scrapeTimeRecorder;
+    }
+
+    /**
+     * Adds a task to be executed every time the metrics are read by an exporter.
+     * The task has to record its measurements using {@link #getStatsRecorder()}.
+     * This producer is registered at OpenCensus as long as tasks exist.
+     *
+     * @param measurementTask the task performing the measurement
+     */
+    public synchronized void addMeasurementTask(Runnable measurementTask) {
+        measurementTasks.add(measurementTask);
+        if (!registered) {
+            Metrics.getExportComponent().getMetricProducerManager().add(this);
+            registered = true;
+        }
+    }
+
+    /**
+     * Removes a task previously added via {@link #addMeasurementTask(Runnable)}.
+     *
+     * @param measurementTask the task to remove
+     */
+    public synchronized void removeMeasurementTask(Runnable measurementTask) {
+        measurementTasks.remove(measurementTask);
+        if (measurementTasks.isEmpty()) {
+            unregister();
+        }
+    }
+
+    @PreDestroy
+    synchronized void unregister() {
+        if (registered) {
+            Metrics.getExportComponent().getMetricProducerManager().remove(this);
+            registered = false;
+        }
+    }
+
+    @Override
+    public Collection<Metric> getMetrics() {
+        List<Measurement> measurements = new ArrayList<>();
+        synchronized (measurementLock) {
+            currentMeasurements.set(measurements);
+            try {
+                for (Runnable task : measurementTasks) {
+                    try {
+                        task.run();
+                    } catch (Exception e) {
+                        log.error("Error taking scrape time measurement", e);
+                    }
+                }
+            } finally {
+                currentMeasurements.remove();
+            }
+        }
+        return createMetrics(measurements);
+    }
+
+    /**
+     * Builds the metrics for all views which are not registered at OpenCensus because their measure is pulled,
+     * see {@link MeasuresAndViewsManager#getPulledViews(String)}.
+     * If multiple measurements have the same tag values for a view, the latest one is used.
+     *
+     * @param measurements the measurements taken during the current read
+     * @return the metrics, one per view
+     */
+    private Collection<Metric> createMetrics(List<Measurement> measurements) {
+        if (measurements.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Timestamp now = Timestamp.fromMillis(System.currentTimeMillis());
+        Map<View, Map<List<LabelValue>, Point>> viewPoints = new LinkedHashMap<>();
+        for (Measurement measurement : measurements) {
+            List<View> views = measureManager.getPulledViews(measurement.getMeasure().getName());
+            if (!views.isEmpty()) {
+                Map<TagKey, TagValue> tags = new HashMap<>();
+                InternalUtils.getTags(measurement.getTags()).forEachRemaining(tag -> tags.put(tag.getKey(), tag.getValue()));
+                Point point = Point.create(measurement.getMeasure() instanceof Measure.MeasureLong ?
+                        io.opencensus.metrics.export.Value.longValue(measurement.getValue().longValue()) :
+                        io.opencensus.metrics.export.Value.doubleValue(measurement.getValue().doubleValue()), now);
+                for (View view : views) {
+                    List<LabelValue> labelValues = view.getColumns().stream()
+                            .map(tags::get)
+                            .map(value -> LabelValue.create(value == null ? null : value.asString()))
+                            .collect(Collectors.toList());
+                    viewPoints.computeIfAbsent(view, v -> new LinkedHashMap<>()).put(labelValues, point);
+                }
+            }
+        }
+
+        return viewPoints.entrySet().stream()
+                .map(entry -> toMetric(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    private Metric toMetric(View view, Map<List<LabelValue>, Point> points) {
+        Measure measure = view.getMeasure();
+        MetricDescriptor descriptor = MetricDescriptor.create(
+                view.getName().asString(),
+                view.getDescription(),
+                measure.getUnit(),
+                measure instanceof Measure.MeasureLong ? MetricDescriptor.Type.GAUGE_INT64 : MetricDescriptor.Type.GAUGE_DOUBLE,
+                view.getColumns().stream()
+                        .map(key -> LabelKey.create(key.getName(), ""))
+                        .collect(Collectors.toList()));
+        List<TimeSeries> timeSeries = points.entrySet().stream()
+                .map(entry -> TimeSeries.createWithOnePoint(entry.getKey(), entry.getValue(), null))
+                .collect(Collectors.toList());
+        return Metric.create(descriptor, timeSeries);
+    }
+
+    /**
+     * A single recorded value together with the tags it was recorded with.
+     */
+    @Value
+    private static class Measurement {
+
+        Measure measure;
+
+        Number value;
+
+        TagContext tags;
+    }
+
+    /**
+     * Measure map recording its values via the {@link #statsRecorder} and in addition collecting them in the
+     * {@link #currentMeasurements} if the values are recorded during a read.
+     */
+    private class ScrapeTimeMeasureMap extends MeasureMap {
+
+        private final Map<Measure, Number> values = new LinkedHashMap<>();
+
+        @Override
+        public MeasureMap put(Measure.MeasureDouble measure, double value) {
+            values.put(measure, value);
+            return this;
+        }
+
+        @Override
+        public MeasureMap put(Measure.MeasureLong measure, long value) {
+            values.put(measure, value);
+            return this;
+        }
+
+        @Override
+        public void record() {
+            record(Tags.getTagger().getCurrentTagContext());
+        }
+
+        @Override
+        public void record(TagContext tags) {
+            MeasureMap measureMap = statsRecorder.newMeasureMap();
+            values.forEach((measure, value) -> {
+                if (measure instanceof Measure.MeasureLong) {
+                    measureMap.put((Measure.MeasureLong) measure, value.longValue());
+                } else {
+                    measureMap.put((Measure.MeasureDouble) measure, value.doubleValue());
+                }
+            });
+            measureMap.record(tags);
+
+            List<Measurement> measurements = currentMeasurements.get();
+            if (measurements != null) {
+                values.forEach((measure, value) -> measurements.add(new Measurement(measure, value, tags)));
+            }
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package rocks.inspectit.ocelot.core.metrics.system;
+
+import io.opencensus.tags.TagContext;
+import io.opencensus.tags.TagKey;
+import io.opencensus.tags.TagValue;
+import io.opencensus.tags.Tagger;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import rocks.inspectit.ocelot.config.model.InspectitConfig;
+import rocks.inspectit.ocelot.config.model.metrics.MetricsSettings;
+import rocks.inspectit.ocelot.config.model.metrics.StandardPollingMetricsRecorderSettings.CollectionMode;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Samples the CPU time and allocated bytes of all threads and records them as rates aggregated per thread pool.
+ * The values of all threads are fetched with a single bulk call to the {@link com.sun.management.ThreadMXBean},
+ * the aggregation is performed by the {@link ThreadPoolActivitySampler}.
+ */
+@Service
+@Slf4j
+public class ThreadActivityMetricsRecorder extends AbstractPollingMetricsRecorder {
+
+    private static final String CPU_USAGE_METRIC_NAME = "cpu.usage";
+    private static final String CPU_USAGE_METRIC_FULL_NAME = "jvm/threads/pool/cpu/usage";
+
+    private static final String ALLOCATION_RATE_METRIC_NAME = "allocation.rate";
+    private static final String ALLOCATION_RATE_METRIC_FULL_NAME = "jvm/threads/pool/allocation/rate";
+
+    /**
+     * The names of all measures recorded by this recorder.
+     */
+    static final List<String> MEASURE_NAMES = Arrays.asList(CPU_USAGE_METRIC_FULL_NAME, ALLOCATION_RATE_METRIC_FULL_NAME);
+
+    private static final TagKey POOL_TAG_KEY = TagKey.create("pool");
+
+    private static final Comparator<Thread> THREAD_ID_ORDER = Comparator.comparingLong(Thread::getId);
+
+    private static final boolean MANAGEMENT_EXTENSIONS_PRESENT = isManagementExtensionsPresent();
+
+    @Autowired
+    private Tagger tagger;
+
+    private com.sun.management.ThreadMXBean threadBean;
+
+    private boolean cpuTimeSupported;
+
+    private boolean allocatedBytesSupported;
+
+    /**
+     * True, if thread CPU time measurement was already enabled before this recorder enabled it.
+     */
+    private boolean cpuTimePreviouslyEnabled;
+
+    /**
+     * True, if thread allocation measurement was already enabled before this recorder enabled it.
+     */
+    private boolean allocatedBytesPreviouslyEnabled;
+
+    private ThreadPoolActivitySampler sampler;
+
+    /**
+     * The tag values of the pools, indexed by the pool index of the {@link #sampler}.
+     */
+    private final List<TagValue> poolTagValues = new ArrayList<>();
+
+    /**
+     * The pool generation of the {@link #sampler} the {@link #poolTagValues} belong to.
+     */
+    private int poolTagValuesGeneration;
+
+    /**
+     * Buffer for enumerating the live threads.
+     */
+    private Thread[] threads = new Thread[64];
+
+    public ThreadActivityMetricsRecorder() {
+        super("metrics.threadActivity");
+    }
+
+    @Override
+    protected void init() {
+        super.init();
+        if (MANAGEMENT_EXTENSIONS_PRESENT && ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+            threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            cpuTimeSupported = threadBean.isThreadCpuTimeSupported();
+            allocatedBytesSupported = threadBean.isThreadAllocatedMemorySupported();
+        }
+        if (!cpuTimeSupported) {
+            log.info("Thread CPU time measurement is not supported on this JVM. Metric " + CPU_USAGE_METRIC_FULL_NAME + " is unavailable.");
+        }
+        if (!allocatedBytesSupported) {
+            log.info("Thread allocation measurement is not supported on this JVM. Metric " + ALLOCATION_RATE_METRIC_FULL_NAME + " is unavailable.");
+        }
+    }
+
+    @Override
+    protected boolean checkEnabledForConfig(MetricsSettings ms) {
+        Map<String, Boolean> enabled = ms.getThreadActivity().getEnabled();
+        return (cpuTimeSupported && enabled.getOrDefault(CPU_USAGE_METRIC_NAME, false))
+                || (allocatedBytesSupported && enabled.getOrDefault(ALLOCATION_RATE_METRIC_NAME, false));
+    }
+
+    @Override
+    protected synchronized boolean doEnable(InspectitConfig configuration) {
+        Map<String, Boolean> enabled = configuration.getMetrics().getThreadActivity().getEnabled();
+        cpuTimePreviouslyEnabled = cpuTimeSupported && threadBean.isThreadCpuTimeEnabled();
+        allocatedBytesPreviouslyEnabled = allocatedBytesSupported && threadBean.isThreadAllocatedMemoryEnabled();
+        if (cpuTimeSupported && enabled.getOrDefault(CPU_USAGE_METRIC_NAME, false)) {
+            threadBean.setThreadCpuTimeEnabled(true);
+        }
+        if (allocatedBytesSupported && enabled.getOrDefault(ALLOCATION_RATE_METRIC_NAME, false)) {
+            threadBean.setThreadAllocatedMemoryEnabled(true);
+        }
+        Pattern poolNamePattern = Pattern.compile(configuration.getMetrics().getThreadActivity().getPoolNamePattern());
+        sampler = new ThreadPoolActivitySampler(poolNamePattern);
+        poolTagValues.clear();
+        poolTagValuesGeneration = sampler.getPoolGeneration();
+        return super.doEnable(configuration);
+    }
+
+    @Override
+    protected synchronized boolean doDisable() {
+        boolean result = super.doDisable();
+        if (cpuTimeSupported && !cpuTimePreviouslyEnabled) {
+            threadBean.setThreadCpuTimeEnabled(false);
+        }
+        if (allocatedBytesSupported && !allocatedBytesPreviouslyEnabled) {
+            threadBean.setThreadAllocatedMemoryEnabled(false);
+        }
+        return result;
+    }
+
+    @Override
+    protected Duration getFrequency(MetricsSettings config) {
+        return config.getThreadActivity().getFrequency();
+    }
+
+    @Override
+    protected CollectionMode getCollectionMode(MetricsSettings config) {
+        return config.getThreadActivity().getCollectionMode();
+    }
+
+    @Override
+    protected synchronized void takeMeasurement(MetricsSettings config) {
+        Map<String, Boolean> enabled = config.getThreadActivity().getEnabled();
+        boolean cpuEnabled = cpuTimeSupported && enabled.getOrDefault(CPU_USAGE_METRIC_NAME, false);
+        boolean allocationEnabled = allocatedBytesSupported && enabled.getOrDefault(ALLOCATION_RATE_METRIC_NAME, false);
+
+        int threadCount = enumerateThreads();
+        Arrays.sort(threads, 0, threadCount, THREAD_ID_ORDER);
+        long[] threadIds = new long[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            threadIds[i] = threads[i].getId();
+        }
+
+        long[] cpuTimes = cpuEnabled ? threadBean.getThreadCpuTime(threadIds) : unavailableValues(threadCount);
+        long[] allocatedBytes = allocationEnabled ? threadBean.getThreadAllocatedBytes(threadIds) : unavailableValues(threadCount);
+        long timestamp = System.nanoTime();
+
+        boolean ratesAvailable = sampler.sample(threadIds, cpuTimes, allocatedBytes, index -> threads[index].getName(), timestamp);
+        if (poolTagValuesGeneration != sampler.getPoolGeneration()) {
+            poolTagValues.clear();
+            poolTagValuesGeneration = sampler.getPoolGeneration();
+        }
+        if (ratesAvailable) {
+            for (int pool = 0; pool < sampler.getPoolCount(); pool++) {
+                TagContext tags = tagger.currentBuilder().put(POOL_TAG_KEY, getPoolTagValue(pool)).build();
+                val mm = newMeasureMap();
+                if (cpuEnabled) {
+                    measureManager.tryRecordingMeasurement(CPU_USAGE_METRIC_FULL_NAME, mm, sampler.getCpuUsage(pool));
+                }
+                if (allocationEnabled) {
+                    measureManager.tryRecordingMeasurement(ALLOCATION_RATE_METRIC_FULL_NAME, mm, sampler.getAllocationRate(pool));
+                }
+                mm.record(tags);
+            }
+        }
+        Arrays.fill(threads, 0, threadCount, null);
+    }
+
+    /**
+     * Collects all live threads into {@link #threads}, enlarging the buffer if required.
+     *
+     * @return the number of threads
+     */
+    private int enumerateThreads() {
+        ThreadGroup root = Thread.currentThread().getThreadGroup();
+        while (root.getParent() != null) {
+            root = root.getParent();
+        }
+        int count;
+        while ((count = root.enumerate(threads, true)) == threads.length) {
+            threads = new Thread[threads.length * 2];
+        }
+        return count;
+    }
+
+    private TagValue getPoolTagValue(int pool) {
+        while (poolTagValues.size() <= pool) {
+            poolTagValues.add(toTagValue(sampler.getPoolName(poolTagValues.size())));
+        }
+        return poolTagValues.get(pool);
+    }
+
+    /**
+     * Converts a pool name to a tag value, replacing all characters which are not allowed in tag values.
+     */
+    private TagValue toTagValue(String poolName) {
+        StringBuilder value = new StringBuilder(Math.min(poolName.length(), TagValue.MAX_LENGTH));
+        for (int i = 0; i < poolName.length() && i < TagValue.MAX_LENGTH; i++) {
+            char c = poolName.charAt(i);
+            value.append(c >= ' ' && c < 127 ? c : '_');
+        }
+        return TagValue.create(value.toString());
+    }
+
+    private long[] unavailableValues(int count) {
+        long[] values = new long[count];
+        Arrays.fill(values, -1);
+        return values;
+    }
+
+    private static boolean isManagementExtensionsPresent() {
+        try {
+            Class.forName("com.sun.management.ThreadMXBean", false, ThreadActivityMetricsRecorder.class.getClassLoader());
+            return true;
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+}
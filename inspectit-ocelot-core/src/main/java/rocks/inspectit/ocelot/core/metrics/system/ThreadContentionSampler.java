@@ -0,0 +1,112 @@
+package rocks.inspectit.ocelot.core.metrics.system;
+
+/**
+ * Computes the increase of the blocked counts and times of all threads between two samples.
+ * Threads which terminated since the previous sample are ignored, threads started since the previous sample are counted from zero.
+ * <p>
+ * The values of the previous sample are kept in primitive arrays sorted by thread ID, so that a sample requires only a merge of two sorted arrays.
+ * <p>
+ * This class is not thread safe.
+ */
+class ThreadContentionSampler {
+
+    private long[] previousIds = new long[0];
+
+    private long[] previousCounts = new long[0];
+
+    private long[] previousTimes = new long[0];
+
+    private int previousCount = 0;
+
+    private long[] currentIds = new long[0];
+
+    private long[] currentCounts = new long[0];
+
+    private long[] currentTimes = new long[0];
+
+    private boolean firstSample = true;
+
+    private long blockedCountDelta;
+
+    private long blockedTimeDelta;
+
+    /**
+     * Processes a new sample.
+     *
+     * @param threadIds     the IDs of the sampled threads in ascending order
+     * @param blockedCounts the total number of times the threads blocked on a monitor, aligned with threadIds
+     * @param blockedTimes  the total time in milliseconds the threads were blocked on a monitor, aligned with threadIds. Negative values are ignored.
+     * @param count         the number of valid entries in the given arrays
+     * @return true, if the deltas are available, which is the case starting with the second sample
+     */
+    boolean sample(long[] threadIds, long[] blockedCounts, long[] blockedTimes, int count) {
+        ensureCurrentCapacity(count);
+        blockedCountDelta = 0;
+        blockedTimeDelta = 0;
+
+        int previousIndex = 0;
+        for (int i = 0; i < count; i++) {
+            long id = threadIds[i];
+            while (previousIndex < previousCount && previousIds[previousIndex] < id) {
+                previousIndex++;
+            }
+            boolean known = previousIndex < previousCount && previousIds[previousIndex] == id;
+            long previousBlockedCount = known ? previousCounts[previousIndex] : 0;
+            long previousBlockedTime = known ? previousTimes[previousIndex] : 0;
+
+            if (blockedCounts[i] >= 0 && previousBlockedCount >= 0) {
+                blockedCountDelta += Math.max(0, blockedCounts[i] - previousBlockedCount);
+            }
+            if (blockedTimes[i] >= 0 && previousBlockedTime >= 0) {
+                blockedTimeDelta += Math.max(0, blockedTimes[i] - previousBlockedTime);
+            }
+            currentIds[i] = id;
+            currentCounts[i] = blockedCounts[i];
+            currentTimes[i] = blockedTimes[i];
+        }
+        swapBuffers(count);
+
+        boolean deltasAvailable = !firstSample;
+        firstSample = false;
+        return deltasAvailable;
+    }
+
+    /**
+     * @return the number of times threads blocked on a monitor between the last two samples
+     */
+    long getBlockedCountDelta() {
+        return blockedCountDelta;
+    }
+
+    /**
+     * @return the time in milliseconds threads were blocked on a monitor between the last two samples
+     */
+    long getBlockedTimeDelta() {
+        return blockedTimeDelta;
+    }
+
+    private void ensureCurrentCapacity(int count) {
+        if (currentIds.length < count) {
+            int capacity = Math.max(count, currentIds.length * 2);
+            currentIds = new long[capacity];
+            currentCounts = new long[capacity];
+            currentTimes = new long[capacity];
+        }
+    }
+
+    private void swapBuffers(int count) {
+        long[] ids = previousIds;
+        previousIds = currentIds;
+        currentIds = ids;
+
+        long[] counts = previousCounts;
+        previousCounts = currentCounts;
+        currentCounts = counts;
+
+        long[] times = previousTimes;
+        previousTimes = currentTimes;
+        currentTimes = times;
+
+        previousCount = count;
+    }
+}
@@ -8,12 +8,14 @@ import lombok.val;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import rocks.inspectit.ocelot.config.model.metrics.MetricsSettings;
+import rocks.inspectit.ocelot.config.model.metrics.StandardPollingMetricsRecorderSettings.CollectionMode;
 
 import java.lang.management.ManagementFactory;
 import java.lang.management.ThreadInfo;
 import java.lang.management.ThreadMXBean;
 import java.time.Duration;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 
 @Service
@@ -29,6 +31,15 @@ public class ThreadMetricsRecorder extends AbstractPollingMetricsRecorder {
 
     private static final String STATE_METRIC_NAME = "states";
 
+    /**
+     * The names of all measures recorded by this recorder.
+     */
+    static final List<String> MEASURE_NAMES = Arrays.asList(
+            METRIC_NAME_PREFIX + PEAK_METRIC_NAME,
+            METRIC_NAME_PREFIX + DAEMON_METRIC_NAME,
+            METRIC_NAME_PREFIX + LIVE_METRIC_NAME,
+            METRIC_NAME_PREFIX + STATE_METRIC_NAME);
+
     private static final String STATE_TAG_NAME = "state";
 
     private TagKey stateTag;
@@ -46,7 +57,7 @@ public class ThreadMetricsRecorder extends AbstractPollingMetricsRecorder {
 
     @Override
     protected void takeMeasurement(MetricsSettings config) {
-        val measurement = recorder.newMeasureMap();
+        val measurement = newMeasureMap();
         val enabled = config.getThreads().getEnabled();
         if (enabled.getOrDefault(PEAK_METRIC_NAME, false)) {
             measureManager.tryRecordingMeasurement(METRIC_NAME_PREFIX + PEAK_METRIC_NAME, measurement,
@@ -71,6 +82,11 @@ public class ThreadMetricsRecorder extends AbstractPollingMetricsRecorder {
         return config.getThreads().getFrequency();
     }
 
+    @Override
+    protected CollectionMode getCollectionMode(MetricsSettings config) {
+        return config.getThreads().getCollectionMode();
+    }
+
     @Override
     protected boolean checkEnabledForConfig(MetricsSettings ms) {
         return ms.getThreads().getEnabled().containsValue(true);
@@ -82,7 +98,7 @@ public class ThreadMetricsRecorder extends AbstractPollingMetricsRecorder {
                     for (val state : Thread.State.values()) {
                         TagContextBuilder contextBuilder = tagger.currentBuilder().put(stateTag, TagValue.create(state.name()));
                         try (val scope = contextBuilder.buildScoped()) {
-                            val mm = recorder.newMeasureMap();
+                            val mm = newMeasureMap();
                             val count = Arrays.stream(threadBean.getThreadInfo(threadBean.getAllThreadIds()))
                                     .filter(Objects::nonNull)
                                     .map(ThreadInfo::getThreadState)
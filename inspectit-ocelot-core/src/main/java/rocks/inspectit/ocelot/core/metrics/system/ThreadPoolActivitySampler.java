@@ -0,0 +1,263 @@
+package rocks.inspectit.ocelot.core.metrics.system;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Aggregates samples of the CPU time and allocated bytes of individual threads into rates per thread pool.
+ * <p>
+ * The pool of a thread is derived from its name using a pattern: if the name matches, the first group of the pattern is the pool name,
+ * otherwise the full thread name is used. The pool is only resolved when a thread is seen for the first time.
+ * Pools without any thread are reported once with a rate of zero and removed afterwards, which changes the indices of the
+ * remaining pools, see {@link #getPoolGeneration()}.
+ * <p>
+ * The per-thread state of the previous sample is kept in primitive arrays sorted by thread ID, so that a sample
+ * requires only a merge of two sorted arrays and no objects are allocated for known threads.
+ * <p>
+ * This class is not thread safe.
+ */
+class ThreadPoolActivitySampler {
+
+    private static final double NANOS_PER_SECOND = 1000.0 * 1000.0 * 1000.0;
+
+    private final Pattern poolNamePattern;
+
+    private final List<String> poolNames = new ArrayList<>();
+
+    private final Map<String, Integer> poolIndices = new HashMap<>();
+
+    /**
+     * The thread IDs of the previous sample in ascending order, followed by unused entries.
+     */
+    private long[] previousIds = new long[0];
+
+    private long[] previousCpuTimes = new long[0];
+
+    private long[] previousAllocatedBytes = new long[0];
+
+    private int[] previousPools = new int[0];
+
+    private int previousCount = 0;
+
+    /**
+     * The number of threads per pool in the previous sample, indexed by the pool index.
+     */
+    private int[] poolThreadCounts = new int[0];
+
+    /**
+     * Incremented whenever pools are removed.
+     */
+    private int poolGeneration = 0;
+
+    private long previousTimestamp = -1;
+
+    /**
+     * Buffers for the current sample, swapped with the previous* arrays after each sample.
+     */
+    private long[] currentIds = new long[0];
+
+    private long[] currentCpuTimes = new long[0];
+
+    private long[] currentAllocatedBytes = new long[0];
+
+    private int[] currentPools = new int[0];
+
+    /**
+     * The CPU time per pool consumed between the last two samples, indexed by the pool index.
+     */
+    private long[] poolCpuTimeDeltas = new long[0];
+
+    /**
+     * The bytes allocated per pool between the last two samples, indexed by the pool index.
+     */
+    private long[] poolAllocationDeltas = new long[0];
+
+    private long elapsedNanos;
+
+    ThreadPoolActivitySampler(Pattern poolNamePattern) {
+        this.poolNamePattern = poolNamePattern;
+    }
+
+    /**
+     * Processes a new sample.
+     *
+     * @param threadIds      the IDs of the sampled threads in ascending order
+     * @param cpuTimes       the CPU times of the threads in nanoseconds, aligned with threadIds. Negative values are ignored.
+     * @param allocatedBytes the bytes allocated by the threads, aligned with threadIds. Negative values are ignored.
+     * @param threadNames    provides the name of the thread at the given index, only invoked for threads not contained in the previous sample
+     * @param timestamp      the time of the sample in nanoseconds, as returned by {@link System#nanoTime()}
+     * @return true, if rates are available, which is the case starting with the second sample
+     */
+    boolean sample(long[] threadIds, long[] cpuTimes, long[] allocatedBytes, IntFunction<String> threadNames, long timestamp) {
+        int count = threadIds.length;
+        ensureCurrentCapacity(count);
+        removeUnusedPools();
+        Arrays.fill(poolCpuTimeDeltas, 0);
+        Arrays.fill(poolAllocationDeltas, 0);
+        Arrays.fill(poolThreadCounts, 0);
+
+        int previousIndex = 0;
+        for (int i = 0; i < count; i++) {
+            long id = threadIds[i];
+            while (previousIndex < previousCount && previousIds[previousIndex] < id) {
+                previousIndex++;
+            }
+            boolean known = previousIndex < previousCount && previousIds[previousIndex] == id;
+            int pool = known ? previousPools[previousIndex] : resolvePool(threadNames.apply(i));
+
+            currentIds[i] = id;
+            currentCpuTimes[i] = cpuTimes[i];
+            currentAllocatedBytes[i] = allocatedBytes[i];
+            currentPools[i] = pool;
+            poolThreadCounts[pool]++;
+
+            long previousCpu = known ? previousCpuTimes[previousIndex] : 0;
+            long previousAllocated = known ? previousAllocatedBytes[previousIndex] : 0;
+            if (cpuTimes[i] >= 0 && previousCpu >= 0) {
+                poolCpuTimeDeltas[pool] += cpuTimes[i] - previousCpu;
+            }
+            if (allocatedBytes[i] >= 0 && previousAllocated >= 0) {
+                poolAllocationDeltas[pool] += allocatedBytes[i] - previousAllocated;
+            }
+        }
+
+        boolean ratesAvailable = previousTimestamp >= 0;
+        elapsedNanos = timestamp - previousTimestamp;
+        previousTimestamp = timestamp;
+        swapBuffers(count);
+        return ratesAvailable && elapsedNanos > 0;
+    }
+
+    /**
+     * @return the number of pools seen so far
+     */
+    int getPoolCount() {
+        return poolNames.size();
+    }
+
+    /**
+     * The indices of the pools stay the same as long as the generation does not change.
+     * Information cached per pool index has to be discarded if the generation changes.
+     *
+     * @return the current generation of the pool indices
+     */
+    int getPoolGeneration() {
+        return poolGeneration;
+    }
+
+    /**
+     * @param pool the index of the pool, between 0 and {@link #getPoolCount()}
+     * @return the name of the pool
+     */
+    String getPoolName(int pool) {
+        return poolNames.get(pool);
+    }
+
+    /**
+     * @param pool the index of the pool, between 0 and {@link #getPoolCount()}
+     * @return the average number of cores used by the threads of the pool between the last two samples
+     */
+    double getCpuUsage(int pool) {
+        return poolCpuTimeDeltas[pool] / (double) elapsedNanos;
+    }
+
+    /**
+     * @param pool the index of the pool, between 0 and {@link #getPoolCount()}
+     * @return the bytes per second allocated by the threads of the pool between the last two samples
+     */
+    double getAllocationRate(int pool) {
+        return poolAllocationDeltas[pool] * NANOS_PER_SECOND / elapsedNanos;
+    }
+
+    private int resolvePool(String threadName) {
+        String poolName = threadName;
+        Matcher matcher = poolNamePattern.matcher(threadName);
+        if (matcher.matches() && matcher.groupCount() >= 1 && matcher.group(1) != null) {
+            poolName = matcher.group(1);
+        }
+        Integer pool = poolIndices.get(poolName);
+        if (pool == null) {
+            pool = poolNames.size();
+            poolNames.add(poolName);
+            poolIndices.put(poolName, pool);
+            poolCpuTimeDeltas = Arrays.copyOf(poolCpuTimeDeltas, poolNames.size());
+            poolAllocationDeltas = Arrays.copyOf(poolAllocationDeltas, poolNames.size());
+            poolThreadCounts = Arrays.copyOf(poolThreadCounts, poolNames.size());
+        }
+        return pool;
+    }
+
+    /**
+     * Removes the pools which had no threads in the previous sample and assigns new indices to the remaining pools.
+     */
+    private void removeUnusedPools() {
+        int poolCount = poolNames.size();
+        int remainingCount = 0;
+        for (int pool = 0; pool < poolCount; pool++) {
+            if (poolThreadCounts[pool] > 0) {
+                remainingCount++;
+            }
+        }
+        if (remainingCount == poolCount) {
+            return;
+        }
+        int[] newIndices = new int[poolCount];
+        List<String> remainingNames = new ArrayList<>(remainingCount);
+        poolIndices.clear();
+        for (int pool = 0; pool < poolCount; pool++) {
+            if (poolThreadCounts[pool] > 0) {
+                newIndices[pool] = remainingNames.size();
+                poolIndices.put(poolNames.get(pool), remainingNames.size());
+                remainingNames.add(poolNames.get(pool));
+            } else {
+                newIndices[pool] = -1;
+            }
+        }
+        poolNames.clear();
+        poolNames.addAll(remainingNames);
+        // all threads of the previous sample belong to a remaining pool
+        for (int i = 0; i < previousCount; i++) {
+            previousPools[i] = newIndices[previousPools[i]];
+        }
+        poolCpuTimeDeltas = new long[remainingCount];
+        poolAllocationDeltas = new long[remainingCount];
+        poolThreadCounts = new int[remainingCount];
+        poolGeneration++;
+    }
+
+    private void ensureCurrentCapacity(int count) {
+        if (currentIds.length < count) {
+            int capacity = Math.max(count, currentIds.length * 2);
+            currentIds = new long[capacity];
+            currentCpuTimes = new long[capacity];
+            currentAllocatedBytes = new long[capacity];
+            currentPools = new int[capacity];
+        }
+    }
+
+    private void swapBuffers(int count) {
+        long[] ids = previousIds;
+        previousIds = currentIds;
+        currentIds = ids;
+
+        long[] cpuTimes = previousCpuTimes;
+        previousCpuTimes = currentCpuTimes;
+        currentCpuTimes = cpuTimes;
+
+        long[] allocatedBytes = previousAllocatedBytes;
+        previousAllocatedBytes = currentAllocatedBytes;
+        currentAllocatedBytes = allocatedBytes;
+
+        int[] pools = previousPools;
+        previousPools = currentPools;
+        currentPools = pools;
+
+        previousCount = count;
+    }
+}
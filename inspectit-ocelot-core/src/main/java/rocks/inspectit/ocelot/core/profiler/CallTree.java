@@ -0,0 +1,145 @@
+package rocks.inspectit.ocelot.core.profiler;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Aggregates captured stack traces into a call tree.
+ * The number of nodes is limited, if the limit is reached samples are attributed to the deepest already existing frame.
+ * <p>
+ * This class is not thread safe.
+ */
+class CallTree {
+
+    /**
+     * The maximum number of nodes of a tree.
+     */
+    static final int MAX_NODES = 4096;
+
+    /**
+     * The frame name used in the collapsed stacks for all samples of stacks which are omitted due to the stack limit.
+     */
+    static final String OTHER_STACKS = "[other]";
+
+    private final Node root = new Node(null);
+
+    private int nodeCount = 0;
+
+    private int sampleCount = 0;
+
+    /**
+     * Adds a captured stack trace to the tree.
+     *
+     * @param stackTrace the stack trace, starting with the innermost frame as returned by {@link Thread#getStackTrace()}
+     * @param frames     the table used for interning the frame names
+     */
+    void addSample(StackTraceElement[] stackTrace, StackFrameTable frames) {
+        Node node = root;
+        for (int i = stackTrace.length - 1; i >= 0; i--) {
+            Node child = node.getChild(frames.getFrameName(stackTrace[i]));
+            if (child == null) {
+                if (nodeCount >= MAX_NODES) {
+                    break;
+                }
+                child = node.addChild(frames.getFrameName(stackTrace[i]));
+                nodeCount++;
+            }
+            node = child;
+        }
+        node.selfSamples++;
+        sampleCount++;
+    }
+
+    /**
+     * @return the total number of samples added to this tree
+     */
+    int getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * Renders the tree in the collapsed stack format, which is used by flame graph tools.
+     * Each line consists of the semicolon separated frames from the outermost to the innermost one, followed by the number of samples.
+     * The lines are ordered by their number of samples, descending.
+     *
+     * @param maxStacks the maximum number of stacks to include, the samples of all remaining stacks are summarized in a line {@link #OTHER_STACKS}
+     * @return the collapsed stacks
+     */
+    String toCollapsedStacks(int maxStacks) {
+        List<Node> leafs = new ArrayList<>();
+        collectNodesWithSelfSamples(root, leafs);
+        leafs.sort(Comparator.comparingInt((Node n) -> n.selfSamples).reversed());
+
+        StringBuilder result = new StringBuilder();
+        int otherSamples = 0;
+        for (int i = 0; i < leafs.size(); i++) {
+            Node node = leafs.get(i);
+            if (i < maxStacks) {
+                if (result.length() > 0) {
+                    result.append('\n');
+                }
+                appendPath(node, result);
+                result.append(' ').append(node.selfSamples);
+            } else {
+                otherSamples += node.selfSamples;
+            }
+        }
+        if (otherSamples > 0) {
+            result.append('\n').append(OTHER_STACKS).append(' ').append(otherSamples);
+        }
+        return result.toString();
+    }
+
+    private void collectNodesWithSelfSamples(Node node, List<Node> result) {
+        if (node.selfSamples > 0) {
+            result.add(node);
+        }
+        for (Node child : node.children) {
+            collectNodesWithSelfSamples(child, result);
+        }
+    }
+
+    private void appendPath(Node node, StringBuilder result) {
+        if (node.parent != null && node.parent != root) {
+            appendPath(node.parent, result);
+            result.append(';');
+        }
+        result.append(node == root ? OTHER_STACKS : node.frame);
+    }
+
+    private static class Node {
+
+        private final String frame;
+
+        private Node parent;
+
+        private final List<Node> children = new ArrayList<>(2);
+
+        /**
+         * The number of samples in which this node was the innermost frame.
+         */
+        private int selfSamples = 0;
+
+        private Node(String frame) {
+            this.frame = frame;
+        }
+
+        private Node getChild(String frame) {
+            for (int i = 0; i < children.size(); i++) {
+                Node child = children.get(i);
+                if (child.frame.equals(frame)) {
+                    return child;
+                }
+            }
+            return null;
+        }
+
+        private Node addChild(String frame) {
+            Node child = new Node(frame);
+            child.parent = this;
+            children.add(child);
+            return child;
+        }
+    }
+}
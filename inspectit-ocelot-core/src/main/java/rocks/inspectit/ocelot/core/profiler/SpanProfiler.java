@@ -0,0 +1,189 @@
+package rocks.inspectit.ocelot.core.profiler;
+
+import io.opencensus.common.Scope;
+import io.opencensus.trace.Span;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import rocks.inspectit.ocelot.config.model.InspectitConfig;
+import rocks.inspectit.ocelot.config.model.tracing.SpanProfilerSettings;
+import rocks.inspectit.ocelot.core.selfmonitoring.SelfMonitoringService;
+import rocks.inspectit.ocelot.core.service.DynamicallyActivatableService;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sampling profiler which periodically captures the stack traces of all threads with an active, sampled span.
+ * The stack traces are aggregated per span in a {@link SpanProfilingSession} and attached to the span when it ends.
+ * <p>
+ * The stack traces of all profiled threads are captured with a single bulk call to the {@link ThreadMXBean}.
+ * The CPU time spent for capturing is limited by {@link SpanProfilerSettings#getCpuBudget()}: if a sample takes longer
+ * than the budget allows, the following samples are skipped.
+ */
+@Service
+@Slf4j
+public class SpanProfiler extends DynamicallyActivatableService implements Runnable {
+
+    private static final String SELF_MONITORING_COMPONENT = "SpanProfiler";
+
+    @Autowired
+    private ScheduledExecutorService executor;
+
+    @Autowired
+    private SelfMonitoringService selfMonitoring;
+
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+    private final StackFrameTable frames = new StackFrameTable();
+
+    /**
+     * The innermost profiling session of each thread with an active, sampled span.
+     */
+    private final ConcurrentHashMap<Thread, SpanProfilingSession> activeSessions = new ConcurrentHashMap<>();
+
+    /**
+     * The settings of the profiler, null if it is disabled.
+     */
+    private volatile SpanProfilerSettings settings;
+
+    private ScheduledFuture<?> samplingFuture;
+
+    /**
+     * The number of sessions which have been skipped in previous samples due to the thread limit,
+     * used to sample the threads in a round-robin fashion.
+     */
+    private int sessionOffset = 0;
+
+    /**
+     * The {@link System#nanoTime()} until which samples are skipped, because the CPU budget has been exceeded.
+     */
+    private long skipUntil = 0;
+
+    public SpanProfiler() {
+        super("tracing.enabled", "tracing.profiler");
+    }
+
+    @Override
+    protected boolean checkEnabledForConfig(InspectitConfig configuration) {
+        return configuration.getTracing().isEnabled() && configuration.getTracing().getProfiler().isEnabled();
+    }
+
+    @Override
+    protected boolean doEnable(InspectitConfig configuration) {
+        settings = configuration.getTracing().getProfiler();
+        long frequencyMs = settings.getFrequency().toMillis();
+        samplingFuture = executor.scheduleWithFixedDelay(this, frequencyMs, frequencyMs, TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    @Override
+    protected boolean doDisable() {
+        settings = null;
+        if (samplingFuture != null) {
+            samplingFuture.cancel(false);
+            samplingFuture = null;
+        }
+        activeSessions.clear();
+        return true;
+    }
+
+    /**
+     * Starts profiling the current thread for the given span, if the profiler is enabled and the span is sampled.
+     * The returned session must be ended in the current thread via {@link SpanProfilingSession#end()}.
+     *
+     * @param span the span which has been entered in the current thread
+     * @return the profiling session or null if the span is not profiled
+     */
+    public SpanProfilingSession startSession(Span span) {
+        SpanProfilerSettings currentSettings = settings;
+        if (currentSettings == null || !span.getContext().getTraceOptions().isSampled()) {
+            return null;
+        }
+        Thread thread = Thread.currentThread();
+        SpanProfilingSession session = new SpanProfilingSession(this, span, thread, activeSessions.get(thread), currentSettings.getMaxStacks());
+        activeSessions.put(thread, session);
+        return session;
+    }
+
+    /**
+     * Invoked by {@link SpanProfilingSession#end()}, makes the parent session active again.
+     *
+     * @param session the ended session
+     */
+    void endSession(SpanProfilingSession session) {
+        SpanProfilingSession parent = session.getParent();
+        if (parent != null) {
+            activeSessions.replace(session.getThread(), session, parent);
+        } else {
+            activeSessions.remove(session.getThread(), session);
+        }
+    }
+
+    @Override
+    public void run() {
+        SpanProfilerSettings currentSettings = settings;
+        if (currentSettings == null || activeSessions.isEmpty() || System.nanoTime() < skipUntil) {
+            return;
+        }
+        try (Scope sm = selfMonitoring.withDurationSelfMonitoring(SELF_MONITORING_COMPONENT)) {
+            long startTime = System.nanoTime();
+            long startCpuTime = getCurrentThreadCpuTime();
+
+            takeSample(currentSettings);
+
+            long endCpuTime = getCurrentThreadCpuTime();
+            long cost = endCpuTime >= 0 && startCpuTime >= 0 ? endCpuTime - startCpuTime : System.nanoTime() - startTime;
+            if (currentSettings.getCpuBudget() > 0) {
+                long requiredInterval = (long) (cost / currentSettings.getCpuBudget());
+                long frequencyNanos = currentSettings.getFrequency().toNanos();
+                if (requiredInterval > frequencyNanos) {
+                    skipUntil = startTime + requiredInterval;
+                }
+            }
+        } catch (Throwable t) {
+            log.error("Error capturing the stack traces of the profiled threads", t);
+        }
+    }
+
+    private void takeSample(SpanProfilerSettings currentSettings) {
+        int sessionCount = activeSessions.size();
+        int maxThreads = currentSettings.getMaxThreads();
+        int skip = sessionCount > maxThreads ? sessionOffset % sessionCount : 0;
+
+        SpanProfilingSession[] sessions = new SpanProfilingSession[Math.min(sessionCount, maxThreads)];
+        int count = 0;
+        Iterator<SpanProfilingSession> iterator = activeSessions.values().iterator();
+        for (int i = 0; iterator.hasNext() && count < sessions.length; i++) {
+            SpanProfilingSession session = iterator.next();
+            if (i >= skip) {
+                sessions[count++] = session;
+            }
+        }
+        sessionOffset = skip + count;
+
+        long[] threadIds = new long[count];
+        for (int i = 0; i < count; i++) {
+            threadIds[i] = sessions[i].getThread().getId();
+        }
+        ThreadInfo[] infos = threadBean.getThreadInfo(threadIds, currentSettings.getMaxDepth());
+        for (int i = 0; i < count; i++) {
+            if (infos[i] != null) {
+                sessions[i].addSample(infos[i].getStackTrace(), frames);
+            }
+        }
+    }
+
+    private long getCurrentThreadCpuTime() {
+        if (threadBean.isCurrentThreadCpuTimeSupported()) {
+            return threadBean.getCurrentThreadCpuTime();
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,88 @@
+package rocks.inspectit.ocelot.core.profiler;
+
+import io.opencensus.trace.AttributeValue;
+import io.opencensus.trace.Span;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Collects the stack traces captured by the {@link SpanProfiler} for a span while it is the innermost profiled span of its thread.
+ * A session is started via {@link SpanProfiler#startSession(Span)} and must be ended via {@link #end()} in the same thread.
+ */
+public class SpanProfilingSession {
+
+    /**
+     * The span attribute containing the number of captured samples.
+     */
+    static final String SAMPLES_ATTRIBUTE = "profiler.samples";
+
+    /**
+     * The span attribute containing the captured stacks in the collapsed stack format.
+     */
+    static final String STACKS_ATTRIBUTE = "profiler.stacks";
+
+    private final SpanProfiler profiler;
+
+    private final Span span;
+
+    @Getter(AccessLevel.PACKAGE)
+    private final Thread thread;
+
+    /**
+     * The session which was active in the thread when this session was started, null if there was none.
+     * It becomes active again when this session ends.
+     */
+    @Getter(AccessLevel.PACKAGE)
+    private final SpanProfilingSession parent;
+
+    private final int maxStacks;
+
+    private final CallTree callTree = new CallTree();
+
+    private volatile boolean ended = false;
+
+    SpanProfilingSession(SpanProfiler profiler, Span span, Thread thread, SpanProfilingSession parent, int maxStacks) {
+        this.profiler = profiler;
+        this.span = span;
+        this.thread = thread;
+        this.parent = parent;
+        this.maxStacks = maxStacks;
+    }
+
+    /**
+     * Adds a stack trace captured for the thread of this session.
+     *
+     * @param stackTrace the stack trace, starting with the innermost frame
+     * @param frames     the table used for interning the frame names
+     */
+    synchronized void addSample(StackTraceElement[] stackTrace, StackFrameTable frames) {
+        if (!ended) {
+            callTree.addSample(stackTrace, frames);
+        }
+    }
+
+    /**
+     * Ends this session and attaches the captured stacks to the span, if any samples were captured.
+     * Must be called before the span is ended.
+     */
+    public void attachSummary() {
+        end();
+        synchronized (this) {
+            int samples = callTree.getSampleCount();
+            if (samples > 0) {
+                span.putAttribute(SAMPLES_ATTRIBUTE, AttributeValue.longAttributeValue(samples));
+                span.putAttribute(STACKS_ATTRIBUTE, AttributeValue.stringAttributeValue(callTree.toCollapsedStacks(maxStacks)));
+            }
+        }
+    }
+
+    /**
+     * Stops capturing stack traces for this session. Has no effect if the session has already been ended.
+     */
+    public void end() {
+        if (!ended) {
+            ended = true;
+            profiler.endSession(this);
+        }
+    }
+}
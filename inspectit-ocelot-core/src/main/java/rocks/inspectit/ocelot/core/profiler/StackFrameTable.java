@@ -0,0 +1,42 @@
+package rocks.inspectit.ocelot.core.profiler;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns the names of stack frames, so that all call trees share the same String instances
+ * and the names do not have to be built again for every captured stack trace.
+ */
+class StackFrameTable {
+
+    /**
+     * The maximum number of cached frames. If exceeded, the names of new frames are built on every lookup.
+     */
+    private static final int MAX_SIZE = 16 * 1024;
+
+    private final ConcurrentHashMap<StackTraceElement, String> frameNames = new ConcurrentHashMap<>();
+
+    /**
+     * @param element the stack frame
+     * @return the name of the frame consisting of the class and method name, e.g. "java.lang.Thread.run"
+     */
+    String getFrameName(StackTraceElement element) {
+        String name = frameNames.get(element);
+        if (name == null) {
+            name = element.getClassName() + "." + element.getMethodName();
+            if (frameNames.size() < MAX_SIZE) {
+                String existing = frameNames.putIfAbsent(element, name);
+                if (existing != null) {
+                    name = existing;
+                }
+            }
+        }
+        return name;
+    }
+
+    /**
+     * @return the number of cached frames
+     */
+    int size() {
+        return frameNames.size();
+    }
+}
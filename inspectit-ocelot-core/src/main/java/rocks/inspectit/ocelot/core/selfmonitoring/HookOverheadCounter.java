@@ -0,0 +1,60 @@
+package rocks.inspectit.ocelot.core.selfmonitoring;
+
+import lombok.Getter;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accumulates the time spent in the hook of a single instrumented method.
+ * Only a random subset of the hook executions is measured, as defined by the sampling interval of the {@link HookOverheadMonitor}.
+ * The counters are striped, so that concurrent updates from application threads do not contend.
+ */
+public class HookOverheadCounter {
+
+    private final HookOverheadMonitor monitor;
+
+    /**
+     * The name of the method, used as value of the method tag when reporting the overhead.
+     */
+    @Getter
+    private final String methodName;
+
+    private final LongAdder sampledNanos = new LongAdder();
+
+    /**
+     * The number of hooks using this counter, only accessed by the {@link HookOverheadMonitor} while it holds the lock of the counter's map entry.
+     */
+    int references = 0;
+
+    HookOverheadCounter(HookOverheadMonitor monitor, String methodName) {
+        this.monitor = monitor;
+        this.methodName = methodName;
+    }
+
+    /**
+     * Decides whether the current hook execution should be measured.
+     *
+     * @return true, if the execution should be measured and the duration passed to {@link #addSample(long)}
+     */
+    public boolean shouldSample() {
+        int interval = monitor.getSamplingInterval();
+        return interval > 0 && (interval == 1 || ThreadLocalRandom.current().nextInt(interval) == 0);
+    }
+
+    /**
+     * Adds the duration of a measured hook execution.
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    public void addSample(long nanos) {
+        sampledNanos.add(nanos);
+    }
+
+    /**
+     * @return the sum of all measured durations in nanoseconds since the last invocation of this method
+     */
+    long getAndResetSampledNanos() {
+        return sampledNanos.sumThenReset();
+    }
+}
@@ -0,0 +1,136 @@
+package rocks.inspectit.ocelot.core.selfmonitoring;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.opencensus.tags.TagKey;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import rocks.inspectit.ocelot.config.model.InspectitConfig;
+import rocks.inspectit.ocelot.core.service.DynamicallyActivatableService;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time the instrumentation hooks add to the application threads, per instrumented method.
+ * Each hook uses a {@link HookOverheadCounter}, which measures a sample of the hook executions.
+ * The overhead extrapolated from the samples is periodically reported as self-monitoring metric, using the method name as tag.
+ * <p>
+ * The counters are only created for hooks which have been built while the monitoring is enabled.
+ * They are kept per method name and shared by all hooks of methods with this name, so that they survive the replacement of hooks.
+ * A counter is removed as soon as no hook uses it anymore.
+ */
+@Service
+@Slf4j
+public class HookOverheadMonitor extends DynamicallyActivatableService implements Runnable {
+
+    private static final String OVERHEAD_MEASURE = "hook-overhead";
+
+    private static final TagKey METHOD_TAG_KEY = TagKey.create("method");
+
+    @Autowired
+    @VisibleForTesting
+    SelfMonitoringService selfMonitoring;
+
+    @Autowired
+    @VisibleForTesting
+    ScheduledExecutorService executor;
+
+    private final ConcurrentHashMap<String, HookOverheadCounter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * One out of this number of hook executions is measured, zero if the monitoring is disabled.
+     */
+    private volatile int samplingInterval = 0;
+
+    private ScheduledFuture<?> reporterFuture;
+
+    public HookOverheadMonitor() {
+        super("selfMonitoring", "metrics.enabled", "metrics.frequency");
+    }
+
+    @Override
+    protected boolean checkEnabledForConfig(InspectitConfig configuration) {
+        return configuration.getSelfMonitoring().isEnabled()
+                && configuration.getSelfMonitoring().getHookOverhead().isEnabled()
+                && configuration.getMetrics().isEnabled();
+    }
+
+    @Override
+    protected boolean doEnable(InspectitConfig configuration) {
+        samplingInterval = configuration.getSelfMonitoring().getHookOverhead().getSamplingInterval();
+        long frequencyMs = configuration.getMetrics().getFrequency().toMillis();
+        reporterFuture = executor.scheduleWithFixedDelay(this, frequencyMs, frequencyMs, TimeUnit.MILLISECONDS);
+        log.info("Enabling hook overhead monitoring, measuring one out of {} hook executions.", samplingInterval);
+        return true;
+    }
+
+    @Override
+    protected boolean doDisable() {
+        samplingInterval = 0;
+        if (reporterFuture != null) {
+            reporterFuture.cancel(true);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the counter to be used by a new hook of the given method.
+     * Every counter acquired via this method has to be released via {@link #releaseCounter(HookOverheadCounter)}
+     * as soon as the hook is no longer used.
+     *
+     * @param methodName the name of the instrumented method
+     * @return the counter to be used by the hook of the given method
+     */
+    public HookOverheadCounter acquireCounter(String methodName) {
+        return counters.compute(methodName, (name, counter) -> {
+            HookOverheadCounter result = counter == null ? new HookOverheadCounter(this, name) : counter;
+            result.references++;
+            return result;
+        });
+    }
+
+    /**
+     * Releases a counter acquired via {@link #acquireCounter(String)}.
+     * The counter is removed if it is not used by any other hook, samples which have not been reported yet are discarded.
+     *
+     * @param counter the counter which is no longer used by a hook
+     */
+    public void releaseCounter(HookOverheadCounter counter) {
+        String methodName = counter.getMethodName();
+        HookOverheadCounter remaining = counters.computeIfPresent(methodName, (name, current) -> {
+            if (current == counter && --current.references <= 0) {
+                return null;
+            }
+            return current;
+        });
+        if (remaining == null) {
+            selfMonitoring.removeHandle(OVERHEAD_MEASURE, methodName);
+        }
+    }
+
+    /**
+     * @return the current sampling interval, zero if no executions should be measured
+     */
+    int getSamplingInterval() {
+        return samplingInterval;
+    }
+
+    @Override
+    public void run() {
+        try {
+            int interval = samplingInterval;
+            for (HookOverheadCounter counter : counters.values()) {
+                long sampledNanos = counter.getAndResetSampledNanos();
+                if (sampledNanos > 0 && interval > 0) {
+                    long estimatedMicros = sampledNanos * interval / 1000;
+                    selfMonitoring.getHandle(OVERHEAD_MEASURE, METHOD_TAG_KEY, counter.getMethodName()).record(estimatedMicros);
+                }
+            }
+        } catch (Throwable t) {
+            log.error("Error reporting the hook overhead", t);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package rocks.inspectit.ocelot.core.selfmonitoring;
+
+import io.opencensus.stats.Measure;
+import io.opencensus.stats.StatsRecorder;
+import io.opencensus.tags.TagContext;
+import io.opencensus.tags.TagKey;
+import io.opencensus.tags.TagValue;
+import io.opencensus.tags.Tagger;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import rocks.inspectit.ocelot.core.metrics.MeasuresAndViewsManager;
+
+/**
+ * A pre-resolved handle for recording a self-monitoring measure, optionally for a specific component.
+ * The measure and the tag context are resolved once and cached, so that recording a value does not require any lookups.
+ * The cached state is refreshed by the {@link SelfMonitoringService} whenever the configuration changes.
+ */
+public class SelfMonitoringHandle {
+
+    private static final State DISABLED = new State(null, null, null);
+
+    private final StatsRecorder statsRecorder;
+
+    /**
+     * The full name of the measure, including the self-monitoring prefix.
+     */
+    @Getter
+    private final String measureName;
+
+    /**
+     * The key of the tag holding the {@link #componentName}.
+     */
+    private final TagKey componentTagKey;
+
+    /**
+     * The name of the component used as tag value, null if the measure is recorded only with the common tags.
+     */
+    @Getter
+    private final String componentName;
+
+    private volatile State state = DISABLED;
+
+    SelfMonitoringHandle(StatsRecorder statsRecorder, String measureName, TagKey componentTagKey, String componentName) {
+        this.statsRecorder = statsRecorder;
+        this.measureName = measureName;
+        this.componentTagKey = componentTagKey;
+        this.componentName = componentName;
+    }
+
+    /**
+     * @return true, if self monitoring is enabled and the measure of this handle is defined
+     */
+    public boolean isEnabled() {
+        return state != DISABLED;
+    }
+
+    /**
+     * Records the given value, if self monitoring is enabled and the measure is defined with type long.
+     *
+     * @param value the value to record
+     */
+    public void record(long value) {
+        State current = state;
+        if (current.measureLong != null) {
+            statsRecorder.newMeasureMap()
+                    .put(current.measureLong, value)
+                    .record(current.tags);
+        }
+    }
+
+    /**
+     * Records the given value, if self monitoring is enabled and the measure is defined with type double.
+     *
+     * @param value the value to record
+     */
+    public void record(double value) {
+        State current = state;
+        if (current.measureDouble != null) {
+            statsRecorder.newMeasureMap()
+                    .put(current.measureDouble, value)
+                    .record(current.tags);
+        }
+    }
+
+    /**
+     * Resolves the measure and the tag context again.
+     *
+     * @param enabled          true, if self monitoring is enabled
+     * @param measureManager   the manager to look up the measure from
+     * @param tagger           the tagger to build the tag context with
+     * @param commonTagContext the current common tags
+     */
+    void refresh(boolean enabled, MeasuresAndViewsManager measureManager, Tagger tagger, TagContext commonTagContext) {
+        Measure measure = enabled ? measureManager.getMeasure(measureName).orElse(null) : null;
+        if (measure == null) {
+            state = DISABLED;
+        } else {
+            TagContext tags = commonTagContext;
+            if (componentName != null) {
+                tags = tagger.toBuilder(commonTagContext)
+                        .put(componentTagKey, TagValue.create(componentName.length() > TagValue.MAX_LENGTH ? componentName.substring(0, TagValue.MAX_LENGTH) : componentName))
+                        .build();
+            }
+            Measure.MeasureLong measureLong = measure instanceof Measure.MeasureLong ? (Measure.MeasureLong) measure : null;
+            Measure.MeasureDouble measureDouble = measure instanceof Measure.MeasureDouble ? (Measure.MeasureDouble) measure : null;
+            state = new State(measureLong, measureDouble, tags);
+        }
+    }
+
+    /**
+     * Immutable snapshot of the resolved state, so that the state can be replaced atomically.
+     */
+    @AllArgsConstructor
+    private static class State {
+
+        private final Measure.MeasureLong measureLong;
+
+        private final Measure.MeasureDouble measureDouble;
+
+        private final TagContext tags;
+    }
+}
@@ -3,13 +3,12 @@ package rocks.inspectit.ocelot.core.selfmonitoring;
 import io.opencensus.common.Scope;
 import io.opencensus.stats.StatsRecorder;
 import io.opencensus.tags.TagKey;
-import io.opencensus.tags.TagValue;
-import io.opencensus.tags.Tags;
+import io.opencensus.tags.Tagger;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
-import lombok.val;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import rocks.inspectit.ocelot.core.config.InspectitConfigChangedEvent;
 import rocks.inspectit.ocelot.core.config.InspectitEnvironment;
@@ -18,8 +17,17 @@ import rocks.inspectit.ocelot.config.model.selfmonitoring.SelfMonitoringSettings
 import rocks.inspectit.ocelot.core.metrics.MeasuresAndViewsManager;
 import rocks.inspectit.ocelot.core.tags.CommonTagsManager;
 
+import javax.annotation.PostConstruct;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Records the self-monitoring metrics of the agent.
+ * <p>
+ * All recordings are performed via {@link SelfMonitoringHandle}s, which are created once per measure and component and cache the
+ * resolved measure and tag context. The handles are refreshed when the configuration changes, so that a recording only consists
+ * of a map lookup and the recording itself.
+ */
 @Component
 @Slf4j
 public class SelfMonitoringService {
@@ -43,6 +51,91 @@ public class SelfMonitoringService {
     @Autowired
     private CommonTagsManager commonTags;
 
+    @Autowired
+    private Tagger tagger;
+
+    /**
+     * Cached enabled flag of the self monitoring, updated on configuration changes.
+     */
+    private volatile boolean enabled;
+
+    /**
+     * The handles for all measures and components used so far, indexed by the measure name (excluding the {@link #METRICS_PREFIX})
+     * and the component name. Handles without component are stored using the empty string as component name.
+     * A measure is always recorded with the same tag key for the component name.
+     */
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, SelfMonitoringHandle>> handles = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    private void init() {
+        enabled = env.getCurrentConfig().getSelfMonitoring().isEnabled();
+    }
+
+    /**
+     * Returns the handle for recording the given measure with the common tags and the given component name as tag.
+     * The returned handle can be kept by the caller, it stays valid across configuration changes.
+     *
+     * @param measureName   the name of the measure, excluding the {@link #METRICS_PREFIX}
+     * @param componentName the human readable name of the component, is used as tag value. If null, only the common tags are used.
+     * @return the handle
+     */
+    public SelfMonitoringHandle getHandle(String measureName, String componentName) {
+        return getHandle(measureName, COMPONENT_TAG_KEY, componentName);
+    }
+
+    /**
+     * Returns the handle for recording the given measure with the common tags and the given component name as value of the given tag.
+     * The returned handle can be kept by the caller, it stays valid across configuration changes.
+     *
+     * @param measureName     the name of the measure, excluding the {@link #METRICS_PREFIX}
+     * @param componentTagKey the key of the tag holding the component name, the same key has to be used for all handles of the measure
+     * @param componentName   the human readable name of the component, is used as tag value. If null, only the common tags are used.
+     * @return the handle
+     */
+    public SelfMonitoringHandle getHandle(String measureName, TagKey componentTagKey, String componentName) {
+        String componentKey = componentName == null ? "" : componentName;
+        ConcurrentHashMap<String, SelfMonitoringHandle> componentHandles = handles.get(measureName);
+        if (componentHandles == null) {
+            componentHandles = handles.computeIfAbsent(measureName, name -> new ConcurrentHashMap<>());
+        }
+        SelfMonitoringHandle handle = componentHandles.get(componentKey);
+        if (handle == null) {
+            handle = componentHandles.computeIfAbsent(componentKey, key -> createHandle(measureName, componentTagKey, componentName));
+        }
+        return handle;
+    }
+
+    /**
+     * Removes the handle for the given measure and component, so that it is no longer kept for components which do not exist anymore.
+     * Handles which are still held by the caller stay usable.
+     *
+     * @param measureName   the name of the measure, excluding the {@link #METRICS_PREFIX}
+     * @param componentName the name of the component
+     */
+    public void removeHandle(String measureName, String componentName) {
+        ConcurrentHashMap<String, SelfMonitoringHandle> componentHandles = handles.get(measureName);
+        if (componentHandles != null) {
+            componentHandles.remove(componentName == null ? "" : componentName);
+        }
+    }
+
+    private SelfMonitoringHandle createHandle(String measureName, TagKey componentTagKey, String componentName) {
+        SelfMonitoringHandle handle = new SelfMonitoringHandle(statsRecorder, METRICS_PREFIX + measureName, componentTagKey, componentName);
+        handle.refresh(enabled, measureManager, tagger, commonTags.getCommonTagContext());
+        return handle;
+    }
+
+    /**
+     * Refreshes the enabled flag and all handles.
+     * Executed after the common tags and the measures have been updated.
+     */
+    @EventListener(InspectitConfigChangedEvent.class)
+    @Order(CommonTagsManager.CONFIG_EVENT_LISTENER_ORDER_PRIORITY + 2)
+    void refreshHandles() {
+        enabled = env.getCurrentConfig().getSelfMonitoring().isEnabled();
+        handles.values().forEach(componentHandles -> componentHandles.values()
+                .forEach(handle -> handle.refresh(enabled, measureManager, tagger, commonTags.getCommonTagContext())));
+    }
 
     /**
      * Provides an auto-closable that can be used in try-with-resource form.
@@ -54,8 +147,8 @@ public class SelfMonitoringService {
      * @return the scope performing the measurement
      */
     public Scope withDurationSelfMonitoring(String componentName) {
-        if (isSelfMonitoringEnabled()) {
-            return new SelfMonitoringScope(componentName, System.nanoTime());
+        if (enabled) {
+            return new SelfMonitoringScope(getHandle(DURATION_MEASURE_NAME, componentName), System.nanoTime());
         } else {
             return () -> {
             };
@@ -66,7 +159,7 @@ public class SelfMonitoringService {
      * @return true, if the configuration states that self monitoring should be performed
      */
     public boolean isSelfMonitoringEnabled() {
-        return env.getCurrentConfig().getSelfMonitoring().isEnabled();
+        return enabled;
     }
 
 
@@ -95,17 +188,8 @@ public class SelfMonitoringService {
      * @param value       the actual value
      */
     public void recordMeasurement(String measureName, double value) {
-        SelfMonitoringSettings conf = env.getCurrentConfig().getSelfMonitoring();
-        if (conf.isEnabled()) {
-            String fullMeasureName = METRICS_PREFIX + measureName;
-            val measure = measureManager.getMeasureDouble(fullMeasureName);
-            measure.ifPresent(m -> {
-                try (val ct = commonTags.withCommonTagScope()) {
-                    statsRecorder.newMeasureMap()
-                            .put(m, value)
-                            .record();
-                }
-            });
+        if (enabled) {
+            getHandle(measureName, null).record(value);
         }
     }
 
@@ -118,39 +202,39 @@ public class SelfMonitoringService {
      * @param value       the actual value
      */
     public void recordMeasurement(String measureName, long value) {
-        SelfMonitoringSettings conf = env.getCurrentConfig().getSelfMonitoring();
-        if (conf.isEnabled()) {
-            String fullMeasureName = METRICS_PREFIX + measureName;
-            val measure = measureManager.getMeasureLong(fullMeasureName);
-            measure.ifPresent(m -> {
-                try (val ct = commonTags.withCommonTagScope()) {
-                    statsRecorder.newMeasureMap()
-                            .put(m, value)
-                            .record();
-                }
-            });
+        if (enabled) {
+            getHandle(measureName, null).record(value);
+        }
+    }
+
+    /**
+     * Records a self-monitoring measurement with the common tags and the given component name as tag.
+     * The measure has to be defined correctly in the {@link MetricsSettings#getDefinitions()}.
+     * Only records a measurement if self monitoring is enabled.
+     *
+     * @param measureName   the name of the measure, excluding the {@link #METRICS_PREFIX}
+     * @param value         the actual value
+     * @param componentName the human readable name of the component for which the value is recorded, is used as tag value
+     */
+    public void recordMeasurement(String measureName, long value, String componentName) {
+        if (enabled) {
+            getHandle(measureName, componentName).record(value);
         }
     }
 
     @Data
-    public class SelfMonitoringScope implements Scope {
+    public static class SelfMonitoringScope implements Scope {
 
-        private final String componentName;
+        private final SelfMonitoringHandle handle;
         private final long start;
 
         @Override
         public void close() {
             double durationInMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
-            val measure = measureManager.getMeasureDouble(METRICS_PREFIX + DURATION_MEASURE_NAME);
-            measure.ifPresent(m ->
-                    statsRecorder.newMeasureMap()
-                            .put(m, durationInMicros)
-                            .record(Tags.getTagger().toBuilder(commonTags.getCommonTagContext())
-                                    .put(COMPONENT_TAG_KEY, TagValue.create(componentName)).build())
-            );
+            handle.record(durationInMicros);
 
             if (log.isTraceEnabled()) {
-                log.trace(String.format("%s reported %.1fμs", componentName, durationInMicros));
+                log.trace(String.format("%s reported %.1fμs", handle.getComponentName(), durationInMicros));
             }
         }
     }
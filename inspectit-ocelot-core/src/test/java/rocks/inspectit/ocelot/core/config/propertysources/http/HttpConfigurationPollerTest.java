@@ -19,6 +19,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
@@ -53,6 +54,22 @@ class HttpConfigurationPollerTest {
             verifyNoMoreInteractions(executor);
         }
 
+        @Test
+        public void longPollingEnabled() {
+            InspectitConfig configuration = new InspectitConfig();
+            configuration.setConfig( new ConfigSettings());
+            configuration.getConfig().setHttp(new HttpConfigSettings());
+            configuration.getConfig().getHttp().setFrequency(Duration.ofMillis(5000L));
+            configuration.getConfig().getHttp().setLongPollTimeout(Duration.ofSeconds(30));
+
+            boolean result = poller.doEnable(configuration);
+            boolean disableResult = poller.doDisable();
+
+            assertTrue(result);
+            assertTrue(disableResult);
+            verifyZeroInteractions(executor);
+        }
+
     }
 
     @Nested
@@ -83,6 +100,30 @@ class HttpConfigurationPollerTest {
         }
     }
 
+    @Nested
+    public class ShouldBackOff {
+
+        @Test
+        public void heldRequestNotModified() {
+            assertFalse(HttpConfigurationPoller.shouldBackOff(false, false, 2000));
+        }
+
+        @Test
+        public void immediateRequestNotModified() {
+            assertTrue(HttpConfigurationPoller.shouldBackOff(false, false, 50));
+        }
+
+        @Test
+        public void immediateRequestUpdated() {
+            assertFalse(HttpConfigurationPoller.shouldBackOff(true, false, 50));
+        }
+
+        @Test
+        public void requestFailed() {
+            assertTrue(HttpConfigurationPoller.shouldBackOff(false, true, 20000));
+        }
+    }
+
     @Nested
     public class Run {
 
@@ -11,10 +11,15 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.env.PropertySource;
 import rocks.inspectit.ocelot.config.model.config.HttpConfigSettings;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Properties;
+import java.util.zip.GZIPOutputStream;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
@@ -143,6 +148,54 @@ class HttpPropertySourceStateTest {
             assertThat(resultFirst.getProperty("inspectit.service-name")).isEqualTo("test-name");
         }
 
+        @Test
+        public void usingLongPolling() throws MalformedURLException {
+            HttpConfigSettings httpSettings = new HttpConfigSettings();
+            httpSettings.setUrl(new URL("http://localhost:" + mockServer.port() + "/"));
+            httpSettings.setAttributes(new HashMap<>());
+            httpSettings.setLongPollTimeout(Duration.ofSeconds(30));
+            state = new HttpPropertySourceState("test-state", httpSettings);
+
+            mockServer.stubFor(get(urlPathEqualTo("/"))
+                    .willReturn(aResponse()
+                            .withStatus(200)
+                            .withBody("{\"inspectit\": {\"service-name\": \"test-name\"}}")
+                            .withHeader("ETag", "etag_header")));
+            mockServer.stubFor(get(urlPathEqualTo("/"))
+                    .withHeader("If-None-Match", matching("etag_header.*"))
+                    .withHeader("Prefer", equalTo("wait=30"))
+                    .willReturn(aResponse()
+                            .withStatus(304)));
+
+            boolean updateResultFirst = state.update();
+            boolean updateResultSecond = state.update();
+
+            assertTrue(updateResultFirst);
+            assertFalse(updateResultSecond);
+            mockServer.verify(1, getRequestedFor(urlPathEqualTo("/")).withHeader("Prefer", absent()));
+            mockServer.verify(1, getRequestedFor(urlPathEqualTo("/")).withHeader("Prefer", equalTo("wait=30")));
+        }
+
+        @Test
+        public void fetchingGzipCompressed() throws IOException {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write("inspectit:\n  service-name: test-name".getBytes(StandardCharsets.UTF_8));
+            }
+            mockServer.stubFor(get(urlPathEqualTo("/"))
+                    .willReturn(aResponse()
+                            .withStatus(200)
+                            .withHeader("Content-Encoding", "gzip")
+                            .withBody(compressed.toByteArray())));
+
+            boolean updateResult = state.update();
+            PropertySource result = state.getCurrentPropertySource();
+
+            assertTrue(updateResult);
+            assertThat(result.getProperty("inspectit.service-name")).isEqualTo("test-name");
+            mockServer.verify(getRequestedFor(urlPathEqualTo("/")).withHeader("Accept-Encoding", containing("gzip")));
+        }
+
         @Test
         public void serverReturnsError() {
             mockServer.stubFor(get(urlPathEqualTo("/"))
@@ -154,6 +207,23 @@ class HttpPropertySourceStateTest {
 
             assertFalse(updateResult);
             assertThat(((Properties) result.getSource())).isEmpty();
+            assertTrue(state.isLastUpdateFailed());
+        }
+
+        @Test
+        public void notModifiedIsNoFailure() {
+            mockServer.stubFor(get(urlPathEqualTo("/"))
+                    .willReturn(aResponse()
+                            .withStatus(500)));
+            state.update();
+            mockServer.stubFor(get(urlPathEqualTo("/"))
+                    .willReturn(aResponse()
+                            .withStatus(304)));
+
+            boolean updateResult = state.update();
+
+            assertFalse(updateResult);
+            assertFalse(state.isLastUpdateFailed());
         }
     }
 
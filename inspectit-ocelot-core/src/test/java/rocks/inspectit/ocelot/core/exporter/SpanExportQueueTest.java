@@ -0,0 +1,165 @@
+package rocks.inspectit.ocelot.core.exporter;
+
+import io.opencensus.trace.export.SpanData;
+import io.opencensus.trace.export.SpanExporter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import rocks.inspectit.ocelot.config.model.exporters.trace.SpanExportQueueSettings;
+import rocks.inspectit.ocelot.core.selfmonitoring.SelfMonitoringService;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SpanExportQueueTest {
+
+    @Mock
+    SelfMonitoringService selfMonitoring;
+
+    SpanExportQueue exportQueue;
+
+    /**
+     * Stub of an exporter handler, records all exported batches and blocks until {@link #unblock} is counted down.
+     */
+    private static class StubHandler extends SpanExporter.Handler {
+
+        List<List<SpanData>> batches = new CopyOnWriteArrayList<>();
+
+        CountDownLatch unblock = new CountDownLatch(0);
+
+        @Override
+        public void export(Collection<SpanData> spanDataList) {
+            try {
+                unblock.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            batches.add(new ArrayList<>(spanDataList));
+        }
+
+        List<SpanData> allSpans() {
+            List<SpanData> result = new ArrayList<>();
+            batches.forEach(result::addAll);
+            return result;
+        }
+    }
+
+    private SpanExportQueueSettings settings(int capacity, int batchSize, Duration flushInterval, SpanExportQueueSettings.DropPolicy dropPolicy) {
+        SpanExportQueueSettings settings = new SpanExportQueueSettings();
+        settings.setEnabled(true);
+        settings.setCapacity(capacity);
+        settings.setBatchSize(batchSize);
+        settings.setFlushInterval(flushInterval);
+        settings.setDropPolicy(dropPolicy);
+        return settings;
+    }
+
+    private List<SpanData> createSpans(int count) {
+        List<SpanData> spans = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            spans.add(mock(SpanData.class));
+        }
+        return spans;
+    }
+
+    @AfterEach
+    void shutdown() {
+        if (exportQueue != null) {
+            exportQueue.shutdown();
+        }
+    }
+
+    @Nested
+    class Export {
+
+        @Test
+        void verifySpansExportedInBatches() {
+            StubHandler handler = new StubHandler();
+            exportQueue = new SpanExportQueue("test", handler, settings(100, 10, Duration.ofSeconds(60), SpanExportQueueSettings.DropPolicy.DROP_NEWEST), selfMonitoring);
+            List<SpanData> spans = createSpans(25);
+
+            exportQueue.export(spans);
+            exportQueue.start();
+
+            await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> assertThat(handler.batches).hasSize(2));
+            assertThat(handler.batches).allSatisfy(batch -> assertThat(batch).hasSize(10));
+            exportQueue.shutdown();
+            assertThat(handler.allSpans()).containsExactlyElementsOf(spans);
+            exportQueue = null;
+        }
+
+        @Test
+        void verifyPartialBatchExportedAfterFlushInterval() {
+            StubHandler handler = new StubHandler();
+            exportQueue = new SpanExportQueue("test", handler, settings(100, 10, Duration.ofMillis(50), SpanExportQueueSettings.DropPolicy.DROP_NEWEST), selfMonitoring);
+            exportQueue.start();
+            List<SpanData> spans = createSpans(3);
+
+            exportQueue.export(spans);
+
+            await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> assertThat(handler.allSpans()).containsExactlyElementsOf(spans));
+        }
+
+        @Test
+        void verifyNewestSpansDropped() {
+            StubHandler handler = new StubHandler();
+            exportQueue = new SpanExportQueue("test", handler, settings(5, 5, Duration.ofSeconds(60), SpanExportQueueSettings.DropPolicy.DROP_NEWEST), selfMonitoring);
+            List<SpanData> spans = createSpans(8);
+
+            exportQueue.export(spans);
+            exportQueue.start();
+            exportQueue.shutdown();
+
+            assertThat(handler.allSpans()).containsExactlyElementsOf(spans.subList(0, 5));
+            verify(selfMonitoring).recordMeasurement(eq("span-export-dropped"), eq(3L), eq("span-export-test"));
+            exportQueue = null;
+        }
+
+        @Test
+        void verifyOldestSpansDropped() {
+            StubHandler handler = new StubHandler();
+            exportQueue = new SpanExportQueue("test", handler, settings(5, 5, Duration.ofSeconds(60), SpanExportQueueSettings.DropPolicy.DROP_OLDEST), selfMonitoring);
+            List<SpanData> spans = createSpans(8);
+
+            exportQueue.export(spans);
+            exportQueue.start();
+            exportQueue.shutdown();
+
+            assertThat(handler.allSpans()).containsExactlyElementsOf(spans.subList(3, 8));
+            verify(selfMonitoring).recordMeasurement(eq("span-export-dropped"), eq(3L), eq("span-export-test"));
+            exportQueue = null;
+        }
+
+        @Test
+        void verifySlowExporterDoesNotBlockProducer() {
+            StubHandler handler = new StubHandler();
+            handler.unblock = new CountDownLatch(1);
+            exportQueue = new SpanExportQueue("test", handler, settings(10, 1, Duration.ofMillis(10), SpanExportQueueSettings.DropPolicy.DROP_NEWEST), selfMonitoring);
+            exportQueue.start();
+
+            for (int i = 0; i < 100; i++) {
+                exportQueue.export(createSpans(10));
+            }
+            handler.unblock.countDown();
+
+            await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> {
+                // depending on timing the export thread took one span from the queue before it blocked
+                assertThat(handler.allSpans().size()).isBetween(10, 11);
+                verify(selfMonitoring, atLeastOnce()).recordMeasurement(eq("span-export-dropped"), anyLong(), anyString());
+            });
+        }
+    }
+}
@@ -6,6 +6,7 @@ import io.opencensus.trace.samplers.Samplers;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.TestPropertySource;
 import rocks.inspectit.ocelot.core.SpringTestBase;
@@ -14,6 +15,7 @@ import java.util.concurrent.TimeUnit;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.awaitility.Awaitility.await;
 
 @TestPropertySource(properties = {
@@ -26,6 +28,9 @@ public class ZipkinExporterServiceIntTest extends SpringTestBase {
     public static final String ZIPKIN_PATH = "/api/v2/spans";
     private WireMockServer wireMockServer;
 
+    @Autowired
+    ZipkinExporterService zipkinExporterService;
+
     @BeforeEach
     void setupWiremock() {
         wireMockServer = new WireMockServer(options().port(ZIPKIN_PORT));
@@ -53,4 +58,38 @@ public class ZipkinExporterServiceIntTest extends SpringTestBase {
         });
     }
 
+    @Test
+    void verifySlowCollectorDoesNotBlockApplication() {
+        stubFor(post(urlPathEqualTo(ZIPKIN_PATH))
+                .willReturn(aResponse()
+                        .withFixedDelay(2000)
+                        .withStatus(202)));
+        updateProperties(props -> {
+            props.setProperty("inspectit.exporters.tracing.queue.capacity", "10");
+            props.setProperty("inspectit.exporters.tracing.queue.batch-size", "5");
+            props.setProperty("inspectit.exporters.tracing.queue.flush-interval", "100ms");
+        });
+        SpanExportQueue exportQueue = zipkinExporterService.exportQueue;
+        assertThat(exportQueue).isNotNull();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 200; i++) {
+            Tracing.getTracer().spanBuilder("slowspan" + i)
+                    .setSampler(Samplers.alwaysSample())
+                    .startSpanAndRun(() -> {
+                    });
+        }
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // each request to the collector takes 2 seconds, finishing the spans must not wait for it
+        assertThat(durationMillis).isLessThan(1000);
+        await().atMost(15, TimeUnit.SECONDS).untilAsserted(() -> {
+            assertThat(exportQueue.getTotalDroppedSpans()).isPositive();
+            assertThat(exportQueue.getQueueSize()).isLessThanOrEqualTo(10);
+        });
+        await().atMost(30, TimeUnit.SECONDS).untilAsserted(() -> {
+            verify(postRequestedFor(urlPathEqualTo(ZIPKIN_PATH)).withRequestBody(containing("slowspan0")));
+        });
+        assertThat(exportQueue.getQueueSize()).isLessThanOrEqualTo(10);
+    }
 }
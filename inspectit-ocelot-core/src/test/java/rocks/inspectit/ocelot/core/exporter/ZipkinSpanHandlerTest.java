@@ -0,0 +1,64 @@
+package rocks.inspectit.ocelot.core.exporter;
+
+import io.opencensus.common.Timestamp;
+import io.opencensus.trace.*;
+import io.opencensus.trace.export.SpanData;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import zipkin2.codec.SpanBytesEncoder;
+import zipkin2.reporter.Sender;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+public class ZipkinSpanHandlerTest {
+
+    @Mock
+    Sender sender;
+
+    @Nested
+    class ToZipkinSpan {
+
+        @Test
+        void verifySpanConverted() {
+            ZipkinSpanHandler handler = new ZipkinSpanHandler(SpanBytesEncoder.JSON_V2, sender, "my-service");
+            TraceId traceId = TraceId.fromLowerBase16("0102030405060708090a0b0c0d0e0f10");
+            SpanId spanId = SpanId.fromLowerBase16("0102030405060708");
+            SpanId parentId = SpanId.fromLowerBase16("0807060504030201");
+            SpanData spanData = SpanData.create(
+                    SpanContext.create(traceId, spanId, TraceOptions.builder().setIsSampled(true).build()),
+                    parentId,
+                    false,
+                    "my-span",
+                    Span.Kind.CLIENT,
+                    Timestamp.create(10, 1000),
+                    SpanData.Attributes.create(Collections.singletonMap("key", AttributeValue.longAttributeValue(42)), 0),
+                    SpanData.TimedEvents.create(Collections.emptyList(), 0),
+                    SpanData.TimedEvents.create(Collections.emptyList(), 0),
+                    SpanData.Links.create(Collections.emptyList(), 0),
+                    null,
+                    Status.NOT_FOUND,
+                    Timestamp.create(11, 1000));
+
+            zipkin2.Span span = handler.toZipkinSpan(spanData);
+
+            assertThat(span.traceId()).isEqualTo("0102030405060708090a0b0c0d0e0f10");
+            assertThat(span.id()).isEqualTo("0102030405060708");
+            assertThat(span.parentId()).isEqualTo("0807060504030201");
+            assertThat(span.name()).isEqualTo("my-span");
+            assertThat(span.kind()).isEqualTo(zipkin2.Span.Kind.CLIENT);
+            assertThat(span.timestamp()).isEqualTo(10_000_001L);
+            assertThat(span.duration()).isEqualTo(1_000_000L);
+            assertThat(span.localServiceName()).isEqualTo("my-service");
+            assertThat(span.tags())
+                    .containsEntry("key", "42")
+                    .containsEntry("census.status_code", "NOT_FOUND")
+                    .containsEntry("error", "NOT_FOUND");
+        }
+    }
+}
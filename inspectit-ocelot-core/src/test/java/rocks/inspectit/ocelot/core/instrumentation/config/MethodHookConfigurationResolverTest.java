@@ -76,6 +76,15 @@ public class MethodHookConfigurationResolverTest {
                     .action(providerB).build();
         }
 
+        @Test
+        void verifyOverheadMonitoringFlagTransferred() throws Exception {
+            InstrumentationRule r1 = InstrumentationRule.builder().entryAction(callToA1).build();
+            InstrumentationConfiguration monitoredConfig = config.toBuilder().hookOverheadMonitoringEnabled(true).build();
+
+            assertThat(resolver.buildHookConfiguration(config, Sets.newHashSet(r1)).isOverheadMonitored()).isFalse();
+            assertThat(resolver.buildHookConfiguration(monitoredConfig, Sets.newHashSet(r1)).isOverheadMonitored()).isTrue();
+        }
+
         @Test
         void verifyProviderConflictsDetected() {
             InstrumentationRule r1 = InstrumentationRule.builder().entryAction(callToA1).build();
@@ -213,6 +222,62 @@ public class MethodHookConfigurationResolverTest {
             assertThat(result.getSampleProbability()).isEqualTo("0.5");
         }
 
+        @Test
+        void verifySpanMetricsCombined() throws Exception {
+            InstrumentationRule r1 = InstrumentationRule.builder()
+                    .tracing(RuleTracingSettings.builder()
+                            .startSpan(true)
+                            .durationMetric("my_duration")
+                            .build())
+                    .build();
+            InstrumentationRule r2 = InstrumentationRule.builder()
+                    .tracing(RuleTracingSettings.builder()
+                            .errorMetric("my_errors")
+                            .build())
+                    .build();
+
+            RuleTracingSettings result = resolver.buildHookConfiguration(
+                    config, Sets.newHashSet(r1, r2)).getTracing();
+
+            assertThat(result.getDurationMetric()).isEqualTo("my_duration");
+            assertThat(result.getErrorMetric()).isEqualTo("my_errors");
+        }
+
+        @Test
+        void verifySpanMetricsConflictsDetected() {
+            InstrumentationRule r1 = InstrumentationRule.builder()
+                    .tracing(RuleTracingSettings.builder()
+                            .durationMetric("my_duration")
+                            .build())
+                    .build();
+            InstrumentationRule r2 = InstrumentationRule.builder()
+                    .tracing(RuleTracingSettings.builder()
+                            .durationMetric("other_duration")
+                            .build())
+                    .build();
+
+            assertThatThrownBy(() -> resolver.buildHookConfiguration(config, Sets.newHashSet(r1, r2)))
+                    .isInstanceOf(MethodHookConfigurationResolver.ConflictingDefinitionsException.class);
+        }
+
+        @Test
+        void verifySpanMetricsIgnoredIfMetricsDisabled() throws Exception {
+            config = InstrumentationConfiguration.builder().metricsEnabled(false).build();
+            InstrumentationRule r1 = InstrumentationRule.builder()
+                    .tracing(RuleTracingSettings.builder()
+                            .startSpan(true)
+                            .durationMetric("my_duration")
+                            .errorMetric("my_errors")
+                            .build())
+                    .build();
+
+            RuleTracingSettings result = resolver.buildHookConfiguration(
+                    config, Sets.newHashSet(r1)).getTracing();
+
+            assertThat(result.getDurationMetric()).isNull();
+            assertThat(result.getErrorMetric()).isNull();
+        }
+
 
         @Test
         void verifyProvidersOrderedByDependencies() throws Exception {
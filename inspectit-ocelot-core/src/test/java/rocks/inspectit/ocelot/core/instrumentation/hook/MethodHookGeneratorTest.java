@@ -11,9 +11,12 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import rocks.inspectit.ocelot.core.instrumentation.config.model.MethodHookConfiguration;
 import rocks.inspectit.ocelot.core.instrumentation.context.ContextManager;
+import rocks.inspectit.ocelot.core.selfmonitoring.HookOverheadCounter;
+import rocks.inspectit.ocelot.core.selfmonitoring.HookOverheadMonitor;
 import rocks.inspectit.ocelot.core.testutils.Dummy;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class MethodHookGeneratorTest {
@@ -21,6 +24,9 @@ public class MethodHookGeneratorTest {
     @Mock
     ContextManager contextManager;
 
+    @Mock
+    HookOverheadMonitor hookOverheadMonitor;
+
     @InjectMocks
     MethodHookGenerator generator;
 
@@ -80,5 +86,31 @@ public class MethodHookGeneratorTest {
             assertThat(result.getMethodInformation().getDeclaringClass()).isSameAs(Dummy.class);
         }
 
+        @Test
+        void verifyNoOverheadCounterIfNotMonitored() {
+            MethodDescription method = dummyType.getDeclaredMethods().stream()
+                    .filter(md -> md.getName().equals("doSomething"))
+                    .findFirst().get();
+            MethodHookConfiguration config = MethodHookConfiguration.builder().build();
+
+            MethodHook result = generator.buildHook(Dummy.class, method, config);
+
+            assertThat(result.getOverheadCounter()).isNull();
+            verifyZeroInteractions(hookOverheadMonitor);
+        }
+
+        @Test
+        void verifyOverheadCounterAcquiredIfMonitored() {
+            MethodDescription method = dummyType.getDeclaredMethods().stream()
+                    .filter(md -> md.getName().equals("doSomething"))
+                    .findFirst().get();
+            MethodHookConfiguration config = MethodHookConfiguration.builder().overheadMonitored(true).build();
+            HookOverheadCounter counter = mock(HookOverheadCounter.class);
+            when(hookOverheadMonitor.acquireCounter(Dummy.class.getName() + ".doSomething")).thenReturn(counter);
+
+            MethodHook result = generator.buildHook(Dummy.class, method, config);
+
+            assertThat(result.getOverheadCounter()).isSameAs(counter);
+        }
     }
 }
@@ -0,0 +1,104 @@
+package rocks.inspectit.ocelot.core.instrumentation.hook.actions.span;
+
+import io.opencensus.stats.MeasureMap;
+import io.opencensus.stats.StatsRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import rocks.inspectit.ocelot.core.instrumentation.hook.actions.IHookAction;
+import rocks.inspectit.ocelot.core.metrics.MeasuresAndViewsManager;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EndSpanActionTest {
+
+    @Mock
+    MeasuresAndViewsManager metricsManager;
+
+    @Mock
+    StatsRecorder statsRecorder;
+
+    @Mock
+    MeasureMap measureMap;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    IHookAction.ExecutionContext executionContext;
+
+    @BeforeEach
+    void setupMock() {
+        lenient().when(statsRecorder.newMeasureMap()).thenReturn(measureMap);
+        lenient().when(executionContext.getInspectitContext().enteredSpan()).thenReturn(true);
+    }
+
+    @Nested
+    class Execute {
+
+        @Test
+        void verifyNoMetricsRecordedIfNotConfigured() {
+            EndSpanAction action = EndSpanAction.builder()
+                    .condition(ctx -> true)
+                    .metricsManager(metricsManager)
+                    .statsRecorder(statsRecorder)
+                    .build();
+
+            action.execute(executionContext);
+
+            verifyZeroInteractions(statsRecorder, metricsManager);
+        }
+
+        @Test
+        void verifyDurationRecorded() {
+            when(executionContext.getInspectitContext().getSpanEntryTimestamp()).thenReturn(System.nanoTime());
+            when(metricsManager.tryRecordingMeasurement(eq("my_duration"), same(measureMap), anyDouble())).thenReturn(true);
+            EndSpanAction action = EndSpanAction.builder()
+                    .condition(ctx -> true)
+                    .durationMetric("my_duration")
+                    .errorMetric("my_errors")
+                    .metricsManager(metricsManager)
+                    .statsRecorder(statsRecorder)
+                    .build();
+
+            action.execute(executionContext);
+
+            verify(metricsManager).tryRecordingMeasurement(eq("my_duration"), same(measureMap), anyDouble());
+            verify(metricsManager, never()).tryRecordingMeasurement(eq("my_errors"), any(), any(Number.class));
+            verify(measureMap).record();
+        }
+
+        @Test
+        void verifyErrorRecorded() {
+            when(executionContext.getThrown()).thenReturn(new RuntimeException());
+            EndSpanAction action = EndSpanAction.builder()
+                    .condition(ctx -> true)
+                    .errorMetric("my_errors")
+                    .metricsManager(metricsManager)
+                    .statsRecorder(statsRecorder)
+                    .build();
+
+            action.execute(executionContext);
+
+            verify(metricsManager).tryRecordingMeasurement(eq("my_errors"), same(measureMap), eq((Number) 1L));
+            verify(measureMap).record();
+        }
+
+        @Test
+        void verifyNothingRecordedIfConditionNotMet() {
+            EndSpanAction action = EndSpanAction.builder()
+                    .condition(ctx -> false)
+                    .durationMetric("my_duration")
+                    .metricsManager(metricsManager)
+                    .statsRecorder(statsRecorder)
+                    .build();
+
+            action.execute(executionContext);
+
+            verifyZeroInteractions(statsRecorder, metricsManager);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package rocks.inspectit.ocelot.core.instrumentation.hook.actions.span;
+
+import io.opencensus.common.Scope;
+import io.opencensus.trace.*;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import rocks.inspectit.ocelot.core.instrumentation.hook.actions.IHookAction;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class WriteSpanAttributesActionTest {
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    IHookAction.ExecutionContext executionContext;
+
+    private static class RecordingSpan extends Span {
+
+        List<Map<String, AttributeValue>> writtenAttributes = new ArrayList<>();
+
+        RecordingSpan(boolean sampled) {
+            super(SpanContext.create(TraceId.fromLowerBase16("0123456789abcdef0123456789abcdef"),
+                    SpanId.fromLowerBase16("0123456789abcdef"),
+                    sampled ? TraceOptions.builder().setIsSampled(true).build() : TraceOptions.DEFAULT,
+                    Tracestate.builder().build()), EnumSet.of(Options.RECORD_EVENTS));
+        }
+
+        @Override
+        public void putAttributes(Map<String, AttributeValue> attributes) {
+            writtenAttributes.add(new HashMap<>(attributes));
+        }
+
+        @Override
+        public void addAnnotation(String description, Map<String, AttributeValue> attributes) {
+        }
+
+        @Override
+        public void addAnnotation(Annotation annotation) {
+        }
+
+        @Override
+        public void addLink(Link link) {
+        }
+
+        @Override
+        public void end(EndSpanOptions options) {
+        }
+    }
+
+    @Nested
+    class Execute {
+
+        @Test
+        void verifyAttributesWrittenInSingleCall() {
+            when(executionContext.getInspectitContext().getData("data_a")).thenReturn("a");
+            when(executionContext.getInspectitContext().getData("data_b")).thenReturn(42L);
+            when(executionContext.getInspectitContext().getData("data_c")).thenReturn(null);
+            Map<String, String> attributes = new HashMap<>();
+            attributes.put("attr_a", "data_a");
+            attributes.put("attr_b", "data_b");
+            attributes.put("attr_c", "data_c");
+            WriteSpanAttributesAction action = new WriteSpanAttributesAction(attributes);
+
+            RecordingSpan span = new RecordingSpan(true);
+            try (Scope s = Tracing.getTracer().withSpan(span)) {
+                action.execute(executionContext);
+            }
+
+            assertThat(span.writtenAttributes).hasSize(1);
+            assertThat(span.writtenAttributes.get(0))
+                    .hasSize(2)
+                    .containsEntry("attr_a", AttributeValue.stringAttributeValue("a"))
+                    .containsEntry("attr_b", AttributeValue.stringAttributeValue("42"));
+        }
+
+        @Test
+        void verifyNothingWrittenForUnsampledSpan() {
+            WriteSpanAttributesAction action = new WriteSpanAttributesAction(Collections.singletonMap("attr", "data"));
+
+            RecordingSpan span = new RecordingSpan(false);
+            try (Scope s = Tracing.getTracer().withSpan(span)) {
+                action.execute(executionContext);
+            }
+
+            assertThat(span.writtenAttributes).isEmpty();
+            verify(executionContext.getInspectitContext(), never()).getData(any());
+        }
+
+        @Test
+        void verifyAttributeValueReusedForUnchangedValue() {
+            when(executionContext.getInspectitContext().getData("data")).thenReturn("a", "a", "b");
+            WriteSpanAttributesAction action = new WriteSpanAttributesAction(Collections.singletonMap("attr", "data"));
+
+            RecordingSpan span = new RecordingSpan(true);
+            try (Scope s = Tracing.getTracer().withSpan(span)) {
+                action.execute(executionContext);
+                action.execute(executionContext);
+                action.execute(executionContext);
+            }
+
+            assertThat(span.writtenAttributes).hasSize(3);
+            assertThat(span.writtenAttributes.get(1).get("attr")).isSameAs(span.writtenAttributes.get(0).get("attr"));
+            assertThat(span.writtenAttributes.get(2).get("attr")).isEqualTo(AttributeValue.stringAttributeValue("b"));
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package rocks.inspectit.ocelot.core.metrics;
 
+import io.opencensus.common.Scope;
 import io.opencensus.stats.*;
+import io.opencensus.tags.InternalUtils;
+import io.opencensus.tags.TagContext;
 import io.opencensus.tags.TagKey;
+import io.opencensus.tags.TagValue;
+import io.opencensus.tags.Tags;
 import org.assertj.core.util.Maps;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -12,14 +17,19 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import rocks.inspectit.ocelot.config.model.metrics.StandardPollingMetricsRecorderSettings;
+import rocks.inspectit.ocelot.config.model.metrics.StandardPollingMetricsRecorderSettings.CollectionMode;
 import rocks.inspectit.ocelot.core.config.InspectitEnvironment;
+import rocks.inspectit.ocelot.config.model.metrics.definition.ExponentialBucketsSettings;
 import rocks.inspectit.ocelot.config.model.metrics.definition.MetricDefinitionSettings;
 import rocks.inspectit.ocelot.config.model.metrics.definition.ViewDefinitionSettings;
 import rocks.inspectit.ocelot.core.tags.CommonTagsManager;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static java.util.Collections.emptyMap;
@@ -39,6 +49,9 @@ public class MeasuresAndViewsManagerTest {
     @Mock
     CommonTagsManager commonTagsManager;
 
+    @Mock
+    StatsRecorder statsRecorder;
+
     private final TagKey[] commonTags = {TagKey.create("common-A"), TagKey.create("common-B")};
 
     @InjectMocks
@@ -216,6 +229,75 @@ public class MeasuresAndViewsManagerTest {
 
         }
 
+        @Test
+        void testExponentialBucketsViewCreation() {
+            String metricName = "my-metric";
+            MetricDefinitionSettings metricDefinition = MetricDefinitionSettings.builder()
+                    .unit("my-unit")
+                    .view("custom-view", ViewDefinitionSettings.builder()
+                            .aggregation(ViewDefinitionSettings.Aggregation.HISTOGRAM)
+                            .exponentialBuckets(ExponentialBucketsSettings.builder().start(0.5).factor(2.0).count(4).build())
+                            .build())
+                    .build()
+                    .getCopyWithDefaultsPopulated(metricName);
+
+            manager.addOrUpdateAndCacheMeasureWithViews(metricName, metricDefinition, emptyMap(), emptyMap());
+
+            ArgumentCaptor<View> viewArg = ArgumentCaptor.forClass(View.class);
+            verify(viewManager, times(1)).registerView(viewArg.capture());
+            View view = viewArg.getValue();
+
+            assertThat(view.getAggregation()).isInstanceOf(Aggregation.Distribution.class);
+            assertThat(((Aggregation.Distribution) view.getAggregation()).getBucketBoundaries().getBoundaries())
+                    .containsExactly(0.5, 1.0, 2.0, 4.0);
+        }
+
+        @Test
+        void testLastValueViewOfPulledMeasureNotRegistered() {
+            StandardPollingMetricsRecorderSettings memorySettings = new StandardPollingMetricsRecorderSettings();
+            memorySettings.setCollectionMode(CollectionMode.PULL);
+            when(environment.getCurrentConfig().getMetrics().getMemory()).thenReturn(memorySettings);
+            String metricName = "jvm/memory/used";
+            MetricDefinitionSettings metricDefinition = MetricDefinitionSettings.builder()
+                    .unit("bytes")
+                    .view("jvm/memory/used", ViewDefinitionSettings.builder().build())
+                    .view("jvm/memory/used/sum", ViewDefinitionSettings.builder()
+                            .aggregation(ViewDefinitionSettings.Aggregation.SUM)
+                            .build())
+                    .build()
+                    .getCopyWithDefaultsPopulated(metricName);
+
+            manager.addOrUpdateAndCacheMeasureWithViews(metricName, metricDefinition, emptyMap(), emptyMap());
+
+            ArgumentCaptor<View> viewArg = ArgumentCaptor.forClass(View.class);
+            verify(viewManager, times(1)).registerView(viewArg.capture());
+            assertThat(viewArg.getValue().getName().asString()).isEqualTo("jvm/memory/used/sum");
+            assertThat(manager.getPulledViews(metricName))
+                    .hasSize(1)
+                    .allSatisfy(view -> {
+                        assertThat(view.getName().asString()).isEqualTo("jvm/memory/used");
+                        assertThat(view.getAggregation()).isInstanceOf(Aggregation.LastValue.class);
+                        assertThat(view.getMeasure()).isSameAs(manager.getMeasure(metricName).get());
+                    });
+        }
+
+        @Test
+        void testLastValueViewOfPolledMeasureRegistered() {
+            StandardPollingMetricsRecorderSettings memorySettings = new StandardPollingMetricsRecorderSettings();
+            memorySettings.setCollectionMode(CollectionMode.POLLING);
+            when(environment.getCurrentConfig().getMetrics().getMemory()).thenReturn(memorySettings);
+            String metricName = "jvm/memory/used";
+            MetricDefinitionSettings metricDefinition = MetricDefinitionSettings.builder()
+                    .unit("bytes")
+                    .build()
+                    .getCopyWithDefaultsPopulated(metricName);
+
+            manager.addOrUpdateAndCacheMeasureWithViews(metricName, metricDefinition, emptyMap(), emptyMap());
+
+            verify(viewManager, times(1)).registerView(any());
+            assertThat(manager.getPulledViews(metricName)).isEmpty();
+        }
+
         @Test
         void testCommonTagsCanBeDisabled() {
             lenient().when(commonTagsManager.getCommonTagKeys()).thenReturn(Arrays.asList(commonTags));
@@ -336,4 +418,145 @@ public class MeasuresAndViewsManagerTest {
         }
     }
 
+
+    @Nested
+    class CardinalityLimits {
+
+        @Mock
+        MeasureMap measureMap;
+
+        @Mock
+        MeasureMap overflowMap;
+
+        private final TagKey pathTag = TagKey.create("path");
+
+        private final TagKey methodTag = TagKey.create("method");
+
+        private static final String METRIC = "my-metric";
+
+        private void defineMetric(Integer maxCardinality) {
+            MetricDefinitionSettings metricDefinition = MetricDefinitionSettings.builder()
+                    .unit("my-unit")
+                    .view("limited-view", ViewDefinitionSettings.builder()
+                            .withCommonTags(false)
+                            .tag("path", true)
+                            .tag("method", true)
+                            .maxCardinality(maxCardinality)
+                            .build())
+                    .view("other-view", ViewDefinitionSettings.builder()
+                            .withCommonTags(false)
+                            .tag("path", true)
+                            .build())
+                    .build()
+                    .getCopyWithDefaultsPopulated(METRIC);
+            manager.addOrUpdateAndCacheMeasureWithViews(METRIC, metricDefinition, emptyMap(), emptyMap());
+        }
+
+        private Map<String, Measure.MeasureDouble> getViewMeasures() {
+            ArgumentCaptor<View> viewArg = ArgumentCaptor.forClass(View.class);
+            verify(viewManager, atLeastOnce()).registerView(viewArg.capture());
+            return viewArg.getAllValues().stream()
+                    .collect(Collectors.toMap(v -> v.getName().asString(), v -> (Measure.MeasureDouble) v.getMeasure(), (first, second) -> second));
+        }
+
+        private void record(String path, String method) {
+            TagContext tags = Tags.getTagger().emptyBuilder()
+                    .put(pathTag, TagValue.create(path))
+                    .put(methodTag, TagValue.create(method))
+                    .build();
+            try (Scope scope = Tags.getTagger().withTagContext(tags)) {
+                manager.tryRecordingMeasurement(METRIC, measureMap, 1.0);
+            }
+        }
+
+        private Map<TagKey, TagValue> asMap(TagContext tags) {
+            Map<TagKey, TagValue> result = new HashMap<>();
+            InternalUtils.getTags(tags).forEachRemaining(tag -> result.put(tag.getKey(), tag.getValue()));
+            return result;
+        }
+
+        @Test
+        void verifyUnlimitedMetric() {
+            defineMetric(null);
+
+            record("/a", "GET");
+
+            Map<String, Measure.MeasureDouble> viewMeasures = getViewMeasures();
+            assertThat(viewMeasures.get("limited-view").getName()).isEqualTo(METRIC);
+            assertThat(viewMeasures.get("other-view").getName()).isEqualTo(METRIC);
+            verify(measureMap).put(viewMeasures.get("other-view"), 1.0);
+            verifyNoMoreInteractions(measureMap);
+            assertThat(manager.getCardinalityLimiters()).isEmpty();
+        }
+
+        @Test
+        void verifyLimitedViewRegisteredWithOwnMeasure() {
+            defineMetric(2);
+
+            Map<String, Measure.MeasureDouble> viewMeasures = getViewMeasures();
+            Measure.MeasureDouble limitedMeasure = viewMeasures.get("limited-view");
+            assertThat(limitedMeasure.getName()).isEqualTo(METRIC + "#limited-view");
+            assertThat(limitedMeasure.getUnit()).isEqualTo("my-unit");
+            assertThat(viewMeasures.get("other-view").getName()).isEqualTo(METRIC);
+        }
+
+        @Test
+        void verifyCombinationsWithinLimitAdmitted() {
+            defineMetric(2);
+
+            record("/a", "GET");
+            record("/b", "GET");
+            record("/a", "GET");
+
+            Map<String, Measure.MeasureDouble> viewMeasures = getViewMeasures();
+            verify(measureMap, times(3)).put(viewMeasures.get("other-view"), 1.0);
+            verify(measureMap, times(3)).put(viewMeasures.get("limited-view"), 1.0);
+            verifyNoMoreInteractions(measureMap);
+            verifyZeroInteractions(statsRecorder);
+        }
+
+        @Test
+        void verifyOverflowRecordedOnlyForLimitedView() {
+            defineMetric(1);
+            when(statsRecorder.newMeasureMap()).thenReturn(overflowMap);
+
+            record("/a", "GET");
+            record("/b", "POST");
+
+            Map<String, Measure.MeasureDouble> viewMeasures = getViewMeasures();
+            // the other view of the same measure receives both measurements via the shared map with their actual tags
+            verify(measureMap, times(2)).put(viewMeasures.get("other-view"), 1.0);
+            verify(measureMap).put(viewMeasures.get("limited-view"), 1.0);
+            verifyNoMoreInteractions(measureMap);
+            ArgumentCaptor<TagContext> overflowTags = ArgumentCaptor.forClass(TagContext.class);
+            verify(overflowMap).put(viewMeasures.get("limited-view"), 1.0);
+            verify(overflowMap).record(overflowTags.capture());
+            verifyNoMoreInteractions(overflowMap);
+            assertThat(asMap(overflowTags.getValue()))
+                    .containsEntry(pathTag, ViewCardinalityLimiter.OVERFLOW_TAG_VALUE)
+                    .containsEntry(methodTag, ViewCardinalityLimiter.OVERFLOW_TAG_VALUE);
+            assertThat(manager.getCardinalityLimiters())
+                    .hasSize(1)
+                    .allSatisfy(limiter -> assertThat(limiter.getAndResetOverflowCount()).isEqualTo(1));
+        }
+
+        @Test
+        void verifyLimiterKeptOnUpdate() {
+            defineMetric(1);
+            View limitedView = mock(View.class);
+            when(limitedView.getMeasure()).thenReturn(getViewMeasures().get("limited-view"));
+
+            MetricDefinitionSettings unlimited = MetricDefinitionSettings.builder()
+                    .unit("my-unit")
+                    .view("limited-view", ViewDefinitionSettings.builder().withCommonTags(false).build())
+                    .build()
+                    .getCopyWithDefaultsPopulated(METRIC);
+            manager.addOrUpdateAndCacheMeasureWithViews(METRIC, unlimited, emptyMap(), Maps.newHashMap("limited-view", limitedView));
+
+            // the view is still registered with its own measure, so the limit cannot be removed
+            assertThat(manager.getCardinalityLimiters())
+                    .extracting(ViewCardinalityLimiter::getViewName)
+                    .containsExactly("limited-view");
+        }
+    }
 }
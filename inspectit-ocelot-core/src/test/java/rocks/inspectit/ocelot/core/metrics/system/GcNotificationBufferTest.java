@@ -0,0 +1,58 @@
+package rocks.inspectit.ocelot.core.metrics.system;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import javax.management.openmbean.CompositeData;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class GcNotificationBufferTest {
+
+    @Nested
+    class OfferAndPoll {
+
+        @Test
+        void verifyFifoOrderAcrossWrapAround() {
+            GcNotificationBuffer buffer = new GcNotificationBuffer(2);
+            CompositeData first = mock(CompositeData.class);
+            CompositeData second = mock(CompositeData.class);
+            CompositeData third = mock(CompositeData.class);
+
+            buffer.offer(first);
+            buffer.offer(second);
+            assertThat(buffer.poll()).isSameAs(first);
+            buffer.offer(third);
+
+            assertThat(buffer.poll()).isSameAs(second);
+            assertThat(buffer.poll()).isSameAs(third);
+            assertThat(buffer.poll()).isNull();
+        }
+
+        @Test
+        void verifyDroppedWhenFull() {
+            GcNotificationBuffer buffer = new GcNotificationBuffer(1);
+            CompositeData first = mock(CompositeData.class);
+
+            assertThat(buffer.offer(first)).isTrue();
+            assertThat(buffer.offer(mock(CompositeData.class))).isFalse();
+            assertThat(buffer.offer(mock(CompositeData.class))).isFalse();
+
+            assertThat(buffer.getAndResetDroppedCount()).isEqualTo(2);
+            assertThat(buffer.getAndResetDroppedCount()).isZero();
+            assertThat(buffer.poll()).isSameAs(first);
+        }
+
+        @Test
+        void verifyClear() {
+            GcNotificationBuffer buffer = new GcNotificationBuffer(4);
+            buffer.offer(mock(CompositeData.class));
+            buffer.offer(mock(CompositeData.class));
+
+            buffer.clear();
+
+            assertThat(buffer.poll()).isNull();
+        }
+    }
+}
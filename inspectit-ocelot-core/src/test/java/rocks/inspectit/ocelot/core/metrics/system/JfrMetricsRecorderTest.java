@@ -0,0 +1,105 @@
+package rocks.inspectit.ocelot.core.metrics.system;
+
+import io.opencensus.stats.MeasureMap;
+import io.opencensus.stats.StatsRecorder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import rocks.inspectit.ocelot.config.model.InspectitConfig;
+import rocks.inspectit.ocelot.config.model.metrics.JfrMetricsSettings;
+import rocks.inspectit.ocelot.core.metrics.MeasuresAndViewsManager;
+import rocks.inspectit.ocelot.core.tags.CommonTagsManager;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.condition.JRE.JAVA_13;
+import static org.junit.jupiter.api.condition.JRE.JAVA_14;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class JfrMetricsRecorderTest {
+
+    @Mock
+    StatsRecorder statsRecorder;
+
+    @Mock
+    MeasuresAndViewsManager measureManager;
+
+    @Mock
+    CommonTagsManager commonTags;
+
+    @InjectMocks
+    JfrMetricsRecorder recorder;
+
+    @AfterEach
+    void disable() {
+        recorder.doDisable();
+    }
+
+    private InspectitConfig createConfig(String metric) {
+        JfrMetricsSettings jfr = new JfrMetricsSettings();
+        jfr.setEnabled(Collections.singletonMap(metric, true));
+        jfr.setThreshold(Duration.ZERO);
+        InspectitConfig config = new InspectitConfig();
+        config.getMetrics().setJfr(jfr);
+        return config;
+    }
+
+    @Nested
+    @EnabledForJreRange(max = JAVA_13)
+    class WithoutEventStreaming {
+
+        @Test
+        void verifyRecorderNotEnabled() {
+            InspectitConfig config = createConfig("file.write");
+
+            assertThat(JfrEventStream.isSupported()).isFalse();
+            assertThat(recorder.checkEnabledForConfig(config.getMetrics())).isFalse();
+        }
+    }
+
+    @Nested
+    @EnabledForJreRange(min = JAVA_14)
+    class WithEventStreaming {
+
+        @TempDir
+        Path tempDir;
+
+        @Test
+        void verifyFileWriteRecorded() {
+            InspectitConfig config = createConfig("file.write");
+            MeasureMap measureMap = mock(MeasureMap.class);
+            when(statsRecorder.newMeasureMap()).thenReturn(measureMap);
+
+            assertThat(JfrEventStream.isSupported()).isTrue();
+            assertThat(recorder.checkEnabledForConfig(config.getMetrics())).isTrue();
+            assertThat(recorder.doEnable(config)).isTrue();
+
+            // the stream starts asynchronously, so events are only captured after a short while
+            await().atMost(30, TimeUnit.SECONDS).untilAsserted(() -> {
+                writeFile(4711);
+                verify(measureManager, atLeastOnce()).tryRecordingMeasurement(eq("jfr/file/write"), same(measureMap), eq(4711L));
+            });
+        }
+
+        private void writeFile(int size) throws IOException {
+            try (FileOutputStream out = new FileOutputStream(tempDir.resolve("jfr-test").toFile())) {
+                out.write(new byte[size]);
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package rocks.inspectit.ocelot.core.metrics.system;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LinuxProcessStatsTest {
+
+    private LinuxProcessStats stats;
+
+    private Path tempDirectory;
+
+    @BeforeEach
+    void createTempDirectory() throws IOException {
+        tempDirectory = Files.createTempDirectory("linux-process-stats");
+    }
+
+    private LinuxProcessStats createForFixture(String fixture) throws URISyntaxException {
+        File root = new File(getClass().getResource("/linux-fixtures/" + fixture).toURI());
+        return new LinuxProcessStats(new File(root, "proc/self"), new File(root, "sys/fs/cgroup"));
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        if (stats != null) {
+            stats.close();
+        }
+        FileUtils.deleteDirectory(tempDirectory.toFile());
+    }
+
+    @Nested
+    class ProcessValues {
+
+        @Test
+        void verifyProcFilesParsed() throws Exception {
+            stats = createForFixture("v2");
+
+            stats.update();
+
+            assertThat(stats.isAvailable()).isTrue();
+            assertThat(stats.getCpuTimeMillis()).isEqualTo(19500);
+            assertThat(stats.getRssBytes()).isEqualTo(262144L * 1024);
+            assertThat(stats.getVoluntaryContextSwitches()).isEqualTo(200);
+            assertThat(stats.getInvoluntaryContextSwitches()).isEqualTo(10);
+            assertThat(stats.getReadBytes()).isEqualTo(40960);
+            assertThat(stats.getWriteBytes()).isEqualTo(8192);
+        }
+
+        @Test
+        void verifyUnavailableWithoutProcFileSystem() {
+            stats = new LinuxProcessStats(tempDirectory.toFile(), tempDirectory.toFile());
+
+            stats.update();
+
+            assertThat(stats.isAvailable()).isFalse();
+            assertThat(stats.isCgroupAvailable()).isFalse();
+            assertThat(stats.getCpuTimeMillis()).isEqualTo(ProcFileReader.UNAVAILABLE);
+            assertThat(stats.getRssBytes()).isEqualTo(ProcFileReader.UNAVAILABLE);
+            assertThat(stats.getThrottledTimeMillis()).isEqualTo(ProcFileReader.UNAVAILABLE);
+        }
+
+        @Test
+        void verifyValuesRefreshedOnUpdate() throws Exception {
+            Path status = tempDirectory.resolve("status");
+            Files.write(status, "VmRSS:\t 100 kB\n".getBytes());
+            stats = new LinuxProcessStats(tempDirectory.toFile(), tempDirectory.toFile());
+            stats.update();
+            assertThat(stats.getRssBytes()).isEqualTo(100 * 1024);
+
+            Files.write(status, "Name:\tjava\nVmRSS:\t 200 kB\n".getBytes());
+            stats.update();
+
+            assertThat(stats.getRssBytes()).isEqualTo(200 * 1024);
+        }
+    }
+
+    @Nested
+    class ContextSwitches {
+
+        private void writeTaskStatus(String taskId, int voluntary, int involuntary) throws IOException {
+            Path taskDir = Files.createDirectories(tempDirectory.resolve("task").resolve(taskId));
+            String content = "Name:\tjava\nvoluntary_ctxt_switches:\t" + voluntary + "\nnonvoluntary_ctxt_switches:\t" + involuntary + "\n";
+            Files.write(taskDir.resolve("status"), content.getBytes());
+        }
+
+        @Test
+        void verifyNewThreadsAdded() throws Exception {
+            writeTaskStatus("100", 10, 1);
+            stats = new LinuxProcessStats(tempDirectory.toFile(), tempDirectory.toFile());
+            stats.update();
+            assertThat(stats.getVoluntaryContextSwitches()).isEqualTo(10);
+
+            writeTaskStatus("101", 5, 2);
+            stats.update();
+
+            assertThat(stats.getVoluntaryContextSwitches()).isEqualTo(15);
+            assertThat(stats.getInvoluntaryContextSwitches()).isEqualTo(3);
+        }
+
+        @Test
+        void verifyExitedThreadsKept() throws Exception {
+            writeTaskStatus("100", 10, 1);
+            writeTaskStatus("101", 5, 2);
+            stats = new LinuxProcessStats(tempDirectory.toFile(), tempDirectory.toFile());
+            stats.update();
+
+            FileUtils.deleteDirectory(tempDirectory.resolve("task").resolve("101").toFile());
+            writeTaskStatus("100", 20, 1);
+            stats.update();
+
+            assertThat(stats.getVoluntaryContextSwitches()).isEqualTo(25);
+            assertThat(stats.getInvoluntaryContextSwitches()).isEqualTo(3);
+
+            stats.update();
+
+            assertThat(stats.getVoluntaryContextSwitches()).isEqualTo(25);
+        }
+
+        @Test
+        void verifyReplacedTaskStatusRead() throws Exception {
+            writeTaskStatus("100", 10, 1);
+            stats = new LinuxProcessStats(tempDirectory.toFile(), tempDirectory.toFile());
+            stats.update();
+
+            Files.delete(tempDirectory.resolve("task").resolve("100").resolve("status"));
+            writeTaskStatus("100", 30, 4);
+            stats.update();
+
+            assertThat(stats.getVoluntaryContextSwitches()).isEqualTo(30);
+            assertThat(stats.getInvoluntaryContextSwitches()).isEqualTo(4);
+        }
+
+        @Test
+        void verifyUnavailableWithoutTaskDirectory() {
+            stats = new LinuxProcessStats(tempDirectory.toFile(), tempDirectory.toFile());
+
+            stats.update();
+
+            assertThat(stats.getVoluntaryContextSwitches()).isEqualTo(ProcFileReader.UNAVAILABLE);
+            assertThat(stats.getInvoluntaryContextSwitches()).isEqualTo(ProcFileReader.UNAVAILABLE);
+        }
+    }
+
+    @Nested
+    class CgroupValues {
+
+        @Test
+        void verifyCgroupV2() throws Exception {
+            stats = createForFixture("v2");
+
+            stats.update();
+
+            assertThat(stats.isCgroupAvailable()).isTrue();
+            assertThat(stats.getThrottledTimeMillis()).isEqualTo(1250);
+            assertThat(stats.getThrottledPeriods()).isEqualTo(25);
+            assertThat(stats.getCgroupMemoryBytes()).isEqualTo(536870912L);
+        }
+
+        @Test
+        void verifyCgroupV1WithNamespace() throws Exception {
+            stats = createForFixture("v1");
+
+            stats.update();
+
+            assertThat(stats.isCgroupAvailable()).isTrue();
+            assertThat(stats.getThrottledTimeMillis()).isEqualTo(3500);
+            assertThat(stats.getThrottledPeriods()).isEqualTo(12);
+            assertThat(stats.getCgroupMemoryBytes()).isEqualTo(268435456L);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package rocks.inspectit.ocelot.core.metrics.system;
+
+import io.opencensus.metrics.LabelValue;
+import io.opencensus.metrics.Metrics;
+import io.opencensus.metrics.export.Metric;
+import io.opencensus.metrics.export.MetricDescriptor;
+import io.opencensus.metrics.export.MetricProducer;
+import io.opencensus.metrics.export.TimeSeries;
+import io.opencensus.stats.Aggregation;
+import io.opencensus.stats.Measure;
+import io.opencensus.stats.Stats;
+import io.opencensus.stats.View;
+import io.opencensus.tags.TagKey;
+import io.opencensus.tags.TagValue;
+import io.opencensus.tags.Tags;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import rocks.inspectit.ocelot.config.model.metrics.MetricsSettings;
+import rocks.inspectit.ocelot.config.model.metrics.StandardPollingMetricsRecorderSettings;
+import rocks.inspectit.ocelot.config.model.metrics.StandardPollingMetricsRecorderSettings.CollectionMode;
+import rocks.inspectit.ocelot.core.metrics.MeasuresAndViewsManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ScrapeTimeMeasurementTriggerTest {
+
+    ScrapeTimeMeasurementTrigger trigger = new ScrapeTimeMeasurementTrigger();
+
+    MeasuresAndViewsManager measureManager = mock(MeasuresAndViewsManager.class);
+
+    @BeforeEach
+    void init() {
+        trigger.statsRecorder = Stats.getStatsRecorder();
+        trigger.measureManager = measureManager;
+    }
+
+    @AfterEach
+    void unregister() {
+        trigger.unregister();
+    }
+
+    @Nested
+    class AddMeasurementTask {
+
+        @Test
+        void verifyRegisteredAlongsideExistingProducers() {
+            Set<MetricProducer> existingProducers = Metrics.getExportComponent().getMetricProducerManager().getAllMetricProducer();
+
+            trigger.addMeasurementTask(() -> {
+            });
+
+            assertThat(Metrics.getExportComponent().getMetricProducerManager().getAllMetricProducer())
+                    .containsAll(existingProducers)
+                    .contains(trigger)
+                    .hasSize(existingProducers.size() + 1);
+        }
+    }
+
+    @Nested
+    class RemoveMeasurementTask {
+
+        @Test
+        void verifyUnregisteredWithoutTasks() {
+            Set<MetricProducer> existingProducers = Metrics.getExportComponent().getMetricProducerManager().getAllMetricProducer();
+            Runnable first = () -> {
+            };
+            Runnable second = () -> {
+            };
+            trigger.addMeasurementTask(first);
+            trigger.addMeasurementTask(second);
+
+            trigger.removeMeasurementTask(first);
+
+            assertThat(Metrics.getExportComponent().getMetricProducerManager().getAllMetricProducer()).contains(trigger);
+
+            trigger.removeMeasurementTask(second);
+
+            assertThat(Metrics.getExportComponent().getMetricProducerManager().getAllMetricProducer()).isEqualTo(existingProducers);
+        }
+    }
+
+    @Nested
+    class IsPulledMeasure {
+
+        @Test
+        void verifyRecorderCollectionModeUsed() {
+            MetricsSettings settings = new MetricsSettings();
+            StandardPollingMetricsRecorderSettings memory = new StandardPollingMetricsRecorderSettings();
+            memory.setCollectionMode(CollectionMode.PULL);
+            settings.setMemory(memory);
+            StandardPollingMetricsRecorderSettings disk = new StandardPollingMetricsRecorderSettings();
+            disk.setCollectionMode(CollectionMode.POLLING);
+            settings.setDisk(disk);
+
+            assertThat(ScrapeTimeMeasurementTrigger.isPulledMeasure("jvm/memory/used", settings)).isTrue();
+            assertThat(ScrapeTimeMeasurementTrigger.isPulledMeasure("disk/free", settings)).isFalse();
+            assertThat(ScrapeTimeMeasurementTrigger.isPulledMeasure("my/custom/metric", settings)).isFalse();
+        }
+    }
+
+    @Nested
+    class GetMetrics {
+
+        @Test
+        void verifyTasksExecuted() {
+            AtomicInteger counter = new AtomicInteger();
+            trigger.addMeasurementTask(counter::incrementAndGet);
+
+            trigger.getMetrics();
+            trigger.getMetrics();
+
+            assertThat(counter.get()).isEqualTo(2);
+        }
+
+        @Test
+        void verifyRemovedTaskNotExecuted() {
+            AtomicInteger counter = new AtomicInteger();
+            Runnable task = counter::incrementAndGet;
+            trigger.addMeasurementTask(task);
+            trigger.removeMeasurementTask(task);
+
+            trigger.getMetrics();
+
+            assertThat(counter.get()).isZero();
+        }
+
+        @Test
+        void verifyFailingTaskDoesNotAffectOthers() {
+            AtomicInteger counter = new AtomicInteger();
+            trigger.addMeasurementTask(() -> {
+                throw new RuntimeException();
+            });
+            trigger.addMeasurementTask(counter::incrementAndGet);
+
+            trigger.getMetrics();
+
+            assertThat(counter.get()).isEqualTo(1);
+        }
+
+        @Test
+        void verifyScrapeReturnsValueReadDuringScrape() {
+            Measure.MeasureLong measure = Measure.MeasureLong.create("scrape-test/value", "desc", "By");
+            TagKey tagKey = TagKey.create("scrape-test-tag");
+            View view = View.create(View.Name.create("scrape-test/value"), "desc", measure,
+                    Aggregation.LastValue.create(), Collections.singletonList(tagKey));
+            when(measureManager.getPulledViews("scrape-test/value")).thenReturn(Collections.singletonList(view));
+            AtomicLong source = new AtomicLong();
+            trigger.addMeasurementTask(() -> trigger.getStatsRecorder().newMeasureMap()
+                    .put(measure, source.get())
+                    .record(Tags.getTagger().emptyBuilder().put(tagKey, TagValue.create("a")).build()));
+
+            source.set(42);
+            Collection<Metric> firstScrape = trigger.getMetrics();
+            source.set(43);
+            Collection<Metric> secondScrape = trigger.getMetrics();
+
+            assertThat(getPoints(firstScrape)).containsExactly(42L);
+            assertThat(getPoints(secondScrape)).containsExactly(43L);
+        }
+
+        private List<Long> getPoints(Collection<Metric> metrics) {
+            List<Metric> viewMetrics = metrics.stream()
+                    .filter(metric -> metric.getMetricDescriptor().getName().equals("scrape-test/value"))
+                    .collect(Collectors.toList());
+            assertThat(viewMetrics).hasSize(1);
+            Metric metric = viewMetrics.get(0);
+            assertThat(metric.getMetricDescriptor().getType()).isEqualTo(MetricDescriptor.Type.GAUGE_INT64);
+            assertThat(metric.getTimeSeriesList()).hasSize(1);
+            TimeSeries series = metric.getTimeSeriesList().get(0);
+            assertThat(series.getLabelValues()).containsExactly(LabelValue.create("a"));
+            return series.getPoints().stream()
+                    .map(point -> point.getValue().match(d -> null, l -> l, d -> null, s -> null, v -> null))
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package rocks.inspectit.ocelot.core.metrics.system;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ThreadContentionSamplerTest {
+
+    private final ThreadContentionSampler sampler = new ThreadContentionSampler();
+
+    @Nested
+    class Sample {
+
+        @Test
+        void verifyNoDeltasForFirstSample() {
+            boolean result = sampler.sample(new long[]{1, 2}, new long[]{5, 5}, new long[]{10, 10}, 2);
+
+            assertThat(result).isFalse();
+        }
+
+        @Test
+        void verifyDeltasSummedOverThreads() {
+            sampler.sample(new long[]{1, 2}, new long[]{5, 7}, new long[]{10, 20}, 2);
+
+            boolean result = sampler.sample(new long[]{1, 2}, new long[]{6, 10}, new long[]{15, 30}, 2);
+
+            assertThat(result).isTrue();
+            assertThat(sampler.getBlockedCountDelta()).isEqualTo(4);
+            assertThat(sampler.getBlockedTimeDelta()).isEqualTo(15);
+        }
+
+        @Test
+        void verifyStartedAndTerminatedThreads() {
+            sampler.sample(new long[]{1, 3}, new long[]{5, 100}, new long[]{10, 100}, 2);
+
+            sampler.sample(new long[]{1, 4, 0}, new long[]{6, 2, 0}, new long[]{10, 3, 0}, 2);
+
+            assertThat(sampler.getBlockedCountDelta()).isEqualTo(3);
+            assertThat(sampler.getBlockedTimeDelta()).isEqualTo(3);
+        }
+
+        @Test
+        void verifyUnavailableTimesIgnored() {
+            sampler.sample(new long[]{1, 2}, new long[]{5, 5}, new long[]{-1, 10}, 2);
+
+            sampler.sample(new long[]{1, 2}, new long[]{5, 5}, new long[]{50, -1}, 2);
+
+            assertThat(sampler.getBlockedTimeDelta()).isZero();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package rocks.inspectit.ocelot.core.metrics.system;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class ThreadPoolActivitySamplerTest {
+
+    private static final long SECOND = 1000L * 1000L * 1000L;
+
+    private ThreadPoolActivitySampler sampler;
+
+    @BeforeEach
+    void init() {
+        sampler = new ThreadPoolActivitySampler(Pattern.compile("(.*?)[-_#\\s]*\\d*"));
+    }
+
+    private IntFunction<String> names(String... names) {
+        return index -> names[index];
+    }
+
+    private Map<String, Double> cpuUsagePerPool() {
+        Map<String, Double> result = new HashMap<>();
+        for (int i = 0; i < sampler.getPoolCount(); i++) {
+            result.put(sampler.getPoolName(i), sampler.getCpuUsage(i));
+        }
+        return result;
+    }
+
+    @Nested
+    class Sample {
+
+        @Test
+        void verifyNoRatesForFirstSample() {
+            boolean result = sampler.sample(new long[]{1, 2}, new long[]{100, 200}, new long[]{10, 20}, names("main", "worker-1"), 0);
+
+            assertThat(result).isFalse();
+        }
+
+        @Test
+        void verifyRatesAggregatedPerPool() {
+            sampler.sample(new long[]{1, 5, 7}, new long[]{0, 0, 0}, new long[]{0, 0, 0}, names("main", "worker-1", "worker-2"), 0);
+
+            boolean result = sampler.sample(new long[]{1, 5, 7}, new long[]{SECOND / 2, SECOND / 4, SECOND / 4}, new long[]{1000, 3000, 6000},
+                    index -> {
+                        throw new IllegalStateException("known threads must not be resolved again");
+                    }, 2 * SECOND);
+
+            assertThat(result).isTrue();
+            assertThat(sampler.getPoolCount()).isEqualTo(2);
+            assertThat(cpuUsagePerPool())
+                    .containsEntry("main", 0.25)
+                    .containsEntry("worker", 0.25);
+            assertThat(sampler.getAllocationRate(0)).isCloseTo(500.0, within(0.001));
+            assertThat(sampler.getAllocationRate(1)).isCloseTo(4500.0, within(0.001));
+        }
+
+        @Test
+        void verifyNewAndTerminatedThreadsHandled() {
+            sampler.sample(new long[]{1, 3}, new long[]{100, 100}, new long[]{0, 0}, names("main", "worker-1"), 0);
+
+            sampler.sample(new long[]{1, 4}, new long[]{100, 300}, new long[]{0, 0}, names("main", "worker-2"), SECOND);
+
+            assertThat(cpuUsagePerPool())
+                    .containsEntry("main", 0.0)
+                    .containsEntry("worker", 300.0 / SECOND);
+        }
+
+        @Test
+        void verifyUnavailableValuesIgnored() {
+            sampler.sample(new long[]{1, 2}, new long[]{100, -1}, new long[]{-1, -1}, names("main", "other"), 0);
+
+            sampler.sample(new long[]{1, 2}, new long[]{200, 500}, new long[]{-1, -1}, names("main", "other"), SECOND);
+
+            assertThat(cpuUsagePerPool())
+                    .containsEntry("main", 100.0 / SECOND)
+                    .containsEntry("other", 0.0);
+            assertThat(sampler.getAllocationRate(0)).isZero();
+        }
+
+        @Test
+        void verifyPoolsWithoutThreadsRemoved() {
+            sampler.sample(new long[]{1, 3}, new long[]{100, 100}, new long[]{0, 0}, names("main", "worker-1"), 0);
+            int generation = sampler.getPoolGeneration();
+
+            sampler.sample(new long[]{1}, new long[]{200}, new long[]{0}, names("main"), SECOND);
+
+            // the pool is reported once without activity
+            assertThat(cpuUsagePerPool())
+                    .containsEntry("main", 100.0 / SECOND)
+                    .containsEntry("worker", 0.0);
+            assertThat(sampler.getPoolGeneration()).isEqualTo(generation);
+
+            sampler.sample(new long[]{1, 4}, new long[]{400, 100}, new long[]{0, 0}, names("main", "other-1"), 2 * SECOND);
+
+            assertThat(sampler.getPoolGeneration()).isNotEqualTo(generation);
+            assertThat(sampler.getPoolCount()).isEqualTo(2);
+            assertThat(cpuUsagePerPool())
+                    .containsOnlyKeys("main", "other")
+                    .containsEntry("main", 200.0 / SECOND)
+                    .containsEntry("other", 100.0 / SECOND);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package rocks.inspectit.ocelot.core.profiler;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CallTreeTest {
+
+    private CallTree tree;
+
+    private StackFrameTable frames;
+
+    @BeforeEach
+    void init() {
+        tree = new CallTree();
+        frames = new StackFrameTable();
+    }
+
+    /**
+     * Creates a stack trace with the innermost frame first.
+     */
+    private StackTraceElement[] stack(String... methodsInnermostFirst) {
+        StackTraceElement[] result = new StackTraceElement[methodsInnermostFirst.length];
+        for (int i = 0; i < methodsInnermostFirst.length; i++) {
+            result[i] = new StackTraceElement("Clazz", methodsInnermostFirst[i], "Clazz.java", i + 1);
+        }
+        return result;
+    }
+
+    @Nested
+    class ToCollapsedStacks {
+
+        @Test
+        void verifyEmptyTree() {
+            assertThat(tree.getSampleCount()).isZero();
+            assertThat(tree.toCollapsedStacks(10)).isEmpty();
+        }
+
+        @Test
+        void verifyStacksAggregated() {
+            tree.addSample(stack("c", "b", "a"), frames);
+            tree.addSample(stack("c", "b", "a"), frames);
+            tree.addSample(stack("d", "a"), frames);
+            tree.addSample(stack("b", "a"), frames);
+
+            String result = tree.toCollapsedStacks(10);
+
+            assertThat(tree.getSampleCount()).isEqualTo(4);
+            assertThat(result.split("\n")).containsExactly(
+                    "Clazz.a;Clazz.b;Clazz.c 2",
+                    "Clazz.a;Clazz.b 1",
+                    "Clazz.a;Clazz.d 1");
+        }
+
+        @Test
+        void verifyStacksLimited() {
+            tree.addSample(stack("c", "a"), frames);
+            tree.addSample(stack("c", "a"), frames);
+            tree.addSample(stack("c", "a"), frames);
+            tree.addSample(stack("b", "a"), frames);
+            tree.addSample(stack("b", "a"), frames);
+            tree.addSample(stack("d"), frames);
+
+            String result = tree.toCollapsedStacks(1);
+
+            assertThat(result.split("\n")).containsExactly(
+                    "Clazz.a;Clazz.c 3",
+                    CallTree.OTHER_STACKS + " 3");
+        }
+
+        @Test
+        void verifyFramesInterned() {
+            tree.addSample(stack("b", "a"), frames);
+            tree.addSample(stack("b", "a"), frames);
+
+            assertThat(frames.size()).isEqualTo(2);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package rocks.inspectit.ocelot.core.selfmonitoring;
+
+import io.opencensus.tags.TagKey;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import rocks.inspectit.ocelot.config.model.InspectitConfig;
+import rocks.inspectit.ocelot.config.model.selfmonitoring.HookOverheadSettings;
+import rocks.inspectit.ocelot.config.model.selfmonitoring.SelfMonitoringSettings;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class HookOverheadMonitorTest {
+
+    @Mock
+    SelfMonitoringService selfMonitoring;
+
+    @Mock
+    SelfMonitoringHandle handle;
+
+    @Mock
+    ScheduledExecutorService executor;
+
+    private HookOverheadMonitor createMonitor(int samplingInterval) {
+        HookOverheadMonitor monitor = new HookOverheadMonitor();
+        monitor.selfMonitoring = selfMonitoring;
+        monitor.executor = executor;
+
+        HookOverheadSettings hookOverhead = new HookOverheadSettings();
+        hookOverhead.setEnabled(true);
+        hookOverhead.setSamplingInterval(samplingInterval);
+        SelfMonitoringSettings selfMonitoringSettings = new SelfMonitoringSettings();
+        selfMonitoringSettings.setEnabled(true);
+        selfMonitoringSettings.setHookOverhead(hookOverhead);
+        InspectitConfig config = new InspectitConfig();
+        config.setSelfMonitoring(selfMonitoringSettings);
+        config.getMetrics().setEnabled(true);
+        config.getMetrics().setFrequency(Duration.ofSeconds(15));
+
+        monitor.doEnable(config);
+        return monitor;
+    }
+
+    @Nested
+    class ShouldSample {
+
+        @Test
+        void verifyEveryExecutionSampledWithIntervalOne() {
+            HookOverheadCounter counter = createMonitor(1).acquireCounter("my.Method");
+
+            for (int i = 0; i < 100; i++) {
+                assertThat(counter.shouldSample()).isTrue();
+            }
+        }
+
+        @Test
+        void verifyNoExecutionSampledWhenDisabled() {
+            HookOverheadMonitor monitor = createMonitor(1);
+            HookOverheadCounter counter = monitor.acquireCounter("my.Method");
+
+            monitor.doDisable();
+
+            for (int i = 0; i < 100; i++) {
+                assertThat(counter.shouldSample()).isFalse();
+            }
+        }
+
+        @Test
+        void verifySamplingRate() {
+            HookOverheadCounter counter = createMonitor(10).acquireCounter("my.Method");
+
+            int sampled = 0;
+            for (int i = 0; i < 100000; i++) {
+                if (counter.shouldSample()) {
+                    sampled++;
+                }
+            }
+
+            // expected value is 10000, the bounds are far beyond ten standard deviations
+            assertThat(sampled).isBetween(9000, 11000);
+        }
+    }
+
+    @Nested
+    class Run {
+
+        @Test
+        void verifyOverheadExtrapolated() {
+            HookOverheadMonitor monitor = createMonitor(10);
+            HookOverheadCounter counter = monitor.acquireCounter("my.Method");
+            when(selfMonitoring.getHandle(eq("hook-overhead"), any(TagKey.class), eq("my.Method"))).thenReturn(handle);
+
+            counter.addSample(1_500_000);
+            counter.addSample(500_000);
+            monitor.run();
+
+            // 2ms measured for one out of ten executions
+            verify(handle).record(20_000L);
+        }
+
+        @Test
+        void verifySamplesReset() {
+            HookOverheadMonitor monitor = createMonitor(10);
+            HookOverheadCounter counter = monitor.acquireCounter("my.Method");
+            when(selfMonitoring.getHandle(eq("hook-overhead"), any(TagKey.class), eq("my.Method"))).thenReturn(handle);
+
+            counter.addSample(1000);
+            monitor.run();
+            monitor.run();
+
+            verify(handle, times(1)).record(10L);
+            verifyNoMoreInteractions(handle);
+        }
+
+        @Test
+        void verifyNothingRecordedWithoutSamples() {
+            HookOverheadMonitor monitor = createMonitor(10);
+            monitor.acquireCounter("my.Method");
+
+            monitor.run();
+
+            verify(selfMonitoring, never()).getHandle(any(), any(TagKey.class), any());
+        }
+    }
+
+    @Nested
+    class ReleaseCounter {
+
+        @Test
+        void verifyCounterSharedPerMethod() {
+            HookOverheadMonitor monitor = createMonitor(10);
+
+            HookOverheadCounter first = monitor.acquireCounter("my.Method");
+            HookOverheadCounter second = monitor.acquireCounter("my.Method");
+
+            assertThat(first).isSameAs(second);
+        }
+
+        @Test
+        void verifyCounterKeptWhileUsed() {
+            HookOverheadMonitor monitor = createMonitor(10);
+            HookOverheadCounter counter = monitor.acquireCounter("my.Method");
+            monitor.acquireCounter("my.Method");
+
+            monitor.releaseCounter(counter);
+
+            assertThat(monitor.acquireCounter("my.Method")).isSameAs(counter);
+            verify(selfMonitoring, never()).removeHandle(any(), any());
+        }
+
+        @Test
+        void verifyCounterRemovedWhenUnused() {
+            HookOverheadMonitor monitor = createMonitor(10);
+            HookOverheadCounter counter = monitor.acquireCounter("my.Method");
+            counter.addSample(1000);
+
+            monitor.releaseCounter(counter);
+            monitor.run();
+
+            verify(selfMonitoring).removeHandle("hook-overhead", "my.Method");
+            verify(selfMonitoring, never()).getHandle(any(), any(TagKey.class), any());
+            assertThat(monitor.acquireCounter("my.Method")).isNotSameAs(counter);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package rocks.inspectit.ocelot.core.selfmonitoring;
+
+import io.opencensus.stats.Measure;
+import io.opencensus.stats.MeasureMap;
+import io.opencensus.stats.StatsRecorder;
+import io.opencensus.tags.TagContext;
+import io.opencensus.tags.TagContextBuilder;
+import io.opencensus.tags.TagKey;
+import io.opencensus.tags.TagValue;
+import io.opencensus.tags.Tagger;
+import io.opencensus.tags.Tags;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.annotation.Order;
+import rocks.inspectit.ocelot.config.model.InspectitConfig;
+import rocks.inspectit.ocelot.config.model.selfmonitoring.SelfMonitoringSettings;
+import rocks.inspectit.ocelot.core.config.InspectitEnvironment;
+import rocks.inspectit.ocelot.core.metrics.MeasuresAndViewsManager;
+import rocks.inspectit.ocelot.core.tags.CommonTagsManager;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SelfMonitoringServiceTest {
+
+    private static final Measure.MeasureLong LONG_MEASURE = Measure.MeasureLong.create("inspectit/self/long", "a long measure", "1");
+
+    private static final Measure.MeasureDouble DOUBLE_MEASURE = Measure.MeasureDouble.create("inspectit/self/double", "a double measure", "us");
+
+    @InjectMocks
+    SelfMonitoringService service;
+
+    @Mock
+    InspectitEnvironment env;
+
+    @Mock
+    StatsRecorder statsRecorder;
+
+    @Mock
+    MeasuresAndViewsManager measureManager;
+
+    @Mock
+    CommonTagsManager commonTags;
+
+    @Mock
+    Tagger tagger;
+
+    @Mock
+    MeasureMap measureMap;
+
+    InspectitConfig config;
+
+    TagContext commonTagContext = Tags.getTagger().empty();
+
+    @BeforeEach
+    void setupConfig() {
+        config = new InspectitConfig();
+        config.setSelfMonitoring(new SelfMonitoringSettings());
+        lenient().when(env.getCurrentConfig()).thenReturn(config);
+        lenient().when(commonTags.getCommonTagContext()).thenReturn(commonTagContext);
+    }
+
+    private void changeEnabled(boolean enabled) {
+        config.getSelfMonitoring().setEnabled(enabled);
+        service.refreshHandles();
+    }
+
+    private void setupRecording() {
+        when(statsRecorder.newMeasureMap()).thenReturn(measureMap);
+        lenient().when(measureMap.put(any(Measure.MeasureLong.class), anyLong())).thenReturn(measureMap);
+        lenient().when(measureMap.put(any(Measure.MeasureDouble.class), anyDouble())).thenReturn(measureMap);
+    }
+
+    @Nested
+    class RefreshHandles {
+
+        @Test
+        void verifyHandleEnabledAndDisabled() {
+            when(measureManager.getMeasure("inspectit/self/long")).thenReturn(Optional.of(LONG_MEASURE));
+            changeEnabled(true);
+            SelfMonitoringHandle handle = service.getHandle("long", null);
+
+            assertThat(handle.isEnabled()).isTrue();
+
+            changeEnabled(false);
+
+            assertThat(handle.isEnabled()).isFalse();
+            handle.record(42L);
+            verifyZeroInteractions(statsRecorder);
+
+            changeEnabled(true);
+            setupRecording();
+
+            assertThat(handle.isEnabled()).isTrue();
+            handle.record(42L);
+            verify(measureMap).put(LONG_MEASURE, 42L);
+            verify(measureMap).record(commonTagContext);
+        }
+
+        @Test
+        void verifyHandleActivatedWhenMeasureDefined() {
+            when(measureManager.getMeasure("inspectit/self/long")).thenReturn(Optional.empty(), Optional.of(LONG_MEASURE));
+            changeEnabled(true);
+            SelfMonitoringHandle handle = service.getHandle("long", null);
+
+            assertThat(handle.isEnabled()).isFalse();
+            handle.record(42L);
+            verifyZeroInteractions(statsRecorder);
+
+            setupRecording();
+            service.refreshHandles();
+
+            assertThat(handle.isEnabled()).isTrue();
+            handle.record(42L);
+            verify(measureMap).put(LONG_MEASURE, 42L);
+        }
+
+        @Test
+        void verifyExecutedAfterCommonTagsAndMeasures() throws Exception {
+            int order = SelfMonitoringService.class.getDeclaredMethod("refreshHandles").getAnnotation(Order.class).value();
+            int commonTagsOrder = CommonTagsManager.class.getDeclaredMethod("update").getAnnotation(Order.class).value();
+            int measuresOrder = MeasuresAndViewsManager.class.getDeclaredMethod("updateMetricDefinitions").getAnnotation(Order.class).value();
+
+            assertThat(order).isEqualTo(CommonTagsManager.CONFIG_EVENT_LISTENER_ORDER_PRIORITY + 2);
+            assertThat(order).isGreaterThan(commonTagsOrder).isGreaterThan(measuresOrder);
+        }
+    }
+
+    @Nested
+    class Record {
+
+        @Test
+        void verifyLongRecordedOnlyForLongMeasure() {
+            when(measureManager.getMeasure("inspectit/self/double")).thenReturn(Optional.of(DOUBLE_MEASURE));
+            changeEnabled(true);
+            SelfMonitoringHandle handle = service.getHandle("double", null);
+
+            handle.record(42L);
+
+            verifyZeroInteractions(statsRecorder);
+
+            setupRecording();
+            handle.record(42.5);
+
+            verify(measureMap).put(DOUBLE_MEASURE, 42.5);
+            verify(measureMap).record(commonTagContext);
+        }
+
+        @Test
+        void verifyDoubleRecordedOnlyForDoubleMeasure() {
+            when(measureManager.getMeasure("inspectit/self/long")).thenReturn(Optional.of(LONG_MEASURE));
+            changeEnabled(true);
+            SelfMonitoringHandle handle = service.getHandle("long", null);
+
+            handle.record(42.5);
+
+            verifyZeroInteractions(statsRecorder);
+        }
+
+        @Test
+        void verifyComponentNameTruncated() {
+            TagKey componentKey = TagKey.create("component");
+            TagContextBuilder builder = mock(TagContextBuilder.class);
+            TagContext componentTagContext = mock(TagContext.class);
+            when(tagger.toBuilder(commonTagContext)).thenReturn(builder);
+            when(builder.put(eq(componentKey), any(TagValue.class))).thenReturn(builder);
+            when(builder.build()).thenReturn(componentTagContext);
+            when(measureManager.getMeasure("inspectit/self/long")).thenReturn(Optional.of(LONG_MEASURE));
+            changeEnabled(true);
+            StringBuilder componentName = new StringBuilder();
+            for (int i = 0; i < TagValue.MAX_LENGTH + 10; i++) {
+                componentName.append('x');
+            }
+
+            SelfMonitoringHandle handle = service.getHandle("long", componentKey, componentName.toString());
+            setupRecording();
+            handle.record(42L);
+
+            ArgumentCaptor<TagValue> tagValue = ArgumentCaptor.forClass(TagValue.class);
+            verify(builder).put(eq(componentKey), tagValue.capture());
+            assertThat(tagValue.getValue().asString()).isEqualTo(componentName.substring(0, TagValue.MAX_LENGTH));
+            assertThat(handle.getComponentName()).isEqualTo(componentName.toString());
+            verify(measureMap).record(componentTagContext);
+        }
+    }
+}